@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean} lookups
+ * of singleton and prototype beans, by name and by type.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "1000"})
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		public String lookupName;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+				bd.getPropertyValues().add("name", "bean" + i);
+				this.beanFactory.registerBeanDefinition("bean" + i, bd);
+			}
+			RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototype.getPropertyValues().add("name", "prototype");
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			RootBeanDefinition unique = new RootBeanDefinition(UniqueBean.class);
+			this.beanFactory.registerBeanDefinition("unique", unique);
+			this.beanFactory.preInstantiateSingletons();
+			this.lookupName = "bean" + (this.beanCount / 2);
+		}
+	}
+
+
+	@Benchmark
+	public Object singletonByName(BenchmarkState state) {
+		return state.beanFactory.getBean(state.lookupName);
+	}
+
+	@Benchmark
+	public Object singletonByNameAndType(BenchmarkState state) {
+		return state.beanFactory.getBean(state.lookupName, ITestBean.class);
+	}
+
+	@Benchmark
+	public Object singletonByType(BenchmarkState state) {
+		return state.beanFactory.getBean(UniqueBean.class);
+	}
+
+	@Benchmark
+	public Object prototypeByName(BenchmarkState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+
+	public static class UniqueBean {
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.TestBean;
+
+/**
+ * Contention benchmarks for {@link DefaultSingletonBeanRegistry}, with several
+ * threads concurrently requesting different singletons, creating prototypes
+ * that depend on singletons, and creating lazy singletons, in serial as well
+ * as in {@link DefaultSingletonBeanRegistry#setConcurrentSingletonCreation
+ * concurrent singleton creation} mode.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(8)
+public class SingletonRegistryContentionBenchmark {
+
+	private static final int BEAN_COUNT = 256;
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"false", "true"})
+		public boolean concurrentSingletonCreation;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			this.beanFactory.setConcurrentSingletonCreation(this.concurrentSingletonCreation);
+			for (int i = 0; i < BEAN_COUNT; i++) {
+				this.beanFactory.registerBeanDefinition("singleton" + i, new RootBeanDefinition(TestBean.class));
+				RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+				prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+				prototype.getPropertyValues().add("spouse", new RuntimeBeanReference("singleton" + i));
+				this.beanFactory.registerBeanDefinition("prototype" + i, prototype);
+			}
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class LazyCreationState {
+
+		@Param({"false", "true"})
+		public boolean concurrentSingletonCreation;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			this.beanFactory.setConcurrentSingletonCreation(this.concurrentSingletonCreation);
+			for (int i = 0; i < BEAN_COUNT * 64; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+				bd.setLazyInit(true);
+				this.beanFactory.registerBeanDefinition("lazy" + i, bd);
+			}
+		}
+	}
+
+
+	@Benchmark
+	public Object singletonLookup(BenchmarkState state) {
+		return state.beanFactory.getBean("singleton" + ThreadLocalRandom.current().nextInt(BEAN_COUNT));
+	}
+
+	@Benchmark
+	public Object prototypeCreation(BenchmarkState state) {
+		return state.beanFactory.getBean("prototype" + ThreadLocalRandom.current().nextInt(BEAN_COUNT));
+	}
+
+	@Benchmark
+	public Object lazySingletonCreation(LazyCreationState state) {
+		return state.beanFactory.getBean("lazy" + ThreadLocalRandom.current().nextInt(BEAN_COUNT * 64));
+	}
+
+}
@@ -875,41 +875,63 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Nullable
 	private FactoryBean<?> getSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
-		synchronized (getSingletonMutex()) {
-			BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
-			if (bw != null) {
-				return (FactoryBean<?>) bw.getWrappedInstance();
-			}
-			Object beanInstance = getSingleton(beanName, false);
-			if (beanInstance instanceof FactoryBean) {
-				return (FactoryBean<?>) beanInstance;
-			}
-			if (isSingletonCurrentlyInCreation(beanName) ||
-					(mbd.getFactoryBeanName() != null && isSingletonCurrentlyInCreation(mbd.getFactoryBeanName()))) {
+		if (isConcurrentSingletonCreation()) {
+			// Guard with the bean's creation lock rather than with the singleton mutex
+			if (!acquireSingletonCreationLock(beanName)) {
 				return null;
 			}
-
-			Object instance;
 			try {
-				// Mark this bean as currently in creation, even if just partially.
-				beforeSingletonCreation(beanName);
-				// Give BeanPostProcessors a chance to return a proxy instead of the target bean instance.
-				instance = resolveBeforeInstantiation(beanName, mbd);
-				if (instance == null) {
-					bw = createBeanInstance(beanName, mbd, null);
-					instance = bw.getWrappedInstance();
-				}
-			} finally {
-				// Finished partial creation of this bean.
-				afterSingletonCreation(beanName);
+				return doGetSingletonFactoryBeanForTypeCheck(beanName, mbd);
+			}
+			finally {
+				releaseSingletonCreationLock(beanName);
 			}
+		}
+		synchronized (getSingletonMutex()) {
+			return doGetSingletonFactoryBeanForTypeCheck(beanName, mbd);
+		}
+	}
 
-			FactoryBean<?> fb = getFactoryBean(beanName, instance);
-			if (bw != null) {
-				this.factoryBeanInstanceCache.put(beanName, bw);
+	/**
+	 * Obtain the "shortcut" singleton FactoryBean instance for a type check.
+	 * <p>Called under the singleton mutex or under the bean's creation lock,
+	 * depending on the {@link #setConcurrentSingletonCreation} mode.
+	 */
+	@Nullable
+	private FactoryBean<?> doGetSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
+		BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
+		if (bw != null) {
+			return (FactoryBean<?>) bw.getWrappedInstance();
+		}
+		Object beanInstance = getSingleton(beanName, false);
+		if (beanInstance instanceof FactoryBean) {
+			return (FactoryBean<?>) beanInstance;
+		}
+		if (isSingletonCurrentlyInCreation(beanName) ||
+				(mbd.getFactoryBeanName() != null && isSingletonCurrentlyInCreation(mbd.getFactoryBeanName()))) {
+			return null;
+		}
+
+		Object instance;
+		try {
+			// Mark this bean as currently in creation, even if just partially.
+			beforeSingletonCreation(beanName);
+			// Give BeanPostProcessors a chance to return a proxy instead of the target bean instance.
+			instance = resolveBeforeInstantiation(beanName, mbd);
+			if (instance == null) {
+				bw = createBeanInstance(beanName, mbd, null);
+				instance = bw.getWrappedInstance();
 			}
-			return fb;
+		} finally {
+			// Finished partial creation of this bean.
+			afterSingletonCreation(beanName);
 		}
+
+		FactoryBean<?> fb = getFactoryBean(beanName, instance);
+		if (bw != null) {
+			this.factoryBeanInstanceCache.put(beanName, bw);
+		}
+		return fb;
 	}
 
 	/**
@@ -1877,7 +1899,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Override
 	protected void removeSingleton(String beanName) {
-		synchronized (getSingletonMutex()) {
+		synchronized (getSingletonCacheMonitor()) {
 			super.removeSingleton(beanName);
 			this.factoryBeanInstanceCache.remove(beanName);
 		}
@@ -1888,7 +1910,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Override
 	protected void clearSingletonCache() {
-		synchronized (getSingletonMutex()) {
+		synchronized (getSingletonCacheMonitor()) {
 			super.clearSingletonCache();
 			this.factoryBeanInstanceCache.clear();
 		}
@@ -23,11 +23,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -48,8 +54,10 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
 import org.springframework.core.OrderComparator;
@@ -141,6 +149,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	//是否可以缓存所有bean的bean定义元数据
 	private volatile boolean configurationFrozen = false;
 
+	/** Optional Executor for parallel pre-instantiation of independent singletons */
+	@Nullable
+	private Executor preInstantiationExecutor;
+
 
 	//DefaultListableBeanFactory构造器，在初始化时，会先实例化父类的，或间接的父类
 	public DefaultListableBeanFactory() {
@@ -223,6 +235,38 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+	 * <p>Default is none, creating all singletons serially on the calling thread.
+	 * If specified, {@link #preInstantiateSingletons()} groups the bean definitions
+	 * into independent subgraphs, connected through {@code depends-on} declarations
+	 * and explicit bean references in constructor arguments and property values,
+	 * and creates each subgraph in registration order on one of the executor's
+	 * threads. Circular references within a subgraph are therefore resolved on a
+	 * single thread, just like in serial mode.
+	 * <p>Note that dependencies resolved through autowiring are not part of the
+	 * dependency graph; they are still resolved on demand via {@link #getBean}.
+	 * <p>Singleton creation is guarded by the registry-wide singleton mutex by
+	 * default, effectively serializing the creation of the independent groups.
+	 * Switch on {@link #setConcurrentSingletonCreation concurrent singleton creation}
+	 * in order to let the groups be created in parallel.
+	 * @param preInstantiationExecutor the executor to use (or {@code null} for serial mode)
+	 * @since 5.0.16
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setPreInstantiationExecutor(@Nullable Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for parallel pre-instantiation of singletons, if any.
+	 * @since 5.0.16
+	 */
+	@Nullable
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
 
 	//从ConfigurableBeanFactory工厂对象中复制一些属性到该工厂类
 	@Override
@@ -233,6 +277,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
+			setConcurrentSingletonCreation(otherListableFactory.isConcurrentSingletonCreation());
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -623,29 +669,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						} else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				} else {
-					getBean(beanName);
-				}
+		Executor executor = this.preInstantiationExecutor;
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		} else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -667,6 +696,199 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Trigger initialization of the given bean if it is a non-lazy singleton,
+	 * including eager initialization of {@link SmartFactoryBean} objects.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			if (isFactoryBean(beanName)) {
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					} else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			} else {
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Pre-instantiate the given singletons on the given executor, creating each
+	 * group of beans connected through declared dependencies on a single thread.
+	 * <p>Groups rejected by the executor get created on the calling thread. After
+	 * a failure, the remaining beans are skipped, and the first failure is rethrown
+	 * as soon as all groups in progress have completed.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the executor to run the creation tasks on
+	 * @see #setPreInstantiationExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		List<List<String>> groups = groupByDeclaredDependencies(beanNames);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiating singletons in " + groups.size() + " independent groups");
+		}
+		AtomicBoolean failed = new AtomicBoolean();
+		List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+		Throwable failure = null;
+		for (List<String> group : groups) {
+			if (failed.get()) {
+				break;
+			}
+			Runnable task = () -> {
+				for (String beanName : group) {
+					if (failed.get()) {
+						// Another group failed: skip the remaining beans
+						return;
+					}
+					try {
+						preInstantiateSingleton(beanName);
+					}
+					catch (RuntimeException | Error ex) {
+						failed.set(true);
+						throw ex;
+					}
+				}
+			};
+			try {
+				futures.add(CompletableFuture.runAsync(task, executor));
+			}
+			catch (RejectedExecutionException ex) {
+				// Executor saturated or shut down: create the group on the calling thread
+				try {
+					task.run();
+				}
+				catch (RuntimeException | Error creationEx) {
+					failure = creationEx;
+				}
+			}
+		}
+		// Wait for all groups, so that no creation is in progress anymore after a failure
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				if (failure == null) {
+					failure = (ex.getCause() != null ? ex.getCause() : ex);
+				}
+			}
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw (RuntimeException) failure;
+		}
+	}
+
+	/**
+	 * Partition the given bean names into groups that are connected through
+	 * {@code depends-on} declarations or explicit bean references, preserving
+	 * registration order within each group as well as across groups.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @return the list of groups, each containing at least one bean name
+	 */
+	private List<List<String>> groupByDeclaredDependencies(List<String> beanNames) {
+		Map<String, String> parents = new LinkedHashMap<>(beanNames.size() * 2);
+		for (String beanName : beanNames) {
+			parents.put(beanName, beanName);
+		}
+		for (String beanName : beanNames) {
+			BeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			for (String dependency : getDeclaredDependencies(bd)) {
+				String dependencyName = canonicalName(BeanFactoryUtils.transformedBeanName(dependency));
+				if (parents.containsKey(dependencyName)) {
+					union(parents, beanName, dependencyName);
+				}
+			}
+		}
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : beanNames) {
+			groups.computeIfAbsent(find(parents, beanName), root -> new ArrayList<>()).add(beanName);
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	private Set<String> getDeclaredDependencies(BeanDefinition bd) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			dependencies.addAll(Arrays.asList(dependsOn));
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(bd.getFactoryBeanName());
+		}
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getIndexedArgumentValues().values()) {
+			addBeanReference(valueHolder.getValue(), dependencies);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+			addBeanReference(valueHolder.getValue(), dependencies);
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			addBeanReference(pv.getValue(), dependencies);
+		}
+		return dependencies;
+	}
+
+	private void addBeanReference(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof BeanReference) {
+			dependencies.add(((BeanReference) value).getBeanName());
+		} else if (value instanceof BeanDefinitionHolder) {
+			dependencies.addAll(getDeclaredDependencies(((BeanDefinitionHolder) value).getBeanDefinition()));
+		} else if (value instanceof BeanDefinition) {
+			dependencies.addAll(getDeclaredDependencies((BeanDefinition) value));
+		} else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				addBeanReference(element, dependencies);
+			}
+		} else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				addBeanReference(entry.getKey(), dependencies);
+				addBeanReference(entry.getValue(), dependencies);
+			}
+		}
+	}
+
+	private static String find(Map<String, String> parents, String beanName) {
+		String root = beanName;
+		while (!root.equals(parents.get(root))) {
+			root = parents.get(root);
+		}
+		// Path compression for subsequent lookups
+		String current = beanName;
+		while (!current.equals(root)) {
+			String next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	private static void union(Map<String, String> parents, String beanName1, String beanName2) {
+		String root1 = find(parents, beanName1);
+		String root2 = find(parents, beanName2);
+		if (!root1.equals(root2)) {
+			parents.put(root2, root1);
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface----实现BeanDefinitionRegistry接口的方法
 	//---------------------------------------------------------------------
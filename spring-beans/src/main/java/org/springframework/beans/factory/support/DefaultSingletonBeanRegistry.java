@@ -4,7 +4,6 @@ package org.springframework.beans.factory.support;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -17,6 +16,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -58,16 +58,31 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Whether singletons with different names may be created concurrently */
+	private volatile boolean concurrentSingletonCreation = false;
+
+	/** Monitor guarding the singleton caches in concurrent singleton creation mode */
+	private final Object singletonCacheMonitor = new Object();
+
+	/** Currently held per-bean creation locks in concurrent singleton creation mode: bean name to lock */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(16);
+
+	/** Threads waiting for another thread's creation lock: thread to bean name (guarded by the creation monitor) */
+	private final Map<Thread, String> threadsAwaitingSingletons = new HashMap<>(16);
+
+	/** Monitor for acquiring creation locks, notified whenever a creation lock gets released */
+	private final Object singletonCreationMonitor = new Object();
+
 	/**
 	 * List of suppressed Exceptions, available for associating related causes
 	 */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions during singleton creation");
 
 	/**
 	 * Flag that indicates whether we're currently within destroySingletons
 	 */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	//一次性bean实例:bean名称——>一次性实例
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -90,7 +105,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Assert.notNull(beanName, "Bean name must not be null");
 		Assert.notNull(singletonObject, "Singleton object must not be null");
 		//线程加锁，singletonObject为锁对象，线程安全
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			//从单例缓存池中获取bean实例，用Object类型接收
 			Object oldObject = this.singletonObjects.get(beanName);
 			//如果为null，异常
@@ -107,7 +122,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	//key----beanName
 	//value----单例对象
 	protected void addSingleton(String beanName, Object singletonObject) {
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			//添加到单例缓存池中，即ConcurrentHashMap集合中
 			this.singletonObjects.put(beanName, singletonObject);
 			//移除单例工厂
@@ -122,7 +137,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	//如果需要，添加指定的单例工厂来构建指定的单例。
 	protected void addSingletonFactory(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(singletonFactory, "Singleton factory must not be null");
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			//判断单例缓存池是否存储该单例工厂对象，存储则不添加到单例工厂中
 			if (!this.singletonObjects.containsKey(beanName)) {
 				this.singletonFactories.put(beanName, singletonFactory);
@@ -132,6 +147,43 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Set whether singletons with different names may be created concurrently.
+	 * <p>Default is "false": singleton creation is guarded by the registry-wide
+	 * {@link #getSingletonMutex() singleton mutex}, so at most one singleton is
+	 * being created at any time. Switch this to "true" in order to guard creation
+	 * with a lock per bean name instead, e.g. for parallel pre-instantiation of
+	 * singletons with I/O-heavy init methods. Fully initialized singletons are
+	 * always returned without locking in either mode.
+	 * <p>In concurrent mode, early singleton references (for resolving circular
+	 * references) are only exposed to the thread that creates the singleton.
+	 * Other threads requesting the same singleton wait for its completion,
+	 * unless they would otherwise wait for each other in a cycle: in that case,
+	 * the early reference is exposed to the waiting thread as well, just like
+	 * for a circular reference on a single thread.
+	 * <p>In concurrent mode, the singleton caches are guarded by an internal
+	 * monitor rather than by the singleton mutex, and creation threads never
+	 * acquire the singleton mutex. External code that synchronizes on the
+	 * singleton mutex may therefore safely request beans from within that block,
+	 * but it does not get coordinated with singleton creation anymore. Only
+	 * enable this mode for bean setups that do not rely on the singleton mutex
+	 * for coordinating singleton creation.
+	 * <p>This mode needs to be set before any singleton gets registered or created.
+	 * @since 5.0.16
+	 * @see DefaultListableBeanFactory#setPreInstantiationExecutor
+	 */
+	public void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons with different names may be created concurrently.
+	 * @since 5.0.16
+	 */
+	public boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
 	//根据bean名称，获取单例对象
 	@Override
 	@Nullable
@@ -148,7 +200,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		//获取到相关的单例对象时，做一些额外的处理
 		//如果单例缓存池中没有带单例，或者是正在创建单例实例
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				isSingletonCreationThread(beanName)) {
+			if (this.concurrentSingletonCreation) {
+				return getEarlySingletonReference(beanName, allowEarlyReference);
+			}
 			synchronized (this.singletonObjects) {
 				//如是正在创建单例bean，则直接获取这在创建的单例实例bean
 				singletonObject = this.earlySingletonObjects.get(beanName);
@@ -173,67 +229,230 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	//从单例池中获取单例bean实例
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
-		synchronized (this.singletonObjects) {
-			Object singletonObject = this.singletonObjects.get(beanName);
-			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-									"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+		if (!this.concurrentSingletonCreation) {
+			synchronized (this.singletonObjects) {
+				return createSingletonIfNecessary(beanName, singletonFactory);
+			}
+		}
+
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		if (!acquireSingletonCreationLock(beanName)) {
+			// The creating thread in turn waits for a bean in creation on the current thread:
+			// resolve the circular reference as if both singletons were created on one thread.
+			Object earlyReference = getEarlySingletonReference(beanName, true);
+			if (earlyReference == null) {
+				throw new BeanCurrentlyInCreationException(beanName,
+						"Requested bean is currently in creation on another thread which in turn " +
+								"waits for a bean in creation on the current thread: Is there an " +
+								"unresolvable circular reference?");
+			}
+			return earlyReference;
+		}
+		try {
+			return createSingletonIfNecessary(beanName, singletonFactory);
+		} finally {
+			releaseSingletonCreationLock(beanName);
+		}
+	}
+
+	/**
+	 * Create and register the given singleton unless it has been registered already.
+	 * <p>Called under the singleton mutex or under the bean's creation lock,
+	 * depending on the {@link #setConcurrentSingletonCreation} mode.
+	 */
+	private Object createSingletonIfNecessary(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject == null) {
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+								"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+			}
+			//创建单例bean前的处理
+			beforeSingletonCreation(beanName);
+			boolean newSingleton = false;
+			boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions.set(new LinkedHashSet<>());
+			}
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			} catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
 				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+			} catch (BeanCreationException ex) {
+				if (recordSuppressedExceptions) {
+					for (Exception suppressedException : this.suppressedExceptions.get()) {
+						ex.addRelatedCause(suppressedException);
+					}
 				}
-				//创建单例bean前的处理
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+				throw ex;
+			} finally {
 				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+					this.suppressedExceptions.remove();
 				}
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Acquire the creation lock for the given bean in concurrent singleton creation
+	 * mode, waiting for another thread to release it if necessary. The lock is
+	 * reentrant for the thread holding it, and needs to be released through
+	 * {@link #releaseSingletonCreationLock} once the guarded work is done.
+	 * <p>If the thread holding the lock (transitively) waits for a creation lock
+	 * held by the current thread, waiting would never end: the lock is not
+	 * acquired then, leaving it to the caller to resolve the circular reference.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if the lock has been acquired, or {@code false} in case
+	 * of a cross-thread circular reference
+	 * @throws BeanCreationException if interrupted while waiting for the lock
+	 * @since 5.0.16
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean acquireSingletonCreationLock(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		synchronized (this.singletonCreationMonitor) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			while (lock != null && lock.owner != currentThread) {
+				this.threadsAwaitingSingletons.put(currentThread, beanName);
 				try {
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
-				} catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
+					if (isAwaitingInCycle(currentThread)) {
+						return false;
 					}
-				} catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
-						}
-					}
-					throw ex;
+					this.singletonCreationMonitor.wait();
+				} catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName, "Interrupted while waiting for singleton creation", ex);
 				} finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
-					}
-					afterSingletonCreation(beanName);
-				}
-				if (newSingleton) {
-					addSingleton(beanName, singletonObject);
+					this.threadsAwaitingSingletons.remove(currentThread);
 				}
+				lock = this.singletonCreationLocks.get(beanName);
+			}
+			if (lock != null) {
+				lock.holdCount++;
+			} else {
+				this.singletonCreationLocks.put(beanName, new SingletonCreationLock(currentThread));
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Release the creation lock for the given bean, as acquired by the current
+	 * thread through {@link #acquireSingletonCreationLock}.
+	 * @param beanName the name of the bean
+	 * @since 5.0.16
+	 */
+	protected void releaseSingletonCreationLock(String beanName) {
+		synchronized (this.singletonCreationMonitor) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			Assert.state(lock != null && lock.owner == Thread.currentThread(),
+					() -> "Creation lock for bean '" + beanName + "' not held by current thread");
+			if (--lock.holdCount == 0) {
+				this.singletonCreationLocks.remove(beanName);
+				this.singletonCreationMonitor.notifyAll();
 			}
-			return singletonObject;
 		}
 	}
 
+	/**
+	 * Determine whether the given waiting thread is part of a cycle of threads,
+	 * each waiting for a creation lock held by the next one.
+	 * <p>Called under the creation monitor.
+	 */
+	private boolean isAwaitingInCycle(Thread currentThread) {
+		Set<Thread> seen = new HashSet<>();
+		String beanName = this.threadsAwaitingSingletons.get(currentThread);
+		while (beanName != null) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			if (lock == null || !seen.add(lock.owner)) {
+				return false;
+			}
+			if (lock.owner == currentThread) {
+				return true;
+			}
+			beanName = this.threadsAwaitingSingletons.get(lock.owner);
+		}
+		return false;
+	}
 
-	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null) {
-				this.suppressedExceptions.add(ex);
+	/**
+	 * Obtain the early reference to the given singleton in concurrent mode.
+	 * <p>The singleton factory gets called outside of the cache monitor, since it
+	 * may trigger the creation of other beans which in turn need to update the caches.
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName, boolean allowEarlyReference) {
+		ObjectFactory<?> singletonFactory;
+		synchronized (this.singletonCacheMonitor) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = this.earlySingletonObjects.get(beanName);
+			}
+			if (singletonObject != null || !allowEarlyReference) {
+				return singletonObject;
+			}
+			singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory == null) {
+				return null;
+			}
+		}
+		Object singletonObject = singletonFactory.getObject();
+		synchronized (this.singletonCacheMonitor) {
+			if (this.singletonFactories.remove(beanName, singletonFactory)) {
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				return singletonObject;
+			}
+			// Early reference or fully initialized singleton registered in the meantime
+			Object existingObject = this.singletonObjects.get(beanName);
+			if (existingObject == null) {
+				existingObject = this.earlySingletonObjects.get(beanName);
 			}
+			return (existingObject != null ? existingObject : singletonObject);
+		}
+	}
+
+	/**
+	 * Return whether the given singleton is being created by the current thread,
+	 * or by any thread in case of serial singleton creation.
+	 * @see #setConcurrentSingletonCreation
+	 */
+	private boolean isSingletonCreationThread(String beanName) {
+		if (!this.concurrentSingletonCreation) {
+			return true;
+		}
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		return (lock == null || lock.owner == Thread.currentThread());
+	}
+
+
+	protected void onSuppressedException(Exception ex) {
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
 	//从该工厂的单例缓存中删除具有给定名称的bean，以便在创建失败时清理单例的立即注册。
 	protected void removeSingleton(String beanName) {
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			this.singletonObjects.remove(beanName);
 			this.singletonFactories.remove(beanName);
 			this.earlySingletonObjects.remove(beanName);
@@ -249,14 +468,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 	@Override
 	public String[] getSingletonNames() {
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			return StringUtils.toStringArray(this.registeredSingletons);
 		}
 	}
 
 	@Override
 	public int getSingletonCount() {
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			return this.registeredSingletons.size();
 		}
 	}
@@ -358,18 +577,29 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	public void registerDependentBean(String beanName, String dependentBeanName) {
 		String canonicalName = canonicalName(beanName);
 
-		synchronized (this.dependentBeanMap) {
-			Set<String> dependentBeans =
-					this.dependentBeanMap.computeIfAbsent(canonicalName, k -> new LinkedHashSet<>(8));
-			if (!dependentBeans.add(dependentBeanName)) {
-				return;
-			}
+		// Lock per dependency Set only, for concurrent registration against different beans
+		if (!addToDependencySet(this.dependentBeanMap, canonicalName, dependentBeanName)) {
+			return;
 		}
+		addToDependencySet(this.dependenciesForBeanMap, dependentBeanName, canonicalName);
+	}
 
-		synchronized (this.dependenciesForBeanMap) {
-			Set<String> dependenciesForBean =
-					this.dependenciesForBeanMap.computeIfAbsent(dependentBeanName, k -> new LinkedHashSet<>(8));
-			dependenciesForBean.add(canonicalName);
+	/**
+	 * Add the given value to the Set registered under the given key, synchronizing
+	 * on that Set only. Retries with a fresh Set if the locked Set has been removed
+	 * from the map in the meantime, e.g. by {@link #destroyBean} cleaning up
+	 * emptied Sets, so that the registration does not get lost.
+	 * @return {@code true} if the value has been added, {@code false} if it
+	 * was contained in the Set already
+	 */
+	private static boolean addToDependencySet(Map<String, Set<String>> map, String key, String value) {
+		while (true) {
+			Set<String> values = map.computeIfAbsent(key, k -> new LinkedHashSet<>(8));
+			synchronized (values) {
+				if (map.get(key) == values) {
+					return values.add(value);
+				}
+			}
 		}
 	}
 
@@ -382,9 +612,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @since 4.0
 	 */
 	protected boolean isDependent(String beanName, String dependentBeanName) {
-		synchronized (this.dependentBeanMap) {
-			return isDependent(beanName, dependentBeanName, null);
-		}
+		return isDependent(beanName, dependentBeanName, null);
 	}
 
 	private boolean isDependent(String beanName, String dependentBeanName, @Nullable Set<String> alreadySeen) {
@@ -396,10 +624,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		if (dependentBeans == null) {
 			return false;
 		}
-		if (dependentBeans.contains(dependentBeanName)) {
-			return true;
+		String[] dependentBeanNames;
+		synchronized (dependentBeans) {
+			if (dependentBeans.contains(dependentBeanName)) {
+				return true;
+			}
+			dependentBeanNames = StringUtils.toStringArray(dependentBeans);
 		}
-		for (String transitiveDependency : dependentBeans) {
+		for (String transitiveDependency : dependentBeanNames) {
 			if (alreadySeen == null) {
 				alreadySeen = new HashSet<>();
 			}
@@ -431,7 +663,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		if (dependentBeans == null) {
 			return new String[0];
 		}
-		synchronized (this.dependentBeanMap) {
+		synchronized (dependentBeans) {
 			return StringUtils.toStringArray(dependentBeans);
 		}
 	}
@@ -448,7 +680,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		if (dependenciesForBean == null) {
 			return new String[0];
 		}
-		synchronized (this.dependenciesForBeanMap) {
+		synchronized (dependenciesForBean) {
 			return StringUtils.toStringArray(dependenciesForBean);
 		}
 	}
@@ -458,7 +690,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		if (logger.isDebugEnabled()) {
 			logger.debug("Destroying singletons in " + this);
 		}
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			this.singletonsCurrentlyInDestruction = true;
 		}
 
@@ -483,7 +715,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @since 4.3.15
 	 */
 	protected void clearSingletonCache() {
-		synchronized (this.singletonObjects) {
+		synchronized (getSingletonCacheMonitor()) {
 			this.singletonObjects.clear();
 			this.singletonFactories.clear();
 			this.earlySingletonObjects.clear();
@@ -514,14 +746,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	protected void destroyBean(String beanName, @Nullable DisposableBean bean) {
 		// Trigger destruction of dependent beans first...
-		Set<String> dependencies;
-		synchronized (this.dependentBeanMap) {
-			// Within full synchronization in order to guarantee a disconnected Set
-			dependencies = this.dependentBeanMap.remove(beanName);
+		String[] dependencies = null;
+		Set<String> dependentBeans = this.dependentBeanMap.remove(beanName);
+		if (dependentBeans != null) {
+			// Within the Set's synchronization in order to guarantee a disconnected copy
+			synchronized (dependentBeans) {
+				dependencies = StringUtils.toStringArray(dependentBeans);
+			}
 		}
 		if (dependencies != null) {
 			if (logger.isDebugEnabled()) {
-				logger.debug("Retrieved dependent beans for bean '" + beanName + "': " + dependencies);
+				logger.debug("Retrieved dependent beans for bean '" + beanName + "': " +
+						StringUtils.arrayToCommaDelimitedString(dependencies));
 			}
 			for (String dependentBeanName : dependencies) {
 				destroySingleton(dependentBeanName);
@@ -550,13 +786,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 
 		// Remove destroyed bean from other beans' dependencies.
-		synchronized (this.dependentBeanMap) {
-			for (Iterator<Map.Entry<String, Set<String>>> it = this.dependentBeanMap.entrySet().iterator(); it.hasNext(); ) {
-				Map.Entry<String, Set<String>> entry = it.next();
-				Set<String> dependenciesToClean = entry.getValue();
+		for (Map.Entry<String, Set<String>> entry : this.dependentBeanMap.entrySet()) {
+			Set<String> dependenciesToClean = entry.getValue();
+			synchronized (dependenciesToClean) {
 				dependenciesToClean.remove(beanName);
 				if (dependenciesToClean.isEmpty()) {
-					it.remove();
+					// Within the Set's synchronization, for registrations to notice the removal
+					this.dependentBeanMap.remove(entry.getKey(), dependenciesToClean);
 				}
 			}
 		}
@@ -570,4 +806,33 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+	/**
+	 * Return the monitor guarding the singleton caches of this registry, to be
+	 * used by subclasses for keeping their own caches in sync with the singleton caches.
+	 * <p>This is the {@link #getSingletonMutex() singleton mutex} by default. In
+	 * {@link #setConcurrentSingletonCreation concurrent singleton creation} mode,
+	 * this is an internal monitor instead, which is only ever held for updating
+	 * caches and never while calling out to other code.
+	 * @since 5.0.16
+	 */
+	protected final Object getSingletonCacheMonitor() {
+		return (this.concurrentSingletonCreation ? this.singletonCacheMonitor : this.singletonObjects);
+	}
+
+
+	/**
+	 * Creation lock for a singleton in concurrent creation mode,
+	 * reentrant for its owner thread. Guarded by the creation monitor.
+	 */
+	private static final class SingletonCreationLock {
+
+		final Thread owner;
+
+		int holdCount = 1;
+
+		SingletonCreationLock(Thread owner) {
+			this.owner = owner;
+		}
+	}
+
 }
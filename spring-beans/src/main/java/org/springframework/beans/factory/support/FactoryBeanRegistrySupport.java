@@ -57,40 +57,23 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	//获取要从给定的FactoryBean公开的对象。
 	protected Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
 		if (factory.isSingleton() && containsSingleton(beanName)) {
-			synchronized (getSingletonMutex()) {
-				Object object = this.factoryBeanObjectCache.get(beanName);
-				if (object == null) {
-					object = doGetObjectFromFactoryBean(factory, beanName);
-					// Only post-process and store if not put there already during getObject() call above
-					// (e.g. because of circular reference processing triggered by custom getBean calls)
-					Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
-					if (alreadyThere != null) {
-						object = alreadyThere;
-					}
-					else {
-						if (shouldPostProcess) {
-							if (isSingletonCurrentlyInCreation(beanName)) {
-								// Temporarily return non-post-processed object, not storing it yet..
-								return object;
-							}
-							beforeSingletonCreation(beanName);
-							try {
-								object = postProcessObjectFromFactoryBean(object, beanName);
-							}
-							catch (Throwable ex) {
-								throw new BeanCreationException(beanName,
-										"Post-processing of FactoryBean's singleton object failed", ex);
-							}
-							finally {
-								afterSingletonCreation(beanName);
-							}
-						}
-						if (containsSingleton(beanName)) {
-							this.factoryBeanObjectCache.put(beanName, object);
-						}
-					}
+			if (isConcurrentSingletonCreation()) {
+				// Guard with the FactoryBean's creation lock rather than with the singleton mutex
+				if (!acquireSingletonCreationLock(beanName)) {
+					throw new BeanCurrentlyInCreationException(beanName,
+							"FactoryBean object is currently in creation on another thread which in turn " +
+									"waits for a bean in creation on the current thread: Is there an " +
+									"unresolvable circular reference?");
+				}
+				try {
+					return getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess);
+				}
+				finally {
+					releaseSingletonCreationLock(beanName);
 				}
-				return object;
+			}
+			synchronized (getSingletonMutex()) {
+				return getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess);
 			}
 		}
 		else {
@@ -107,6 +90,48 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 		}
 	}
 
+	/**
+	 * Obtain the singleton object to expose from the given FactoryBean, creating
+	 * and caching it unless cached already.
+	 * <p>Called under the singleton mutex or under the FactoryBean's creation lock,
+	 * depending on the {@link #setConcurrentSingletonCreation} mode.
+	 */
+	private Object getSingletonObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
+		Object object = this.factoryBeanObjectCache.get(beanName);
+		if (object == null) {
+			object = doGetObjectFromFactoryBean(factory, beanName);
+			// Only post-process and store if not put there already during getObject() call above
+			// (e.g. because of circular reference processing triggered by custom getBean calls)
+			Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
+			if (alreadyThere != null) {
+				object = alreadyThere;
+			}
+			else {
+				if (shouldPostProcess) {
+					if (isSingletonCurrentlyInCreation(beanName)) {
+						// Temporarily return non-post-processed object, not storing it yet..
+						return object;
+					}
+					beforeSingletonCreation(beanName);
+					try {
+						object = postProcessObjectFromFactoryBean(object, beanName);
+					}
+					catch (Throwable ex) {
+						throw new BeanCreationException(beanName,
+								"Post-processing of FactoryBean's singleton object failed", ex);
+					}
+					finally {
+						afterSingletonCreation(beanName);
+					}
+				}
+				if (containsSingleton(beanName)) {
+					this.factoryBeanObjectCache.put(beanName, object);
+				}
+			}
+		}
+		return object;
+	}
+
 	//获取工厂bean的Object对象
 	private Object doGetObjectFromFactoryBean(final FactoryBean<?> factory, final String beanName)
 			throws BeanCreationException {
@@ -166,7 +191,7 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	//也被覆盖以清除FactoryBean对象缓存。
 	@Override
 	protected void removeSingleton(String beanName) {
-		synchronized (getSingletonMutex()) {
+		synchronized (getSingletonCacheMonitor()) {
 			super.removeSingleton(beanName);
 			this.factoryBeanObjectCache.remove(beanName);
 		}
@@ -175,7 +200,7 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	//清除单例bean的缓存
 	@Override
 	protected void clearSingletonCache() {
-		synchronized (getSingletonMutex()) {
+		synchronized (getSingletonCacheMonitor()) {
 			super.clearSingletonCache();
 			this.factoryBeanObjectCache.clear();
 		}
@@ -35,6 +35,13 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
 
@@ -1407,6 +1414,163 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+	@Test
+	public void testParallelPreInstantiation() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			for (int i = 0; i < 20; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+				if (i > 0 && i % 2 == 0) {
+					bd.getPropertyValues().add("spouse", new RuntimeBeanReference("tb" + (i - 1)));
+				}
+				if (i % 5 == 0) {
+					bd.setDependsOn("tb" + (i + 1));
+				}
+				lbf.registerBeanDefinition("tb" + i, bd);
+			}
+			RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+			lazy.setLazyInit(true);
+			lbf.registerBeanDefinition("lazy", lazy);
+			lbf.preInstantiateSingletons();
+			for (int i = 0; i < 20; i++) {
+				assertTrue(lbf.containsSingleton("tb" + i));
+			}
+			assertFalse(lbf.containsSingleton("lazy"));
+			assertSame(lbf.getBean("tb1"), lbf.getBean("tb2", TestBean.class).getSpouse());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithConcurrentCreationAndCrossThreadCircularReference() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setConcurrentSingletonCreation(true);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			CountDownLatch latch = new CountDownLatch(2);
+			// Autowired references are not part of the declared dependency graph:
+			// both beans get instantiated on different threads at the same time.
+			RootBeanDefinition bd1 = new RootBeanDefinition(ConcurrentlyCreatedBeanA.class);
+			bd1.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+			bd1.getConstructorArgumentValues().addGenericArgumentValue(latch);
+			lbf.registerBeanDefinition("beanA", bd1);
+			RootBeanDefinition bd2 = new RootBeanDefinition(ConcurrentlyCreatedBeanB.class);
+			bd2.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+			bd2.getConstructorArgumentValues().addGenericArgumentValue(latch);
+			lbf.registerBeanDefinition("beanB", bd2);
+			lbf.preInstantiateSingletons();
+			ConcurrentlyCreatedBeanA beanA = lbf.getBean(ConcurrentlyCreatedBeanA.class);
+			ConcurrentlyCreatedBeanB beanB = lbf.getBean(ConcurrentlyCreatedBeanB.class);
+			assertSame(beanB, beanA.getBeanB());
+			assertSame(beanA, beanB.getBeanA());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentSingletonCreationWithFactoryBeanRequestingBeanInCreation() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setConcurrentSingletonCreation(true);
+		CountDownLatch creationStarted = new CountDownLatch(1);
+		CountDownLatch getObjectStarted = new CountDownLatch(1);
+		RootBeanDefinition bd = new RootBeanDefinition(LatchedBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, creationStarted);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, getObjectStarted);
+		lbf.registerBeanDefinition("latched", bd);
+		RootBeanDefinition fbd = new RootBeanDefinition(BeanRequestingFactoryBean.class);
+		fbd.getConstructorArgumentValues().addIndexedArgumentValue(0, getObjectStarted);
+		fbd.getConstructorArgumentValues().addIndexedArgumentValue(1, "latched");
+		lbf.registerBeanDefinition("factoryBean", fbd);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// The FactoryBean requests the bean while that one is in creation on another thread,
+			// which then registers it: must not require a lock held by the FactoryBean's thread
+			Future<Object> latched = executor.submit(() -> lbf.getBean("latched"));
+			assertTrue(creationStarted.await(5, TimeUnit.SECONDS));
+			Future<Object> factoryBeanObject = executor.submit(() -> lbf.getBean("factoryBean"));
+			assertSame(latched.get(5, TimeUnit.SECONDS), factoryBeanObject.get(5, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithDependsOnCycle() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class);
+			bd1.setDependsOn("tb2");
+			lbf.registerBeanDefinition("tb1", bd1);
+			RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class);
+			bd2.setDependsOn("tb1");
+			lbf.registerBeanDefinition("tb2", bd2);
+			lbf.registerBeanDefinition("tb3", new RootBeanDefinition(TestBean.class));
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			// expected
+			assertTrue(ex.getMessage().contains("Circular"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithRejectingExecutor() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.setPreInstantiationExecutor(task -> {
+			throw new RejectedExecutionException("Executor shut down");
+		});
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		lbf.preInstantiateSingletons();
+		assertTrue(lbf.containsSingleton("tb1"));
+		assertTrue(lbf.containsSingleton("tb2"));
+	}
+
+	@Test
+	public void testCopyConfigurationWithParallelPreInstantiation() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		Executor executor = Runnable::run;
+		lbf.setPreInstantiationExecutor(executor);
+		lbf.setConcurrentSingletonCreation(true);
+		DefaultListableBeanFactory copy = new DefaultListableBeanFactory();
+		copy.copyConfigurationFrom(lbf);
+		assertSame(executor, copy.getPreInstantiationExecutor());
+		assertTrue(copy.isConcurrentSingletonCreation());
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithError() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setPreInstantiationExecutor(executor);
+			lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+			lbf.registerBeanDefinition("factoryBean", new RootBeanDefinition(ErrorThrowingSmartFactoryBean.class));
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown StackOverflowError");
+		}
+		catch (StackOverflowError ex) {
+			// expected: rethrown as is rather than wrapped
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test(expected = NoSuchBeanDefinitionException.class)
 	public void testGetBeanByTypeWithNoneFound() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -3324,4 +3488,113 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+
+
+	private static void awaitConcurrentCreation(CountDownLatch latch) {
+		latch.countDown();
+		try {
+			assertTrue("Beans not instantiated concurrently", latch.await(5, TimeUnit.SECONDS));
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	public static class ConcurrentlyCreatedBeanA {
+
+		private ConcurrentlyCreatedBeanB beanB;
+
+		public ConcurrentlyCreatedBeanA(CountDownLatch latch) {
+			awaitConcurrentCreation(latch);
+		}
+
+		public void setBeanB(ConcurrentlyCreatedBeanB beanB) {
+			this.beanB = beanB;
+		}
+
+		public ConcurrentlyCreatedBeanB getBeanB() {
+			return this.beanB;
+		}
+	}
+
+
+	public static class ConcurrentlyCreatedBeanB {
+
+		private ConcurrentlyCreatedBeanA beanA;
+
+		public ConcurrentlyCreatedBeanB(CountDownLatch latch) {
+			awaitConcurrentCreation(latch);
+		}
+
+		public void setBeanA(ConcurrentlyCreatedBeanA beanA) {
+			this.beanA = beanA;
+		}
+
+		public ConcurrentlyCreatedBeanA getBeanA() {
+			return this.beanA;
+		}
+	}
+
+
+	public static class ErrorThrowingSmartFactoryBean implements SmartFactoryBean<TestBean> {
+
+		@Override
+		public TestBean getObject() {
+			return new TestBean();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return TestBean.class;
+		}
+
+		@Override
+		public boolean isEagerInit() {
+			throw new StackOverflowError();
+		}
+	}
+
+
+	public static class LatchedBean {
+
+		public LatchedBean(CountDownLatch creationStarted, CountDownLatch proceed) throws InterruptedException {
+			creationStarted.countDown();
+			assertTrue("Not signalled to proceed", proceed.await(5, TimeUnit.SECONDS));
+			// Give the signalling thread time to request this bean
+			Thread.sleep(100);
+		}
+	}
+
+
+	public static class BeanRequestingFactoryBean implements FactoryBean<Object>, BeanFactoryAware {
+
+		private final CountDownLatch getObjectStarted;
+
+		private final String requestedBeanName;
+
+		private BeanFactory beanFactory;
+
+		public BeanRequestingFactoryBean(CountDownLatch getObjectStarted, String requestedBeanName) {
+			this.getObjectStarted = getObjectStarted;
+			this.requestedBeanName = requestedBeanName;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public Object getObject() {
+			this.getObjectStarted.countDown();
+			return this.beanFactory.getBean(this.requestedBeanName);
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return null;
+		}
+	}
+
 }
@@ -16,9 +16,16 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.tests.sample.beans.DerivedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -101,4 +108,108 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testConcurrentSingletonCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CountDownLatch latch = new CountDownLatch(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb1 = executor.submit(() -> beanRegistry.getSingleton("tb1", () -> awaitAndCreate(latch)));
+			Future<Object> tb2 = executor.submit(() -> beanRegistry.getSingleton("tb2", () -> awaitAndCreate(latch)));
+			assertTrue(tb1.get(5, TimeUnit.SECONDS) instanceof TestBean);
+			assertTrue(tb2.get(5, TimeUnit.SECONDS) instanceof TestBean);
+			assertSame(tb1.get(), beanRegistry.getSingleton("tb1"));
+			assertSame(tb2.get(), beanRegistry.getSingleton("tb2"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentSingletonCreationWithSameBeanName() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(() -> beanRegistry.getSingleton("tb", () -> {
+					sleep(10);
+					return new TestBean();
+				}));
+			}
+			Object singleton = futures[0].get(5, TimeUnit.SECONDS);
+			for (Future<?> future : futures) {
+				assertSame(singleton, future.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, beanRegistry.getSingletonCount());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentSingletonCreationAfterFailure() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		try {
+			beanRegistry.getSingleton("tb", () -> {
+				throw new BeanCreationException("tb", "Creation failed");
+			});
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			// expected
+		}
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Creation lock released: another thread acquires it right away
+			Future<Object> tb = executor.submit(() -> beanRegistry.getSingleton("tb", TestBean::new));
+			assertTrue(tb.get(5, TimeUnit.SECONDS) instanceof TestBean);
+			assertTrue(executor.submit(() -> beanRegistry.acquireSingletonCreationLock("tb")).get(5, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testDependentBeanRegistrationAfterDependentDestruction() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.registerDependentBean("a", "b");
+		beanRegistry.destroySingleton("b");
+		assertEquals(0, beanRegistry.getDependentBeans("a").length);
+
+		beanRegistry.registerDependentBean("a", "c");
+		assertArrayEquals(new String[] {"c"}, beanRegistry.getDependentBeans("a"));
+		assertArrayEquals(new String[] {"a"}, beanRegistry.getDependenciesForBean("c"));
+		assertTrue(beanRegistry.isDependent("a", "c"));
+	}
+
+	private static Object awaitAndCreate(CountDownLatch latch) {
+		latch.countDown();
+		try {
+			// Only completes if both singletons are in creation at the same time
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Singletons not created concurrently");
+			}
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return new TestBean();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 }
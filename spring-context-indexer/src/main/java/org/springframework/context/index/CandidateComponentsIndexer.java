@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -54,6 +54,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private TypeMetadataEncoder typeMetadataEncoder;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -76,6 +78,7 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.typeMetadataEncoder = new TypeMetadataEncoder(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
 	}
@@ -116,7 +119,9 @@ public class CandidateComponentsIndexer implements Processor {
 		Set<String> stereotypes = new LinkedHashSet<>();
 		this.stereotypesProviders.forEach(p -> stereotypes.addAll(p.getStereotypes(element)));
 		if (!stereotypes.isEmpty()) {
-			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
+			String typeMetadata = (element instanceof TypeElement ?
+					this.typeMetadataEncoder.encode((TypeElement) element) : null);
+			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes, typeMetadata));
 		}
 	}
 
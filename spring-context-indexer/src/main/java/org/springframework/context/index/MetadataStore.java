@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,8 @@ class MetadataStore {
 
 	static final String METADATA_PATH = "META-INF/spring.components";
 
+	static final String TYPE_METADATA_PATH = "META-INF/spring.components.metadata";
+
 	private final ProcessingEnvironment environment;
 
 
@@ -42,20 +44,33 @@ class MetadataStore {
 
 
 	public CandidateComponentsMetadata readMetadata() {
+		CandidateComponentsMetadata metadata;
 		try {
-			return readMetadata(getMetadataResource().openInputStream());
+			metadata = readMetadata(getMetadataResource(METADATA_PATH).openInputStream());
 		}
 		catch (IOException ex) {
 			// Failed to read metadata -> ignore.
 			return null;
 		}
+		try {
+			return readTypeMetadata(getMetadataResource(TYPE_METADATA_PATH).openInputStream(), metadata);
+		}
+		catch (IOException ex) {
+			// Failed to read type metadata -> keep the stereotypes only.
+			return metadata;
+		}
 	}
 
 	public void writeMetadata(CandidateComponentsMetadata metadata) throws IOException {
 		if (!metadata.getItems().isEmpty()) {
-			try (OutputStream outputStream = createMetadataResource().openOutputStream()) {
+			try (OutputStream outputStream = createMetadataResource(METADATA_PATH).openOutputStream()) {
 				PropertiesMarshaller.write(metadata, outputStream);
 			}
+			if (metadata.getItems().stream().anyMatch(m -> m.getTypeMetadata() != null)) {
+				try (OutputStream outputStream = createMetadataResource(TYPE_METADATA_PATH).openOutputStream()) {
+					PropertiesMarshaller.writeTypeMetadata(metadata, outputStream);
+				}
+			}
 		}
 	}
 
@@ -69,12 +84,23 @@ class MetadataStore {
 		}
 	}
 
-	private FileObject getMetadataResource() throws IOException {
-		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private CandidateComponentsMetadata readTypeMetadata(
+			InputStream in, CandidateComponentsMetadata metadata) throws IOException {
+
+		try {
+			return PropertiesMarshaller.readTypeMetadata(in, metadata);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private FileObject getMetadataResource(String path) throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
-	private FileObject createMetadataResource() throws IOException {
-		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject createMetadataResource(String path) throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
 }
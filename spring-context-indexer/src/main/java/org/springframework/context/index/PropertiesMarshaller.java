@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,4 +49,25 @@ abstract class PropertiesMarshaller {
 		return result;
 	}
 
+	public static void writeTypeMetadata(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		Properties props = new Properties();
+		metadata.getItems().forEach(m -> {
+			if (m.getTypeMetadata() != null) {
+				props.put(m.getType(), m.getTypeMetadata());
+			}
+		});
+		props.store(out, "");
+	}
+
+	public static CandidateComponentsMetadata readTypeMetadata(
+			InputStream in, CandidateComponentsMetadata metadata) throws IOException {
+
+		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
+		Properties props = new Properties();
+		props.load(in);
+		metadata.getItems().forEach(m -> result.add(
+				new ItemMetadata(m.getType(), m.getStereotypes(), props.getProperty(m.getType()))));
+		return result;
+	}
+
 }
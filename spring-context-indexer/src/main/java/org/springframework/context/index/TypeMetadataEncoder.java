@@ -0,0 +1,389 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encodes the class-level and method-level annotation metadata of a candidate
+ * type in a compact textual form, reflecting what an ASM-based metadata reader
+ * would find in the compiled class file: access flags, super types, member
+ * classes, and the explicitly declared attribute values of all annotations
+ * retained in the class file.
+ *
+ * <p>The format is a sequence of {@code <number>;} and {@code <length>:<chars>}
+ * tokens ({@code ~} for {@code null}), starting with the {@link #VERSION}.
+ *
+ * @since 5.0.16
+ */
+class TypeMetadataEncoder {
+
+	static final int VERSION = 1;
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public TypeMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	public String encode(TypeElement type) {
+		StringBuilder out = new StringBuilder();
+		writeInt(out, VERSION);
+		writeInt(out, getClassAccess(type));
+		writeString(out, getInternalName(type));
+		writeString(out, getSuperName(type));
+		List<? extends TypeMirror> interfaces = type.getInterfaces();
+		writeInt(out, interfaces.size());
+		for (TypeMirror ifc : interfaces) {
+			writeString(out, getInternalName(ifc));
+		}
+		writeInnerClasses(out, type);
+		writeAnnotations(out, type);
+		writeMethods(out, type);
+		return out.toString();
+	}
+
+
+	private void writeInnerClasses(StringBuilder out, TypeElement type) {
+		List<TypeElement> innerClasses = new ArrayList<>();
+		if (type.getEnclosingElement() instanceof TypeElement) {
+			innerClasses.add(type);
+		}
+		for (Element element : type.getEnclosedElements()) {
+			if (isType(element)) {
+				innerClasses.add((TypeElement) element);
+			}
+		}
+		writeInt(out, innerClasses.size());
+		for (TypeElement innerClass : innerClasses) {
+			writeString(out, getInternalName(innerClass));
+			writeString(out, getInternalName((TypeElement) innerClass.getEnclosingElement()));
+			writeString(out, innerClass.getSimpleName().toString());
+			writeInt(out, getInnerClassAccess(innerClass));
+		}
+	}
+
+	private void writeMethods(StringBuilder out, TypeElement type) {
+		List<ExecutableElement> methods = new ArrayList<>();
+		for (Element element : type.getEnclosedElements()) {
+			if ((element.getKind() == ElementKind.METHOD || element.getKind() == ElementKind.CONSTRUCTOR) &&
+					!getRetainedAnnotations(element).isEmpty()) {
+				methods.add((ExecutableElement) element);
+			}
+		}
+		writeInt(out, methods.size());
+		for (ExecutableElement method : methods) {
+			writeInt(out, getAccess(method.getModifiers()));
+			boolean constructor = (method.getKind() == ElementKind.CONSTRUCTOR);
+			writeString(out, (constructor ? "<init>" : method.getSimpleName().toString()));
+			StringBuilder descriptor = new StringBuilder("(");
+			for (VariableElement parameter : method.getParameters()) {
+				descriptor.append(getDescriptor(parameter.asType()));
+			}
+			descriptor.append(')').append(constructor ? "V" : getDescriptor(method.getReturnType()));
+			writeString(out, descriptor.toString());
+			writeAnnotations(out, method);
+		}
+	}
+
+	private void writeAnnotations(StringBuilder out, Element element) {
+		List<AnnotationMirror> annotations = getRetainedAnnotations(element);
+		writeInt(out, annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			writeString(out, getDescriptor(annotation.getAnnotationType()));
+			writeInt(out, getRetention(annotation) == RetentionPolicy.RUNTIME ? 1 : 0);
+			writeAttributes(out, annotation);
+		}
+	}
+
+	/**
+	 * Return the annotations present in the class file, in the order of the
+	 * class file: runtime-visible annotations first, then invisible ones.
+	 */
+	private List<AnnotationMirror> getRetainedAnnotations(Element element) {
+		List<AnnotationMirror> visible = new ArrayList<>();
+		List<AnnotationMirror> invisible = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			RetentionPolicy retention = getRetention(annotation);
+			if (retention == RetentionPolicy.RUNTIME) {
+				visible.add(annotation);
+			}
+			else if (retention == RetentionPolicy.CLASS) {
+				invisible.add(annotation);
+			}
+		}
+		visible.addAll(invisible);
+		return visible;
+	}
+
+	private RetentionPolicy getRetention(AnnotationMirror annotation) {
+		Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+		return (retention != null ? retention.value() : RetentionPolicy.CLASS);
+	}
+
+	private void writeAttributes(StringBuilder out, AnnotationMirror annotation) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		writeInt(out, values.size());
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			writeString(out, entry.getKey().getSimpleName().toString());
+			writeValue(out, entry.getKey().getReturnType(), entry.getValue().getValue());
+		}
+	}
+
+	private void writeValue(StringBuilder out, TypeMirror type, Object value) {
+		if (value instanceof List) {
+			List<?> elements = (List<?>) value;
+			TypeMirror componentType = (type instanceof ArrayType ? ((ArrayType) type).getComponentType() : type);
+			if (componentType.getKind().isPrimitive() && !elements.isEmpty()) {
+				// Primitive arrays are exposed as a single value, just like ASM does
+				out.append('#').append(getDescriptor(componentType));
+				writeInt(out, elements.size());
+				for (Object element : elements) {
+					writeValue(out, componentType, ((AnnotationValue) element).getValue());
+				}
+			}
+			else {
+				out.append('[');
+				writeInt(out, elements.size());
+				for (Object element : elements) {
+					writeValue(out, componentType, ((AnnotationValue) element).getValue());
+				}
+			}
+		}
+		else if (value instanceof Boolean) {
+			out.append('Z');
+			writeInt(out, (Boolean) value ? 1 : 0);
+		}
+		else if (value instanceof Character) {
+			out.append('C');
+			writeInt(out, (Character) value);
+		}
+		else if (value instanceof Byte) {
+			out.append('B');
+			writeInt(out, (Byte) value);
+		}
+		else if (value instanceof Short) {
+			out.append('S');
+			writeInt(out, (Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.append('I');
+			writeInt(out, (Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.append('J').append(value).append(';');
+		}
+		else if (value instanceof Float) {
+			out.append('F').append(value).append(';');
+		}
+		else if (value instanceof Double) {
+			out.append('D').append(value).append(';');
+		}
+		else if (value instanceof String) {
+			out.append('s');
+			writeString(out, (String) value);
+		}
+		else if (value instanceof TypeMirror) {
+			out.append('c');
+			writeString(out, getDescriptor((TypeMirror) value));
+		}
+		else if (value instanceof VariableElement) {
+			VariableElement constant = (VariableElement) value;
+			out.append('e');
+			writeString(out, getDescriptor(constant.asType()));
+			writeString(out, constant.getSimpleName().toString());
+		}
+		else if (value instanceof AnnotationMirror) {
+			AnnotationMirror annotation = (AnnotationMirror) value;
+			out.append('@');
+			writeString(out, getDescriptor(annotation.getAnnotationType()));
+			writeAttributes(out, annotation);
+		}
+		else {
+			throw new IllegalStateException("Unsupported annotation value: " + value);
+		}
+	}
+
+	private int getClassAccess(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED)) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		return access | getKindAccess(type);
+	}
+
+	private int getInnerClassAccess(TypeElement type) {
+		int access = getAccess(type.getModifiers()) | getKindAccess(type);
+		if (type.getKind() != ElementKind.CLASS) {
+			// Nested interfaces, enums and annotations are implicitly static
+			access |= ACC_STATIC;
+		}
+		return access;
+	}
+
+	private int getKindAccess(TypeElement type) {
+		switch (type.getKind()) {
+			case INTERFACE:
+				return ACC_INTERFACE | ACC_ABSTRACT;
+			case ANNOTATION_TYPE:
+				return ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION;
+			case ENUM:
+				return ACC_ENUM;
+			default:
+				return 0;
+		}
+	}
+
+	private int getAccess(Set<Modifier> modifiers) {
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			access |= ACC_PRIVATE;
+		}
+		if (modifiers.contains(Modifier.PROTECTED)) {
+			access |= ACC_PROTECTED;
+		}
+		if (modifiers.contains(Modifier.STATIC)) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		return access;
+	}
+
+	private String getSuperName(TypeElement type) {
+		if (type.getKind() == ElementKind.INTERFACE || type.getKind() == ElementKind.ANNOTATION_TYPE) {
+			return "java/lang/Object";
+		}
+		TypeMirror superclass = type.getSuperclass();
+		return (superclass.getKind() == TypeKind.DECLARED ? getInternalName(superclass) : null);
+	}
+
+	private String getInternalName(TypeMirror type) {
+		return getInternalName((TypeElement) this.types.asElement(this.types.erasure(type)));
+	}
+
+	private String getInternalName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString().replace('.', '/');
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case VOID:
+				return "V";
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) type).getComponentType());
+			case DECLARED:
+				return "L" + getInternalName((TypeElement) ((DeclaredType) type).asElement()) + ";";
+			default:
+				return getDescriptor(this.types.erasure(type));
+		}
+	}
+
+	private static boolean isType(Element element) {
+		ElementKind kind = element.getKind();
+		return (kind == ElementKind.CLASS || kind == ElementKind.INTERFACE ||
+				kind == ElementKind.ENUM || kind == ElementKind.ANNOTATION_TYPE);
+	}
+
+	private static void writeInt(StringBuilder out, int value) {
+		out.append(value).append(';');
+	}
+
+	private static void writeString(StringBuilder out, String value) {
+		if (value == null) {
+			out.append('~');
+		}
+		else {
+			out.append(value.length()).append(':').append(value);
+		}
+	}
+
+}
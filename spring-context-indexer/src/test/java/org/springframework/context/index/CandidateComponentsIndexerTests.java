@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,13 @@ package org.springframework.context.index;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
 import javax.persistence.Converter;
@@ -32,8 +39,12 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
+import org.springframework.context.index.sample.SampleAnnotatedComponent;
+import org.springframework.context.index.sample.SampleAttributes;
 import org.springframework.context.index.sample.SampleComponent;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleMetaController;
@@ -56,6 +67,12 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -222,6 +239,61 @@ public class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems(), hasSize(0));
 	}
 
+	@Test
+	public void typeMetadataMatchesClassFile() throws IOException {
+		compile(SampleAnnotatedComponent.class);
+		Properties typeMetadata = readGeneratedTypeMetadata(this.compiler.getOutputLocation());
+		assertThat(typeMetadata.stringPropertyNames(), containsInAnyOrder(
+				SampleAnnotatedComponent.class.getName(), SampleAnnotatedComponent.Nested.class.getName()));
+		for (String type : typeMetadata.stringPropertyNames()) {
+			File classFile = new File(this.compiler.getOutputLocation(),
+					ClassUtils.convertClassNameToResourcePath(type) + ClassUtils.CLASS_FILE_SUFFIX);
+			MetadataReader expected = new SimpleMetadataReaderFactory().getMetadataReader(
+					new FileSystemResource(classFile));
+			MetadataReader actual = IndexedMetadataReader.create(
+					typeMetadata.getProperty(type), getClass().getClassLoader());
+			assertNotNull(actual);
+			assertSameMetadata(expected.getAnnotationMetadata(), actual.getAnnotationMetadata());
+		}
+	}
+
+	@Test
+	public void typeMetadataIsNotWrittenForPackages() throws IOException {
+		compile("org/springframework/context/index/sample/jpa/package-info");
+		assertTrue(readGeneratedTypeMetadata(this.compiler.getOutputLocation()).isEmpty());
+	}
+
+	private void assertSameMetadata(AnnotationMetadata expected, AnnotationMetadata actual) {
+		assertEquals(expected.getClassName(), actual.getClassName());
+		assertEquals(expected.isInterface(), actual.isInterface());
+		assertEquals(expected.isAnnotation(), actual.isAnnotation());
+		assertEquals(expected.isAbstract(), actual.isAbstract());
+		assertEquals(expected.isFinal(), actual.isFinal());
+		assertEquals(expected.isIndependent(), actual.isIndependent());
+		assertEquals(expected.getEnclosingClassName(), actual.getEnclosingClassName());
+		assertEquals(expected.getSuperClassName(), actual.getSuperClassName());
+		assertArrayEquals(expected.getInterfaceNames(), actual.getInterfaceNames());
+		assertArrayEquals(expected.getMemberClassNames(), actual.getMemberClassNames());
+		assertEquals(new ArrayList<>(expected.getAnnotationTypes()), new ArrayList<>(actual.getAnnotationTypes()));
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertEquals(expected.getMetaAnnotationTypes(annotationType),
+					actual.getMetaAnnotationTypes(annotationType));
+			assertEquals(String.valueOf(expected.getAnnotationAttributes(annotationType, true)),
+					String.valueOf(actual.getAnnotationAttributes(annotationType, true)));
+		}
+		for (Class<?> annotationType : Arrays.asList(
+				Autowired.class, Bean.class, Order.class, SampleAttributes.class)) {
+			assertEquals(describe(expected.getAnnotatedMethods(annotationType.getName()), annotationType),
+					describe(actual.getAnnotatedMethods(annotationType.getName()), annotationType));
+		}
+	}
+
+	private List<String> describe(Set<MethodMetadata> methods, Class<?> annotationType) {
+		return methods.stream().map(method -> method.getMethodName() + ":" + method.getReturnTypeName() + ":" +
+				method.isStatic() + ":" + method.isFinal() + ":" + method.isOverridable() + ":" +
+				method.getAnnotationAttributes(annotationType.getName(), true)).collect(Collectors.toList());
+	}
+
 	private void testComponent(Class<?>... classes) throws IOException {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -248,6 +320,20 @@ public class CandidateComponentsIndexerTests {
 		return readGeneratedMetadata(this.compiler.getOutputLocation());
 	}
 
+	private Properties readGeneratedTypeMetadata(File outputLocation) {
+		Properties properties = new Properties();
+		File metadataFile = new File(outputLocation, MetadataStore.TYPE_METADATA_PATH);
+		if (metadataFile.isFile()) {
+			try (InputStream in = new FileInputStream(metadataFile)) {
+				properties.load(in);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read type metadata from disk", ex);
+			}
+		}
+		return properties;
+	}
+
 	private CandidateComponentsMetadata readGeneratedMetadata(File outputLocation) {
 		try {
 			File metadataFile = new File(outputLocation,
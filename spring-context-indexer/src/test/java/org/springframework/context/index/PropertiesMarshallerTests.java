@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 
 import org.junit.Test;
@@ -50,6 +51,27 @@ public class PropertiesMarshallerTests {
 		assertThat(readMetadata.getItems(), hasSize(2));
 	}
 
+	@Test
+	public void readWriteTypeMetadata() throws IOException {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		metadata.add(new ItemMetadata("com.foo", Collections.singleton("first"), "1;encoded;"));
+		metadata.add(createItem("com.bar", "first"));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.write(metadata, outputStream);
+		ByteArrayOutputStream typeMetadataOutputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.writeTypeMetadata(metadata, typeMetadataOutputStream);
+		CandidateComponentsMetadata readMetadata = PropertiesMarshaller.readTypeMetadata(
+				new ByteArrayInputStream(typeMetadataOutputStream.toByteArray()),
+				PropertiesMarshaller.read(new ByteArrayInputStream(outputStream.toByteArray())));
+		assertThat(readMetadata, hasComponent("com.foo", "first"));
+		assertThat(readMetadata, hasComponent("com.bar", "first"));
+		assertThat(readMetadata.getItems(), hasSize(2));
+		for (ItemMetadata item : readMetadata.getItems()) {
+			assertEquals(item.getType().equals("com.foo") ? "1;encoded;" : null, item.getTypeMetadata());
+		}
+	}
+
 	private static ItemMetadata createItem(String type, String... stereotypes) {
 		return new ItemMetadata(type, new HashSet<>(Arrays.asList(stereotypes)));
 	}
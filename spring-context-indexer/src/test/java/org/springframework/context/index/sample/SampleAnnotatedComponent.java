@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.context.index.sample;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Test candidate for the type metadata recorded in the index.
+ */
+@Component("annotated")
+@Scope(value = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+@Lazy
+@DependsOn("other")
+@SampleAttributes(flag = true, octet = 8, character = 'z', shortNumber = -16, number = 32,
+		longNumber = Long.MAX_VALUE, ratio = 0.5f, precision = -1.25d, numbers = {1, 2, 3},
+		characters = {}, names = {"one", "two"}, type = String[].class, types = {List.class, int.class},
+		kind = ElementType.FIELD, kinds = {ElementType.METHOD}, order = @Order(5),
+		orders = {@Order(1), @Order(2)})
+public abstract class SampleAnnotatedComponent extends AbstractController implements Serializable {
+
+	@Autowired
+	protected SampleAnnotatedComponent(String name) {
+	}
+
+	@Bean(name = {"first", "second"}, initMethod = "init")
+	@Order(3)
+	public String first() {
+		return "first";
+	}
+
+	@Bean
+	@SampleAttributes(names = "single")
+	public static int[] numbers(List<String> names) {
+		return new int[0];
+	}
+
+	@Bean
+	protected final Object[] third() {
+		return new Object[0];
+	}
+
+	public String notAnnotated() {
+		return "";
+	}
+
+
+	@Component
+	public static class Nested {
+	}
+
+}
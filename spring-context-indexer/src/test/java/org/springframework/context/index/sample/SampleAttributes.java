@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.context.index.sample;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.core.annotation.Order;
+
+/**
+ * Sample annotation declaring attributes of all supported types.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface SampleAttributes {
+
+	boolean flag() default false;
+
+	byte octet() default 0;
+
+	char character() default 'a';
+
+	short shortNumber() default 0;
+
+	int number() default 0;
+
+	long longNumber() default 0L;
+
+	float ratio() default 0f;
+
+	double precision() default 0d;
+
+	int[] numbers() default {};
+
+	char[] characters() default {'a'};
+
+	String[] names() default {};
+
+	Class<?> type() default Object.class;
+
+	Class<?>[] types() default {};
+
+	ElementType kind() default ElementType.TYPE;
+
+	ElementType[] kinds() default {};
+
+	Order order() default @Order;
+
+	Order[] orders() default {};
+
+}
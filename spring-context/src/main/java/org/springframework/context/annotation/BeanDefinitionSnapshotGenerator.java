@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Ahead-of-time generator for bean definition snapshots: processes the
+ * {@link Configuration @Configuration} classes, component scans and imports of an
+ * {@link AnnotationConfigApplicationContext} without refreshing it, and writes the
+ * resulting bean definitions through a {@link BeanDefinitionSnapshotWriter}.
+ *
+ * <p>Typically invoked as part of the build, next to the candidate component
+ * index generated by {@code spring-context-indexer}:
+ *
+ * <pre class="code">
+ * java org.springframework.context.annotation.BeanDefinitionSnapshotGenerator \
+ *     build/resources/main/META-INF/spring.beans com.example.AppConfig</pre>
+ *
+ * The snapshot can then be loaded through a {@link SnapshotApplicationContext}.
+ *
+ * <p>Conditions and profiles are evaluated against the environment of the given
+ * context at build time. Since {@link PropertySource @PropertySource} declarations
+ * are not part of the bean definitions, they are rejected here; such property sources
+ * need to be registered with the environment of the runtime context instead.
+ *
+ * @since 5.0.16
+ * @see BeanDefinitionSnapshotWriter
+ * @see BeanDefinitionSnapshotReader
+ */
+public class BeanDefinitionSnapshotGenerator {
+
+	private final AnnotationConfigApplicationContext context;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotGenerator for the given context, which
+	 * is expected to have its component classes registered but not to be refreshed.
+	 * @param context the context holding the bean definitions to process
+	 */
+	public BeanDefinitionSnapshotGenerator(AnnotationConfigApplicationContext context) {
+		Assert.notNull(context, "AnnotationConfigApplicationContext must not be null");
+		this.context = context;
+	}
+
+
+	/**
+	 * Process the configuration classes of the context and write the resulting
+	 * bean definitions to the given stream. The stream will not be closed.
+	 * @param out the stream to write the snapshot to
+	 * @throws IOException in case of I/O errors
+	 * @throws IllegalStateException if the bean definitions cannot be represented
+	 * in a snapshot
+	 */
+	public void generate(OutputStream out) throws IOException {
+		ConfigurableEnvironment environment = this.context.getEnvironment();
+		Set<String> propertySourceNames = propertySourceNames(environment);
+
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setEnvironment(environment);
+		postProcessor.setResourceLoader(this.context);
+		ClassLoader classLoader = this.context.getClassLoader();
+		if (classLoader != null) {
+			postProcessor.setBeanClassLoader(classLoader);
+		}
+		postProcessor.processConfigBeanDefinitions(this.context.getDefaultListableBeanFactory());
+
+		Set<String> addedPropertySources = propertySourceNames(environment);
+		addedPropertySources.removeAll(propertySourceNames);
+		if (!addedPropertySources.isEmpty()) {
+			throw new IllegalStateException("Cannot write snapshot for configuration classes declaring " +
+					"@PropertySource: " + addedPropertySources);
+		}
+
+		new BeanDefinitionSnapshotWriter(this.context.getDefaultListableBeanFactory()).write(out);
+	}
+
+	private static Set<String> propertySourceNames(ConfigurableEnvironment environment) {
+		Set<String> names = new LinkedHashSet<>();
+		environment.getPropertySources().forEach(propertySource -> names.add(propertySource.getName()));
+		return names;
+	}
+
+
+	/**
+	 * Generate a snapshot for the given component classes.
+	 * @param args the path of the snapshot file to write, followed by the
+	 * fully qualified names of the component classes to register
+	 * @throws Exception if the snapshot could not be generated
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			throw new IllegalArgumentException(
+					"Usage: BeanDefinitionSnapshotGenerator <snapshot file> <component class>...");
+		}
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		for (int i = 1; i < args.length; i++) {
+			context.register(ClassUtils.forName(args[i], context.getClassLoader()));
+		}
+		File file = new File(args[0]);
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Cannot create directory " + parent);
+		}
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			new BeanDefinitionSnapshotGenerator(context).generate(out);
+		}
+	}
+
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinitionReader;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.AttributeAccessor;
+import org.springframework.core.Conventions;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import static org.springframework.context.annotation.BeanDefinitionSnapshotWriter.*;
+
+/**
+ * Bean definition reader for binary snapshots written by a
+ * {@link BeanDefinitionSnapshotWriter}, typically at build time through the
+ * {@link BeanDefinitionSnapshotGenerator}.
+ *
+ * <p>Restores the bean definitions of a fully processed registry as-is: the
+ * restored definitions are not considered as configuration class candidates
+ * by the {@link ConfigurationClassPostProcessor} anymore, so no class files get
+ * parsed and no conditions get evaluated at runtime. {@code @Configuration}
+ * classes are still enhanced, and {@link ImportAware} configuration classes
+ * still receive the metadata of their importing class.
+ *
+ * <p>Note that conditions and profiles have been evaluated against the build-time
+ * environment when generating the snapshot.
+ *
+ * @since 5.0.16
+ * @see BeanDefinitionSnapshotWriter
+ * @see SnapshotApplicationContext
+ */
+public class BeanDefinitionSnapshotReader extends AbstractBeanDefinitionReader {
+
+	/**
+	 * The default location of a bean definition snapshot on the classpath:
+	 * {@value}, next to the {@code META-INF/spring.components} index.
+	 */
+	public static final String DEFAULT_SNAPSHOT_LOCATION = "META-INF/spring.beans";
+
+	/**
+	 * The name of the attribute that marks a bean definition restored from a snapshot.
+	 */
+	public static final String SNAPSHOT_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(BeanDefinitionSnapshotReader.class, "snapshot");
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public BeanDefinitionSnapshotReader(BeanDefinitionRegistry registry) {
+		super(registry);
+	}
+
+
+	/**
+	 * Load bean definitions from the specified snapshot.
+	 * @param resource the resource descriptor for the snapshot
+	 * @return the number of bean definitions found
+	 * @throws BeanDefinitionStoreException in case of loading or parsing errors
+	 */
+	@Override
+	public int loadBeanDefinitions(Resource resource) throws BeanDefinitionStoreException {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loading bean definition snapshot from " + resource);
+		}
+		try (InputStream is = resource.getInputStream()) {
+			SnapshotInput in = new SnapshotInput(new DataInputStream(new BufferedInputStream(is)));
+			if (in.readInt() != MAGIC) {
+				throw new BeanDefinitionStoreException(resource.getDescription(), "Not a bean definition snapshot");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new BeanDefinitionStoreException(resource.getDescription(),
+						"Unsupported bean definition snapshot version " + version);
+			}
+
+			BeanDefinitionRegistry registry = getRegistry();
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String beanName = in.readRequiredString();
+				String[] aliases = in.readStrings();
+				AbstractBeanDefinition bd = readBeanDefinition(in);
+				bd.setAttribute(SNAPSHOT_ATTRIBUTE, Boolean.TRUE);
+				registry.registerBeanDefinition(beanName, bd);
+				if (aliases != null) {
+					for (String alias : aliases) {
+						registry.registerAlias(beanName, alias);
+					}
+				}
+			}
+
+			int importCount = in.readInt();
+			if (importCount > 0) {
+				Map<String, String> imports = new ConcurrentHashMap<>(importCount);
+				for (int i = 0; i < importCount; i++) {
+					imports.put(in.readRequiredString(), in.readRequiredString());
+				}
+				registerImports(imports);
+			}
+			return count;
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException(
+					"IOException parsing bean definition snapshot from " + resource, ex);
+		}
+		catch (ClassNotFoundException ex) {
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					"Cannot resolve class referenced in bean definition snapshot", ex);
+		}
+	}
+
+	/**
+	 * Expose the importing classes recorded in the snapshot to {@link ImportAware}
+	 * configuration classes, in place of the registry built by configuration class parsing.
+	 */
+	private void registerImports(Map<String, String> imports) {
+		BeanDefinitionRegistry registry = getRegistry();
+		SingletonBeanRegistry sbr;
+		if (registry instanceof SingletonBeanRegistry) {
+			sbr = (SingletonBeanRegistry) registry;
+		}
+		else if (registry instanceof ConfigurableApplicationContext) {
+			sbr = ((ConfigurableApplicationContext) registry).getBeanFactory();
+		}
+		else {
+			return;
+		}
+		Object existing = sbr.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		if (existing instanceof SnapshotImportRegistry) {
+			((SnapshotImportRegistry) existing).imports.putAll(imports);
+		}
+		else if (existing == null) {
+			sbr.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(imports, getClassLoader()));
+		}
+	}
+
+	private AbstractBeanDefinition readBeanDefinition(SnapshotInput in) throws IOException, ClassNotFoundException {
+		byte kind = in.readByte();
+		AbstractBeanDefinition bd;
+		if (kind == BEAN_METHOD_DEFINITION) {
+			bd = new BeanMethodDefinition();
+		}
+		else if (kind == ROOT_DEFINITION) {
+			bd = new RootBeanDefinition();
+		}
+		else if (kind == GENERIC_DEFINITION) {
+			bd = new GenericBeanDefinition();
+		}
+		else {
+			throw new IOException("Unknown bean definition kind: " + kind);
+		}
+		if (bd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			if (in.readBoolean()) {
+				rbd.setDecoratedDefinition(readBeanDefinitionHolder(in));
+			}
+			String targetType = in.readString();
+			if (targetType != null) {
+				rbd.setTargetType(resolveClass(targetType));
+			}
+		}
+		String parentName = in.readString();
+		if (!(bd instanceof RootBeanDefinition)) {
+			bd.setParentName(parentName);
+		}
+
+		bd.setBeanClassName(in.readString());
+		bd.setScope(in.readString());
+		int flags = in.readInt();
+		bd.setAbstract((flags & ABSTRACT_FLAG) != 0);
+		bd.setLazyInit((flags & LAZY_INIT_FLAG) != 0);
+		bd.setPrimary((flags & PRIMARY_FLAG) != 0);
+		bd.setAutowireCandidate((flags & AUTOWIRE_CANDIDATE_FLAG) != 0);
+		bd.setNonPublicAccessAllowed((flags & NON_PUBLIC_ACCESS_ALLOWED_FLAG) != 0);
+		bd.setLenientConstructorResolution((flags & LENIENT_CONSTRUCTOR_RESOLUTION_FLAG) != 0);
+		bd.setEnforceInitMethod((flags & ENFORCE_INIT_METHOD_FLAG) != 0);
+		bd.setEnforceDestroyMethod((flags & ENFORCE_DESTROY_METHOD_FLAG) != 0);
+		bd.setSynthetic((flags & SYNTHETIC_FLAG) != 0);
+		bd.setAutowireMode(in.readInt());
+		bd.setDependencyCheck(in.readInt());
+		bd.setRole(in.readInt());
+		bd.setDependsOn(in.readStrings());
+		bd.setFactoryBeanName(in.readString());
+		String factoryMethodName = in.readString();
+		if (factoryMethodName != null && kind == BEAN_METHOD_DEFINITION && bd.getFactoryBeanName() != null) {
+			// Instance @Bean method, as registered by ConfigurationClassBeanDefinitionReader
+			((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+		bd.setInitMethodName(in.readString());
+		bd.setDestroyMethodName(in.readString());
+		bd.setDescription(in.readString());
+		bd.setResourceDescription(in.readString());
+
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		int indexedCount = in.readInt();
+		for (int i = 0; i < indexedCount; i++) {
+			int index = in.readInt();
+			cargs.addIndexedArgumentValue(index, readValueHolder(in));
+		}
+		int genericCount = in.readInt();
+		for (int i = 0; i < genericCount; i++) {
+			cargs.addGenericArgumentValue(readValueHolder(in));
+		}
+
+		int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			String name = in.readRequiredString();
+			boolean optional = in.readBoolean();
+			PropertyValue pv = new PropertyValue(name, readValue(in));
+			pv.setOptional(optional);
+			bd.getPropertyValues().addPropertyValue(pv);
+		}
+
+		int qualifierCount = in.readInt();
+		for (int i = 0; i < qualifierCount; i++) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(in.readRequiredString());
+			readAttributes(in, qualifier);
+			bd.addQualifier(qualifier);
+		}
+
+		int overrideCount = in.readInt();
+		for (int i = 0; i < overrideCount; i++) {
+			bd.getMethodOverrides().addOverride(new LookupOverride(in.readRequiredString(), in.readString()));
+		}
+
+		readAttributes(in, bd);
+		return bd;
+	}
+
+	private BeanDefinitionHolder readBeanDefinitionHolder(SnapshotInput in)
+			throws IOException, ClassNotFoundException {
+
+		String beanName = in.readRequiredString();
+		String[] aliases = in.readStrings();
+		return new BeanDefinitionHolder(readBeanDefinition(in), beanName, aliases);
+	}
+
+	private ConstructorArgumentValues.ValueHolder readValueHolder(SnapshotInput in)
+			throws IOException, ClassNotFoundException {
+
+		String type = in.readString();
+		String name = in.readString();
+		return new ConstructorArgumentValues.ValueHolder(readValue(in), type, name);
+	}
+
+	private void readAttributes(SnapshotInput in, AttributeAccessor accessor)
+			throws IOException, ClassNotFoundException {
+
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String name = in.readRequiredString();
+			accessor.setAttribute(name, readValue(in));
+		}
+	}
+
+	@Nullable
+	private Object readValue(SnapshotInput in) throws IOException, ClassNotFoundException {
+		byte type = in.readByte();
+		switch (type) {
+			case NULL_VALUE:
+				return null;
+			case STRING_VALUE:
+				return in.readRequiredString();
+			case TYPED_STRING_VALUE: {
+				TypedStringValue value = new TypedStringValue(in.readString());
+				value.setTargetTypeName(in.readString());
+				value.setSpecifiedTypeName(in.readString());
+				if (in.readBoolean()) {
+					value.setDynamic();
+				}
+				return value;
+			}
+			case BEAN_REFERENCE_VALUE:
+				return new RuntimeBeanReference(in.readRequiredString(), in.readBoolean());
+			case BEAN_NAME_REFERENCE_VALUE:
+				return new RuntimeBeanNameReference(in.readRequiredString());
+			case BEAN_DEFINITION_HOLDER_VALUE:
+				return readBeanDefinitionHolder(in);
+			case BEAN_DEFINITION_VALUE:
+				return readBeanDefinition(in);
+			case BOOLEAN_VALUE:
+				return in.readBoolean();
+			case INTEGER_VALUE:
+				return in.readInt();
+			case LONG_VALUE:
+				return in.readLong();
+			case DOUBLE_VALUE:
+				return in.readDouble();
+			case CLASS_VALUE:
+				return resolveClass(in.readRequiredString());
+			case ARRAY_VALUE: {
+				String elementTypeName = in.readRequiredString();
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedArray array = new ManagedArray(elementTypeName, size);
+				array.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					array.add(readValue(in));
+				}
+				return array;
+			}
+			case LIST_VALUE: {
+				String elementTypeName = in.readString();
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedList<Object> list = new ManagedList<>(size);
+				if (elementTypeName != null) {
+					list.setElementTypeName(elementTypeName);
+				}
+				list.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(in));
+				}
+				return list;
+			}
+			case SET_VALUE: {
+				String elementTypeName = in.readString();
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedSet<Object> set = new ManagedSet<>(size);
+				set.setElementTypeName(elementTypeName);
+				set.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					set.add(readValue(in));
+				}
+				return set;
+			}
+			case MAP_VALUE: {
+				String keyTypeName = in.readString();
+				String valueTypeName = in.readString();
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedMap<Object, Object> map = new ManagedMap<>(size);
+				map.setKeyTypeName(keyTypeName);
+				map.setValueTypeName(valueTypeName);
+				map.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					map.put(readValue(in), readValue(in));
+				}
+				return map;
+			}
+			case PROPERTIES_VALUE: {
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedProperties properties = new ManagedProperties();
+				properties.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					Object key = readValue(in);
+					Object value = readValue(in);
+					if (key != null && value != null) {
+						properties.put(key, value);
+					}
+				}
+				return properties;
+			}
+			default:
+				throw new IOException("Unknown value type: " + type);
+		}
+	}
+
+	private Class<?> resolveClass(String className) throws ClassNotFoundException {
+		return ClassUtils.forName(className, getClassLoader());
+	}
+
+	@Nullable
+	private ClassLoader getClassLoader() {
+		ClassLoader classLoader = getBeanClassLoader();
+		if (classLoader == null && getResourceLoader() != null) {
+			classLoader = getResourceLoader().getClassLoader();
+		}
+		return classLoader;
+	}
+
+
+	/**
+	 * Reads the primitive parts of a snapshot, resolving back-references
+	 * to previously read Strings.
+	 */
+	private static class SnapshotInput {
+
+		private final DataInputStream in;
+
+		private final List<String> strings = new ArrayList<>();
+
+		SnapshotInput(DataInputStream in) {
+			this.in = in;
+		}
+
+		byte readByte() throws IOException {
+			return this.in.readByte();
+		}
+
+		boolean readBoolean() throws IOException {
+			return this.in.readBoolean();
+		}
+
+		int readInt() throws IOException {
+			return this.in.readInt();
+		}
+
+		long readLong() throws IOException {
+			return this.in.readLong();
+		}
+
+		double readDouble() throws IOException {
+			return this.in.readDouble();
+		}
+
+		@Nullable
+		String readString() throws IOException {
+			int index = this.in.readInt();
+			if (index == NULL_STRING) {
+				return null;
+			}
+			if (index == NEW_STRING) {
+				byte[] bytes = new byte[this.in.readInt()];
+				this.in.readFully(bytes);
+				String value = new String(bytes, StandardCharsets.UTF_8);
+				this.strings.add(value);
+				return value;
+			}
+			if (index < 0 || index >= this.strings.size()) {
+				throw new IOException("Invalid string reference: " + index);
+			}
+			return this.strings.get(index);
+		}
+
+		String readRequiredString() throws IOException {
+			String value = readString();
+			if (value == null) {
+				throw new IOException("Unexpected null string");
+			}
+			return value;
+		}
+
+		@Nullable
+		String[] readStrings() throws IOException {
+			int length = this.in.readInt();
+			if (length < 0) {
+				return null;
+			}
+			String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = readRequiredString();
+			}
+			return values;
+		}
+	}
+
+
+	/**
+	 * Restored bean definition for a {@link Bean @Bean} method, only considering
+	 * {@code @Bean}-annotated methods as factory method candidates.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinition extends RootBeanDefinition {
+
+		BeanMethodDefinition() {
+		}
+
+		BeanMethodDefinition(BeanMethodDefinition original) {
+			super(original);
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} for the importing classes recorded in a snapshot,
+	 * introspecting an importing class on first access only.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> imports;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private final Map<String, AnnotationMetadata> metadataCache = new ConcurrentHashMap<>();
+
+		SnapshotImportRegistry(Map<String, String> imports, @Nullable ClassLoader classLoader) {
+			this.imports = imports;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.imports.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			return this.metadataCache.computeIfAbsent(importingClass, className -> {
+				try {
+					return new StandardAnnotationMetadata(ClassUtils.forName(className, this.classLoader), true);
+				}
+				catch (ClassNotFoundException ex) {
+					throw new IllegalStateException("Cannot load importing class: " + className, ex);
+				}
+			});
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.imports.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
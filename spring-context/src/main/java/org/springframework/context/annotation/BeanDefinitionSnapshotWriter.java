@@ -0,0 +1,508 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.MethodOverride;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.AttributeAccessor;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Writes the bean definitions of a {@link BeanDefinitionRegistry} into a compact
+ * binary snapshot, to be restored through a {@link BeanDefinitionSnapshotReader}
+ * without parsing configuration classes or scanning the classpath again.
+ *
+ * <p>The given registry is expected to be fully processed already, i.e. with all
+ * {@link Configuration @Configuration} classes parsed and all conditions evaluated;
+ * see {@link BeanDefinitionSnapshotGenerator} for a build-time entry point.
+ *
+ * <p>Bean definitions are written with their class names, scope, autowiring and
+ * lifecycle settings, constructor argument and property values, qualifiers,
+ * lookup method overrides and attributes. Definitions that cannot be expressed
+ * in such a form &mdash; e.g. with an instance supplier or with custom value
+ * objects &mdash; are rejected with an {@link IllegalStateException}.
+ *
+ * @since 5.0.16
+ * @see BeanDefinitionSnapshotReader
+ * @see BeanDefinitionSnapshotGenerator
+ */
+public class BeanDefinitionSnapshotWriter {
+
+	static final int MAGIC = 0x53424453;
+
+	static final int VERSION = 1;
+
+	static final byte GENERIC_DEFINITION = 0;
+
+	static final byte ROOT_DEFINITION = 1;
+
+	static final byte BEAN_METHOD_DEFINITION = 2;
+
+	static final byte NULL_VALUE = 0;
+
+	static final byte STRING_VALUE = 1;
+
+	static final byte TYPED_STRING_VALUE = 2;
+
+	static final byte BEAN_REFERENCE_VALUE = 3;
+
+	static final byte BEAN_NAME_REFERENCE_VALUE = 4;
+
+	static final byte BEAN_DEFINITION_HOLDER_VALUE = 5;
+
+	static final byte BEAN_DEFINITION_VALUE = 6;
+
+	static final byte BOOLEAN_VALUE = 7;
+
+	static final byte INTEGER_VALUE = 8;
+
+	static final byte LONG_VALUE = 9;
+
+	static final byte DOUBLE_VALUE = 10;
+
+	static final byte CLASS_VALUE = 11;
+
+	static final byte LIST_VALUE = 12;
+
+	static final byte SET_VALUE = 13;
+
+	static final byte MAP_VALUE = 14;
+
+	static final byte PROPERTIES_VALUE = 15;
+
+	static final byte ARRAY_VALUE = 16;
+
+	static final int NULL_STRING = -1;
+
+	static final int NEW_STRING = -2;
+
+	static final int ABSTRACT_FLAG = 1;
+
+	static final int LAZY_INIT_FLAG = 1 << 1;
+
+	static final int PRIMARY_FLAG = 1 << 2;
+
+	static final int AUTOWIRE_CANDIDATE_FLAG = 1 << 3;
+
+	static final int NON_PUBLIC_ACCESS_ALLOWED_FLAG = 1 << 4;
+
+	static final int LENIENT_CONSTRUCTOR_RESOLUTION_FLAG = 1 << 5;
+
+	static final int ENFORCE_INIT_METHOD_FLAG = 1 << 6;
+
+	static final int ENFORCE_DESTROY_METHOD_FLAG = 1 << 7;
+
+	static final int SYNTHETIC_FLAG = 1 << 8;
+
+
+	private final BeanDefinitionRegistry registry;
+
+	private final Map<String, Integer> stringTable = new HashMap<>();
+
+	@Nullable
+	private String currentBeanName;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotWriter for the given registry.
+	 * @param registry the processed registry to write bean definitions from
+	 */
+	public BeanDefinitionSnapshotWriter(BeanDefinitionRegistry registry) {
+		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
+		this.registry = registry;
+	}
+
+
+	/**
+	 * Write a snapshot of all bean definitions in the registry, including their
+	 * aliases, to the given stream. The stream will not be closed.
+	 * @param out the stream to write to
+	 * @throws IOException in case of I/O errors
+	 * @throws IllegalStateException if a bean definition cannot be represented
+	 * in a snapshot
+	 */
+	public void write(OutputStream out) throws IOException {
+		this.stringTable.clear();
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+
+		String[] beanNames = this.registry.getBeanDefinitionNames();
+		dos.writeInt(beanNames.length);
+		for (String beanName : beanNames) {
+			this.currentBeanName = beanName;
+			writeString(dos, beanName);
+			writeStrings(dos, this.registry.getAliases(beanName));
+			writeBeanDefinition(dos, this.registry.getBeanDefinition(beanName));
+		}
+		this.currentBeanName = null;
+
+		Map<String, String> imports = resolveImports(beanNames);
+		dos.writeInt(imports.size());
+		for (Map.Entry<String, String> entry : imports.entrySet()) {
+			writeString(dos, entry.getKey());
+			writeString(dos, entry.getValue());
+		}
+		dos.flush();
+	}
+
+	/**
+	 * Determine the importing class for each imported configuration class,
+	 * as needed by {@link ImportAware} beans at runtime.
+	 */
+	private Map<String, String> resolveImports(String[] beanNames) {
+		Map<String, String> imports = new LinkedHashMap<>();
+		if (this.registry instanceof SingletonBeanRegistry) {
+			Object importRegistry = ((SingletonBeanRegistry) this.registry).getSingleton(
+					ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+			if (importRegistry instanceof ImportRegistry) {
+				for (String beanName : beanNames) {
+					String className = this.registry.getBeanDefinition(beanName).getBeanClassName();
+					if (className != null && !imports.containsKey(className)) {
+						AnnotationMetadata importingClass =
+								((ImportRegistry) importRegistry).getImportingClassFor(className);
+						if (importingClass != null) {
+							imports.put(className, importingClass.getClassName());
+						}
+					}
+				}
+			}
+		}
+		return imports;
+	}
+
+	private void writeBeanDefinition(DataOutputStream dos, BeanDefinition bd) throws IOException {
+		if (!(bd instanceof AbstractBeanDefinition)) {
+			throw unsupported("bean definition of type " + bd.getClass().getName());
+		}
+		AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+		if (abd.getInstanceSupplier() != null) {
+			throw unsupported("instance supplier");
+		}
+
+		if (abd instanceof AnnotatedBeanDefinition &&
+				((AnnotatedBeanDefinition) abd).getFactoryMethodMetadata() != null) {
+			dos.writeByte(BEAN_METHOD_DEFINITION);
+		}
+		else if (abd instanceof RootBeanDefinition) {
+			dos.writeByte(ROOT_DEFINITION);
+		}
+		else {
+			dos.writeByte(GENERIC_DEFINITION);
+		}
+		if (abd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) abd;
+			BeanDefinitionHolder decoratedDefinition = rbd.getDecoratedDefinition();
+			dos.writeBoolean(decoratedDefinition != null);
+			if (decoratedDefinition != null) {
+				writeBeanDefinitionHolder(dos, decoratedDefinition);
+			}
+			Class<?> targetType = rbd.getTargetType();
+			writeString(dos, (targetType != null ? targetType.getName() : null));
+		}
+
+		writeString(dos, abd.getParentName());
+		writeString(dos, abd.getBeanClassName());
+		writeString(dos, abd.getScope());
+		dos.writeInt(flags(abd));
+		dos.writeInt(abd.getAutowireMode());
+		dos.writeInt(abd.getDependencyCheck());
+		dos.writeInt(abd.getRole());
+		writeStrings(dos, abd.getDependsOn());
+		writeString(dos, abd.getFactoryBeanName());
+		writeString(dos, abd.getFactoryMethodName());
+		writeString(dos, abd.getInitMethodName());
+		writeString(dos, abd.getDestroyMethodName());
+		writeString(dos, abd.getDescription());
+		writeString(dos, abd.getResourceDescription());
+
+		ConstructorArgumentValues cargs = abd.getConstructorArgumentValues();
+		Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+		dos.writeInt(indexedArgs.size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexedArgs.entrySet()) {
+			dos.writeInt(entry.getKey());
+			writeValueHolder(dos, entry.getValue());
+		}
+		List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+		dos.writeInt(genericArgs.size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : genericArgs) {
+			writeValueHolder(dos, valueHolder);
+		}
+
+		PropertyValue[] pvs = abd.getPropertyValues().getPropertyValues();
+		dos.writeInt(pvs.length);
+		for (PropertyValue pv : pvs) {
+			writeString(dos, pv.getName());
+			dos.writeBoolean(pv.isOptional());
+			writeValue(dos, pv.getValue());
+		}
+
+		Set<AutowireCandidateQualifier> qualifiers = abd.getQualifiers();
+		dos.writeInt(qualifiers.size());
+		for (AutowireCandidateQualifier qualifier : qualifiers) {
+			writeString(dos, qualifier.getTypeName());
+			writeAttributes(dos, qualifier);
+		}
+
+		Set<MethodOverride> overrides = abd.getMethodOverrides().getOverrides();
+		dos.writeInt(overrides.size());
+		for (MethodOverride override : overrides) {
+			if (!(override instanceof LookupOverride)) {
+				throw unsupported("method override of type " + override.getClass().getName());
+			}
+			writeString(dos, override.getMethodName());
+			writeString(dos, ((LookupOverride) override).getBeanName());
+		}
+
+		writeAttributes(dos, abd);
+	}
+
+	private int flags(AbstractBeanDefinition abd) {
+		int flags = 0;
+		if (abd.isAbstract()) {
+			flags |= ABSTRACT_FLAG;
+		}
+		if (abd.isLazyInit()) {
+			flags |= LAZY_INIT_FLAG;
+		}
+		if (abd.isPrimary()) {
+			flags |= PRIMARY_FLAG;
+		}
+		if (abd.isAutowireCandidate()) {
+			flags |= AUTOWIRE_CANDIDATE_FLAG;
+		}
+		if (abd.isNonPublicAccessAllowed()) {
+			flags |= NON_PUBLIC_ACCESS_ALLOWED_FLAG;
+		}
+		if (abd.isLenientConstructorResolution()) {
+			flags |= LENIENT_CONSTRUCTOR_RESOLUTION_FLAG;
+		}
+		if (abd.isEnforceInitMethod()) {
+			flags |= ENFORCE_INIT_METHOD_FLAG;
+		}
+		if (abd.isEnforceDestroyMethod()) {
+			flags |= ENFORCE_DESTROY_METHOD_FLAG;
+		}
+		if (abd.isSynthetic()) {
+			flags |= SYNTHETIC_FLAG;
+		}
+		return flags;
+	}
+
+	private void writeBeanDefinitionHolder(DataOutputStream dos, BeanDefinitionHolder holder) throws IOException {
+		writeString(dos, holder.getBeanName());
+		writeStrings(dos, holder.getAliases());
+		writeBeanDefinition(dos, holder.getBeanDefinition());
+	}
+
+	private void writeValueHolder(DataOutputStream dos, ConstructorArgumentValues.ValueHolder valueHolder)
+			throws IOException {
+
+		writeString(dos, valueHolder.getType());
+		writeString(dos, valueHolder.getName());
+		writeValue(dos, valueHolder.getValue());
+	}
+
+	private void writeAttributes(DataOutputStream dos, AttributeAccessor accessor) throws IOException {
+		String[] names = accessor.attributeNames();
+		dos.writeInt(names.length);
+		for (String name : names) {
+			writeString(dos, name);
+			writeValue(dos, accessor.getAttribute(name));
+		}
+	}
+
+	private void writeValue(DataOutputStream dos, @Nullable Object value) throws IOException {
+		if (value == null) {
+			dos.writeByte(NULL_VALUE);
+		}
+		else if (value instanceof String) {
+			dos.writeByte(STRING_VALUE);
+			writeString(dos, (String) value);
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			dos.writeByte(TYPED_STRING_VALUE);
+			writeString(dos, typedValue.getValue());
+			writeString(dos, typedValue.getTargetTypeName());
+			writeString(dos, typedValue.getSpecifiedTypeName());
+			dos.writeBoolean(typedValue.isDynamic());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			dos.writeByte(BEAN_REFERENCE_VALUE);
+			writeString(dos, reference.getBeanName());
+			dos.writeBoolean(reference.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			dos.writeByte(BEAN_NAME_REFERENCE_VALUE);
+			writeString(dos, ((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			dos.writeByte(BEAN_DEFINITION_HOLDER_VALUE);
+			writeBeanDefinitionHolder(dos, (BeanDefinitionHolder) value);
+		}
+		else if (value instanceof BeanDefinition) {
+			dos.writeByte(BEAN_DEFINITION_VALUE);
+			writeBeanDefinition(dos, (BeanDefinition) value);
+		}
+		else if (value instanceof Boolean) {
+			dos.writeByte(BOOLEAN_VALUE);
+			dos.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			dos.writeByte(INTEGER_VALUE);
+			dos.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			dos.writeByte(LONG_VALUE);
+			dos.writeLong((Long) value);
+		}
+		else if (value instanceof Double) {
+			dos.writeByte(DOUBLE_VALUE);
+			dos.writeDouble((Double) value);
+		}
+		else if (value instanceof Class) {
+			dos.writeByte(CLASS_VALUE);
+			writeString(dos, ((Class<?>) value).getName());
+		}
+		else if (value instanceof ManagedArray) {
+			ManagedArray array = (ManagedArray) value;
+			dos.writeByte(ARRAY_VALUE);
+			writeString(dos, array.getElementTypeName());
+			dos.writeBoolean(array.isMergeEnabled());
+			writeElements(dos, array);
+		}
+		else if (value instanceof ManagedList) {
+			ManagedList<?> list = (ManagedList<?>) value;
+			dos.writeByte(LIST_VALUE);
+			writeString(dos, list.getElementTypeName());
+			dos.writeBoolean(list.isMergeEnabled());
+			writeElements(dos, list);
+		}
+		else if (value instanceof ManagedSet) {
+			ManagedSet<?> set = (ManagedSet<?>) value;
+			dos.writeByte(SET_VALUE);
+			writeString(dos, set.getElementTypeName());
+			dos.writeBoolean(set.isMergeEnabled());
+			writeElements(dos, set);
+		}
+		else if (value instanceof ManagedMap) {
+			ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+			dos.writeByte(MAP_VALUE);
+			writeString(dos, map.getKeyTypeName());
+			writeString(dos, map.getValueTypeName());
+			dos.writeBoolean(map.isMergeEnabled());
+			writeEntries(dos, map);
+		}
+		else if (value instanceof ManagedProperties) {
+			ManagedProperties properties = (ManagedProperties) value;
+			dos.writeByte(PROPERTIES_VALUE);
+			dos.writeBoolean(properties.isMergeEnabled());
+			writeEntries(dos, properties);
+		}
+		else {
+			throw unsupported("value of type " + value.getClass().getName());
+		}
+	}
+
+	private void writeElements(DataOutputStream dos, Iterable<?> elements) throws IOException {
+		List<Object> list = new ArrayList<>();
+		elements.forEach(list::add);
+		dos.writeInt(list.size());
+		for (Object element : list) {
+			writeValue(dos, element);
+		}
+	}
+
+	private void writeEntries(DataOutputStream dos, Map<?, ?> map) throws IOException {
+		dos.writeInt(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			writeValue(dos, entry.getKey());
+			writeValue(dos, entry.getValue());
+		}
+	}
+
+	private void writeStrings(DataOutputStream dos, @Nullable String[] values) throws IOException {
+		if (values == null) {
+			dos.writeInt(-1);
+			return;
+		}
+		dos.writeInt(values.length);
+		for (String value : values) {
+			writeString(dos, value);
+		}
+	}
+
+	/**
+	 * Write the given String, referring to an earlier occurrence where possible:
+	 * class names, scopes and bean names tend to repeat across definitions.
+	 */
+	private void writeString(DataOutputStream dos, @Nullable String value) throws IOException {
+		if (value == null) {
+			dos.writeInt(NULL_STRING);
+			return;
+		}
+		Integer index = this.stringTable.get(value);
+		if (index != null) {
+			dos.writeInt(index);
+			return;
+		}
+		this.stringTable.put(value, this.stringTable.size());
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		dos.writeInt(NEW_STRING);
+		dos.writeInt(bytes.length);
+		dos.write(bytes);
+	}
+
+	private IllegalStateException unsupported(String description) {
+		return new IllegalStateException("Cannot write snapshot for bean definition '" + this.currentBeanName +
+				"': unsupported " + description);
+	}
+
+}
@@ -2,11 +2,15 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -20,6 +24,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -96,6 +101,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private ForkJoinPool forkJoinPool = (SpringProperties.getFlag(
+			PathMatchingResourcePatternResolver.PARALLEL_SCANNING_PROPERTY_NAME) ? ForkJoinPool.commonPool() : null);
+
 
 	//构造器
 	protected ClassPathScanningCandidateComponentProvider() {
@@ -126,6 +135,28 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set the {@link ForkJoinPool} to read the class files found during
+	 * classpath scanning with.
+	 * <p>Class files are read in parallel, whereas filters and conditions are
+	 * still applied sequentially, in the order of the scanned resources.
+	 * Default is {@code null}, reading class files in the calling thread, unless
+	 * the {@link PathMatchingResourcePatternResolver#PARALLEL_SCANNING_PROPERTY_NAME}
+	 * flag is set. Note that the root directories of the scan are resolved by the
+	 * {@link #getResourceLoader() ResourceLoader}, which may be configured for
+	 * parallel resolution as well.
+	 * <p>The {@link #getMetadataReaderFactory() MetadataReaderFactory} is called
+	 * concurrently then and therefore needs to be thread-safe. This is the case
+	 * for the default {@link CachingMetadataReaderFactory}; a custom factory set
+	 * through {@link #setMetadataReaderFactory} must be thread-safe as well, or
+	 * parallel reading must not be enabled.
+	 * @since 5.0.16
+	 * @see PathMatchingResourcePatternResolver#setForkJoinPool
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
 	//添加一个包含的过滤器，添加符合bean条件的组件
 	public void addIncludeFilter(TypeFilter includeFilter) {
 		this.includeFilters.add(includeFilter);
@@ -212,6 +243,11 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 
 	//设置一个元数据读取器工厂
+	/**
+	 * Set the {@link MetadataReaderFactory} to use.
+	 * <p>The factory needs to be thread-safe if class files are read in parallel.
+	 * @see #setForkJoinPool
+	 */
 	public void setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
 		this.metadataReaderFactory = metadataReaderFactory;
 	}
@@ -287,7 +323,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			boolean debugEnabled = logger.isDebugEnabled();
 			for (String type : types) {
 				//MetadataReader元数据的读取器
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				MetadataReader metadataReader = index.getMetadataReader(type);
+				if (metadataReader == null) {
+					metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				}
 				if (isCandidateComponent(metadataReader)) {
 					AnnotatedGenericBeanDefinition sbd = new AnnotatedGenericBeanDefinition(
 							metadataReader.getAnnotationMetadata());
@@ -328,15 +367,18 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
+			List<ForkJoinTask<MetadataReader>> metadataReaderTasks = readMetadataInParallel(resources);
 			// 遍历每个找到的类对应的Resource 对象，获取其 MetadataReader
 			// 判断这是否是一个符合包含过滤器，并且不在排斥过滤器内的bean组件定义类
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				try {
+					MetadataReader metadataReader = (metadataReaderTasks != null ?
+							getMetadataReader(metadataReaderTasks.get(i)) : getMetadataReaderIfReadable(resource));
+					if (metadataReader != null) {
 						// 判断这是否是一个符合候选条件的bean组件定义类
 						// 如果符合条件的话，将其添加到候选类集合 : candidates
 
@@ -363,14 +405,20 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 								logger.trace("Ignored because not matching any filter: " + resource);
 							}
 						}
-					} catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					} else {
+						if (traceEnabled) {
+							logger.trace("Ignored because not readable: " + resource);
+						}
 					}
-				} else {
-					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+				} catch (Throwable ex) {
+					if (metadataReaderTasks != null) {
+						// Do not keep reading class files for a failed scan
+						for (ForkJoinTask<MetadataReader> task : metadataReaderTasks) {
+							task.cancel(false);
+						}
 					}
+					throw new BeanDefinitionStoreException(
+							"Failed to read candidate component class: " + resource, ex);
 				}
 			}
 		} catch (IOException ex) {
@@ -379,6 +427,65 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	@Nullable
+	private MetadataReader getMetadataReaderIfReadable(Resource resource) throws IOException {
+		return (resource.isReadable() ? getMetadataReaderFactory().getMetadataReader(resource) : null);
+	}
+
+	/**
+	 * Read the class files of the given resources on the configured
+	 * {@link ForkJoinPool}, if any.
+	 * @return one task per resource, in the order of the given resources,
+	 * or {@code null} if the class files are to be read sequentially
+	 */
+	@Nullable
+	private List<ForkJoinTask<MetadataReader>> readMetadataInParallel(Resource[] resources) {
+		ForkJoinPool forkJoinPool = this.forkJoinPool;
+		if (forkJoinPool == null || resources.length < 2) {
+			return null;
+		}
+		// Initialize the factory upfront rather than concurrently
+		getMetadataReaderFactory();
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		List<ForkJoinTask<MetadataReader>> tasks = new ArrayList<>(resources.length);
+		for (Resource resource : resources) {
+			tasks.add(forkJoinPool.submit(() -> {
+				// Read with the same thread context ClassLoader as sequential scanning
+				Thread currentThread = Thread.currentThread();
+				ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+				currentThread.setContextClassLoader(contextClassLoader);
+				try {
+					return getMetadataReaderIfReadable(resource);
+				}
+				finally {
+					currentThread.setContextClassLoader(previousClassLoader);
+				}
+			}));
+		}
+		return tasks;
+	}
+
+	@Nullable
+	private static MetadataReader getMetadataReader(ForkJoinTask<MetadataReader> task) throws Exception {
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw ex;
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ex;
+		}
+	}
+
 
 	//解析包
 	protected String resolveBasePackage(String basePackage) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,15 @@
 package org.springframework.context.index;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,10 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>If the index also provides the type metadata of the candidates, recorded in
+ * {@code META-INF/spring.components.metadata}, {@link #getMetadataReader(String)}
+ * exposes it without reading the class file of the candidate.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,9 +60,22 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, String> typeMetadata;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList(), null);
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> typeMetadata,
+			@Nullable ClassLoader classLoader) {
+
 		this.index = parseIndex(content);
+		this.typeMetadata = parseTypeMetadata(typeMetadata);
+		this.classLoader = classLoader;
 	}
 
 
@@ -76,6 +97,20 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return a {@link MetadataReader} for the specified candidate type, based on
+	 * the type metadata recorded in the index.
+	 * @param type the fully qualified name of the candidate type
+	 * @return the metadata reader, or {@code null} if the index does not provide
+	 * type metadata for the specified {@code type}
+	 * @since 5.0.16
+	 */
+	@Nullable
+	public MetadataReader getMetadataReader(String type) {
+		String metadata = this.typeMetadata.get(type);
+		return (metadata != null ? IndexedMetadataReader.create(metadata, this.classLoader) : null);
+	}
+
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
@@ -89,6 +124,14 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static Map<String, String> parseTypeMetadata(List<Properties> content) {
+		Map<String, String> typeMetadata = new HashMap<>();
+		for (Properties entry : content) {
+			entry.forEach((type, metadata) -> typeMetadata.putIfAbsent((String) type, (String) metadata));
+		}
+		return typeMetadata;
+	}
+
 	private static class Entry {
 		//类型--类名
 		private final String type;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,14 @@ public class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for the type metadata of the components.
+	 * <p>Can be present in multiple JAR files, next to
+	 * {@value #COMPONENTS_RESOURCE_LOCATION}.
+	 * @since 5.0.16
+	 */
+	public static final String TYPE_METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -96,17 +104,17 @@ public class CandidateComponentsIndexLoader {
 			if (!urls.hasMoreElements()) {
 				return null;
 			}
-			List<Properties> result = new ArrayList<>();
-			while (urls.hasMoreElements()) {
-				URL url = urls.nextElement();
-				Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
-				result.add(properties);
-			}
+			List<Properties> result = loadProperties(urls);
 			if (logger.isDebugEnabled()) {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			if (totalCount == 0) {
+				return null;
+			}
+			List<Properties> typeMetadata =
+					loadProperties(classLoader.getResources(TYPE_METADATA_RESOURCE_LOCATION));
+			return new CandidateComponentsIndex(result, typeMetadata, classLoader);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -114,4 +122,14 @@ public class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static List<Properties> loadProperties(Enumeration<URL> urls) throws IOException {
+		List<Properties> result = new ArrayList<>();
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
+			result.add(properties);
+		}
+		return result;
+	}
+
 }
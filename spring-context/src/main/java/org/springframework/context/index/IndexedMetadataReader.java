@@ -0,0 +1,353 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.util.function.BiFunction;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Type;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.AnnotationMetadataReadingVisitor;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MetadataReader} implementation based on the type metadata recorded in
+ * {@code META-INF/spring.components.metadata} by {@code spring-context-indexer},
+ * avoiding to read the class file of the candidate component.
+ *
+ * <p>The recorded class file structure is replayed on an
+ * {@link AnnotationMetadataReadingVisitor}, exposing the exact same metadata
+ * as an ASM-based {@link MetadataReader} would do for the class file.
+ *
+ * @since 5.0.16
+ * @see CandidateComponentsIndex#getMetadataReader(String)
+ */
+final class IndexedMetadataReader implements MetadataReader {
+
+	/**
+	 * The version of the type metadata format understood by this reader.
+	 */
+	static final int VERSION = 1;
+
+
+	private final Resource resource;
+
+	private final AnnotationMetadataReadingVisitor metadata;
+
+
+	private IndexedMetadataReader(Input input, @Nullable ClassLoader classLoader) {
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		int access = input.readInt();
+		String name = input.readRequiredString();
+		String superName = input.readString();
+		String[] interfaces = new String[input.readInt()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = input.readString();
+		}
+		visitor.visit(0, access, name, null, superName, interfaces);
+		int innerClassCount = input.readInt();
+		for (int i = 0; i < innerClassCount; i++) {
+			visitor.visitInnerClass(input.readString(), input.readString(), input.readString(), input.readInt());
+		}
+		readAnnotations(input, visitor::visitAnnotation);
+		int methodCount = input.readInt();
+		for (int i = 0; i < methodCount; i++) {
+			int methodAccess = input.readInt();
+			MethodVisitor methodVisitor =
+					visitor.visitMethod(methodAccess, input.readRequiredString(), input.readRequiredString(), null, null);
+			readAnnotations(input, (desc, visible) ->
+					(methodVisitor != null ? methodVisitor.visitAnnotation(desc, visible) : null));
+			if (methodVisitor != null) {
+				methodVisitor.visitEnd();
+			}
+		}
+		visitor.visitEnd();
+		input.assertFullyRead();
+
+		this.resource = new ClassPathResource(
+				ClassUtils.convertClassNameToResourcePath(visitor.getClassName()) + ClassUtils.CLASS_FILE_SUFFIX,
+				classLoader);
+		this.metadata = visitor;
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.metadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.metadata;
+	}
+
+
+	private static void readAnnotations(Input input, BiFunction<String, Boolean, AnnotationVisitor> visitorFactory) {
+		int count = input.readInt();
+		for (int i = 0; i < count; i++) {
+			String desc = input.readRequiredString();
+			boolean visible = (input.readInt() != 0);
+			readAttributes(input, visitorFactory.apply(desc, visible));
+		}
+	}
+
+	private static void readAttributes(Input input, @Nullable AnnotationVisitor visitor) {
+		int count = input.readInt();
+		for (int i = 0; i < count; i++) {
+			readValue(input, visitor, input.readString());
+		}
+		if (visitor != null) {
+			visitor.visitEnd();
+		}
+	}
+
+	private static void readValue(Input input, @Nullable AnnotationVisitor visitor, @Nullable String name) {
+		char tag = input.readChar();
+		switch (tag) {
+			case '@':
+				String desc = input.readRequiredString();
+				readAttributes(input, (visitor != null ? visitor.visitAnnotation(name, desc) : null));
+				return;
+			case '[':
+				AnnotationVisitor arrayVisitor = (visitor != null ? visitor.visitArray(name) : null);
+				int size = input.readInt();
+				for (int i = 0; i < size; i++) {
+					readValue(input, arrayVisitor, null);
+				}
+				if (arrayVisitor != null) {
+					arrayVisitor.visitEnd();
+				}
+				return;
+			case 'e':
+				String enumDesc = input.readRequiredString();
+				String enumValue = input.readRequiredString();
+				if (visitor != null) {
+					visitor.visitEnum(name, enumDesc, enumValue);
+				}
+				return;
+			case '#':
+				Object array = readPrimitiveArray(input);
+				if (visitor != null) {
+					visitor.visit(name, array);
+				}
+				return;
+			default:
+				Object value = readSimpleValue(input, tag);
+				if (visitor != null) {
+					visitor.visit(name, value);
+				}
+		}
+	}
+
+	private static Object readPrimitiveArray(Input input) {
+		char tag = input.readChar();
+		int size = input.readInt();
+		Object[] values = new Object[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = readSimpleValue(input, input.readChar());
+		}
+		switch (tag) {
+			case 'Z':
+				boolean[] booleans = new boolean[size];
+				for (int i = 0; i < size; i++) {
+					booleans[i] = (Boolean) values[i];
+				}
+				return booleans;
+			case 'B':
+				byte[] bytes = new byte[size];
+				for (int i = 0; i < size; i++) {
+					bytes[i] = (Byte) values[i];
+				}
+				return bytes;
+			case 'C':
+				char[] chars = new char[size];
+				for (int i = 0; i < size; i++) {
+					chars[i] = (Character) values[i];
+				}
+				return chars;
+			case 'S':
+				short[] shorts = new short[size];
+				for (int i = 0; i < size; i++) {
+					shorts[i] = (Short) values[i];
+				}
+				return shorts;
+			case 'I':
+				int[] ints = new int[size];
+				for (int i = 0; i < size; i++) {
+					ints[i] = (Integer) values[i];
+				}
+				return ints;
+			case 'J':
+				long[] longs = new long[size];
+				for (int i = 0; i < size; i++) {
+					longs[i] = (Long) values[i];
+				}
+				return longs;
+			case 'F':
+				float[] floats = new float[size];
+				for (int i = 0; i < size; i++) {
+					floats[i] = (Float) values[i];
+				}
+				return floats;
+			case 'D':
+				double[] doubles = new double[size];
+				for (int i = 0; i < size; i++) {
+					doubles[i] = (Double) values[i];
+				}
+				return doubles;
+			default:
+				throw new IllegalStateException("Unsupported primitive array type in type metadata: " + tag);
+		}
+	}
+
+	private static Object readSimpleValue(Input input, char tag) {
+		switch (tag) {
+			case 'Z':
+				return (input.readInt() != 0);
+			case 'B':
+				return (byte) input.readInt();
+			case 'C':
+				return (char) input.readInt();
+			case 'S':
+				return (short) input.readInt();
+			case 'I':
+				return input.readInt();
+			case 'J':
+				return Long.parseLong(input.readToken());
+			case 'F':
+				return Float.parseFloat(input.readToken());
+			case 'D':
+				return Double.parseDouble(input.readToken());
+			case 's':
+				return input.readString();
+			case 'c':
+				return Type.getType(input.readRequiredString());
+			default:
+				throw new IllegalStateException("Unsupported value type in type metadata: " + tag);
+		}
+	}
+
+
+	/**
+	 * Create a {@link MetadataReader} from the given encoded type metadata.
+	 * @param typeMetadata the type metadata recorded by the indexer
+	 * @param classLoader the ClassLoader to use for resolving annotation types
+	 * @return the corresponding reader, or {@code null} if the metadata has been
+	 * recorded in an unsupported version of the format
+	 * @throws IllegalStateException if the type metadata is malformed
+	 */
+	@Nullable
+	static MetadataReader create(String typeMetadata, @Nullable ClassLoader classLoader) {
+		Input input = new Input(typeMetadata);
+		if (input.readInt() != VERSION) {
+			return null;
+		}
+		return new IndexedMetadataReader(input, classLoader);
+	}
+
+
+	/**
+	 * Sequential reader for the tokens of the type metadata format.
+	 */
+	private static class Input {
+
+		private final String content;
+
+		private int position;
+
+		Input(String content) {
+			this.content = content;
+		}
+
+		char readChar() {
+			if (this.position >= this.content.length()) {
+				throw new IllegalStateException("Unexpected end of type metadata");
+			}
+			return this.content.charAt(this.position++);
+		}
+
+		String readToken() {
+			int end = this.content.indexOf(';', this.position);
+			if (end == -1) {
+				throw new IllegalStateException("Unexpected end of type metadata");
+			}
+			String token = this.content.substring(this.position, end);
+			this.position = end + 1;
+			return token;
+		}
+
+		int readInt() {
+			try {
+				return Integer.parseInt(readToken());
+			}
+			catch (NumberFormatException ex) {
+				throw new IllegalStateException("Malformed type metadata at position " + this.position, ex);
+			}
+		}
+
+		@Nullable
+		String readString() {
+			if (this.position < this.content.length() && this.content.charAt(this.position) == '~') {
+				this.position++;
+				return null;
+			}
+			int separator = this.content.indexOf(':', this.position);
+			if (separator == -1) {
+				throw new IllegalStateException("Unexpected end of type metadata");
+			}
+			int start = separator + 1;
+			int end;
+			try {
+				end = start + Integer.parseInt(this.content.substring(this.position, separator));
+			}
+			catch (NumberFormatException ex) {
+				throw new IllegalStateException("Malformed type metadata at position " + this.position, ex);
+			}
+			if (end > this.content.length()) {
+				throw new IllegalStateException("Unexpected end of type metadata");
+			}
+			this.position = end;
+			return this.content.substring(start, end);
+		}
+
+		String readRequiredString() {
+			String value = readString();
+			if (value == null) {
+				throw new IllegalStateException("Missing value in type metadata at position " + this.position);
+			}
+			return value;
+		}
+
+		void assertFullyRead() {
+			if (this.position != this.content.length()) {
+				throw new IllegalStateException("Unexpected trailing content in type metadata");
+			}
+		}
+	}
+
+}
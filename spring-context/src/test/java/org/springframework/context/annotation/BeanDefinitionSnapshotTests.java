@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshotWriter}, {@link BeanDefinitionSnapshotReader}
+ * and {@link SnapshotApplicationContext}.
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Test
+	public void loadSnapshotOfConfigurationClasses() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+
+		ConfigurableApplicationContext context = new SnapshotApplicationContext(generate(source));
+		try {
+			SnapshotConfig config = context.getBean(SnapshotConfig.class);
+			assertTrue(ClassUtils.isCglibProxy(config));
+			assertSame(context.getBean("testBean"), config.testBean());
+			assertEquals("spouse", context.getBean("testBean", TestBean.class).getSpouse().getName());
+			assertTrue(context.getBeanFactory().getBeanDefinition("spouse").isLazyInit());
+			assertArrayEquals(new String[] {"partner"}, context.getAliases("spouse"));
+			assertFalse(context.containsBean("skipped"));
+
+			ImportedConfig importedConfig = context.getBean(ImportedConfig.class);
+			assertNotNull(importedConfig.importMetadata);
+			assertEquals(SnapshotConfig.class.getName(), importedConfig.importMetadata.getClassName());
+			assertEquals("imported", context.getBean("importedBean", TestBean.class).getName());
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	@Test
+	public void loadSnapshotWithPropertyValues() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "value");
+		bd.getPropertyValues().add("age", 42);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("ignored", String.class.getName());
+		bd.setRole(BeanDefinition.ROLE_SUPPORT);
+		source.registerBeanDefinition("bean", bd);
+
+		SnapshotApplicationContext context = new SnapshotApplicationContext();
+		context.load(generate(source));
+		BeanDefinition restored = context.getBeanDefinition("bean");
+		assertEquals(TestBean.class.getName(), restored.getBeanClassName());
+		assertEquals(BeanDefinition.ROLE_SUPPORT, restored.getRole());
+		assertEquals(String.class.getName(),
+				restored.getConstructorArgumentValues().getGenericArgumentValues().get(0).getType());
+		context.refresh();
+		TestBean bean = context.getBean("bean", TestBean.class);
+		assertEquals("value", bean.getName());
+		assertEquals(42, bean.getAge());
+		context.close();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectInstanceSupplier() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.registerBean("testBean", TestBean.class, () -> new TestBean());
+		generate(source);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectPropertySource() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(PropertySourceConfig.class);
+		generate(source);
+	}
+
+	@Test(expected = BeanDefinitionStoreException.class)
+	public void loadInvalidSnapshot() {
+		new SnapshotApplicationContext(new ByteArrayResource(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+	}
+
+
+	private static ByteArrayResource generate(AnnotationConfigApplicationContext context) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotGenerator(context).generate(out);
+		return new ByteArrayResource(out.toByteArray());
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	static class SnapshotConfig {
+
+		@Bean
+		public TestBean testBean() {
+			TestBean testBean = new TestBean();
+			testBean.setSpouse(spouse());
+			return testBean;
+		}
+
+		@Bean({"spouse", "partner"})
+		@Lazy
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+
+		@Bean
+		@Conditional(NeverCondition.class)
+		public TestBean skipped() {
+			return new TestBean("skipped");
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+
+		@Bean
+		public TestBean importedBean() {
+			return new TestBean("imported");
+		}
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class PropertySourceConfig {
+	}
+
+
+	static class NeverCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return false;
+		}
+	}
+
+}
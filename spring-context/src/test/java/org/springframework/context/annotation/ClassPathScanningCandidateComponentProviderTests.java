@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,11 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.profilescan.DevComponent;
 import example.profilescan.ProfileAnnotatedComponent;
@@ -40,6 +43,7 @@ import example.scannable.sub.BarComponent;
 import org.aspectj.lang.annotation.Aspect;
 import org.junit.Test;
 
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.index.CandidateComponentsTestClassLoader;
@@ -90,6 +94,48 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, AnnotatedGenericBeanDefinition.class);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		ClassPathScanningCandidateComponentProvider parallelProvider = new ClassPathScanningCandidateComponentProvider(true);
+		parallelProvider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			parallelProvider.setForkJoinPool(forkJoinPool);
+			testDefault(parallelProvider, ScannedGenericBeanDefinition.class);
+			assertEquals(getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE)),
+					getBeanClassNames(parallelProvider.findCandidateComponents(TEST_BASE_PACKAGE)));
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void parallelScanWithInterruptedThread() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			provider.setForkJoinPool(forkJoinPool);
+			Thread.currentThread().interrupt();
+			provider.findCandidateComponents(TEST_BASE_PACKAGE);
+			fail("Should have thrown BeanDefinitionStoreException");
+		}
+		catch (BeanDefinitionStoreException ex) {
+			assertTrue(ex.getCause() instanceof InterruptedException);
+			assertTrue(Thread.currentThread().isInterrupted());
+		}
+		finally {
+			Thread.interrupted();
+			forkJoinPool.shutdownNow();
+		}
+	}
+
 	private void testDefault(ClassPathScanningCandidateComponentProvider provider,
 			Class<? extends BeanDefinition> expectedBeanDefinitionType) {
 		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
@@ -501,6 +547,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		}
 	}
 
+	private static List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
 			if (beanClass.getName().equals(candidate.getBeanClassName())) {
@@ -23,6 +23,10 @@ import java.util.Set;
 
 import org.junit.Test;
 
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.stereotype.Service;
+
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
@@ -33,6 +37,9 @@ import static org.junit.Assert.*;
  */
 public class CandidateComponentsIndexTests {
 
+	private static final String SAMPLE_TYPE_METADATA = "1;1;15:com/example/Foo16:java/lang/Object0;0;1;40:Lorg/springframework/stereotype/Service;1;1;5:values3:foo0;";
+
+
 	@Test
 	public void getCandidateTypes() {
 		CandidateComponentsIndex index = new CandidateComponentsIndex(
@@ -77,6 +84,50 @@ public class CandidateComponentsIndexTests {
 				contains("com.example.Foo"));
 	}
 
+	@Test
+	public void getMetadataReader() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(createProperties("com.example.Foo", SAMPLE_TYPE_METADATA)),
+				getClass().getClassLoader());
+		MetadataReader metadataReader = index.getMetadataReader("com.example.Foo");
+		assertNotNull(metadataReader);
+		assertEquals("Foo.class", metadataReader.getResource().getFilename());
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		assertEquals("com.example.Foo", metadata.getClassName());
+		assertEquals(Object.class.getName(), metadata.getSuperClassName());
+		assertTrue(metadata.isConcrete());
+		assertTrue(metadata.isIndependent());
+		assertTrue(metadata.isAnnotated(Service.class.getName()));
+		assertEquals("foo", metadata.getAnnotationAttributes(Service.class.getName()).get("value"));
+	}
+
+	@Test
+	public void getMetadataReaderWithoutTypeMetadata() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")));
+		assertNull(index.getMetadataReader("com.example.Foo"));
+	}
+
+	@Test
+	public void getMetadataReaderWithUnsupportedVersion() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(createProperties("com.example.Foo", "99;" + SAMPLE_TYPE_METADATA.substring(2))),
+				getClass().getClassLoader());
+		assertNull(index.getMetadataReader("com.example.Foo"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void getMetadataReaderWithMalformedTypeMetadata() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.Foo", "service")),
+				Collections.singletonList(createProperties("com.example.Foo",
+						SAMPLE_TYPE_METADATA.substring(0, SAMPLE_TYPE_METADATA.length() - 5))),
+				getClass().getClassLoader());
+		index.getMetadataReader("com.example.Foo");
+	}
+
 	private static Properties createProperties(String key, String stereotypes) {
 		Properties properties = new Properties();
 		properties.put(key, String.join(",", stereotypes));
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for repeated merged annotation lookups through
+ * {@link AnnotatedElementUtils}, as performed for every bean class and
+ * method by annotation-driven infrastructure.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Class<?> composedAnnotatedClass;
+
+		public Method interfaceAnnotatedMethod;
+
+		public Method plainMethod;
+
+		@Setup(Level.Trial)
+		public void setup() throws NoSuchMethodException {
+			this.composedAnnotatedClass = ComposedMappingController.class;
+			this.interfaceAnnotatedMethod = ComposedMappingController.class.getMethod("handle");
+			this.plainMethod = ComposedMappingController.class.getMethod("toString");
+		}
+	}
+
+
+	@Benchmark
+	public Mapping getMergedAnnotation(BenchmarkState state) {
+		return AnnotatedElementUtils.getMergedAnnotation(state.composedAnnotatedClass, Mapping.class);
+	}
+
+	@Benchmark
+	public AnnotationAttributes getMergedAnnotationAttributes(BenchmarkState state) {
+		return AnnotatedElementUtils.getMergedAnnotationAttributes(state.composedAnnotatedClass, Mapping.class);
+	}
+
+	@Benchmark
+	public Mapping findMergedAnnotationOnInterfaceMethod(BenchmarkState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.interfaceAnnotatedMethod, Mapping.class);
+	}
+
+	@Benchmark
+	public Mapping findMergedAnnotationNotPresent(BenchmarkState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.plainMethod, Mapping.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Mapping {
+
+		@AliasFor("path")
+		String[] value() default {};
+
+		@AliasFor("value")
+		String[] path() default {};
+
+		String[] produces() default {};
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Mapping(produces = "application/json")
+	public @interface JsonMapping {
+
+		@AliasFor(annotation = Mapping.class)
+		String[] path() default {};
+	}
+
+
+	public interface MappingInterface {
+
+		@JsonMapping(path = "/handle")
+		void handle();
+	}
+
+
+	@JsonMapping(path = "/api")
+	public static class ComposedMappingController implements MappingInterface {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher} matching and URI template variable
+ * extraction against a set of request-mapping style patterns.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"20", "2000"})
+		public int distinctPaths;
+
+		public AntPathMatcher pathMatcher;
+
+		public List<String> patterns;
+
+		public List<String> paths;
+
+		private int index;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.pathMatcher = new AntPathMatcher();
+			this.patterns = new ArrayList<>();
+			this.patterns.add("/api/users");
+			this.patterns.add("/api/users/{id}");
+			this.patterns.add("/api/users/{id}/orders/{orderId}");
+			this.patterns.add("/static/**/*.js");
+			this.patterns.add("/api/products/*/reviews");
+			this.paths = new ArrayList<>(this.distinctPaths);
+			for (int i = 0; i < this.distinctPaths; i++) {
+				switch (i % 4) {
+					case 0: this.paths.add("/api/users/" + i); break;
+					case 1: this.paths.add("/api/users/" + i + "/orders/" + (i * 7)); break;
+					case 2: this.paths.add("/static/js/lib" + i + "/app.js"); break;
+					default: this.paths.add("/api/products/p" + i + "/reviews"); break;
+				}
+			}
+		}
+
+		public String nextPath() {
+			String path = this.paths.get(this.index);
+			this.index = (this.index + 1) % this.paths.size();
+			return path;
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class HighCardinalityState {
+
+		@Param({"1000", "100000"})
+		public int distinctPatterns;
+
+		public AntPathMatcher pathMatcher;
+
+		public List<String> patterns;
+
+		private int index;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.pathMatcher = new AntPathMatcher();
+			this.patterns = new ArrayList<>(this.distinctPatterns);
+			for (int i = 0; i < this.distinctPatterns; i++) {
+				this.patterns.add("/tenants/t" + i + "/users/{id}");
+			}
+		}
+
+		public String nextPattern() {
+			String pattern = this.patterns.get(this.index);
+			this.index = (this.index + 1) % this.patterns.size();
+			return pattern;
+		}
+	}
+
+
+	@Benchmark
+	public void match(BenchmarkState state, Blackhole bh) {
+		String path = state.nextPath();
+		for (String pattern : state.patterns) {
+			bh.consume(state.pathMatcher.match(pattern, path));
+		}
+	}
+
+	@Benchmark
+	public Map<String, String> extractUriTemplateVariables(BenchmarkState state) {
+		return state.pathMatcher.extractUriTemplateVariables(
+				"/api/users/{id}/orders/{orderId}", "/api/users/42/orders/4711");
+	}
+
+	@Benchmark
+	public void matchHighCardinalityPatterns(HighCardinalityState state, Blackhole bh) {
+		bh.consume(state.pathMatcher.match(state.nextPattern(), "/tenants/t42/users/4711"));
+		bh.consume(state.pathMatcher.match("/api/users/{id}", "/api/users/4711"));
+	}
+
+}
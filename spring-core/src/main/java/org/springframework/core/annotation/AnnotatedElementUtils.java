@@ -18,6 +18,8 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,7 +33,9 @@ import java.util.Set;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -86,6 +90,14 @@ import org.springframework.util.MultiValueMap;
  * search algorithm manually traverses type and method hierarchies and thereby
  * implicitly supports annotation inheritance without a need for {@code @Inherited}.
  *
+ * <h3>Caching</h3>
+ * <p>As of 5.0.16, the results of {@code getMergedAnnotation()},
+ * {@code getMergedAnnotationAttributes()}, {@code findMergedAnnotation()} and
+ * {@code findMergedAnnotationAttributes()} are cached per class or class member,
+ * so that repeated lookups neither walk the annotation hierarchy again nor
+ * synthesize a new annotation. Merged attributes are handed out as a fresh copy
+ * for every call. The cache is cleared along with {@link AnnotationUtils#clearCache()}.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -107,6 +119,17 @@ public class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	/**
+	 * Cache marker for a merged annotation lookup without result.
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	private static final Map<MergedAnnotationCacheKey, Object> mergedAnnotationAttributesCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	private static final Map<MergedAnnotationCacheKey, Object> mergedAnnotationCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -301,10 +324,7 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
-		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor());
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(element, annotationType, null, false, false, false);
 	}
 
 	/**
@@ -360,10 +380,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(
+				element, null, annotationName, false, classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -386,15 +404,7 @@ public class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
-		// Shortcut: directly present on the element, with no merging needed?
-		A annotation = element.getDeclaredAnnotation(annotationType);
-		if (annotation != null) {
-			return AnnotationUtils.synthesizeAnnotation(annotation, element);
-		}
-
-		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return getCachedMergedAnnotation(element, annotationType, false);
 	}
 
 	/**
@@ -604,10 +614,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(
+				element, annotationType, null, true, classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -641,10 +649,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getCachedMergedAnnotationAttributes(
+				element, null, annotationName, true, classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -667,15 +673,7 @@ public class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
-		// Shortcut: directly present on the element, with no merging needed?
-		A annotation = element.getDeclaredAnnotation(annotationType);
-		if (annotation != null) {
-			return AnnotationUtils.synthesizeAnnotation(annotation, element);
-		}
-
-		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return getCachedMergedAnnotation(element, annotationType, true);
 	}
 
 	/**
@@ -774,6 +772,162 @@ public class AnnotatedElementUtils {
 		return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
 	}
 
+	/**
+	 * Clear the internal cache of merged annotations and merged annotation attributes.
+	 * @since 5.0.16
+	 * @see AnnotationUtils#clearCache()
+	 */
+	static void clearCache() {
+		mergedAnnotationAttributesCache.clear();
+		mergedAnnotationCache.clear();
+	}
+
+
+	/**
+	 * Retrieve the merged attributes for the specified {@code annotationType} or
+	 * {@code annotationName}, reusing the result of a previous search on the same
+	 * element if possible.
+	 * <p>The cached attributes are never exposed: each caller receives its own copy.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @param annotationName the fully qualified class name of the annotation
+	 * type to find (as an alternative to {@code annotationType})
+	 * @param findSemantics whether to follow <em>find semantics</em> rather than
+	 * <em>get semantics</em>
+	 * @param classValuesAsString whether to convert Class references into Strings
+	 * @param nestedAnnotationsAsMap whether to convert nested Annotation instances
+	 * into {@code AnnotationAttributes} maps
+	 * @return the merged {@code AnnotationAttributes}, or {@code null} if not found
+	 * @since 5.0.16
+	 */
+	@Nullable
+	private static AnnotationAttributes getCachedMergedAnnotationAttributes(AnnotatedElement element,
+			@Nullable Class<? extends Annotation> annotationType, @Nullable String annotationName,
+			boolean findSemantics, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+		if (!isCacheable(element)) {
+			return searchMergedAnnotationAttributes(element, annotationType, annotationName,
+					findSemantics, classValuesAsString, nestedAnnotationsAsMap);
+		}
+
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(element,
+				(annotationType != null ? annotationType : annotationName),
+				findSemantics, classValuesAsString, nestedAnnotationsAsMap);
+		Object result = mergedAnnotationAttributesCache.get(cacheKey);
+		if (result == null) {
+			AnnotationAttributes attributes = searchMergedAnnotationAttributes(element, annotationType, annotationName,
+					findSemantics, classValuesAsString, nestedAnnotationsAsMap);
+			result = (attributes != null ? attributes : NOT_FOUND);
+			mergedAnnotationAttributesCache.put(cacheKey, result);
+		}
+		return (result != NOT_FOUND ? copyAttributes((AnnotationAttributes) result) : null);
+	}
+
+	@Nullable
+	private static AnnotationAttributes searchMergedAnnotationAttributes(AnnotatedElement element,
+			@Nullable Class<? extends Annotation> annotationType, @Nullable String annotationName,
+			boolean findSemantics, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+		MergedAnnotationAttributesProcessor processor =
+				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap);
+		AnnotationAttributes attributes = (findSemantics ?
+				searchWithFindSemantics(element, annotationType, annotationName, processor) :
+				searchWithGetSemantics(element, annotationType, annotationName, processor));
+		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+		return attributes;
+	}
+
+	/**
+	 * Retrieve the merged, synthesized annotation of the specified {@code annotationType},
+	 * reusing the annotation synthesized by a previous search on the same element if possible.
+	 * <p>Synthesized annotations are immutable (their array attributes are cloned
+	 * on access), so the same instance can safely be handed out to every caller.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @param findSemantics whether to follow <em>find semantics</em> rather than
+	 * <em>get semantics</em>
+	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
+	 * @since 5.0.16
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static <A extends Annotation> A getCachedMergedAnnotation(
+			AnnotatedElement element, Class<A> annotationType, boolean findSemantics) {
+
+		if (!isCacheable(element)) {
+			return searchMergedAnnotation(element, annotationType, findSemantics);
+		}
+
+		MergedAnnotationCacheKey cacheKey =
+				new MergedAnnotationCacheKey(element, annotationType, findSemantics, false, false);
+		Object result = mergedAnnotationCache.get(cacheKey);
+		if (result == null) {
+			A annotation = searchMergedAnnotation(element, annotationType, findSemantics);
+			result = (annotation != null ? annotation : NOT_FOUND);
+			mergedAnnotationCache.put(cacheKey, result);
+		}
+		return (result != NOT_FOUND ? (A) result : null);
+	}
+
+	@Nullable
+	private static <A extends Annotation> A searchMergedAnnotation(
+			AnnotatedElement element, Class<A> annotationType, boolean findSemantics) {
+
+		// Shortcut: directly present on the element, with no merging needed?
+		A annotation = element.getDeclaredAnnotation(annotationType);
+		if (annotation != null) {
+			return AnnotationUtils.synthesizeAnnotation(annotation, element);
+		}
+
+		// Exhaustive retrieval of merged annotation attributes...
+		AnnotationAttributes attributes =
+				searchMergedAnnotationAttributes(element, annotationType, null, findSemantics, false, false);
+		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+	}
+
+	/**
+	 * Determine whether merged annotation lookups on the given element may be cached:
+	 * only classes and class members have a stable identity, in contrast to adapted
+	 * elements such as the ones built by {@link #forAnnotations}.
+	 */
+	private static boolean isCacheable(AnnotatedElement element) {
+		return (element instanceof Class || element instanceof Member);
+	}
+
+	/**
+	 * Create a copy of the given attributes, including nested attributes and arrays,
+	 * so that a caller modifying the returned attributes does not affect the cache.
+	 */
+	private static AnnotationAttributes copyAttributes(AnnotationAttributes attributes) {
+		AnnotationAttributes copy = new AnnotationAttributes(attributes);
+		for (Map.Entry<String, Object> entry : copy.entrySet()) {
+			entry.setValue(copyAttributeValue(entry.getValue()));
+		}
+		return copy;
+	}
+
+	@Nullable
+	private static Object copyAttributeValue(@Nullable Object value) {
+		if (value instanceof AnnotationAttributes) {
+			return copyAttributes((AnnotationAttributes) value);
+		}
+		if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			if (value instanceof AnnotationAttributes[]) {
+				AnnotationAttributes[] nested = (AnnotationAttributes[]) value;
+				for (int i = 0; i < length; i++) {
+					((AnnotationAttributes[]) copy)[i] = copyAttributes(nested[i]);
+				}
+			}
+			else {
+				System.arraycopy(value, 0, copy, 0, length);
+			}
+			return copy;
+		}
+		return value;
+	}
+
 	/**
 	 * Search for annotations of the specified {@code annotationName} or
 	 * {@code annotationType} on the specified {@code element}, following
@@ -1589,4 +1743,57 @@ public class AnnotatedElementUtils {
 		}
 	}
 
+
+	/**
+	 * Cache key for merged annotation lookups, reflecting the annotated element,
+	 * the annotation type (or annotation name) and the search options.
+	 * @since 5.0.16
+	 */
+	private static final class MergedAnnotationCacheKey {
+
+		private final AnnotatedElement element;
+
+		private final Object annotationType;
+
+		private final boolean findSemantics;
+
+		private final boolean classValuesAsString;
+
+		private final boolean nestedAnnotationsAsMap;
+
+		MergedAnnotationCacheKey(AnnotatedElement element, @Nullable Object annotationType,
+				boolean findSemantics, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+			Assert.notNull(annotationType, "Either annotationType or annotationName must be specified");
+			this.element = element;
+			this.annotationType = annotationType;
+			this.findSemantics = findSemantics;
+			this.classValuesAsString = classValuesAsString;
+			this.nestedAnnotationsAsMap = nestedAnnotationsAsMap;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MergedAnnotationCacheKey)) {
+				return false;
+			}
+			MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+			return (this.element.equals(otherKey.element) && this.annotationType.equals(otherKey.annotationType) &&
+					this.findSemantics == otherKey.findSemantics &&
+					this.classValuesAsString == otherKey.classValuesAsString &&
+					this.nestedAnnotationsAsMap == otherKey.nestedAnnotationsAsMap);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.element.hashCode() * 29 + this.annotationType.hashCode();
+			hashCode = hashCode * 29 + (this.findSemantics ? 1 : 0);
+			hashCode = hashCode * 29 + (this.classValuesAsString ? 1 : 0);
+			return hashCode * 29 + (this.nestedAnnotationsAsMap ? 1 : 0);
+		}
+	}
+
 }
@@ -1969,6 +1969,7 @@ public abstract class AnnotationUtils {
 		attributeAliasesCache.clear();
 		attributeMethodsCache.clear();
 		aliasDescriptorCache.clear();
+		AnnotatedElementUtils.clearCache();
 	}
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -51,11 +51,10 @@ public class ByteBufferDecoder extends AbstractDataBufferDecoder<ByteBuffer> {
 	protected ByteBuffer decodeDataBuffer(DataBuffer dataBuffer, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		ByteBuffer copy = ByteBuffer.allocate(dataBuffer.readableByteCount());
-		copy.put(dataBuffer.asByteBuffer());
-		copy.flip();
+		byte[] bytes = new byte[dataBuffer.readableByteCount()];
+		dataBuffer.read(bytes);
 		DataBufferUtils.release(dataBuffer);
-		return copy;
+		return ByteBuffer.wrap(bytes);
 	}
 
 }
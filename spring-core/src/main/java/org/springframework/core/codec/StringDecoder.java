@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,12 @@
 
 package org.springframework.core.codec;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -30,6 +34,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.CompositeDataBuffer;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
@@ -201,11 +206,65 @@ public class StringDecoder extends AbstractDataBufferDecoder<String> {
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		CharBuffer charBuffer;
+		if (dataBuffer instanceof CompositeDataBuffer) {
+			charBuffer = decode(((CompositeDataBuffer) dataBuffer).asByteBuffers(), charset);
+		}
+		else {
+			charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		}
 		DataBufferUtils.release(dataBuffer);
 		return charBuffer.toString();
 	}
 
+	/**
+	 * Decode the given buffers one after the other, rather than copying them
+	 * into a single buffer first. Bytes of a character that spans two buffers
+	 * are carried over to the next buffer. Malformed input is replaced, as
+	 * with {@link Charset#decode}.
+	 */
+	private static CharBuffer decode(ByteBuffer[] byteBuffers, Charset charset) {
+		CharsetDecoder decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		long byteCount = 0;
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			byteCount += byteBuffer.remaining();
+		}
+		CharBuffer result = CharBuffer.allocate((int) Math.ceil(byteCount * (double) decoder.maxCharsPerByte()));
+		ByteBuffer leftover = ByteBuffer.allocate(16);
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			// Complete a character carried over from the previous buffer
+			while (leftover.position() > 0 && byteBuffer.hasRemaining()) {
+				if (!leftover.hasRemaining()) {
+					leftover = grow(leftover, 1);
+				}
+				leftover.put(byteBuffer.get());
+				((Buffer) leftover).flip();
+				decoder.decode(leftover, result, false);
+				leftover.compact();
+			}
+			decoder.decode(byteBuffer, result, false);
+			if (byteBuffer.hasRemaining()) {
+				if (byteBuffer.remaining() > leftover.remaining()) {
+					leftover = grow(leftover, byteBuffer.remaining());
+				}
+				leftover.put(byteBuffer);
+			}
+		}
+		((Buffer) leftover).flip();
+		decoder.decode(leftover, result, true);
+		decoder.flush(result);
+		((Buffer) result).flip();
+		return result;
+	}
+
+	private static ByteBuffer grow(ByteBuffer byteBuffer, int minIncrement) {
+		ByteBuffer result = ByteBuffer.allocate(byteBuffer.capacity() + Math.max(minIncrement, byteBuffer.capacity()));
+		((Buffer) byteBuffer).flip();
+		return result.put(byteBuffer);
+	}
+
 	private static Charset getCharset(@Nullable MimeType mimeType) {
 		if (mimeType != null && mimeType.getCharset() != null) {
 			return mimeType.getCharset();
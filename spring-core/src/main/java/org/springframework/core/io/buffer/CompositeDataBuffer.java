@@ -0,0 +1,562 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBuffer} that presents the readable bytes of several buffers as one
+ * contiguous buffer, without copying them. Returned by
+ * {@link DefaultDataBufferFactory#join(List)} and hence by
+ * {@link DataBufferUtils#join}, so that the data of a multi-buffer body can be
+ * parsed via {@link #asInputStream()} without first being copied.
+ *
+ * <p>The composite takes ownership of the given buffers, which are
+ * {@linkplain DataBufferUtils#release released} along with the composite.
+ * Slices share the reference count of the composite they have been created
+ * from. Writes beyond the current capacity append a new buffer allocated from
+ * the {@linkplain #factory() factory}.
+ *
+ * <p>Note that {@link #asByteBuffer(int, int)} can only share data with this
+ * buffer if the requested range lies within a single underlying buffer; ranges
+ * spanning several buffers are copied. Consider {@link #asByteBuffers()} or
+ * {@link #asInputStream()} for zero-copy access to all data.
+ *
+ * @since 5.0.16
+ * @see DefaultDataBufferFactory#join(List)
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_GROWTH = 256;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<Component> components;
+
+	private final CompositeDataBuffer owner;
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} for the readable bytes of the
+	 * given buffers, taking ownership of them.
+	 * @param dataBufferFactory the factory to allocate additional capacity from
+	 * @param dataBuffers the buffers to compose
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notNull(dataBuffers, "DataBuffer List must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = new ArrayList<>(dataBuffers.size());
+		this.owner = this;
+		for (DataBuffer dataBuffer : dataBuffers) {
+			int length = dataBuffer.readableByteCount();
+			this.components.add(new Component(dataBuffer, dataBuffer.readPosition(), this.capacity, length));
+			this.capacity += length;
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(CompositeDataBuffer owner, List<Component> components, int length) {
+		this.dataBufferFactory = owner.dataBufferFactory;
+		this.components = components;
+		this.owner = owner;
+		this.capacity = length;
+		this.writePosition = length;
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			int start = Math.max(fromIndex, component.offset);
+			int end = Math.min(component.offset + component.length, this.writePosition);
+			for (int index = start; index < end; index++) {
+				if (predicate.test(component.getByte(index))) {
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		int from = Math.min(fromIndex, this.writePosition - 1);
+		if (from < 0) {
+			return -1;
+		}
+		for (int i = componentIndex(from); i >= 0; i--) {
+			Component component = this.components.get(i);
+			for (int index = Math.min(from, component.offset + component.length - 1);
+					index >= component.offset; index--) {
+				if (predicate.test(component.getByte(index))) {
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		Assert.isTrue(newCapacity > 0,
+				String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		if (this.owner != this) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+		if (newCapacity > this.capacity) {
+			int length = newCapacity - this.capacity;
+			DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(length);
+			dataBuffer.writePosition(length);
+			this.components.add(new Component(dataBuffer, 0, this.capacity, length));
+			this.capacity = newCapacity;
+		}
+		else if (newCapacity < this.capacity) {
+			int index = componentIndex(newCapacity - 1);
+			List<Component> removed = this.components.subList(index + 1, this.components.size());
+			removed.forEach(component -> DataBufferUtils.release(component.dataBuffer));
+			removed.clear();
+			Component last = this.components.get(index);
+			this.components.set(index, new Component(last.dataBuffer, last.base, last.offset,
+					newCapacity - last.offset));
+			this.capacity = newCapacity;
+			if (this.readPosition < newCapacity) {
+				this.writePosition = Math.min(this.writePosition, newCapacity);
+			}
+			else {
+				this.readPosition = newCapacity;
+				this.writePosition = newCapacity;
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		return this.components.get(componentIndex(index)).getByte(index);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = this.components.get(componentIndex(this.readPosition)).getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "'destination' must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "'destination' must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		int index = this.readPosition;
+		int end = index + length;
+		while (index < end) {
+			Component component = this.components.get(componentIndex(index));
+			int count = Math.min(end, component.offset + component.length) - index;
+			component.asByteBuffer(index, count).get(destination, offset, count);
+			offset += count;
+			index += count;
+		}
+		this.readPosition = end;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		Component component = this.components.get(componentIndex(this.writePosition));
+		component.asByteBuffer(this.writePosition, 1).put(b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "'source' must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "'source' must not be null");
+		return write(ByteBuffer.wrap(source, offset, length));
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		for (DataBuffer buffer : buffers) {
+			write(buffer.asByteBuffer());
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... byteBuffers) {
+		Assert.notEmpty(byteBuffers, "'byteBuffers' must not be empty");
+		int length = 0;
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			length += byteBuffer.remaining();
+		}
+		ensureCapacity(length);
+		for (ByteBuffer source : byteBuffers) {
+			while (source.hasRemaining()) {
+				Component component = this.components.get(componentIndex(this.writePosition));
+				int count = Math.min(source.remaining(), component.offset + component.length - this.writePosition);
+				ByteBuffer chunk = source.duplicate();
+				// Explicit access via Buffer base type for compatibility
+				// with covariant return type on JDK 9's ByteBuffer...
+				((Buffer) chunk).limit(chunk.position() + count);
+				component.asByteBuffer(this.writePosition, count).put(chunk);
+				((Buffer) source).position(source.position() + count);
+				this.writePosition += count;
+			}
+		}
+		return this;
+	}
+
+	private void ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			capacity(this.capacity + Math.max(length - writableByteCount(), MIN_GROWTH));
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		List<Component> slices = new ArrayList<>();
+		int end = index + length;
+		int position = index;
+		while (position < end) {
+			Component component = this.components.get(componentIndex(position));
+			int count = Math.min(end, component.offset + component.length) - position;
+			slices.add(new Component(component.dataBuffer, component.base + position - component.offset,
+					position - index, count));
+			position += count;
+		}
+		return new CompositeDataBuffer(this.owner, slices, length);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation shares data with this buffer only if the given
+	 * range lies within a single underlying buffer, copying it otherwise.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		if (length == 0) {
+			return ByteBuffer.allocate(0);
+		}
+		Component first = this.components.get(componentIndex(index));
+		if (index + length <= first.offset + first.length) {
+			return first.asByteBuffer(index, length);
+		}
+		ByteBuffer result = ByteBuffer.allocate(length);
+		int position = index;
+		int end = index + length;
+		while (position < end) {
+			Component component = this.components.get(componentIndex(position));
+			int count = Math.min(end, component.offset + component.length) - position;
+			result.put(component.asByteBuffer(position, count));
+			position += count;
+		}
+		((Buffer) result).flip();
+		return result;
+	}
+
+	/**
+	 * Expose the readable bytes of this buffer as one {@link ByteBuffer} per
+	 * underlying buffer, sharing data with this buffer. Changing the position
+	 * or limit of the returned buffers does not affect this buffer.
+	 * @return the byte buffers, in order
+	 */
+	public ByteBuffer[] asByteBuffers() {
+		List<ByteBuffer> result = new ArrayList<>(this.components.size());
+		int position = this.readPosition;
+		while (position < this.writePosition) {
+			Component component = this.components.get(componentIndex(position));
+			int count = Math.min(this.writePosition, component.offset + component.length) - position;
+			result.add(component.asByteBuffer(position, count));
+			position += count;
+		}
+		return result.toArray(new ByteBuffer[0]);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	@Override
+	public PooledDataBuffer retain() {
+		AtomicInteger refCount = this.owner.refCount;
+		while (true) {
+			int count = refCount.get();
+			Assert.state(count > 0, "DataBuffer has already been released");
+			if (refCount.compareAndSet(count, count + 1)) {
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public boolean release() {
+		AtomicInteger refCount = this.owner.refCount;
+		while (true) {
+			int count = refCount.get();
+			Assert.state(count > 0, "DataBuffer has already been released");
+			if (refCount.compareAndSet(count, count - 1)) {
+				if (count == 1) {
+					this.owner.components.forEach(component -> DataBufferUtils.release(component.dataBuffer));
+					return true;
+				}
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Return the index of the component containing the given index.
+	 */
+	private int componentIndex(int index) {
+		int low = 0;
+		int high = this.components.size() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (this.components.get(mid).offset <= index) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, components: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.components.size());
+	}
+
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private static void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	/**
+	 * A region of an underlying buffer, starting at {@code base} in that buffer
+	 * and at {@code offset} in the composite.
+	 */
+	private static final class Component {
+
+		final DataBuffer dataBuffer;
+
+		final int base;
+
+		final int offset;
+
+		final int length;
+
+		Component(DataBuffer dataBuffer, int base, int offset, int length) {
+			this.dataBuffer = dataBuffer;
+			this.base = base;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		byte getByte(int index) {
+			return this.dataBuffer.getByte(this.base + index - this.offset);
+		}
+
+		ByteBuffer asByteBuffer(int index, int length) {
+			return this.dataBuffer.asByteBuffer(this.base + index - this.offset, length);
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return (len == 0 ? 0 : -1);
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose && !this.closed) {
+				this.closed = true;
+				release();
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
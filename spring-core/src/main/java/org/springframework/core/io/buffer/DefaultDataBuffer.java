@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,7 +58,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	private int writePosition;
 
 
-	private DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
+	DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
 		Assert.notNull(dataBufferFactory, "DefaultDataBufferFactory must not be null");
 		Assert.notNull(byteBuffer, "ByteBuffer must not be null");
 		this.dataBufferFactory = dataBufferFactory;
@@ -215,7 +215,10 @@ public class DefaultDataBuffer implements DataBuffer {
 		return this;
 	}
 
-	private static ByteBuffer allocate(int capacity, boolean direct) {
+	/**
+	 * Allocate the native buffer for a change of {@link #capacity(int) capacity}.
+	 */
+	ByteBuffer allocate(int capacity, boolean direct) {
 		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
 	}
 
@@ -329,13 +332,20 @@ public class DefaultDataBuffer implements DataBuffer {
 			ByteBuffer slice = this.byteBuffer.slice();
 			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
 			((Buffer) slice).limit(length);
-			return new SlicedDefaultDataBuffer(slice, this.dataBufferFactory, length);
+			return createSlice(slice, length);
 		}
 		finally {
 			buffer.position(oldPosition);
 		}
 	}
 
+	/**
+	 * Create a buffer for the given {@link #slice(int, int) slice} of the native buffer.
+	 */
+	DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+		return new SlicedDefaultDataBuffer(slice, this.dataBufferFactory, length);
+	}
+
 	@Override
 	public ByteBuffer asByteBuffer() {
 		return asByteBuffer(this.readPosition, readableByteCount());
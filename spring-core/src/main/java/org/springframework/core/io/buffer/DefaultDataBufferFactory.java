@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -102,19 +102,17 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 
 	/**
 	 * {@inheritDoc}
-	 * <p>This implementation creates a single {@link DefaultDataBuffer}
-	 * to contain the data in {@code dataBuffers}.
+	 * <p>This implementation returns a {@link CompositeDataBuffer} referring to
+	 * the data in {@code dataBuffers} rather than copying it, or the given buffer
+	 * itself if there is only one.
 	 */
 	@Override
 	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
 		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
-		int capacity = dataBuffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
-		DefaultDataBuffer dataBuffer = allocateBuffer(capacity);
-		DataBuffer result = dataBuffers.stream()
-				.map(o -> (DataBuffer) o)
-				.reduce(dataBuffer, DataBuffer::write);
-		dataBuffers.forEach(DataBufferUtils::release);
-		return result;
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		return new CompositeDataBuffer(this, dataBuffers);
 	}
 
 
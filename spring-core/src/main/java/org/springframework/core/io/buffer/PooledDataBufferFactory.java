@@ -0,0 +1,569 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that allocates reference-counted
+ * {@link PooledDataBuffer PooledDataBuffers} from a memory pool, for runtimes
+ * without Netty such as Servlet containers and Undertow, to reduce allocations
+ * at high request rates.
+ *
+ * <p>The pool is organized in size classes, from 256 bytes up to the maximum
+ * pooled capacity in powers of two. Each size class carves fixed-size segments
+ * out of slabs that are allocated on demand, as long as the total pooled memory
+ * stays within the configured limit. Requests for a larger capacity, or for a
+ * size class without free segments once that limit is reached, are served with
+ * regular, unpooled buffers. Buffers allocated by this factory must be
+ * {@linkplain DataBufferUtils#release(DataBuffer) released} for their memory
+ * to be returned to the pool; {@link #wrap(ByteBuffer) wrapped} buffers are
+ * never pooled.
+ *
+ * <p>Buffers that are garbage-collected without having been released can be
+ * detected via {@link #setLeakDetection}, which is off by default as it
+ * records the stack trace of every allocation, and are reported to
+ * {@link #onLeak}. The state of the pool is exposed via metric accessors such
+ * as {@link #getPooledMemory()} and {@link #getActiveBufferCount()}.
+ *
+ * @since 5.0.16
+ * @see org.springframework.http.server.reactive.ServletHttpHandlerAdapter#setDataBufferFactory
+ * @see org.springframework.http.server.reactive.UndertowHttpHandlerAdapter#setDataBufferFactory
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 * @see #PooledDataBufferFactory(boolean, int, long)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default maximum amount of memory reserved by the pool, in bytes.
+	 * @see #PooledDataBufferFactory(boolean, int, long)
+	 */
+	public static final long DEFAULT_MAX_POOLED_MEMORY = 32 * 1024 * 1024;
+
+	private static final int MIN_SEGMENT_SIZE = 256;
+
+	private static final int SEGMENTS_PER_SLAB = 32;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final long maxPooledMemory;
+
+	private final SizeClass[] sizeClasses;
+
+	private final AtomicLong pooledMemory = new AtomicLong();
+
+	private final AtomicLong activeBuffers = new AtomicLong();
+
+	private final LongAdder pooledAllocations = new LongAdder();
+
+	private final LongAdder unpooledAllocations = new LongAdder();
+
+	private final LongAdder leaks = new LongAdder();
+
+	private volatile boolean leakDetection;
+
+	private final ReferenceQueue<Object> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether the
+	 * pool should be based on direct buffers.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOLED_MEMORY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether the
+	 * pool should be based on direct buffers, the maximum capacity of pooled
+	 * buffers, and the maximum amount of memory to reserve for the pool.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the maximum capacity of pooled buffers, rounded
+	 * up to the next power of two; buffers with a larger capacity are not pooled
+	 * @param maxPooledMemory the maximum amount of memory reserved by the pool,
+	 * in bytes; once reached, further buffers are not pooled
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, long maxPooledMemory) {
+		super(preferDirect);
+		Assert.isTrue(maxPooledCapacity > 0 && maxPooledCapacity <= (1 << 30),
+				"'maxPooledCapacity' must be between 1 and 2^30");
+		Assert.isTrue(maxPooledMemory >= 0, "'maxPooledMemory' must not be negative");
+		this.preferDirect = preferDirect;
+		this.maxPooledCapacity = Math.max(segmentSize(maxPooledCapacity), MIN_SEGMENT_SIZE);
+		this.maxPooledMemory = maxPooledMemory;
+		int count = sizeClassIndex(this.maxPooledCapacity) + 1;
+		this.sizeClasses = new SizeClass[count];
+		for (int i = 0; i < count; i++) {
+			this.sizeClasses[i] = new SizeClass(MIN_SEGMENT_SIZE << i);
+		}
+	}
+
+
+	/**
+	 * Specify whether to detect buffers that are garbage-collected without
+	 * having been released, reporting them to {@link #onLeak}.
+	 * <p>Default is {@code false}. Applies to buffers allocated after this
+	 * setting is changed, and records the stack trace of each allocation.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a {@link PooledDataBuffer}, which must be
+	 * released once no longer used.
+	 */
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must not be negative");
+		if (this.leakDetection) {
+			pollLeaks();
+		}
+		PooledDefaultDataBuffer dataBuffer =
+				new PooledDefaultDataBuffer(this, allocateSegment(initialCapacity), initialCapacity);
+		this.activeBuffers.incrementAndGet();
+		if (this.leakDetection) {
+			LeakTracker leakTracker = new LeakTracker(dataBuffer, this.leakQueue);
+			this.leakTrackers.add(leakTracker);
+			dataBuffer.leakTracker = leakTracker;
+		}
+		return dataBuffer;
+	}
+
+	private Segment allocateSegment(int capacity) {
+		if (capacity <= this.maxPooledCapacity) {
+			SizeClass sizeClass = this.sizeClasses[sizeClassIndex(capacity)];
+			Segment segment = sizeClass.poll();
+			if (segment == null) {
+				int count = reserveSegments(sizeClass.segmentSize);
+				if (count > 0) {
+					segment = sizeClass.addSlab(allocateByteBuffer(count * sizeClass.segmentSize));
+				}
+			}
+			if (segment != null) {
+				this.pooledAllocations.increment();
+				return segment;
+			}
+		}
+		this.unpooledAllocations.increment();
+		return new Segment(allocateByteBuffer(capacity), null);
+	}
+
+	private ByteBuffer allocateByteBuffer(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Reserve memory for a new slab of up to {@link #SEGMENTS_PER_SLAB}
+	 * segments of the given size, within the remaining pool memory.
+	 * @return the number of segments reserved, possibly 0
+	 */
+	private int reserveSegments(int segmentSize) {
+		while (true) {
+			long current = this.pooledMemory.get();
+			int count = (int) Math.min(SEGMENTS_PER_SLAB, (this.maxPooledMemory - current) / segmentSize);
+			if (count <= 0) {
+				return 0;
+			}
+			if (this.pooledMemory.compareAndSet(current, current + (long) count * segmentSize)) {
+				return count;
+			}
+		}
+	}
+
+	private void deallocate(PooledDefaultDataBuffer dataBuffer) {
+		recycle(dataBuffer.segment);
+		if (dataBuffer.retiredSegments != null) {
+			dataBuffer.retiredSegments.forEach(this::recycle);
+		}
+		LeakTracker leakTracker = dataBuffer.leakTracker;
+		if (leakTracker != null) {
+			this.leakTrackers.remove(leakTracker);
+			leakTracker.clear();
+		}
+		this.activeBuffers.decrementAndGet();
+	}
+
+	private void recycle(Segment segment) {
+		if (segment.sizeClass != null) {
+			segment.sizeClass.offer(segment);
+		}
+	}
+
+	private void pollLeaks() {
+		Reference<?> reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(reference)) {
+				this.leaks.increment();
+				this.activeBuffers.decrementAndGet();
+				onLeak(((LeakTracker) reference).allocationSite);
+			}
+		}
+	}
+
+	/**
+	 * Template method invoked when leak detection is enabled and a buffer has
+	 * been found to be garbage-collected without having been released. The
+	 * memory of such a buffer is not returned to the pool.
+	 * <p>The default implementation logs a warning.
+	 * @param allocationSite an exception recording the stack trace of the
+	 * allocation of the leaked buffer
+	 * @see #setLeakDetection
+	 */
+	protected void onLeak(Throwable allocationSite) {
+		if (logger.isWarnEnabled()) {
+			logger.warn("DataBuffer garbage-collected without having been released", allocationSite);
+		}
+	}
+
+
+	/**
+	 * Return the maximum capacity of pooled buffers.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+	/**
+	 * Return the maximum amount of memory reserved by the pool, in bytes.
+	 */
+	public long getMaxPooledMemory() {
+		return this.maxPooledMemory;
+	}
+
+	/**
+	 * Return the amount of memory currently reserved by the pool, in bytes,
+	 * including the memory of pooled buffers in use.
+	 */
+	public long getPooledMemory() {
+		return this.pooledMemory.get();
+	}
+
+	/**
+	 * Return the number of buffers allocated by this factory that have not
+	 * been released yet, excluding buffers found to be leaked.
+	 */
+	public long getActiveBufferCount() {
+		return this.activeBuffers.get();
+	}
+
+	/**
+	 * Return the total number of buffers allocated from the pool.
+	 */
+	public long getPooledAllocationCount() {
+		return this.pooledAllocations.sum();
+	}
+
+	/**
+	 * Return the total number of buffers allocated outside of the pool,
+	 * either due to their capacity or to the pool being exhausted.
+	 */
+	public long getUnpooledAllocationCount() {
+		return this.unpooledAllocations.sum();
+	}
+
+	/**
+	 * Return the total number of buffers found to be leaked so far.
+	 * @see #setLeakDetection
+	 */
+	public long getLeakCount() {
+		return this.leaks.sum();
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	private static int segmentSize(int capacity) {
+		return (capacity <= MIN_SEGMENT_SIZE ? MIN_SEGMENT_SIZE : Integer.highestOneBit(capacity - 1) << 1);
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		return Integer.numberOfTrailingZeros(segmentSize(capacity)) -
+				Integer.numberOfTrailingZeros(MIN_SEGMENT_SIZE);
+	}
+
+	private static ByteBuffer slice(ByteBuffer byteBuffer, int offset, int length) {
+		ByteBuffer duplicate = byteBuffer.duplicate();
+		// Explicit access via Buffer base type for compatibility
+		// with covariant return type on JDK 9's ByteBuffer...
+		((Buffer) duplicate).position(offset).limit(offset + length);
+		return duplicate.slice();
+	}
+
+	private static InputStream releasingInputStream(InputStream inputStream, PooledDataBuffer dataBuffer) {
+		return new FilterInputStream(inputStream) {
+			private boolean closed;
+			@Override
+			public void close() throws IOException {
+				if (!this.closed) {
+					this.closed = true;
+					super.close();
+					dataBuffer.release();
+				}
+			}
+		};
+	}
+
+
+	/**
+	 * Segments of the same size, carved out of slabs allocated on demand.
+	 */
+	private static final class SizeClass {
+
+		final int segmentSize;
+
+		private final Deque<Segment> freeSegments = new ArrayDeque<>();
+
+		SizeClass(int segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+		@Nullable
+		synchronized Segment poll() {
+			return this.freeSegments.pollFirst();
+		}
+
+		synchronized void offer(Segment segment) {
+			this.freeSegments.offerFirst(segment);
+		}
+
+		/**
+		 * Add the segments of the given slab, returning one of them for immediate use.
+		 */
+		synchronized Segment addSlab(ByteBuffer slab) {
+			for (int offset = this.segmentSize; offset < slab.capacity(); offset += this.segmentSize) {
+				this.freeSegments.offerLast(new Segment(slice(slab, offset, this.segmentSize), this));
+			}
+			return new Segment(slice(slab, 0, this.segmentSize), this);
+		}
+	}
+
+
+	/**
+	 * A region of memory backing a buffer, along with the size class it is
+	 * to be returned to, if pooled.
+	 */
+	private static final class Segment {
+
+		final ByteBuffer byteBuffer;
+
+		@Nullable
+		final SizeClass sizeClass;
+
+		Segment(ByteBuffer byteBuffer, @Nullable SizeClass sizeClass) {
+			this.byteBuffer = byteBuffer;
+			this.sizeClass = sizeClass;
+		}
+
+		ByteBuffer view(int capacity) {
+			return slice(this.byteBuffer, 0, capacity);
+		}
+	}
+
+
+	/**
+	 * Weak reference to a buffer, recording where it was allocated.
+	 */
+	private static final class LeakTracker extends WeakReference<Object> {
+
+		final Throwable allocationSite = new Throwable("DataBuffer allocated here");
+
+		LeakTracker(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+		}
+	}
+
+
+	/**
+	 * {@link PooledDataBuffer} backed by a segment of the pool. Segments left
+	 * behind by capacity changes are retained until the buffer is released,
+	 * since slices of the buffer may still refer to them.
+	 */
+	private static final class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory factory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		private Segment segment;
+
+		@Nullable
+		private List<Segment> retiredSegments;
+
+		@Nullable
+		private LeakTracker leakTracker;
+
+		PooledDefaultDataBuffer(PooledDataBufferFactory factory, Segment segment, int capacity) {
+			super(factory, segment.view(capacity));
+			this.factory = factory;
+			this.segment = segment;
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			if (this.retiredSegments == null) {
+				this.retiredSegments = new ArrayList<>(2);
+			}
+			this.retiredSegments.add(this.segment);
+			this.segment = this.factory.allocateSegment(capacity);
+			return this.segment.view(capacity);
+		}
+
+		@Override
+		DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+			return new PooledSlicedDataBuffer(slice, this, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? releasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			while (true) {
+				int count = this.refCount.get();
+				Assert.state(count > 0, "DataBuffer has already been released");
+				if (this.refCount.compareAndSet(count, count + 1)) {
+					return this;
+				}
+			}
+		}
+
+		@Override
+		public boolean release() {
+			while (true) {
+				int count = this.refCount.get();
+				Assert.state(count > 0, "DataBuffer has already been released");
+				if (this.refCount.compareAndSet(count, count - 1)) {
+					if (count == 1) {
+						this.factory.deallocate(this);
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return String.format("PooledDataBuffer (r: %d, w: %d, c: %d)",
+					readPosition(), writePosition(), capacity());
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledDefaultDataBuffer}, sharing its reference count.
+	 */
+	private static final class PooledSlicedDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		PooledSlicedDataBuffer(ByteBuffer byteBuffer, PooledDefaultDataBuffer parent, int length) {
+			super(parent.factory, byteBuffer);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		@Override
+		DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+			return new PooledSlicedDataBuffer(slice, this.parent, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? releasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+	}
+
+}
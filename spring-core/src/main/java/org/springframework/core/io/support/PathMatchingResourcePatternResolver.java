@@ -11,11 +11,16 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -23,6 +28,7 @@ import java.util.zip.ZipException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
@@ -103,6 +109,18 @@ import org.springframework.util.StringUtils;
  */
 public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
 
+	/**
+	 * System property that instructs Spring to resolve the root directories of
+	 * location patterns in parallel on the common {@link ForkJoinPool}, unless a
+	 * specific pool has been set: "spring.scanning.parallel".
+	 * <p>The default is "false". Parallel resolution is worth considering for
+	 * class path scanning across a large number of jar files.
+	 * @since 5.0.16
+	 * @see #setForkJoinPool
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.scanning.parallel";
+
+
 	private static final Log logger = LogFactory.getLog(PathMatchingResourcePatternResolver.class);
 
 	@Nullable
@@ -128,6 +146,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private ForkJoinPool forkJoinPool =
+			(SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME) ? ForkJoinPool.commonPool() : null);
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -191,6 +213,30 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set the {@link ForkJoinPool} to search the root directories of a location
+	 * pattern with, e.g. the jar files and class folders of a "classpath*:" pattern.
+	 * <p>Matching resources are collected per root directory in parallel and merged
+	 * in the order of the root directories, i.e. the result is the same as with
+	 * sequential resolution. Default is {@code null}, resolving root directories
+	 * sequentially in the calling thread, unless the
+	 * {@link #PARALLEL_SCANNING_PROPERTY_NAME} flag is set.
+	 * @since 5.0.16
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Return the {@link ForkJoinPool} that root directories are searched with,
+	 * or {@code null} if they are searched sequentially.
+	 * @since 5.0.16
+	 */
+	@Nullable
+	public ForkJoinPool getForkJoinPool() {
+		return this.forkJoinPool;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -415,24 +461,32 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
-			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
+		ForkJoinPool forkJoinPool = getForkJoinPool();
+		if (forkJoinPool != null && rootDirResources.length > 1) {
+			ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+			List<ForkJoinTask<Set<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				tasks.add(forkJoinPool.submit(() -> {
+					// Resolve with the same thread context ClassLoader as sequential resolution
+					Thread currentThread = Thread.currentThread();
+					ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+					currentThread.setContextClassLoader(contextClassLoader);
+					try {
+						return doFindPathMatchingResources(rootDirResource, subPattern);
+					}
+					finally {
+						currentThread.setContextClassLoader(previousClassLoader);
+					}
+				}));
 			}
-			else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
+			// Merge in the order of the root directories, just like sequential resolution
+			for (ForkJoinTask<Set<Resource>> task : tasks) {
+				result.addAll(getResult(task));
 			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(doFindPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isDebugEnabled()) {
@@ -441,6 +495,50 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 
+	private Set<Resource> doFindPathMatchingResources(Resource rootDirResource, String subPattern) throws IOException {
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
+	private static Set<Resource> getResult(ForkJoinTask<Set<Resource>> task) throws IOException {
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while resolving location pattern", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Failed to resolve location pattern", cause);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
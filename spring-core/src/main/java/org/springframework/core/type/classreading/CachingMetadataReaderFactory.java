@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,10 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>Metadata readers that are not locally cached yet may be obtained from the
+ * JVM-wide {@link SharedMetadataReaderCache}, avoiding to parse the same class
+ * files again for every application context.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -44,6 +48,10 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	@Nullable
+	private SharedMetadataReaderCache sharedCache =
+			(SharedMetadataReaderCache.isUsedByDefault() ? SharedMetadataReaderCache.getInstance() : null);
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -114,13 +122,34 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	}
 
 
+	/**
+	 * Specify whether to obtain metadata readers from the JVM-wide
+	 * {@link SharedMetadataReaderCache} before parsing a class file.
+	 * <p>Default is "false", unless the
+	 * {@link SharedMetadataReaderCache#SHARED_CACHE_PROPERTY_NAME} flag is set.
+	 * @since 5.0.16
+	 */
+	public void setUseSharedCache(boolean useSharedCache) {
+		this.sharedCache = (useSharedCache ? SharedMetadataReaderCache.getInstance() : null);
+	}
+
+	/**
+	 * Return whether this factory obtains metadata readers from the JVM-wide
+	 * {@link SharedMetadataReaderCache}.
+	 * @since 5.0.16
+	 */
+	public boolean isUseSharedCache() {
+		return (this.sharedCache != null);
+	}
+
+
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
 		if (this.metadataReaderCache instanceof ConcurrentMap) {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = readMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
@@ -129,19 +158,28 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			synchronized (this.metadataReaderCache) {
 				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+					metadataReader = readMetadataReader(resource);
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
 				return metadataReader;
 			}
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return readMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader readMetadataReader(Resource resource) throws IOException {
+		if (this.sharedCache != null) {
+			return this.sharedCache.getMetadataReader(resource, getResourceLoader().getClassLoader());
 		}
+		return super.getMetadataReader(resource);
 	}
 
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
+	 * <p>The {@link SharedMetadataReaderCache} is not affected since its entries
+	 * are bound to the last-modified timestamp of each class file.
 	 */
 	public void clearCache() {
 		if (this.metadataReaderCache instanceof LocalResourceCache) {
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * JVM-wide cache of ASM-based {@link MetadataReader} instances, allowing the
+ * class files of shared libraries to be parsed only once even if several
+ * application contexts (or several test contexts) scan the same classes.
+ *
+ * <p>Entries are keyed by the URL of the class file, its last-modified timestamp
+ * and the {@link ClassLoader} used for resolving annotation types: a modified
+ * class file or a different class loader leads to a fresh {@code MetadataReader}.
+ * Resources that cannot be resolved to a URL are not cached at all, and neither
+ * are readers for a class loader that may be discarded while this cache is still
+ * in use, i.e. any class loader other than the one that loaded this class or one
+ * of its ancestors: a {@code MetadataReader} keeps its class loader reachable.
+ *
+ * <p>Entries are held through soft references, so that the cache gives way under
+ * memory pressure, and the number of entries is bounded by a configurable limit
+ * (see {@link #CACHE_LIMIT_PROPERTY_NAME}), evicting an arbitrary entry once
+ * the limit is exceeded.
+ *
+ * <p>The shared cache is used by {@link CachingMetadataReaderFactory} instances
+ * if the {@link #SHARED_CACHE_PROPERTY_NAME} flag is set to "true", or if
+ * requested through {@link CachingMetadataReaderFactory#setUseSharedCache}.
+ *
+ * @since 5.0.16
+ * @see #getInstance()
+ */
+public final class SharedMetadataReaderCache {
+
+	/**
+	 * System property that instructs Spring to let all {@link CachingMetadataReaderFactory}
+	 * instances use the JVM-wide shared cache: "spring.classreading.cache.shared".
+	 * <p>The default is "false", i.e. each factory keeps its own cache.
+	 */
+	public static final String SHARED_CACHE_PROPERTY_NAME = "spring.classreading.cache.shared";
+
+	/**
+	 * System property for the maximum number of entries in the shared cache:
+	 * "spring.classreading.cache.limit".
+	 * @see #DEFAULT_CACHE_LIMIT
+	 */
+	public static final String CACHE_LIMIT_PROPERTY_NAME = "spring.classreading.cache.limit";
+
+	/** Default maximum number of entries for the shared cache: 8192 */
+	public static final int DEFAULT_CACHE_LIMIT = 8192;
+
+
+	private static final SharedMetadataReaderCache instance = new SharedMetadataReaderCache(determineCacheLimit());
+
+
+	private final ConcurrentReferenceHashMap<CacheKey, MetadataReader> cache = new ConcurrentReferenceHashMap<>();
+
+	private final int cacheLimit;
+
+
+	SharedMetadataReaderCache(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cacheLimit = cacheLimit;
+	}
+
+
+	/**
+	 * Return the maximum number of entries for this cache.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Obtain a {@link MetadataReader} for the given resource, parsing the class
+	 * file only if no reader has been cached for it yet.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @param classLoader the ClassLoader to resolve annotation types with
+	 * @return the MetadataReader instance (never {@code null})
+	 * @throws IOException in case of I/O failure
+	 */
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
+		CacheKey key = (isCacheSafe(classLoader) ? CacheKey.of(resource, classLoader) : null);
+		if (key == null) {
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		MetadataReader metadataReader = this.cache.get(key);
+		if (metadataReader == null) {
+			metadataReader = new SimpleMetadataReader(resource, classLoader);
+			MetadataReader existing = this.cache.putIfAbsent(key, metadataReader);
+			if (existing != null) {
+				metadataReader = existing;
+			}
+			else if (this.cache.size() > this.cacheLimit) {
+				evict(key);
+			}
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Return the current number of entries in this cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear() {
+		this.cache.clear();
+	}
+
+	private void evict(CacheKey retained) {
+		Iterator<CacheKey> keys = this.cache.keySet().iterator();
+		while (this.cache.size() > this.cacheLimit && keys.hasNext()) {
+			CacheKey key = keys.next();
+			if (!key.equals(retained)) {
+				keys.remove();
+			}
+		}
+	}
+
+
+	/**
+	 * Return the JVM-wide shared cache instance.
+	 */
+	public static SharedMetadataReaderCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Return whether the shared cache should be used by default,
+	 * as indicated by the {@link #SHARED_CACHE_PROPERTY_NAME} flag.
+	 */
+	static boolean isUsedByDefault() {
+		return SpringProperties.getFlag(SHARED_CACHE_PROPERTY_NAME);
+	}
+
+	/**
+	 * Check whether the given class loader lives at least as long as this cache,
+	 * i.e. whether it is the class loader of this class or one of its ancestors.
+	 */
+	private static boolean isCacheSafe(@Nullable ClassLoader classLoader) {
+		if (classLoader == null) {
+			return true;
+		}
+		try {
+			ClassLoader current = SharedMetadataReaderCache.class.getClassLoader();
+			while (current != null) {
+				if (current == classLoader) {
+					return true;
+				}
+				current = current.getParent();
+			}
+		}
+		catch (SecurityException ex) {
+			// Cannot introspect the class loader hierarchy -> not cache-safe
+		}
+		return false;
+	}
+
+	private static int determineCacheLimit() {
+		String cacheLimit = SpringProperties.getProperty(CACHE_LIMIT_PROPERTY_NAME);
+		if (cacheLimit != null) {
+			try {
+				return Integer.parseInt(cacheLimit.trim());
+			}
+			catch (NumberFormatException ex) {
+				throw new IllegalStateException("Invalid value for property '" +
+						CACHE_LIMIT_PROPERTY_NAME + "': " + cacheLimit, ex);
+			}
+		}
+		return DEFAULT_CACHE_LIMIT;
+	}
+
+
+	/**
+	 * Key for a class file in a given version, as seen by a given ClassLoader.
+	 */
+	private static final class CacheKey {
+
+		private final String url;
+
+		private final long lastModified;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private CacheKey(String url, long lastModified, @Nullable ClassLoader classLoader) {
+			this.url = url;
+			this.lastModified = lastModified;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.url.equals(otherKey.url) && this.lastModified == otherKey.lastModified &&
+					this.classLoader == otherKey.classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.url.hashCode() * 29 + Long.hashCode(this.lastModified)) * 29 +
+					System.identityHashCode(this.classLoader);
+		}
+
+		@Nullable
+		static CacheKey of(Resource resource, @Nullable ClassLoader classLoader) {
+			try {
+				// URL.equals would resolve host names: compare the external form instead
+				return new CacheKey(resource.getURL().toExternalForm(), resource.lastModified(), classLoader);
+			}
+			catch (IOException ex) {
+				// Resource cannot be identified by URL and version -> not cacheable
+				return null;
+			}
+		}
+	}
+
+}
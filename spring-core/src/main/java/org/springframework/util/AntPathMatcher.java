@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,12 @@
 
 package org.springframework.util;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -75,7 +75,7 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/" */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+	private static final int DEFAULT_CACHE_LIMIT = 65536;
 
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?\\}");
 
@@ -90,12 +90,15 @@ public class AntPathMatcher implements PathMatcher {
 
 	private boolean trimTokens = false;
 
-	@Nullable
-	private volatile Boolean cachePatterns;
+	private final boolean customTokenization =
+			(ReflectionUtils.findMethod(getClass(), "tokenizePath", String.class).getDeclaringClass() !=
+					AntPathMatcher.class);
 
-	private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+	private volatile ConcurrentLruCache<String, String[]> tokenizedPatternCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, this::tokenizePath);
 
-	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+	volatile ConcurrentLruCache<String, AntPathStringMatcher> stringMatcherCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, this::createStringMatcher);
 
 
 	/**
@@ -149,21 +152,17 @@ public class AntPathMatcher implements PathMatcher {
 	 * into this matcher's {@link #match} method. A value of {@code true}
 	 * activates an unlimited pattern cache; a value of {@code false} turns
 	 * the pattern cache off completely.
-	 * <p>Default is for the cache to be on, but with the variant to automatically
-	 * turn it off when encountering too many patterns to cache at runtime
-	 * (the threshold is 65536), assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Default is for the cache to be on but bounded to 65536 entries per
+	 * cache, evicting the least recently used patterns when encountering more
+	 * patterns at runtime, so that recurring patterns remain cached even when
+	 * arbitrary permutations of patterns are coming in as well.
 	 * @since 4.0.1
 	 * @see #getStringMatcher(String)
 	 */
 	public void setCachePatterns(boolean cachePatterns) {
-		this.cachePatterns = cachePatterns;
-	}
-
-	private void deactivatePatternCache() {
-		this.cachePatterns = false;
-		this.tokenizedPatternCache.clear();
-		this.stringMatcherCache.clear();
+		int cacheLimit = (cachePatterns ? Integer.MAX_VALUE : 0);
+		this.tokenizedPatternCache = new ConcurrentLruCache<>(cacheLimit, this::tokenizePath);
+		this.stringMatcherCache = new ConcurrentLruCache<>(cacheLimit, this::createStringMatcher);
 	}
 
 
@@ -202,12 +201,24 @@ public class AntPathMatcher implements PathMatcher {
 			return false;
 		}
 
-		String[] pathDirs = tokenizePath(path);
+		// Match against the bounds of the path segments rather than against
+		// substrings of the path, unless a subclass customizes tokenization
+		String[] pathDirs = null;
+		int[] pathBounds = null;
+		int pathDirCount;
+		if (this.customTokenization) {
+			pathDirs = tokenizePath(path);
+			pathDirCount = pathDirs.length;
+		}
+		else {
+			pathBounds = tokenizePathBounds(path);
+			pathDirCount = pathBounds.length / 2;
+		}
 
 		int pattIdxStart = 0;
 		int pattIdxEnd = pattDirs.length - 1;
 		int pathIdxStart = 0;
-		int pathIdxEnd = pathDirs.length - 1;
+		int pathIdxEnd = pathDirCount - 1;
 
 		// Match all elements up to the first **
 		while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
@@ -215,7 +226,7 @@ public class AntPathMatcher implements PathMatcher {
 			if ("**".equals(pattDir)) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxStart], uriTemplateVariables)) {
+			if (!matchStrings(pattDir, path, pathDirs, pathBounds, pathIdxStart, uriTemplateVariables)) {
 				return false;
 			}
 			pattIdxStart++;
@@ -255,7 +266,7 @@ public class AntPathMatcher implements PathMatcher {
 			if (pattDir.equals("**")) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxEnd], uriTemplateVariables)) {
+			if (!matchStrings(pattDir, path, pathDirs, pathBounds, pathIdxEnd, uriTemplateVariables)) {
 				return false;
 			}
 			pattIdxEnd--;
@@ -294,8 +305,7 @@ public class AntPathMatcher implements PathMatcher {
 			for (int i = 0; i <= strLength - patLength; i++) {
 				for (int j = 0; j < patLength; j++) {
 					String subPat = pattDirs[pattIdxStart + j + 1];
-					String subStr = pathDirs[pathIdxStart + i + j];
-					if (!matchStrings(subPat, subStr, uriTemplateVariables)) {
+					if (!matchStrings(subPat, path, pathDirs, pathBounds, pathIdxStart + i + j, uriTemplateVariables)) {
 						continue strLoop;
 					}
 				}
@@ -379,25 +389,7 @@ public class AntPathMatcher implements PathMatcher {
 	 * @return the tokenized pattern parts
 	 */
 	protected String[] tokenizePattern(String pattern) {
-		String[] tokenized = null;
-		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			tokenized = this.tokenizedPatternCache.get(pattern);
-		}
-		if (tokenized == null) {
-			tokenized = tokenizePath(pattern);
-			if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return tokenized;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.tokenizedPatternCache.put(pattern, tokenized);
-			}
-		}
-		return tokenized;
+		return this.tokenizedPatternCache.get(pattern);
 	}
 
 	/**
@@ -410,15 +402,74 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 	/**
-	 * Test whether or not a string matches against a pattern.
+	 * Determine the start and end index of each part of the given path String,
+	 * tokenizing it in the same way as {@link #tokenizePath(String)} but without
+	 * extracting the parts as Strings.
+	 * @param path the path to tokenize
+	 * @return the start (inclusive) and end (exclusive) index of each path part
+	 */
+	private int[] tokenizePathBounds(String path) {
+		String separators = this.pathSeparator;
+		int length = path.length();
+		int maxCount = 0;
+		boolean inSeparator = true;
+		for (int i = 0; i < length; i++) {
+			boolean separator = (separators.indexOf(path.charAt(i)) != -1);
+			if (inSeparator && !separator) {
+				maxCount++;
+			}
+			inSeparator = separator;
+		}
+		int[] bounds = new int[maxCount * 2];
+		int count = 0;
+		int pos = 0;
+		while (pos < length) {
+			int start = pos;
+			while (pos < length && separators.indexOf(path.charAt(pos)) == -1) {
+				pos++;
+			}
+			int end = pos;
+			pos++;
+			if (this.trimTokens) {
+				while (start < end && path.charAt(start) <= ' ') {
+					start++;
+				}
+				while (end > start && path.charAt(end - 1) <= ' ') {
+					end--;
+				}
+			}
+			if (start < end) {
+				bounds[count++] = start;
+				bounds[count++] = end;
+			}
+		}
+		return (count < bounds.length ? Arrays.copyOf(bounds, count) : bounds);
+	}
+
+	/**
+	 * Test whether or not a part of the path matches against a pattern.
 	 * @param pattern the pattern to match against (never {@code null})
-	 * @param str the String which must be matched against the pattern (never {@code null})
-	 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise
+	 * @param path the full path String
+	 * @param pathDirs the path parts, if tokenized into Strings
+	 * @param pathBounds the bounds of the path parts, if not tokenized into Strings
+	 * @param index the index of the path part to match
+	 * @return {@code true} if the path part matches against the pattern, or {@code false} otherwise
 	 */
-	private boolean matchStrings(String pattern, String str,
-			@Nullable Map<String, String> uriTemplateVariables) {
+	private boolean matchStrings(String pattern, String path, @Nullable String[] pathDirs,
+			@Nullable int[] pathBounds, int index, @Nullable Map<String, String> uriTemplateVariables) {
 
-		return getStringMatcher(pattern).matchStrings(str, uriTemplateVariables);
+		AntPathStringMatcher matcher = getStringMatcher(pattern);
+		if (pathDirs != null) {
+			return matcher.matchStrings(pathDirs[index], uriTemplateVariables);
+		}
+		Assert.state(pathBounds != null, "No path bounds");
+		int start = pathBounds[index * 2];
+		int end = pathBounds[index * 2 + 1];
+		if (matcher.getClass() != AntPathStringMatcher.class) {
+			// Custom matcher, potentially overriding matchStrings
+			return matcher.matchStrings(path.substring(start, end), uriTemplateVariables);
+		}
+		return matcher.matchRegion(path, start, end, uriTemplateVariables);
 	}
 
 	/**
@@ -426,34 +477,19 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>The default implementation checks this AntPathMatcher's internal cache
 	 * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
 	 * if no cached copy is found.
-	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-	 * it turns the default cache off, assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>By default, the cache is bounded to 65536 patterns, evicting the least
+	 * recently used patterns when encountering more patterns at runtime.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
 	 * @see #setCachePatterns
 	 */
 	protected AntPathStringMatcher getStringMatcher(String pattern) {
-		AntPathStringMatcher matcher = null;
-		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			matcher = this.stringMatcherCache.get(pattern);
-		}
-		if (matcher == null) {
-			matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-			if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return matcher;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.stringMatcherCache.put(pattern, matcher);
-			}
-		}
-		return matcher;
+		return this.stringMatcherCache.get(pattern);
+	}
+
+	private AntPathStringMatcher createStringMatcher(String pattern) {
+		return new AntPathStringMatcher(pattern, this.caseSensitive);
 	}
 
 	/**
@@ -628,6 +664,9 @@ public class AntPathMatcher implements PathMatcher {
 
 		private static final String DEFAULT_VARIABLE_PATTERN = "(.*)";
 
+		private final String rawPattern;
+
+		@Nullable
 		private final Pattern pattern;
 
 		private final List<String> variableNames = new LinkedList<>();
@@ -637,10 +676,13 @@ public class AntPathMatcher implements PathMatcher {
 		}
 
 		public AntPathStringMatcher(String pattern, boolean caseSensitive) {
+			this.rawPattern = pattern;
 			StringBuilder patternBuilder = new StringBuilder();
 			Matcher matcher = GLOB_PATTERN.matcher(pattern);
+			boolean glob = false;
 			int end = 0;
 			while (matcher.find()) {
+				glob = true;
 				patternBuilder.append(quote(pattern, end, matcher.start()));
 				String match = matcher.group();
 				if ("?".equals(match)) {
@@ -666,9 +708,15 @@ public class AntPathMatcher implements PathMatcher {
 				}
 				end = matcher.end();
 			}
-			patternBuilder.append(quote(pattern, end, pattern.length()));
-			this.pattern = (caseSensitive ? Pattern.compile(patternBuilder.toString()) :
-					Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE));
+			if (!glob && caseSensitive) {
+				// A case-sensitive literal pattern can be matched without a regex
+				this.pattern = null;
+			}
+			else {
+				patternBuilder.append(quote(pattern, end, pattern.length()));
+				this.pattern = (caseSensitive ? Pattern.compile(patternBuilder.toString()) :
+						Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE));
+			}
 		}
 
 		private String quote(String s, int start, int end) {
@@ -683,7 +731,22 @@ public class AntPathMatcher implements PathMatcher {
 		 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise.
 		 */
 		public boolean matchStrings(String str, @Nullable Map<String, String> uriTemplateVariables) {
-			Matcher matcher = this.pattern.matcher(str);
+			return matchRegion(str, 0, str.length(), uriTemplateVariables);
+		}
+
+		/**
+		 * Match the given region of a String against the pattern, without
+		 * extracting the region as a String.
+		 * @return {@code true} if the region matches against the pattern, or {@code false} otherwise.
+		 */
+		private boolean matchRegion(String str, int start, int end,
+				@Nullable Map<String, String> uriTemplateVariables) {
+
+			if (this.pattern == null) {
+				int length = end - start;
+				return (length == this.rawPattern.length() && str.regionMatches(start, this.rawPattern, 0, length));
+			}
+			Matcher matcher = this.pattern.matcher(str).region(start, end);
 			if (matcher.matches()) {
 				if (uriTemplateVariables != null) {
 					// SPR-8455
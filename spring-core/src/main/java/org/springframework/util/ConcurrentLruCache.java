@@ -0,0 +1,228 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Simple bounded cache for values generated from their keys, safe for
+ * concurrent use and meant for hot paths where lookups vastly outnumber
+ * insertions, e.g. for caching parsed patterns.
+ *
+ * <p>Eviction follows the CLOCK ("second chance") approximation of an LRU
+ * policy: a cache hit only flags the entry as recently used, without locking
+ * or reordering, and once the size limit is exceeded, entries are evicted in
+ * insertion order unless flagged, in which case the flag is cleared and the
+ * entry is given another round. Values may be generated more than once for
+ * the same key under contention, with only one of them being retained.
+ *
+ * <p>The numbers of cache hits, misses and evictions are tracked for
+ * monitoring purposes, without coordination between concurrent lookups.
+ *
+ * @since 5.0.16
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Entry<V>> cache;
+
+	private final ConcurrentLinkedQueue<K> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+		this.cache = new ConcurrentHashMap<>(Math.min(sizeLimit, 256));
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value and the eviction of other entries.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.sizeLimit == 0) {
+			this.missCount.increment();
+			return this.generator.apply(key);
+		}
+		Entry<V> entry = this.cache.get(key);
+		if (entry != null) {
+			this.hitCount.increment();
+			entry.markUsed();
+			return entry.value;
+		}
+		this.missCount.increment();
+		V value = this.generator.apply(key);
+		Entry<V> newEntry = new Entry<>(value);
+		entry = this.cache.putIfAbsent(key, newEntry);
+		if (entry != null) {
+			entry.markUsed();
+			return entry.value;
+		}
+		this.evictionQueue.offer(key);
+		if (this.cache.size() > this.sizeLimit) {
+			evict();
+		}
+		return value;
+	}
+
+	private void evict() {
+		this.evictionLock.lock();
+		try {
+			while (this.cache.size() > this.sizeLimit) {
+				K key = this.evictionQueue.poll();
+				if (key == null) {
+					return;
+				}
+				Entry<V> entry = this.cache.get(key);
+				if (entry == null) {
+					continue;
+				}
+				if (entry.used) {
+					entry.used = false;
+					this.evictionQueue.offer(key);
+				}
+				else if (this.cache.remove(key, entry)) {
+					this.evictionCount.increment();
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present, {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 */
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			this.cache.clear();
+			this.evictionQueue.clear();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return whether the cache is currently empty.
+	 */
+	public boolean isEmpty() {
+		return this.cache.isEmpty();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+
+	/**
+	 * Return the number of lookups that were served from the cache.
+	 * @see #missCount()
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that required the generation of a value,
+	 * including lookups in a cache with a size limit of 0.
+	 * @see #hitCount()
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries that were evicted from the cache
+	 * in order to stay within the size limit, not counting {@link #clear()}.
+	 */
+	public long evictionCount() {
+		return this.evictionCount.sum();
+	}
+
+
+	private static final class Entry<V> {
+
+		final V value;
+
+		volatile boolean used;
+
+		Entry(V value) {
+			this.value = value;
+		}
+
+		void markUsed() {
+			// Avoid writing to a shared entry on every hit
+			if (!this.used) {
+				this.used = true;
+			}
+		}
+	}
+
+}
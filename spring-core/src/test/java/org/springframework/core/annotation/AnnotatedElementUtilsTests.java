@@ -795,6 +795,55 @@ public class AnnotatedElementUtilsTests {
 		assertNotNull(order);
 	}
 
+	@Test
+	public void mergedAnnotationReusedForSameElement() throws Exception {
+		Class<?> element = AliasedComposedContextConfigClass.class;
+		ContextConfig contextConfig = getMergedAnnotation(element, ContextConfig.class);
+		assertNotNull(contextConfig);
+		assertArrayEquals(asArray("test.xml"), contextConfig.locations());
+		assertSame(contextConfig, getMergedAnnotation(element, ContextConfig.class));
+		assertSame(findMergedAnnotation(element, ContextConfig.class), findMergedAnnotation(element, ContextConfig.class));
+
+		Method method = TransactionalServiceImpl.class.getMethod("doIt");
+		assertNull(getMergedAnnotation(method, Transactional.class));
+		Transactional transactional = findMergedAnnotation(method, Transactional.class);
+		assertNotNull(transactional);
+		assertSame(transactional, findMergedAnnotation(method, Transactional.class));
+
+		AnnotationUtils.clearCache();
+		ContextConfig recomputed = getMergedAnnotation(element, ContextConfig.class);
+		assertNotSame(contextConfig, recomputed);
+		assertEquals(contextConfig, recomputed);
+	}
+
+	@Test
+	public void mergedAnnotationNotReusedForAdaptedElement() {
+		AnnotatedElement element = forAnnotations(AliasedComposedContextConfigClass.class.getAnnotations());
+		ContextConfig contextConfig = getMergedAnnotation(element, ContextConfig.class);
+		assertNotNull(contextConfig);
+		assertNotSame(contextConfig, getMergedAnnotation(element, ContextConfig.class));
+		assertEquals(contextConfig, getMergedAnnotation(element, ContextConfig.class));
+	}
+
+	@Test
+	public void mergedAnnotationAttributesCopiedForEachCall() {
+		Class<?> element = AliasedComposedContextConfigClass.class;
+		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, ContextConfig.class);
+		assertNotNull(attributes);
+		attributes.getStringArray("locations")[0] = "modified.xml";
+		attributes.put("value", asArray("modified.xml"));
+
+		attributes = getMergedAnnotationAttributes(element, ContextConfig.class);
+		assertArrayEquals(asArray("test.xml"), attributes.getStringArray("value"));
+		assertArrayEquals(asArray("test.xml"), attributes.getStringArray("locations"));
+		assertNotSame(attributes, getMergedAnnotationAttributes(element, ContextConfig.class));
+
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(element, ContextConfig.class.getName(), true, true);
+		attributes.getStringArray("locations")[0] = "modified.xml";
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(element, ContextConfig.class.getName(), true, true);
+		assertArrayEquals(asArray("test.xml"), attributes.getStringArray("locations"));
+	}
+
 
 	// -------------------------------------------------------------------------
 
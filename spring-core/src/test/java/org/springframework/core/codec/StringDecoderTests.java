@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -73,6 +73,19 @@ public class StringDecoderTests extends AbstractDataBufferAllocatingTestCase {
 				.verifyComplete();
 	}
 
+	@Test
+	public void decodeMalformedMultibyteCharacter() {
+		Flux<DataBuffer> source = Flux.just(
+				this.bufferFactory.wrap(new byte[] {'a'}),
+				this.bufferFactory.wrap(new byte[] {(byte) 0xC3}));
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+		StepVerifier.create(output)
+				.expectNext("a\uFFFD")
+				.verifyComplete();
+	}
+
 	private Flux<DataBuffer> toSingleByteDataBuffers(String s) {
 		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,7 +59,9 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
+				{new DefaultDataBufferFactory(false)},
+				{new PooledDataBufferFactory(true)},
+				{new PooledDataBufferFactory(false)}
 
 		};
 	}
@@ -118,6 +120,10 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				assertEquals("ByteBuf Leak: " + total + " unreleased allocations", 0, total);
 			}
 		}
+		else if (this.bufferFactory instanceof PooledDataBufferFactory) {
+			long total = ((PooledDataBufferFactory) this.bufferFactory).getActiveBufferCount();
+			assertEquals("DataBuffer Leak: " + total + " unreleased allocations", 0, total);
+		}
 	}
 
 	private static long getAllocations(List<PoolArenaMetric> metrics) {
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ */
+public class CompositeDataBufferTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory();
+
+
+	@Test
+	public void joinReturnsComposite() {
+		DataBuffer composite = composite("ab", "cd", "ef");
+		assertTrue(composite instanceof CompositeDataBuffer);
+		assertEquals(6, composite.readableByteCount());
+		assertEquals(3, this.bufferFactory.getActiveBufferCount());
+
+		assertTrue(DataBufferUtils.release(composite));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void joinSingleBuffer() {
+		DataBuffer buffer = stringBuffer("abc");
+		assertSame(buffer, this.bufferFactory.join(Arrays.asList(buffer)));
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void joinOnlyReadableBytes() {
+		DataBuffer first = stringBuffer("xab");
+		first.read();
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(first, stringBuffer("cd")));
+
+		assertEquals("abcd", readString(composite));
+		DataBufferUtils.release(composite);
+	}
+
+	@Test
+	public void read() {
+		DataBuffer composite = composite("ab", "c", "def");
+		assertEquals('a', composite.read());
+		byte[] bytes = new byte[4];
+		composite.read(bytes);
+		assertArrayEquals("bcde".getBytes(StandardCharsets.UTF_8), bytes);
+		assertEquals(1, composite.readableByteCount());
+		assertEquals('f', composite.getByte(5));
+
+		DataBufferUtils.release(composite);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void readBeyondWritePosition() {
+		DataBuffer composite = composite("ab", "cd");
+		try {
+			composite.read(new byte[5]);
+		}
+		finally {
+			DataBufferUtils.release(composite);
+		}
+	}
+
+	@Test
+	public void writeAppendsComponent() {
+		DataBuffer composite = composite("ab", "cd");
+		assertEquals(0, composite.writableByteCount());
+		composite.write((byte) 'e');
+		composite.write("fgh".getBytes(StandardCharsets.UTF_8));
+		assertEquals(3, this.bufferFactory.getActiveBufferCount());
+
+		assertEquals("abcdefgh", readString(composite));
+		assertTrue(DataBufferUtils.release(composite));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void writeAcrossComponents() {
+		DataBuffer composite = composite("ab", "cd");
+		composite.writePosition(1);
+		composite.write("BCDEF".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals("aBCDEF", readString(composite));
+		DataBufferUtils.release(composite);
+	}
+
+	@Test
+	public void indexOf() {
+		DataBuffer composite = composite("ab", "cd", "ef");
+		assertEquals(3, composite.indexOf(b -> b == 'd', 0));
+		assertEquals(-1, composite.indexOf(b -> b == 'd', 4));
+		assertEquals(-1, composite.indexOf(b -> b == 'z', 0));
+		assertEquals(1, composite.lastIndexOf(b -> b == 'b', 5));
+		assertEquals(-1, composite.lastIndexOf(b -> b == 'e', 3));
+		assertEquals(5, composite.lastIndexOf(b -> b == 'f', 10));
+
+		DataBufferUtils.release(composite);
+	}
+
+	@Test
+	public void slice() {
+		DataBuffer composite = composite("ab", "cd", "ef");
+		DataBuffer slice = composite.slice(1, 4);
+		assertEquals("bcde", readString(slice));
+
+		((PooledDataBuffer) slice).retain();
+		assertFalse(DataBufferUtils.release(composite));
+		assertEquals(3, this.bufferFactory.getActiveBufferCount());
+		assertTrue(DataBufferUtils.release(slice));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void sliceCapacity() {
+		DataBuffer composite = composite("ab", "cd");
+		try {
+			composite.slice(0, 3).capacity(10);
+		}
+		finally {
+			DataBufferUtils.release(composite);
+		}
+	}
+
+	@Test
+	public void asByteBuffer() {
+		DataBuffer composite = composite("ab", "cd");
+		ByteBuffer view = composite.asByteBuffer(2, 2);
+		view.put(0, (byte) 'C');
+		assertEquals('C', composite.getByte(2));
+
+		ByteBuffer copy = composite.asByteBuffer(1, 2);
+		assertEquals(2, copy.remaining());
+		assertEquals('b', copy.get(0));
+		assertEquals('C', copy.get(1));
+
+		DataBufferUtils.release(composite);
+	}
+
+	@Test
+	public void asByteBuffers() {
+		CompositeDataBuffer composite = (CompositeDataBuffer) composite("ab", "cd", "ef");
+		composite.read();
+		ByteBuffer[] byteBuffers = composite.asByteBuffers();
+		assertEquals(3, byteBuffers.length);
+		assertEquals(1, byteBuffers[0].remaining());
+		assertEquals('b', byteBuffers[0].get(0));
+		assertEquals(2, byteBuffers[2].remaining());
+
+		DataBufferUtils.release(composite);
+	}
+
+	@Test
+	public void inputStream() throws IOException {
+		DataBuffer composite = composite("ab", "cd", "ef");
+		InputStream inputStream = composite.asInputStream(true);
+		assertEquals(6, inputStream.available());
+		assertEquals('a', inputStream.read());
+		byte[] bytes = new byte[10];
+		assertEquals(5, inputStream.read(bytes, 0, 10));
+		assertEquals("bcdef", new String(bytes, 0, 5, StandardCharsets.UTF_8));
+		assertEquals(-1, inputStream.read());
+
+		inputStream.close();
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void decreaseCapacity() {
+		DataBuffer composite = composite("ab", "cd", "ef");
+		composite.capacity(3);
+		assertEquals(3, composite.capacity());
+		assertEquals(2, this.bufferFactory.getActiveBufferCount());
+		assertEquals("abc", readString(composite));
+
+		DataBufferUtils.release(composite);
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void releaseTwice() {
+		DataBuffer composite = composite("ab", "cd");
+		DataBufferUtils.release(composite);
+		((PooledDataBuffer) composite).release();
+	}
+
+
+	private DataBuffer composite(String... values) {
+		return this.bufferFactory.join(Arrays.stream(values).map(this::stringBuffer).collect(Collectors.toList()));
+	}
+
+	private DataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+	private static String readString(DataBuffer buffer) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
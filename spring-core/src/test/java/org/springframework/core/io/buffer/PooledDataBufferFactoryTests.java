@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 4096, 64 * 1024);
+
+
+	@Test
+	public void allocateAndRelease() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(100, buffer.capacity());
+		assertSame(this.bufferFactory, buffer.factory());
+		assertEquals(1, this.bufferFactory.getActiveBufferCount());
+		assertEquals(256 * 32, this.bufferFactory.getPooledMemory());
+
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+		assertEquals(1, this.bufferFactory.getPooledAllocationCount());
+		assertEquals(0, this.bufferFactory.getUnpooledAllocationCount());
+	}
+
+	@Test
+	public void reusesReleasedMemory() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(1000);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBufferUtils.release(buffer);
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(1000);
+		assertEquals(0, other.readableByteCount());
+		assertEquals(1000, other.capacity());
+		assertEquals(1024 * 32, this.bufferFactory.getPooledMemory());
+		assertEquals(2, this.bufferFactory.getPooledAllocationCount());
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void largeBufferNotPooled() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(4097);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(0, this.bufferFactory.getPooledMemory());
+		assertEquals(1, this.bufferFactory.getUnpooledAllocationCount());
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void exhaustedPool() {
+		DataBuffer[] buffers = new DataBuffer[17];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = this.bufferFactory.allocateBuffer(4096);
+		}
+		assertEquals(64 * 1024, this.bufferFactory.getPooledMemory());
+		assertEquals(16, this.bufferFactory.getPooledAllocationCount());
+		assertEquals(1, this.bufferFactory.getUnpooledAllocationCount());
+		for (DataBuffer buffer : buffers) {
+			DataBufferUtils.release(buffer);
+		}
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+		assertEquals(64 * 1024, this.bufferFactory.getPooledMemory());
+	}
+
+	@Test
+	public void capacityIncrease() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(2);
+		buffer.write("foobarbaz".getBytes(StandardCharsets.UTF_8));
+		buffer.write(new byte[300]);
+		assertEquals(309, buffer.readableByteCount());
+		byte[] result = new byte[3];
+		buffer.read(result);
+		assertArrayEquals("foo".getBytes(StandardCharsets.UTF_8), result);
+		assertEquals(256 * 32 + 512 * 32, this.bufferFactory.getPooledMemory());
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(8);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(slice));
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void inputStreamReleaseOnClose() throws Exception {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(8);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		InputStream inputStream = buffer.asInputStream(true);
+		assertEquals('f', inputStream.read());
+		inputStream.close();
+		inputStream.close();
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void join() {
+		DataBuffer buffer1 = this.bufferFactory.allocateBuffer(8);
+		buffer1.write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer buffer2 = this.bufferFactory.allocateBuffer(8);
+		buffer2.write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer result = this.bufferFactory.join(Arrays.asList(buffer1, buffer2));
+		assertTrue(result instanceof CompositeDataBuffer);
+		assertEquals("foobar", DataBufferTestUtils.dumpString(result, StandardCharsets.UTF_8));
+		// joined buffers stay active as components of the result, rather than being copied
+		assertEquals(2, this.bufferFactory.getActiveBufferCount());
+		assertEquals(256 * 32, this.bufferFactory.getPooledMemory());
+		DataBufferUtils.release(result);
+		assertEquals(0, this.bufferFactory.getActiveBufferCount());
+	}
+
+	@Test
+	public void leakDetection() throws Exception {
+		AtomicInteger leaks = new AtomicInteger();
+		PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory() {
+			@Override
+			protected void onLeak(Throwable allocationSite) {
+				leaks.incrementAndGet();
+			}
+		};
+		bufferFactory.setLeakDetection(true);
+		bufferFactory.allocateBuffer(8);
+		for (int i = 0; i < 100 && leaks.get() == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+			DataBufferUtils.release(bufferFactory.allocateBuffer(8));
+		}
+		assertEquals(1, leaks.get());
+		assertEquals(1, bufferFactory.getLeakCount());
+		assertEquals(0, bufferFactory.getActiveBufferCount());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -106,6 +107,22 @@ public class PathMatchingResourcePatternResolverTests {
 		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
 	}
 
+	@Test
+	public void classpathStarWithPatternResolvedInParallel() throws IOException {
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			parallelResolver.setForkJoinPool(forkJoinPool);
+			for (String pattern : new String[] {"classpath*:org/springframework/core/io/sup*/*.class",
+					"classpath*:org/reactivestreams/*.class", "classpath*:org/springframework/core/io/**/*.xml"}) {
+				assertArrayEquals(pattern, resolver.getResources(pattern), parallelResolver.getResources(pattern));
+			}
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
 	@Test
 	public void rootPatternRetrievalInJarFiles() throws IOException {
 		Resource[] resources = resolver.getResources("classpath*:*.dtd");
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SharedMetadataReaderCache}.
+ */
+public class SharedMetadataReaderCacheTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+
+	@Test
+	public void sameClassFileReadOnce() throws IOException {
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(16);
+		MetadataReader reader = cache.getMetadataReader(classFile(getClass()), this.classLoader);
+		assertEquals(getClass().getName(), reader.getClassMetadata().getClassName());
+		assertSame(reader, cache.getMetadataReader(classFile(getClass()), this.classLoader));
+		assertSame(reader, cache.getMetadataReader(
+				new UrlResource(classFile(getClass()).getURL()), this.classLoader));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void differentClassLoader() throws IOException {
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(16);
+		MetadataReader reader = cache.getMetadataReader(classFile(getClass()), this.classLoader);
+		ClassLoader otherClassLoader = new ClassLoader(this.classLoader) {};
+		assertNotSame(reader, cache.getMetadataReader(classFile(getClass()), otherClassLoader));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void discardedClassLoaderNotRetained() throws Exception {
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(16);
+		ClassLoader otherClassLoader = new URLClassLoader(new URL[0], this.classLoader);
+		MetadataReader reader = cache.getMetadataReader(classFile(getClass()), otherClassLoader);
+		assertEquals(getClass().getName(), reader.getClassMetadata().getClassName());
+		assertEquals(0, cache.size());
+
+		WeakReference<ClassLoader> classLoaderRef = new WeakReference<>(otherClassLoader);
+		otherClassLoader = null;
+		reader = null;
+		for (int i = 0; i < 10 && classLoaderRef.get() != null; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertNull(classLoaderRef.get());
+	}
+
+	@Test
+	public void modifiedClassFile() throws IOException {
+		File file = this.temporaryFolder.newFile("Sample.class");
+		try (InputStream in = classFile(getClass()).getInputStream()) {
+			Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		assertTrue(file.setLastModified(1000000L));
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(16);
+		MetadataReader reader = cache.getMetadataReader(new FileSystemResource(file), this.classLoader);
+		assertSame(reader, cache.getMetadataReader(new FileSystemResource(file), this.classLoader));
+
+		assertTrue(file.setLastModified(2000000L));
+		assertNotSame(reader, cache.getMetadataReader(new FileSystemResource(file), this.classLoader));
+	}
+
+	@Test
+	public void resourceWithoutUrlNotCached() throws IOException {
+		byte[] content = FileCopyUtils.copyToByteArray(classFile(getClass()).getInputStream());
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(16);
+		MetadataReader reader = cache.getMetadataReader(new ByteArrayResource(content), this.classLoader);
+		assertEquals(getClass().getName(), reader.getClassMetadata().getClassName());
+		assertNotSame(reader, cache.getMetadataReader(new ByteArrayResource(content), this.classLoader));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void cacheLimit() throws IOException {
+		SharedMetadataReaderCache cache = new SharedMetadataReaderCache(2);
+		cache.getMetadataReader(classFile(String.class), this.classLoader);
+		cache.getMetadataReader(classFile(Integer.class), this.classLoader);
+		MetadataReader reader = cache.getMetadataReader(classFile(Long.class), this.classLoader);
+		assertEquals(2, cache.size());
+		assertSame(reader, cache.getMetadataReader(classFile(Long.class), this.classLoader));
+	}
+
+	@Test
+	public void sharedAcrossCachingMetadataReaderFactories() throws IOException {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(this.classLoader);
+		factory.setUseSharedCache(true);
+		CachingMetadataReaderFactory otherFactory = new CachingMetadataReaderFactory(this.classLoader);
+		otherFactory.setUseSharedCache(true);
+		assertTrue(factory.isUseSharedCache());
+		assertSame(factory.getMetadataReader(getClass().getName()),
+				otherFactory.getMetadataReader(getClass().getName()));
+
+		otherFactory.setUseSharedCache(false);
+		otherFactory.clearCache();
+		assertNotSame(factory.getMetadataReader(getClass().getName()),
+				otherFactory.getMetadataReader(getClass().getName()));
+	}
+
+
+	private static Resource classFile(Class<?> clazz) {
+		return new ClassPathResource(clazz.getSimpleName() + ".class", clazz);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -615,11 +615,23 @@ public class AntPathMatcherTests {
 		match();
 		assertTrue(pathMatcher.stringMatcherCache.size() > 20);
 
-		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+		for (int i = 0; i < 70000; i++) {
+			pathMatcher.match("test" + i, "test" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		// Cache keeps being alive but bounded, retaining the most recent patterns
+		assertEquals(65536, pathMatcher.stringMatcherCache.size());
+		assertTrue(pathMatcher.stringMatcherCache.contains("test69999"));
+		assertFalse(pathMatcher.stringMatcherCache.contains("test0"));
+	}
+
+	@Test
+	public void defaultCacheSettingRetainsRecurringPatterns() {
+		for (int i = 0; i < 70000; i++) {
+			pathMatcher.match("/hotels/{hotel}", "/hotels/" + i);
+			pathMatcher.match("test" + i, "test" + i);
+		}
+		assertTrue(pathMatcher.stringMatcherCache.contains("{hotel}"));
+		assertTrue(pathMatcher.stringMatcherCache.contains("hotels"));
 	}
 
 	@Test
@@ -674,6 +686,33 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
 	}
 
+	@Test
+	public void matchWithSeparatorsAndWhitespaceInPath() {
+		assertTrue(pathMatcher.match("/foo/bar", "//foo///bar"));
+		assertTrue(pathMatcher.match("/foo/*/baz", "/foo//bar//baz"));
+		assertFalse(pathMatcher.match("/foo/bar", "/foo/ bar"));
+		assertEquals(Collections.singletonMap("bar", "bar"),
+				pathMatcher.extractUriTemplateVariables("/foo/{bar}/baz", "/foo//bar/baz"));
+
+		pathMatcher.setTrimTokens(true);
+		assertTrue(pathMatcher.match("/foo/bar", "/foo/ bar "));
+		assertTrue(pathMatcher.match("/foo/bar", "/foo/ /bar"));
+		assertEquals(Collections.singletonMap("bar", "bar"),
+				pathMatcher.extractUriTemplateVariables("/foo/{bar}/baz", "/foo/ bar\t/baz"));
+	}
+
+	@Test
+	public void matchWithCustomTokenization() {
+		AntPathMatcher customMatcher = new AntPathMatcher() {
+			@Override
+			protected String[] tokenizePath(String path) {
+				return super.tokenizePath(path.replaceAll(";[^/]*", ""));
+			}
+		};
+		assertTrue(customMatcher.match("/*/bar", "/foo/bar;a=b"));
+		assertFalse(pathMatcher.match("/*/bar", "/foo/bar;a=b"));
+	}
+
 	@Test
 	public void extensionMappingWithDotPathSeparator() {
 		pathMatcher.setPathSeparator(".");
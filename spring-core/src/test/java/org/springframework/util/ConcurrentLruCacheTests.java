@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConcurrentLruCache}.
+ */
+public class ConcurrentLruCacheTests {
+
+	private final AtomicInteger generated = new AtomicInteger();
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> {
+		this.generated.incrementAndGet();
+		return key.toUpperCase();
+	});
+
+
+	@Test
+	public void getAndSize() {
+		assertEquals(2, this.cache.sizeLimit());
+		assertTrue(this.cache.isEmpty());
+		assertEquals("K1", this.cache.get("k1"));
+		assertEquals(1, this.cache.size());
+		assertEquals("K1", this.cache.get("k1"));
+		assertEquals(1, this.generated.get());
+		assertEquals("K2", this.cache.get("k2"));
+		assertEquals(2, this.cache.size());
+		assertEquals(2, this.generated.get());
+	}
+
+	@Test
+	public void evictsOldestUnusedEntry() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k3");
+		assertEquals(2, this.cache.size());
+		assertFalse(this.cache.contains("k1"));
+		assertTrue(this.cache.contains("k2"));
+		assertTrue(this.cache.contains("k3"));
+	}
+
+	@Test
+	public void retainsRecentlyUsedEntry() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k1");
+		this.cache.get("k3");
+		assertEquals(2, this.cache.size());
+		assertTrue(this.cache.contains("k1"));
+		assertFalse(this.cache.contains("k2"));
+		assertTrue(this.cache.contains("k3"));
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.get("k1");
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k3");
+		assertEquals(1, this.cache.hitCount());
+		assertEquals(3, this.cache.missCount());
+		assertEquals(1, this.cache.evictionCount());
+	}
+
+	@Test
+	public void clear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.clear();
+		assertTrue(this.cache.isEmpty());
+		assertEquals("K1", this.cache.get("k1"));
+		assertEquals(3, this.generated.get());
+	}
+
+	@Test
+	public void zeroSizeLimit() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0, String::toUpperCase);
+		assertEquals("K1", cache.get("k1"));
+		assertTrue(cache.isEmpty());
+		assertFalse(cache.contains("k1"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeSizeLimit() {
+		new ConcurrentLruCache<String, String>(-1, String::toUpperCase);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.expression.spel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for SpEL parsing and evaluation of property navigation,
+ * method invocation and map indexing expressions, in interpreted as
+ * well as in compiled mode.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelExpressionBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"OFF", "IMMEDIATE"})
+		public SpelCompilerMode compilerMode;
+
+		public SpelExpressionParser parser;
+
+		public StandardEvaluationContext context;
+
+		public Expression propertyExpression;
+
+		public Expression methodExpression;
+
+		public Expression indexExpression;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.parser = new SpelExpressionParser(new SpelParserConfiguration(this.compilerMode, null));
+			Map<String, String> attributes = new HashMap<>();
+			attributes.put("region", "eu-west");
+			this.context = new StandardEvaluationContext(new Root("spring", attributes));
+			this.propertyExpression = this.parser.parseExpression("person.name");
+			this.methodExpression = this.parser.parseExpression("person.name.toUpperCase().length() > 3");
+			this.indexExpression = this.parser.parseExpression("attributes['region']");
+		}
+	}
+
+
+	@Benchmark
+	public Expression parse(BenchmarkState state) {
+		return state.parser.parseExpression("person.name.toUpperCase().length() > 3");
+	}
+
+	@Benchmark
+	public Object propertyAccess(BenchmarkState state) {
+		return state.propertyExpression.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation(BenchmarkState state) {
+		return state.methodExpression.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object mapIndexing(BenchmarkState state) {
+		return state.indexExpression.getValue(state.context);
+	}
+
+
+	public static class Root {
+
+		private final Person person;
+
+		private final Map<String, String> attributes;
+
+		public Root(String name, Map<String, String> attributes) {
+			this.person = new Person(name);
+			this.attributes = attributes;
+		}
+
+		public Person getPerson() {
+			return this.person;
+		}
+
+		public Map<String, String> getAttributes() {
+			return this.attributes;
+		}
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		public Person(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+}
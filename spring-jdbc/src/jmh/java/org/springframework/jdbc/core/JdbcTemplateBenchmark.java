@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.jdbc.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for {@link JdbcTemplate} row mapping against an embedded
+ * HSQLDB database, comparing a hand-written {@link RowMapper} with
+ * {@link BeanPropertyRowMapper} and {@link ColumnMapRowMapper}.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateBenchmark {
+
+	private static final String SELECT_SQL = "SELECT id, name, amount, active FROM benchmark_item";
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"100", "10000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public RowMapper<Item> beanPropertyRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.HSQL).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE benchmark_item (id BIGINT PRIMARY KEY, " +
+					"name VARCHAR(50), amount DOUBLE, active BOOLEAN)");
+			this.jdbcTemplate.batchUpdate("INSERT INTO benchmark_item VALUES (?, ?, ?, ?)",
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							ps.setLong(1, i);
+							ps.setString(2, "item" + i);
+							ps.setDouble(3, i * 1.5d);
+							ps.setBoolean(4, i % 2 == 0);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return BenchmarkState.this.rowCount;
+						}
+					});
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(Item.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public List<Item> handWrittenRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+			Item item = new Item();
+			item.setId(rs.getLong(1));
+			item.setName(rs.getString(2));
+			item.setAmount(rs.getDouble(3));
+			item.setActive(rs.getBoolean(4));
+			return item;
+		});
+	}
+
+	@Benchmark
+	public List<Item> beanPropertyRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.query(SELECT_SQL, state.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> columnMapRowMapper(BenchmarkState state) {
+		return state.jdbcTemplate.queryForList(SELECT_SQL);
+	}
+
+
+	public static class Item {
+
+		private long id;
+
+		private String name;
+
+		private double amount;
+
+		private boolean active;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public double getAmount() {
+			return this.amount;
+		}
+
+		public void setAmount(double amount) {
+			this.amount = amount;
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.beans.PropertyDescriptor;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -68,7 +69,8 @@ import org.springframework.util.StringUtils;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation, or a
+ * {@link GeneratedBeanPropertyRowMapper} which populates beans through generated code.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
@@ -234,6 +236,22 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		}
 	}
 
+	/**
+	 * Return the property mapped to the given field, i.e. a lower-case
+	 * column name, if any.
+	 */
+	@Nullable
+	PropertyDescriptor getMappedField(String field) {
+		return (this.mappedFields != null ? this.mappedFields.get(field) : null);
+	}
+
+	/**
+	 * Return the names of all properties we provide mapping for.
+	 */
+	Set<String> getMappedProperties() {
+		return (this.mappedProperties != null ? this.mappedProperties : Collections.emptySet());
+	}
+
 	/**
 	 * Convert a name in camelCase to an underscored name in lower case.
 	 * Any upper case letters are converted to lower case with a preceding underscore.
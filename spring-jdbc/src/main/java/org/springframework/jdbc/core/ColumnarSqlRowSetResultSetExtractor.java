@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.support.rowset.ColumnarSqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+/**
+ * {@link ResultSetExtractor} implementation that returns a column-oriented
+ * {@link ColumnarSqlRowSet} for each given {@link ResultSet}.
+ *
+ * <p>An alternative to {@link SqlRowSetResultSetExtractor} for large result
+ * sets, holding primitive column values without boxing them per row:
+ *
+ * <pre class="code">
+ * SqlRowSet rowSet = jdbcTemplate.query(sql, new ColumnarSqlRowSetResultSetExtractor());</pre>
+ *
+ * @since 5.0.16
+ * @see ColumnarSqlRowSet
+ * @see JdbcTemplate#query(String, ResultSetExtractor)
+ */
+public class ColumnarSqlRowSetResultSetExtractor implements ResultSetExtractor<SqlRowSet> {
+
+	@Override
+	public SqlRowSet extractData(ResultSet rs) throws SQLException {
+		return new ColumnarSqlRowSet(rs);
+	}
+
+}
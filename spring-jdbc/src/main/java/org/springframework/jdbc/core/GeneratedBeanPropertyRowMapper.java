@@ -0,0 +1,355 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.cglib.beans.BulkBean;
+import org.springframework.cglib.beans.BulkBeanException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Variant of {@link BeanPropertyRowMapper} that populates the mapped beans
+ * through a generated class, calling the setters for all mapped columns
+ * directly rather than through a {@link org.springframework.beans.BeanWrapper}.
+ * Meant for queries returning large numbers of rows.
+ *
+ * <p>Columns are matched to properties as in {@code BeanPropertyRowMapper}.
+ * The mapping of the columns of a {@link ResultSet} to properties, along with
+ * the generated class (a CGLIB {@link BulkBean}), is determined once per
+ * column layout and reused for all rows of all queries with the same layout.
+ * Values are retrieved by column index via {@link #getColumnValue} and
+ * converted through the {@link #setConversionService ConversionService} or
+ * default property editors only if they do not match the property type.
+ *
+ * <p>Differences from {@code BeanPropertyRowMapper}: {@link #initBeanWrapper}
+ * is not called, and with {@link #setPrimitivesDefaultedForNullValue} a null
+ * value for a primitive property sets the primitive's default value rather
+ * than leaving the property unchanged. If no class can be generated for the
+ * mapped class, e.g. since it is not accessible, rows are mapped the same way
+ * as by {@code BeanPropertyRowMapper}.
+ *
+ * @since 5.0.16
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ */
+public class GeneratedBeanPropertyRowMapper<T> extends BeanPropertyRowMapper<T> {
+
+	private static final Map<Class<?>, Object> primitiveDefaultValues = new HashMap<>(8);
+
+	static {
+		primitiveDefaultValues.put(boolean.class, false);
+		primitiveDefaultValues.put(byte.class, (byte) 0);
+		primitiveDefaultValues.put(short.class, (short) 0);
+		primitiveDefaultValues.put(char.class, '\0');
+		primitiveDefaultValues.put(int.class, 0);
+		primitiveDefaultValues.put(long.class, 0L);
+		primitiveDefaultValues.put(float.class, 0F);
+		primitiveDefaultValues.put(double.class, 0D);
+	}
+
+
+	private final Map<List<String>, ColumnMapping> columnMappings = new ConcurrentHashMap<>(4);
+
+	@Nullable
+	private volatile CurrentMapping currentMapping;
+
+	@Nullable
+	private Constructor<T> constructor;
+
+
+	/**
+	 * Create a new {@code GeneratedBeanPropertyRowMapper} for bean-style configuration.
+	 * @see #setMappedClass
+	 * @see #setCheckFullyPopulated
+	 */
+	public GeneratedBeanPropertyRowMapper() {
+	}
+
+	/**
+	 * Create a new {@code GeneratedBeanPropertyRowMapper}, accepting unpopulated
+	 * properties in the target bean.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public GeneratedBeanPropertyRowMapper(Class<T> mappedClass) {
+		super(mappedClass);
+	}
+
+	/**
+	 * Create a new {@code GeneratedBeanPropertyRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param checkFullyPopulated whether we're strictly validating that
+	 * all bean properties have been mapped from corresponding database fields
+	 */
+	public GeneratedBeanPropertyRowMapper(Class<T> mappedClass, boolean checkFullyPopulated) {
+		super(mappedClass, checkFullyPopulated);
+	}
+
+
+	@Override
+	protected void initialize(Class<T> mappedClass) {
+		super.initialize(mappedClass);
+		try {
+			this.constructor = ReflectionUtils.accessibleConstructor(mappedClass);
+		}
+		catch (NoSuchMethodException ex) {
+			// Let BeanUtils determine the constructor for each row
+			this.constructor = null;
+		}
+	}
+
+	@Override
+	public void setCheckFullyPopulated(boolean checkFullyPopulated) {
+		super.setCheckFullyPopulated(checkFullyPopulated);
+		resetColumnMappings();
+	}
+
+	@Override
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		super.setPrimitivesDefaultedForNullValue(primitivesDefaultedForNullValue);
+		resetColumnMappings();
+	}
+
+	private void resetColumnMappings() {
+		this.columnMappings.clear();
+		this.currentMapping = null;
+	}
+
+
+	/**
+	 * Extract the values for all mapped columns in the current row, and
+	 * populate a new instance of the mapped class with them.
+	 * @see #getColumnValue
+	 */
+	@Override
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		ColumnMapping mapping = getColumnMapping(rs);
+		if (mapping.bulkBean == null) {
+			return super.mapRow(rs, rowNumber);
+		}
+		if (mapping.unpopulatedProperties != null) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of class [" + mappedClass.getName() + "]: " +
+					mapping.unpopulatedProperties);
+		}
+
+		T mappedObject = (this.constructor != null ?
+				BeanUtils.instantiateClass(this.constructor) : BeanUtils.instantiateClass(mappedClass));
+		PropertyDescriptor[] properties = mapping.properties;
+		Object[] values = new Object[properties.length];
+		for (int i = 0; i < properties.length; i++) {
+			values[i] = getPropertyValue(rs, mapping.columnIndexes[i], properties[i], mapping.types[i], mappedObject);
+		}
+		try {
+			mapping.bulkBean.setPropertyValues(mappedObject, values);
+		}
+		catch (BulkBeanException ex) {
+			throw new DataRetrievalFailureException("Unable to map column " + mapping.columnIndexes[ex.getIndex()] +
+					" to property '" + properties[ex.getIndex()].getName() + "'", ex.getCause());
+		}
+		return mappedObject;
+	}
+
+	@Nullable
+	private Object getPropertyValue(ResultSet rs, int index, PropertyDescriptor pd, Class<?> type, Object bean)
+			throws SQLException {
+
+		Object value = getColumnValue(rs, index, pd);
+		if (value == null) {
+			if (type.isPrimitive()) {
+				if (!isPrimitivesDefaultedForNullValue()) {
+					throw new TypeMismatchException(
+							new PropertyChangeEvent(bean, pd.getName(), null, null), type);
+				}
+				return primitiveDefaultValues.get(type);
+			}
+			return null;
+		}
+		if (ClassUtils.isAssignableValue(type, value)) {
+			return value;
+		}
+		ConversionService conversionService = getConversionService();
+		if (conversionService != null && conversionService.canConvert(value.getClass(), type)) {
+			return conversionService.convert(value, type);
+		}
+		// Fall back to default property editors, as a BeanWrapper would
+		SimpleTypeConverter typeConverter = new SimpleTypeConverter();
+		typeConverter.setConversionService(conversionService);
+		try {
+			return typeConverter.convertIfNecessary(value, type);
+		}
+		catch (TypeMismatchException ex) {
+			throw new TypeMismatchException(new PropertyChangeEvent(bean, pd.getName(), null, value), type, ex);
+		}
+	}
+
+	/**
+	 * Return the mapping for the columns of the given result set, keeping it
+	 * for subsequent rows of the same result set.
+	 */
+	private ColumnMapping getColumnMapping(ResultSet rs) throws SQLException {
+		CurrentMapping current = this.currentMapping;
+		if (current != null && current.resultSet.get() == rs) {
+			return current.mapping;
+		}
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		List<String> fields = new ArrayList<>(columnCount);
+		for (int index = 1; index <= columnCount; index++) {
+			String column = JdbcUtils.lookupColumnName(rsmd, index);
+			fields.add(lowerCaseName(column.replaceAll(" ", "")));
+		}
+		ColumnMapping mapping = this.columnMappings.computeIfAbsent(fields, this::createColumnMapping);
+		this.currentMapping = new CurrentMapping(rs, mapping);
+		return mapping;
+	}
+
+	private ColumnMapping createColumnMapping(List<String> fields) {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		List<Integer> columnIndexes = new ArrayList<>(fields.size());
+		List<PropertyDescriptor> properties = new ArrayList<>(fields.size());
+		for (int i = 0; i < fields.size(); i++) {
+			PropertyDescriptor pd = getMappedField(fields.get(i));
+			if (pd != null) {
+				columnIndexes.add(i + 1);
+				properties.add(pd);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column " + (i + 1) + " ('" + fields.get(i) + "') to property '" +
+							pd.getName() + "' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("No property found for column " + (i + 1) + " mapped to field '" + fields.get(i) + "'");
+			}
+		}
+
+		int count = properties.size();
+		String[] setters = new String[count];
+		Class<?>[] types = new Class<?>[count];
+		Set<String> populatedProperties = new HashSet<>(count);
+		for (int i = 0; i < count; i++) {
+			PropertyDescriptor pd = properties.get(i);
+			setters[i] = pd.getWriteMethod().getName();
+			types[i] = pd.getWriteMethod().getParameterTypes()[0];
+			populatedProperties.add(pd.getName());
+		}
+		Set<String> unpopulatedProperties = null;
+		if (isCheckFullyPopulated() && !populatedProperties.equals(getMappedProperties())) {
+			unpopulatedProperties = getMappedProperties();
+		}
+
+		BulkBean bulkBean = null;
+		try {
+			bulkBean = BulkBean.create(mappedClass, new String[count], setters, types);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not generate property accessor for " + mappedClass +
+						" - falling back to BeanWrapper-based mapping", ex);
+			}
+		}
+		int[] indexes = new int[count];
+		for (int i = 0; i < count; i++) {
+			indexes[i] = columnIndexes.get(i);
+		}
+		return new ColumnMapping(bulkBean, indexes, properties.toArray(new PropertyDescriptor[0]),
+				types, unpopulatedProperties);
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code GeneratedBeanPropertyRowMapper}
+	 * (with the mapped class specified only once).
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> GeneratedBeanPropertyRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new GeneratedBeanPropertyRowMapper<>(mappedClass);
+	}
+
+
+	/**
+	 * The mapping of the columns of a given layout to bean properties.
+	 */
+	private static final class ColumnMapping {
+
+		@Nullable
+		final BulkBean bulkBean;
+
+		final int[] columnIndexes;
+
+		final PropertyDescriptor[] properties;
+
+		final Class<?>[] types;
+
+		@Nullable
+		final Set<String> unpopulatedProperties;
+
+		ColumnMapping(@Nullable BulkBean bulkBean, int[] columnIndexes, PropertyDescriptor[] properties,
+				Class<?>[] types, @Nullable Set<String> unpopulatedProperties) {
+
+			this.bulkBean = bulkBean;
+			this.columnIndexes = columnIndexes;
+			this.properties = properties;
+			this.types = types;
+			this.unpopulatedProperties = unpopulatedProperties;
+		}
+	}
+
+
+	/**
+	 * The column mapping for the result set currently being processed,
+	 * not preventing the result set from being garbage-collected.
+	 */
+	private static final class CurrentMapping {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final ColumnMapping mapping;
+
+		CurrentMapping(ResultSet resultSet, ColumnMapping mapping) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.mapping = mapping;
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.jdbc.core;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
@@ -132,6 +133,24 @@ public interface JdbcOperations {
 	 */
 	<T> List<T> query(String sql, RowMapper<T> rowMapper) throws DataAccessException;
 
+	/**
+	 * Execute a query given static SQL, mapping each row to a result object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream.
+	 * <p>Uses a JDBC Statement, not a PreparedStatement. If you want to
+	 * execute a static query with a PreparedStatement, use the overloaded
+	 * {@code queryForStream} method with {@code null} as argument array.
+	 * <p>Rows are mapped lazily as the Stream is consumed, with the JDBC
+	 * resources held open until the Stream is closed.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if there is any problem executing the query
+	 * @since 5.0.16
+	 * @see #queryForStream(String, RowMapper, Object...)
+	 */
+	<T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper) throws DataAccessException;
+
 	/**
 	 * Execute a query given static SQL, mapping a single result row to a
 	 * result object via a RowMapper.
@@ -514,6 +533,58 @@ public interface JdbcOperations {
 	 */
 	<T> List<T> query(String sql, RowMapper<T> rowMapper, @Nullable Object... args) throws DataAccessException;
 
+	/**
+	 * Query using a prepared statement, mapping each row to a result object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream.
+	 * <p>A PreparedStatementCreator can either be implemented directly or
+	 * configured through a PreparedStatementCreatorFactory.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if there is any problem
+	 * @since 5.0.16
+	 * @see PreparedStatementCreatorFactory
+	 */
+	<T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper) throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a
+	 * PreparedStatementSetter implementation that knows how to bind values
+	 * to the query, mapping each row to a result object via a RowMapper,
+	 * and turning it into an iterable and closeable Stream.
+	 * @param sql the SQL query to execute
+	 * @param pss a callback that knows how to set values on the prepared statement.
+	 * If this is {@code null}, the SQL will be assumed to contain no bind parameters.
+	 * Even if there are no bind parameters, this callback may be used to set the
+	 * fetch size and other performance options.
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.0.16
+	 */
+	<T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping each row to a result object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.0.16
+	 */
+	<T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException;
+
 	/**
 	 * Query given SQL to create a prepared statement from SQL and a list
 	 * of arguments to bind to the query, mapping a single result row to a
@@ -34,6 +34,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -41,6 +45,7 @@ import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.ConnectionHolder;
 import org.springframework.jdbc.datasource.ConnectionProxy;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcAccessor;
@@ -48,6 +53,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
@@ -146,6 +152,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/**
+	 * If this variable is set to a positive value, PreparedStatements for plain SQL
+	 * statements will be cached per transactional Connection, up to the given number.
+	 */
+	private int preparedStatementCacheSize = 0;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -310,6 +322,37 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set the maximum number of PreparedStatements to cache per Connection
+	 * within a transaction, reusing them for subsequent executions of the
+	 * same SQL statement in that transaction. Default is 0, not caching any
+	 * statements.
+	 * <p>Statements are cached in the {@link ConnectionHolder} bound for the
+	 * transaction, e.g. by {@link org.springframework.jdbc.datasource.DataSourceTransactionManager},
+	 * and get closed at transaction completion. Only statements for plain SQL,
+	 * without generated keys or non-default ResultSet settings, are cached;
+	 * statements used outside of a synchronized transaction or for
+	 * {@code queryForStream} are never cached.
+	 * <p>Useful for drivers without statement caching of their own. Note that
+	 * the cache is shared by all JdbcTemplate instances participating in the
+	 * same transaction, with statement settings such as the fetch size only
+	 * getting applied if specified for the current template.
+	 * @since 5.0.16
+	 * @see ConnectionHolder#cacheStatement
+	 */
+	public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+		this.preparedStatementCacheSize = preparedStatementCacheSize;
+	}
+
+	/**
+	 * Return the maximum number of PreparedStatements to cache per Connection
+	 * within a transaction.
+	 * @since 5.0.16
+	 */
+	public int getPreparedStatementCacheSize() {
+		return this.preparedStatementCacheSize;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -365,15 +408,30 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	@Nullable
 	public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+		return execute(action, true);
+	}
+
+	/**
+	 * Execute the given JDBC Statement callback, optionally leaving the
+	 * Statement and Connection open for the returned result to close them.
+	 * @param action callback object that specifies the action
+	 * @param closeResources whether to close the Statement and to release the
+	 * Connection once the callback has returned successfully
+	 * @return a result object returned by the action, or {@code null}
+	 */
+	@Nullable
+	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
+		boolean completed = false;
 		try {
 			stmt = con.createStatement();
 			applyStatementSettings(stmt);
 			T result = action.doInStatement(stmt);
 			handleWarnings(stmt);
+			completed = true;
 			return result;
 		}
 		catch (SQLException ex) {
@@ -387,8 +445,10 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("StatementCallback", sql, ex);
 		}
 		finally {
-			JdbcUtils.closeStatement(stmt);
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (closeResources || !completed) {
+				JdbcUtils.closeStatement(stmt);
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			}
 		}
 	}
 
@@ -455,6 +515,34 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(final String sql, final RowMapper<T> rowMapper) throws DataAccessException {
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL query [" + sql + "]");
+		}
+
+		class StreamStatementCallback implements StatementCallback<Stream<T>>, SqlProvider {
+			@Override
+			public Stream<T> doInStatement(Statement stmt) throws SQLException {
+				ResultSet rs = stmt.executeQuery(sql);
+				Connection con = stmt.getConnection();
+				return new ResultSetSpliterator<>(rs, rowMapper, sql).stream().onClose(() -> {
+					JdbcUtils.closeResultSet(rs);
+					JdbcUtils.closeStatement(stmt);
+					DataSourceUtils.releaseConnection(con, getDataSource());
+				});
+			}
+			@Override
+			public String getSql() {
+				return sql;
+			}
+		}
+
+		return result(execute(new StreamStatementCallback(), false));
+	}
+
 	@Override
 	public Map<String, Object> queryForMap(String sql) throws DataAccessException {
 		return result(queryForObject(sql, getColumnMapRowMapper()));
@@ -589,6 +677,22 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
 			throws DataAccessException {
 
+		return execute(psc, action, true);
+	}
+
+	/**
+	 * Execute the given JDBC PreparedStatement callback, optionally leaving the
+	 * PreparedStatement and Connection open for the returned result to close them.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param action callback object that specifies the action
+	 * @param closeResources whether to close the PreparedStatement and to release
+	 * the Connection once the callback has returned successfully
+	 * @return a result object returned by the action, or {@code null}
+	 */
+	@Nullable
+	private <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action,
+			boolean closeResources) throws DataAccessException {
+
 		Assert.notNull(psc, "PreparedStatementCreator must not be null");
 		Assert.notNull(action, "Callback object must not be null");
 		if (logger.isDebugEnabled()) {
@@ -597,12 +701,24 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		String cacheSql = (closeResources ? getReusableSql(psc) : null);
+		ConnectionHolder statementCache = (cacheSql != null ? getStatementCache(con) : null);
 		PreparedStatement ps = null;
+		boolean completed = false;
 		try {
-			ps = psc.createPreparedStatement(con);
+			if (statementCache != null) {
+				ps = statementCache.getCachedStatement(cacheSql);
+			}
+			if (ps != null) {
+				((ReusablePreparedStatementCreator) psc).setValues(ps);
+			}
+			else {
+				ps = psc.createPreparedStatement(con);
+			}
 			applyStatementSettings(ps);
 			T result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			completed = true;
 			return result;
 		}
 		catch (SQLException ex) {
@@ -623,9 +739,55 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			if (psc instanceof ParameterDisposer) {
 				((ParameterDisposer) psc).cleanupParameters();
 			}
-			JdbcUtils.closeStatement(ps);
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (closeResources || !completed) {
+				if (!completed || statementCache == null || !cacheStatement(statementCache, cacheSql, ps)) {
+					JdbcUtils.closeStatement(ps);
+				}
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			}
+		}
+	}
+
+	/**
+	 * Determine the SQL to cache statements of the given creator for, if any.
+	 */
+	@Nullable
+	private String getReusableSql(PreparedStatementCreator psc) {
+		if (this.preparedStatementCacheSize <= 0 || !(psc instanceof ReusablePreparedStatementCreator)) {
+			return null;
 		}
+		return ((ReusablePreparedStatementCreator) psc).getReusableSql();
+	}
+
+	/**
+	 * Determine the transactional ConnectionHolder for the given Connection, if any.
+	 */
+	@Nullable
+	private ConnectionHolder getStatementCache(Connection con) {
+		Object resource = TransactionSynchronizationManager.getResource(obtainDataSource());
+		if (resource instanceof ConnectionHolder) {
+			ConnectionHolder conHolder = (ConnectionHolder) resource;
+			if (conHolder.isSynchronizedWithTransaction() && conHolder.getConnectionHandle() != null &&
+					conHolder.getConnection() == con) {
+				return conHolder;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the given statement to the cache, clearing its parameters.
+	 * @return whether the statement has been cached
+	 */
+	private boolean cacheStatement(ConnectionHolder statementCache, String sql, PreparedStatement ps) {
+		try {
+			ps.clearParameters();
+		}
+		catch (SQLException ex) {
+			logger.debug("Could not clear parameters of JDBC PreparedStatement - not caching it", ex);
+			return false;
+		}
+		return statementCache.cacheStatement(sql, ps, this.preparedStatementCacheSize);
 	}
 
 	@Override
@@ -755,6 +917,75 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, args, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	/**
+	 * Query using a prepared statement, allowing for a PreparedStatementCreator
+	 * and a PreparedStatementSetter, mapping each row to a result object via a
+	 * RowMapper and exposing the mapped objects as a lazily populated Stream.
+	 * <p>The PreparedStatement, the ResultSet and the Connection stay open until
+	 * the returned Stream is closed; rows are fetched from the ResultSet as the
+	 * Stream is consumed, in batches of the configured {@link #setFetchSize
+	 * fetch size}.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param pss a callback that knows how to set values on the prepared statement.
+	 * If this is {@code null}, the SQL will be assumed to contain no bind parameters.
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.0.16
+	 */
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, @Nullable final PreparedStatementSetter pss,
+			final RowMapper<T> rowMapper) throws DataAccessException {
+
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		logger.debug("Executing prepared SQL query");
+
+		final String sql = getSql(psc);
+		return result(execute(psc, ps -> {
+			ResultSet rs;
+			try {
+				if (pss != null) {
+					pss.setValues(ps);
+				}
+				rs = ps.executeQuery();
+			}
+			catch (SQLException | RuntimeException | Error ex) {
+				if (pss instanceof ParameterDisposer) {
+					((ParameterDisposer) pss).cleanupParameters();
+				}
+				throw ex;
+			}
+			Connection con = ps.getConnection();
+			return new ResultSetSpliterator<>(rs, rowMapper, sql).stream().onClose(() -> {
+				JdbcUtils.closeResultSet(rs);
+				if (pss instanceof ParameterDisposer) {
+					((ParameterDisposer) pss).cleanupParameters();
+				}
+				JdbcUtils.closeStatement(ps);
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			});
+		}, false));
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper) throws DataAccessException {
+		return queryForStream(psc, null, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), pss, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -1426,6 +1657,63 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Spliterator for queryForStream adaptation of a ResultSet to a Stream,
+	 * mapping each row through the given RowMapper.
+	 */
+	private class ResultSetSpliterator<T> implements Spliterator<T> {
+
+		private final ResultSet rs;
+
+		private final RowMapper<T> rowMapper;
+
+		@Nullable
+		private final String sql;
+
+		private int rowNum = 0;
+
+		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper, @Nullable String sql) {
+			this.rs = rs;
+			this.rowMapper = rowMapper;
+			this.sql = sql;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			try {
+				if (this.rs.next()) {
+					action.accept(this.rowMapper.mapRow(this.rs, this.rowNum++));
+					return true;
+				}
+				return false;
+			}
+			catch (SQLException ex) {
+				throw translateException("ResultSetSpliterator", this.sql, ex);
+			}
+		}
+
+		@Override
+		@Nullable
+		public Spliterator<T> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED;
+		}
+
+		public Stream<T> stream() {
+			return StreamSupport.stream(this, false);
+		}
+	}
+
+
 	/**
 	 * Invocation handler that suppresses close calls on JDBC Connections.
 	 * Also prepares returned Statement (Prepared/CallbackStatement) objects.
@@ -1496,7 +1784,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	/**
 	 * Simple adapter for PreparedStatementCreator, allowing to use a plain SQL statement.
 	 */
-	private static class SimplePreparedStatementCreator implements PreparedStatementCreator, SqlProvider {
+	private static class SimplePreparedStatementCreator implements ReusablePreparedStatementCreator, SqlProvider {
 
 		private final String sql;
 
@@ -1510,6 +1798,15 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			return con.prepareStatement(this.sql);
 		}
 
+		@Override
+		public String getReusableSql() {
+			return this.sql;
+		}
+
+		@Override
+		public void setValues(PreparedStatement ps) {
+		}
+
 		@Override
 		public String getSql() {
 			return this.sql;
@@ -181,7 +181,7 @@ public class PreparedStatementCreatorFactory {
 	 * PreparedStatementCreator implementation returned by this class.
 	 */
 	private class PreparedStatementCreatorImpl
-			implements PreparedStatementCreator, PreparedStatementSetter, SqlProvider, ParameterDisposer {
+			implements ReusablePreparedStatementCreator, SqlProvider, ParameterDisposer {
 
 		private final String actualSql;
 
@@ -237,6 +237,16 @@ public class PreparedStatementCreatorFactory {
 			return ps;
 		}
 
+		@Override
+		@Nullable
+		public String getReusableSql() {
+			if (generatedKeysColumnNames != null || returnGeneratedKeys ||
+					resultSetType != ResultSet.TYPE_FORWARD_ONLY || updatableResults) {
+				return null;
+			}
+			return this.actualSql;
+		}
+
 		@Override
 		public void setValues(PreparedStatement ps) throws SQLException {
 			// Set arguments: Does nothing if there are no parameters.
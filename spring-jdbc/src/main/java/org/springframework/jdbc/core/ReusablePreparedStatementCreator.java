@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Internal extension of {@link PreparedStatementCreator} for creators that
+ * may be handed a previously created PreparedStatement for the same SQL
+ * instead of preparing a new one, as used by {@link JdbcTemplate}'s
+ * statement cache.
+ *
+ * @since 5.0.16
+ * @see JdbcTemplate#setPreparedStatementCacheSize
+ */
+interface ReusablePreparedStatementCreator extends PreparedStatementCreator, PreparedStatementSetter {
+
+	/**
+	 * Return the SQL statement that the statements of this creator are prepared
+	 * for, if they are plain {@link java.sql.Connection#prepareStatement(String)}
+	 * statements and therefore interchangeable with any other such statement
+	 * for the same SQL.
+	 * @return the SQL statement, or {@code null} if the statements of this
+	 * creator are not suitable for reuse
+	 */
+	@Nullable
+	String getReusableSql();
+
+	/**
+	 * Prepare a reused statement in the same way as a statement returned
+	 * from {@link #createPreparedStatement}, e.g. by setting parameter values.
+	 * @param ps the reused PreparedStatement
+	 * @throws SQLException if thrown by the JDBC driver
+	 */
+	@Override
+	void setValues(PreparedStatement ps) throws SQLException;
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,16 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.BatchUpdateUtils;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
 
 /**
  * Generic utility methods for working with JDBC batch statements using named parameters.
@@ -57,4 +63,61 @@ public class NamedParameterBatchUpdateUtils extends BatchUpdateUtils {
 				});
 	}
 
+	/**
+	 * Execute a batch update for the given named-parameter SQL, sending the
+	 * parameter sources obtained from the given {@code Iterable} to the
+	 * database in chunks of the given batch size.
+	 * <p>Parameter sources are only obtained from the {@code Iterable} while
+	 * the corresponding chunk is being bound, so the batch arguments do not
+	 * have to be held in memory at once. All chunks are executed on the same
+	 * PreparedStatement, using the SQL statement derived from the first
+	 * parameter source.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param batchArgs the parameter sources for the batch
+	 * @param batchSize the number of updates to send to the database per chunk
+	 * @param jdbcOperations the JdbcOperations to use
+	 * @return an array containing, for each chunk sent to the database, the
+	 * numbers of rows affected by each update in that chunk
+	 * @since 5.0.16
+	 */
+	public static int[][] executeBatchUpdateWithNamedParameters(final ParsedSql parsedSql,
+			Iterable<? extends SqlParameterSource> batchArgs, final int batchSize, JdbcOperations jdbcOperations) {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		final Iterator<? extends SqlParameterSource> it = batchArgs.iterator();
+		if (!it.hasNext()) {
+			return new int[0][];
+		}
+
+		final SqlParameterSource first = it.next();
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, first);
+		int[][] result = jdbcOperations.execute(sqlToUse, (PreparedStatementCallback<int[][]>) ps -> {
+			List<int[]> rowsAffected = new ArrayList<>();
+			boolean batchSupported = JdbcUtils.supportsBatchUpdates(ps.getConnection());
+			SqlParameterSource paramSource = first;
+			int n = 0;
+			while (paramSource != null) {
+				Object[] values = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
+				int[] columnTypes = NamedParameterUtils.buildSqlTypeArray(parsedSql, paramSource);
+				setStatementParameters(values, ps, columnTypes);
+				paramSource = (it.hasNext() ? it.next() : null);
+				if (batchSupported) {
+					ps.addBatch();
+					n++;
+					if (n == batchSize || paramSource == null) {
+						rowsAffected.add(ps.executeBatch());
+						n = 0;
+					}
+				}
+				else {
+					rowsAffected.add(new int[] {ps.executeUpdate()});
+				}
+			}
+			return rowsAffected.toArray(new int[rowsAffected.size()][]);
+		});
+
+		Assert.state(result != null, "No result array");
+		return result;
+	}
+
 }
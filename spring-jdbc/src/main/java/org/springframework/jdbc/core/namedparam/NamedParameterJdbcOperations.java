@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcOperations;
@@ -226,6 +227,41 @@ public interface NamedParameterJdbcOperations {
 	 */
 	<T> List<T> query(String sql, RowMapper<T> rowMapper) throws DataAccessException;
 
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list
+	 * of arguments to bind to the query, mapping each row to a Java object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream.
+	 * <p>Rows are mapped lazily as the Stream is consumed, with the JDBC
+	 * resources held open until the Stream is closed.
+	 * @param sql SQL query to execute
+	 * @param paramSource container of arguments to bind to the query
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws org.springframework.dao.DataAccessException if the query fails
+	 * @since 5.0.16
+	 */
+	<T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list
+	 * of arguments to bind to the query, mapping each row to a Java object
+	 * via a RowMapper, and turning it into an iterable and closeable Stream.
+	 * <p>Rows are mapped lazily as the Stream is consumed, with the JDBC
+	 * resources held open until the Stream is closed.
+	 * @param sql SQL query to execute
+	 * @param paramMap map of parameters to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type)
+	 * @param rowMapper object that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws org.springframework.dao.DataAccessException if the query fails
+	 * @since 5.0.16
+	 */
+	<T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
 	/**
 	 * Query given SQL to create a prepared statement from SQL and a list
 	 * of arguments to bind to the query, mapping a single result row to a
@@ -509,4 +545,21 @@ public interface NamedParameterJdbcOperations {
 	 */
 	int[] batchUpdate(String sql, SqlParameterSource[] batchArgs);
 
+	/**
+	 * Execute a batch using the supplied SQL statement with the batch of supplied
+	 * arguments, sending the updates to the database in chunks of the given size.
+	 * <p>The arguments are obtained from the given {@code Iterable} one chunk at
+	 * a time, so that large batches can be processed without holding all of their
+	 * arguments in memory; a {@link java.util.stream.Stream} may be passed in as
+	 * {@code stream::iterator}.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the {@link SqlParameterSource} instances containing the
+	 * batch of arguments for the query
+	 * @param batchSize the number of updates to send to the database per chunk
+	 * @return an array containing for each chunk another array containing the
+	 * numbers of rows affected by each update in the chunk
+	 * @since 5.0.16
+	 */
+	int[][] batchUpdate(String sql, Iterable<? extends SqlParameterSource> batchArgs, int batchSize);
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,12 @@
 
 package org.springframework.jdbc.core.namedparam;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -35,11 +37,13 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Template class with a basic set of JDBC operations, allowing the use
@@ -74,14 +78,12 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
 	/** Cache of original SQL String to ParsedSql representation */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+
+	/** Cache of original SQL String and placeholder counts to substituted SQL String */
+	private volatile ConcurrentLruCache<SubstitutionKey, String> substitutedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, SubstitutionKey::substitute);
 
 
 	/**
@@ -128,10 +130,17 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
-	 * Default is 256.
+	 * Default is 256. 0 or a negative value turns caching off.
+	 * <p>The limit applies to the parsed SQL statements as well as to the
+	 * SQL statements with their named parameters substituted, which are
+	 * cached separately per combination of collection sizes for the
+	 * parameters. Resets the {@link #getCacheHitCount() cache statistics}.
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		int sizeLimit = Math.max(cacheLimit, 0);
+		this.parsedSqlCache = new ConcurrentLruCache<>(sizeLimit, NamedParameterUtils::parseSqlStatement);
+		this.substitutedSqlCache = new ConcurrentLruCache<>(sizeLimit, SubstitutionKey::substitute);
 	}
 
 	/**
@@ -141,6 +150,37 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return this.cacheLimit;
 	}
 
+	/**
+	 * Return the number of lookups in this template's SQL cache which were
+	 * served from the cache, for parsed as well as for substituted SQL.
+	 * @since 5.0.16
+	 * @see #getCacheMissCount()
+	 * @see #getCacheEvictionCount()
+	 */
+	public long getCacheHitCount() {
+		return this.parsedSqlCache.hitCount() + this.substitutedSqlCache.hitCount();
+	}
+
+	/**
+	 * Return the number of lookups in this template's SQL cache which
+	 * required the SQL to be parsed or substituted.
+	 * @since 5.0.16
+	 * @see #getCacheHitCount()
+	 */
+	public long getCacheMissCount() {
+		return this.parsedSqlCache.missCount() + this.substitutedSqlCache.missCount();
+	}
+
+	/**
+	 * Return the number of entries evicted from this template's SQL cache
+	 * in order to stay within the {@link #setCacheLimit cache limit}.
+	 * @since 5.0.16
+	 * @see #getCacheHitCount()
+	 */
+	public long getCacheEvictionCount() {
+		return this.parsedSqlCache.evictionCount() + this.substitutedSqlCache.evictionCount();
+	}
+
 
 	@Override
 	@Nullable
@@ -224,6 +264,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -356,6 +410,12 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 				getParsedSql(sql), batchArgs, getJdbcOperations());
 	}
 
+	@Override
+	public int[][] batchUpdate(String sql, Iterable<? extends SqlParameterSource> batchArgs, int batchSize) {
+		return NamedParameterBatchUpdateUtils.executeBatchUpdateWithNamedParameters(
+				getParsedSql(sql), batchArgs, batchSize, getJdbcOperations());
+	}
+
 
 	/**
 	 * Build a {@link PreparedStatementCreator} based on the given SQL and named parameters.
@@ -389,7 +449,7 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 			@Nullable Consumer<PreparedStatementCreatorFactory> customizer) {
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		String sqlToUse = getSubstitutedSql(parsedSql, paramSource);
 		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
 		PreparedStatementCreatorFactory pscf = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
 		if (customizer != null) {
@@ -406,16 +466,115 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	 * @return a representation of the parsed SQL statement
 	 */
 	protected ParsedSql getParsedSql(String sql) {
+		return this.parsedSqlCache.get(sql);
+	}
+
+	/**
+	 * Obtain the SQL statement to execute for the given parsed SQL statement,
+	 * with its named parameters substituted by JDBC placeholders.
+	 * <p>The default implementation caches the substituted SQL per number of
+	 * placeholders for each parameter, i.e. per size of the collections passed
+	 * in as parameter values. Statements with collections of value arrays are
+	 * always substituted through {@link NamedParameterUtils#substituteNamedParameters}.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param paramSource the source for named parameters
+	 * @return the SQL statement with substituted parameters
+	 * @since 5.0.16
+	 */
+	protected String getSubstitutedSql(ParsedSql parsedSql, SqlParameterSource paramSource) {
 		if (getCacheLimit() <= 0) {
-			return NamedParameterUtils.parseSqlStatement(sql);
+			return NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
 		}
-		synchronized (this.parsedSqlCache) {
-			ParsedSql parsedSql = this.parsedSqlCache.get(sql);
-			if (parsedSql == null) {
-				parsedSql = NamedParameterUtils.parseSqlStatement(sql);
-				this.parsedSqlCache.put(sql, parsedSql);
+		SubstitutionKey key = SubstitutionKey.forParameters(parsedSql, paramSource);
+		if (key == null) {
+			return NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		}
+		return this.substitutedSqlCache.get(key);
+	}
+
+
+	/**
+	 * Key for the substituted SQL cache: the original SQL statement along with
+	 * the number of JDBC placeholders to substitute for each named parameter.
+	 */
+	private static final class SubstitutionKey {
+
+		private final ParsedSql parsedSql;
+
+		private final int[] placeholderCounts;
+
+		private final int hashCode;
+
+		private SubstitutionKey(ParsedSql parsedSql, int[] placeholderCounts) {
+			this.parsedSql = parsedSql;
+			this.placeholderCounts = placeholderCounts;
+			this.hashCode = parsedSql.getOriginalSql().hashCode() * 31 + Arrays.hashCode(placeholderCounts);
+		}
+
+		/**
+		 * Create a key for the given parsed SQL and parameter source,
+		 * or return {@code null} if a collection contains value arrays.
+		 */
+		@Nullable
+		static SubstitutionKey forParameters(ParsedSql parsedSql, SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] placeholderCounts = new int[paramNames.size()];
+			for (int i = 0; i < placeholderCounts.length; i++) {
+				String paramName = paramNames.get(i);
+				placeholderCounts[i] = 1;
+				if (paramSource.hasValue(paramName)) {
+					Object value = paramSource.getValue(paramName);
+					if (value instanceof SqlParameterValue) {
+						value = ((SqlParameterValue) value).getValue();
+					}
+					if (value instanceof Collection) {
+						for (Object entryItem : (Collection<?>) value) {
+							if (entryItem instanceof Object[]) {
+								return null;
+							}
+						}
+						placeholderCounts[i] = ((Collection<?>) value).size();
+					}
+				}
+			}
+			return new SubstitutionKey(parsedSql, placeholderCounts);
+		}
+
+		String substitute() {
+			String originalSql = this.parsedSql.getOriginalSql();
+			StringBuilder actualSql = new StringBuilder(originalSql.length());
+			int lastIndex = 0;
+			for (int i = 0; i < this.placeholderCounts.length; i++) {
+				int[] indexes = this.parsedSql.getParameterIndexes(i);
+				actualSql.append(originalSql, lastIndex, indexes[0]);
+				for (int k = 0; k < this.placeholderCounts[i]; k++) {
+					if (k > 0) {
+						actualSql.append(", ");
+					}
+					actualSql.append('?');
+				}
+				lastIndex = indexes[1];
 			}
-			return parsedSql;
+			actualSql.append(originalSql, lastIndex, originalSql.length());
+			return actualSql.toString();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof SubstitutionKey)) {
+				return false;
+			}
+			SubstitutionKey otherKey = (SubstitutionKey) other;
+			return (this.parsedSql.getOriginalSql().equals(otherKey.parsedSql.getOriginalSql()) &&
+					Arrays.equals(this.placeholderCounts, otherKey.placeholderCounts));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
 		}
 	}
 
@@ -0,0 +1,675 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.reactive;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+
+/**
+ * Reactive facade for a {@link JdbcTemplate}, exposing query results as
+ * {@link Flux} and single results and update counts as {@link Mono}, for
+ * use from reactive applications such as Spring WebFlux controllers.
+ *
+ * <p>All JDBC calls are blocking and are therefore executed on a dedicated
+ * {@link Scheduler}, by default a fixed pool of threads matching the maximum
+ * number of connections of the underlying connection pool. In that case,
+ * each operation first obtains one of that number of connection permits
+ * without blocking, and only then occupies a thread of the scheduler. A
+ * permit is held for as long as the connection: until a query {@code Flux}
+ * has completed or been cancelled, or until a transaction has completed.
+ * Excess operations thus wait for a permit without occupying any thread,
+ * and a thread is only occupied by an operation that a connection is
+ * available for, even while other connections are held by open query
+ * results or transactions that do not occupy a thread.
+ *
+ * <p>Query results are fetched as requested by the subscriber, through
+ * {@link JdbcOperations#queryForStream}, with the fetch size of the
+ * underlying {@code JdbcTemplate} determining the number of rows retrieved
+ * from the database at a time. Each {@code Flux} holds on to its connection
+ * until completed or cancelled; the scheduler is only occupied while rows
+ * are actually being fetched, and when closing the JDBC resources of a
+ * cancelled query.
+ *
+ * <p>Operations may be grouped into a JDBC transaction through
+ * {@link #inTransaction}: the transactional connection is passed to nested
+ * operations through the Reactor {@link Context} of the subscription rather
+ * than through a thread-bound transaction, and bound to the scheduler thread
+ * for the duration of each call, so that it is used by the template.
+ * Regular Spring-managed transactions are not visible to this facade.
+ *
+ * @since 5.0.16
+ * @see JdbcTemplate
+ */
+public class ReactiveJdbcTemplate implements DisposableBean {
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final Scheduler scheduler;
+
+	private final boolean disposeScheduler;
+
+	@Nullable
+	private final ConnectionPermits connectionPermits;
+
+
+	/**
+	 * Create a new {@code ReactiveJdbcTemplate} for the given {@link DataSource},
+	 * executing JDBC calls on a dedicated pool of the given number of threads.
+	 * @param dataSource the JDBC DataSource to obtain connections from
+	 * @param maxConnections the maximum number of connections of the DataSource
+	 */
+	public ReactiveJdbcTemplate(DataSource dataSource, int maxConnections) {
+		this(new JdbcTemplate(dataSource), maxConnections);
+	}
+
+	/**
+	 * Create a new {@code ReactiveJdbcTemplate} for the given {@link JdbcTemplate},
+	 * executing JDBC calls on a dedicated pool of the given number of threads.
+	 * @param jdbcTemplate the JdbcTemplate to delegate to
+	 * @param maxConnections the maximum number of connections of the template's DataSource
+	 */
+	public ReactiveJdbcTemplate(JdbcTemplate jdbcTemplate, int maxConnections) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		Assert.isTrue(maxConnections > 0, "Maximum number of connections must be greater than 0");
+		CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("jdbc-");
+		threadCreator.setDaemon(true);
+		this.jdbcTemplate = jdbcTemplate;
+		this.scheduler = Schedulers.fromExecutorService(
+				Executors.newFixedThreadPool(maxConnections, threadCreator::createThread));
+		this.disposeScheduler = true;
+		this.connectionPermits = new ConnectionPermits(maxConnections);
+	}
+
+	/**
+	 * Create a new {@code ReactiveJdbcTemplate} for the given {@link JdbcTemplate},
+	 * executing JDBC calls on the given {@link Scheduler}.
+	 * <p>The number of connections is not limited by this facade in that case:
+	 * as query results and transactions hold on to their connection without
+	 * occupying a thread, the DataSource must be able to serve them in addition
+	 * to the threads of the scheduler, or scheduler threads may block waiting
+	 * for a connection. The scheduler is not disposed by this facade.
+	 * @param jdbcTemplate the JdbcTemplate to delegate to
+	 * @param scheduler the Scheduler to execute JDBC calls on
+	 */
+	public ReactiveJdbcTemplate(JdbcTemplate jdbcTemplate, Scheduler scheduler) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+		this.scheduler = scheduler;
+		this.disposeScheduler = false;
+		this.connectionPermits = null;
+	}
+
+
+	/**
+	 * Return the underlying {@link JdbcTemplate}.
+	 */
+	public JdbcTemplate getJdbcTemplate() {
+		return this.jdbcTemplate;
+	}
+
+	/**
+	 * Return the {@link Scheduler} that JDBC calls are executed on.
+	 */
+	public Scheduler getScheduler() {
+		return this.scheduler;
+	}
+
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping each row to a result object
+	 * via a RowMapper, with rows being fetched as requested by the subscriber.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * @return the mapped objects
+	 * @see JdbcOperations#queryForStream(String, RowMapper, Object...)
+	 */
+	public <T> Flux<T> query(String sql, RowMapper<T> rowMapper, @Nullable Object... args) {
+		return query(jdbcOperations -> jdbcOperations.queryForStream(sql, rowMapper, args));
+	}
+
+	/**
+	 * Execute a streaming query through the given function, emitting the
+	 * elements of the returned {@link Stream} as requested by the subscriber
+	 * and closing the Stream once completed or cancelled.
+	 * @param streamQuery the function running the query against the given
+	 * {@code JdbcOperations}, typically through one of its
+	 * {@code queryForStream} variants
+	 * @return the elements of the Stream
+	 */
+	public <T> Flux<T> query(Function<? super JdbcOperations, ? extends Stream<T>> streamQuery) {
+		Assert.notNull(streamQuery, "Stream query function must not be null");
+		return Mono.subscriberContext().flatMapMany(context -> {
+			TransactionState transaction = getTransaction(context);
+			if (transaction != null || this.connectionPermits == null) {
+				return queryForRows(streamQuery, transaction, null);
+			}
+			return this.connectionPermits.acquire().flatMapMany(permit -> queryForRows(streamQuery, null, permit));
+		});
+	}
+
+	/**
+	 * Emit the elements of the given streaming query, closing its cursor on the
+	 * scheduler once completed or cancelled, and only then releasing the given
+	 * connection permit (if any).
+	 */
+	private <T> Flux<T> queryForRows(Function<? super JdbcOperations, ? extends Stream<T>> streamQuery,
+			@Nullable TransactionState transaction, @Nullable ConnectionPermit permit) {
+
+		// Set once the cursor is being opened, or once cancelled before that
+		AtomicBoolean started = new AtomicBoolean();
+		return Flux.<T, RowCursor<T>>generate(
+				() -> {
+					if (!started.compareAndSet(false, true)) {
+						// Cancelled before opening the cursor
+						return null;
+					}
+					try {
+						return doInTransaction(transaction, () -> new RowCursor<>(streamQuery.apply(this.jdbcTemplate)));
+					}
+					catch (RuntimeException | Error ex) {
+						if (permit != null) {
+							permit.release();
+						}
+						throw ex;
+					}
+				},
+				(cursor, sink) -> {
+					if (cursor != null && doWithCursor(transaction, cursor, cursor::hasNext)) {
+						sink.next(cursor.next());
+					}
+					else {
+						sink.complete();
+					}
+					return cursor;
+				},
+				cursor -> {
+					if (cursor != null) {
+						try {
+							this.scheduler.schedule(() -> closeCursor(transaction, cursor, permit));
+						}
+						catch (RejectedExecutionException ex) {
+							// Scheduler disposed: close on the current thread instead
+							closeCursor(transaction, cursor, permit);
+						}
+					}
+				})
+				.subscribeOn(this.scheduler)
+				.doFinally(signal -> {
+					if (permit != null && started.compareAndSet(false, true)) {
+						permit.release();
+					}
+				});
+	}
+
+	private void closeCursor(@Nullable TransactionState transaction, RowCursor<?> cursor,
+			@Nullable ConnectionPermit permit) {
+
+		try {
+			doWithCursor(transaction, cursor, () -> {
+				cursor.close();
+				return null;
+			});
+		}
+		finally {
+			if (permit != null) {
+				permit.release();
+			}
+		}
+	}
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping a single result row to a
+	 * result object via a RowMapper.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * @return the single mapped object, or an empty Mono for a {@code null} result
+	 * @see JdbcOperations#queryForObject(String, RowMapper, Object...)
+	 */
+	public <T> Mono<T> queryForObject(String sql, RowMapper<T> rowMapper, @Nullable Object... args) {
+		return execute(jdbcOperations -> jdbcOperations.queryForObject(sql, rowMapper, args));
+	}
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, expecting a single result object.
+	 * @param sql the SQL query to execute
+	 * @param requiredType the type that the result object is expected to match
+	 * @param args arguments to bind to the query
+	 * @return the result object, or an empty Mono for SQL NULL
+	 * @see JdbcOperations#queryForObject(String, Class, Object...)
+	 */
+	public <T> Mono<T> queryForObject(String sql, Class<T> requiredType, @Nullable Object... args) {
+		return execute(jdbcOperations -> jdbcOperations.queryForObject(sql, requiredType, args));
+	}
+
+	/**
+	 * Issue a single SQL update operation (such as an insert, update or delete
+	 * statement) via a prepared statement, binding the given arguments.
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query
+	 * @return the number of rows affected
+	 * @see JdbcOperations#update(String, Object...)
+	 */
+	public Mono<Integer> update(String sql, @Nullable Object... args) {
+		return execute(jdbcOperations -> jdbcOperations.update(sql, args));
+	}
+
+	/**
+	 * Execute the given function against the underlying {@link JdbcOperations}.
+	 * @param action the function to execute, performing blocking JDBC calls
+	 * @return the result of the function, or an empty Mono for a {@code null} result
+	 */
+	public <T> Mono<T> execute(Function<? super JdbcOperations, ? extends T> action) {
+		Assert.notNull(action, "Callback function must not be null");
+		return Mono.subscriberContext().flatMap(context -> {
+			TransactionState transaction = getTransaction(context);
+			Mono<T> result = Mono.<T>fromCallable(() -> doInTransaction(transaction, () -> action.apply(this.jdbcTemplate)))
+					.subscribeOn(this.scheduler);
+			return (transaction != null ? result : withConnectionPermit(result.flux()).next());
+		});
+	}
+
+	/**
+	 * Execute the operations of the publisher returned by the given function
+	 * within a single JDBC transaction, committing it once the publisher has
+	 * completed and rolling it back on error or cancellation.
+	 * <p>Operations of this facade are associated with the transaction through
+	 * the Reactor {@link Context} of their subscription. Nested calls of this
+	 * method participate in the existing transaction.
+	 * @param action the function returning the publisher to execute
+	 * within the transaction, given this facade
+	 * @return the elements emitted by the publisher
+	 * @throws CannotCreateTransactionException (emitted) if no transactional
+	 * connection could be obtained
+	 * @throws TransactionSystemException (emitted) if the transaction could
+	 * not be committed
+	 */
+	public <T> Flux<T> inTransaction(Function<? super ReactiveJdbcTemplate, ? extends Publisher<T>> action) {
+		Assert.notNull(action, "Callback function must not be null");
+		return Mono.subscriberContext().flatMapMany(context -> {
+			if (getTransaction(context) != null) {
+				// Participating in existing transaction
+				return Flux.defer(() -> action.apply(this));
+			}
+			if (this.connectionPermits == null) {
+				return inNewTransaction(action, null);
+			}
+			// The permit is released along with the transactional connection
+			return this.connectionPermits.acquire().flatMapMany(permit -> inNewTransaction(action, permit));
+		});
+	}
+
+	private <T> Flux<T> inNewTransaction(Function<? super ReactiveJdbcTemplate, ? extends Publisher<T>> action,
+			@Nullable ConnectionPermit permit) {
+
+		return Mono.fromCallable(() -> beginTransaction(permit)).subscribeOn(this.scheduler).flatMapMany(transaction ->
+				Flux.<T>defer(() -> action.apply(this))
+						.concatWith(Mono.<T>fromRunnable(() -> completeTransaction(transaction, true))
+								.subscribeOn(this.scheduler))
+						.onErrorResume(ex -> Mono.<T>fromRunnable(() -> completeTransaction(transaction, false))
+								.subscribeOn(this.scheduler)
+								.concatWith(Mono.error(ex)))
+						.doOnCancel(() -> this.scheduler.schedule(() -> completeTransaction(transaction, false)))
+						.subscriberContext(Context.of(TransactionState.class, transaction)));
+	}
+
+	/**
+	 * Subscribe to the given operation once a connection permit is available,
+	 * releasing the permit when the operation terminates or is cancelled.
+	 */
+	private <T> Flux<T> withConnectionPermit(Flux<T> operation) {
+		if (this.connectionPermits == null) {
+			return operation;
+		}
+		return this.connectionPermits.acquire().flatMapMany(permit ->
+				operation.doFinally(signal -> permit.release()));
+	}
+
+
+	@Nullable
+	private TransactionState getTransaction(Context context) {
+		return (context.hasKey(TransactionState.class) ? context.get(TransactionState.class) : null);
+	}
+
+	/**
+	 * Execute the given action, with the connection of the given transaction
+	 * (if any) bound to the current thread.
+	 */
+	private <R> R doInTransaction(@Nullable TransactionState transaction, Supplier<R> action) {
+		if (transaction == null) {
+			return action.get();
+		}
+		synchronized (transaction) {
+			if (transaction.completed.get()) {
+				return action.get();
+			}
+			DataSource dataSource = obtainDataSource();
+			TransactionSynchronizationManager.bindResource(dataSource, transaction.connectionHolder);
+			try {
+				return action.get();
+			}
+			finally {
+				TransactionSynchronizationManager.unbindResource(dataSource);
+			}
+		}
+	}
+
+	/**
+	 * Execute the given action on the given cursor, with the connection of the
+	 * given transaction (if any) bound to the current thread. The connection is
+	 * bound even once the transaction has completed, so that closing the cursor
+	 * does not release the connection a second time.
+	 */
+	private <R> R doWithCursor(@Nullable TransactionState transaction, RowCursor<?> cursor, Supplier<R> action) {
+		synchronized (cursor) {
+			if (transaction == null) {
+				return action.get();
+			}
+			synchronized (transaction) {
+				DataSource dataSource = obtainDataSource();
+				TransactionSynchronizationManager.bindResource(dataSource, transaction.connectionHolder);
+				try {
+					return action.get();
+				}
+				finally {
+					TransactionSynchronizationManager.unbindResource(dataSource);
+				}
+			}
+		}
+	}
+
+	private TransactionState beginTransaction(@Nullable ConnectionPermit permit) {
+		DataSource dataSource = obtainDataSource();
+		Connection con = null;
+		try {
+			con = dataSource.getConnection();
+			boolean mustRestoreAutoCommit = con.getAutoCommit();
+			if (mustRestoreAutoCommit) {
+				con.setAutoCommit(false);
+			}
+			ConnectionHolder connectionHolder = new ConnectionHolder(con);
+			connectionHolder.setSynchronizedWithTransaction(true);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Acquired Connection [" + con + "] for reactive JDBC transaction");
+			}
+			return new TransactionState(connectionHolder, mustRestoreAutoCommit, permit);
+		}
+		catch (Throwable ex) {
+			DataSourceUtils.releaseConnection(con, dataSource);
+			if (permit != null) {
+				permit.release();
+			}
+			throw new CannotCreateTransactionException("Could not open JDBC Connection for transaction", ex);
+		}
+	}
+
+	private void completeTransaction(TransactionState transaction, boolean commit) throws DataAccessException {
+		synchronized (transaction) {
+			if (!transaction.completed.compareAndSet(false, true)) {
+				return;
+			}
+			Connection con = transaction.connectionHolder.getConnection();
+			try {
+				if (commit) {
+					con.commit();
+				}
+				else {
+					con.rollback();
+				}
+			}
+			catch (SQLException ex) {
+				throw new TransactionSystemException(
+						"Could not " + (commit ? "commit" : "roll back") + " JDBC transaction", ex);
+			}
+			finally {
+				try {
+					if (transaction.mustRestoreAutoCommit) {
+						con.setAutoCommit(true);
+					}
+				}
+				catch (Throwable ex) {
+					logger.debug("Could not reset JDBC Connection after transaction", ex);
+				}
+				transaction.connectionHolder.clear();
+				DataSourceUtils.releaseConnection(con, obtainDataSource());
+				if (transaction.permit != null) {
+					transaction.permit.release();
+				}
+			}
+		}
+	}
+
+	private DataSource obtainDataSource() {
+		DataSource dataSource = this.jdbcTemplate.getDataSource();
+		Assert.state(dataSource != null, "No DataSource set");
+		return dataSource;
+	}
+
+
+	/**
+	 * Dispose the scheduler, if created by this facade.
+	 */
+	@Override
+	public void destroy() {
+		if (this.disposeScheduler) {
+			this.scheduler.dispose();
+		}
+	}
+
+
+	/**
+	 * Cursor over the rows of a query Stream, closing the Stream
+	 * (and with it the JDBC resources) once exhausted.
+	 */
+	private static class RowCursor<T> {
+
+		private final Stream<T> stream;
+
+		private final Iterator<T> iterator;
+
+		private boolean closed;
+
+		public RowCursor(Stream<T> stream) {
+			this.stream = stream;
+			this.iterator = stream.iterator();
+		}
+
+		public boolean hasNext() {
+			if (this.closed) {
+				return false;
+			}
+			boolean hasNext = this.iterator.hasNext();
+			if (!hasNext) {
+				close();
+			}
+			return hasNext;
+		}
+
+		public T next() {
+			return this.iterator.next();
+		}
+
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				this.stream.close();
+			}
+		}
+	}
+
+
+	/**
+	 * State of a JDBC transaction initiated through {@link #inTransaction},
+	 * used as key and value in the Reactor Context of its operations.
+	 */
+	private static class TransactionState {
+
+		final ConnectionHolder connectionHolder;
+
+		final boolean mustRestoreAutoCommit;
+
+		@Nullable
+		final ConnectionPermit permit;
+
+		final AtomicBoolean completed = new AtomicBoolean();
+
+		public TransactionState(ConnectionHolder connectionHolder, boolean mustRestoreAutoCommit,
+				@Nullable ConnectionPermit permit) {
+
+			this.connectionHolder = connectionHolder;
+			this.mustRestoreAutoCommit = mustRestoreAutoCommit;
+			this.permit = permit;
+		}
+	}
+
+
+	/**
+	 * Non-blocking semaphore limiting the number of connections held by the
+	 * operations of this facade, so that waiting operations do not occupy a
+	 * thread of the scheduler.
+	 */
+	private static class ConnectionPermits {
+
+		private final Deque<ConnectionPermit> waiting = new ArrayDeque<>();
+
+		private int available;
+
+		public ConnectionPermits(int permits) {
+			this.available = permits;
+		}
+
+		/**
+		 * Emit a permit as soon as one is available. Cancelling the returned
+		 * Mono withdraws the request or releases the permit.
+		 */
+		public Mono<ConnectionPermit> acquire() {
+			return Mono.create(sink -> {
+				ConnectionPermit permit = new ConnectionPermit(this, sink);
+				sink.onCancel(permit::release);
+				boolean granted;
+				synchronized (this) {
+					granted = (this.available > 0);
+					if (granted) {
+						this.available--;
+						permit.granted = true;
+					}
+					else {
+						this.waiting.add(permit);
+					}
+				}
+				if (granted) {
+					sink.success(permit);
+				}
+			});
+		}
+
+		void release(ConnectionPermit permit) {
+			ConnectionPermit next;
+			synchronized (this) {
+				if (permit.released) {
+					return;
+				}
+				permit.released = true;
+				if (!permit.granted) {
+					this.waiting.remove(permit);
+					return;
+				}
+				next = this.waiting.poll();
+				if (next != null) {
+					next.granted = true;
+				}
+				else {
+					this.available++;
+				}
+			}
+			if (next != null) {
+				next.sink.success(next);
+			}
+		}
+	}
+
+
+	/**
+	 * Permit for a single connection, handed out by {@link ConnectionPermits}.
+	 */
+	private static class ConnectionPermit {
+
+		private final ConnectionPermits permits;
+
+		private final MonoSink<ConnectionPermit> sink;
+
+		// Guarded by the ConnectionPermits monitor
+		boolean granted;
+
+		boolean released;
+
+		public ConnectionPermit(ConnectionPermits permits, MonoSink<ConnectionPermit> sink) {
+			this.permits = permits;
+			this.sink = sink;
+		}
+
+		/**
+		 * Release this permit, or withdraw the request for it if not granted yet.
+		 * Subsequent calls have no effect.
+		 */
+		public void release() {
+			this.permits.release(this);
+		}
+	}
+
+}
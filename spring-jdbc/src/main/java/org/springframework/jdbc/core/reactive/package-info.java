@@ -0,0 +1,10 @@
+/**
+ * Reactive facade for the JDBC core package, offloading blocking
+ * JDBC calls to a dedicated Reactor scheduler.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.jdbc.core.reactive;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -17,11 +17,17 @@
 package org.springframework.jdbc.datasource;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 /**
@@ -32,6 +38,10 @@ import org.springframework.util.Assert;
  * <p>Inherits rollback-only support for nested JDBC transactions
  * and reference count functionality from the base class.
  *
+ * <p>As of 5.0.16, a ConnectionHolder may also cache PreparedStatements for
+ * reuse within a transaction, closing them at transaction completion:
+ * see {@link #getCachedStatement} and {@link #cacheStatement}.
+ *
  * <p>Note: This is an SPI class, not intended to be used by applications.
  *
  * @author Juergen Hoeller
@@ -60,6 +70,11 @@ public class ConnectionHolder extends ResourceHolderSupport {
 
 	private int savepointCounter = 0;
 
+	@Nullable
+	private Map<String, PreparedStatement> statementCache;
+
+	private boolean statementCacheClosed = false;
+
 
 	/**
 	 * Create a new ConnectionHolder for the given ConnectionHandle.
@@ -206,12 +221,124 @@ public class ConnectionHolder extends ResourceHolderSupport {
 	}
 
 
+	/**
+	 * Remove the PreparedStatement cached for the given SQL statement, if any,
+	 * handing it to the caller for exclusive use.
+	 * <p>The caller is expected to either return the statement through
+	 * {@link #cacheStatement} or close it once done.
+	 * @param sql the SQL statement that the PreparedStatement was created for
+	 * @return the cached PreparedStatement, or {@code null} if none
+	 * @since 5.0.16
+	 * @see #cacheStatement
+	 */
+	@Nullable
+	public PreparedStatement getCachedStatement(String sql) {
+		return (this.statementCache != null ? this.statementCache.remove(sql) : null);
+	}
+
+	/**
+	 * Cache the given PreparedStatement for reuse within the current transaction,
+	 * closing the least recently used statement if the cache limit is exceeded.
+	 * <p>All cached statements will be closed at transaction completion.
+	 * Statements are only cached if transaction synchronization is active.
+	 * @param sql the SQL statement that the PreparedStatement was created for
+	 * @param ps the PreparedStatement, with no open ResultSet or pending batch
+	 * @param cacheLimit the maximum number of statements to cache
+	 * @return {@code true} if the statement has been cached, {@code false}
+	 * if it has not been cached and needs to be closed by the caller
+	 * @since 5.0.16
+	 * @see #getCachedStatement
+	 * @see #closeCachedStatements
+	 */
+	public boolean cacheStatement(String sql, PreparedStatement ps, int cacheLimit) {
+		if (cacheLimit <= 0 || this.statementCacheClosed) {
+			return false;
+		}
+		Map<String, PreparedStatement> cache = this.statementCache;
+		if (cache == null) {
+			if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+				return false;
+			}
+			cache = new LinkedHashMap<>(16, 0.75f, true);
+			TransactionSynchronizationManager.registerSynchronization(new StatementCacheSynchronization(this));
+			this.statementCache = cache;
+		}
+		if (cache.containsKey(sql)) {
+			return false;
+		}
+		cache.put(sql, ps);
+		Iterator<PreparedStatement> it = cache.values().iterator();
+		while (cache.size() > cacheLimit) {
+			closeStatement(it.next());
+			it.remove();
+		}
+		return true;
+	}
+
+	/**
+	 * Close all cached PreparedStatements, not caching any further statements
+	 * until this holder is {@link #clear() cleared}.
+	 * <p>Called automatically at transaction completion.
+	 * @since 5.0.16
+	 * @see #cacheStatement
+	 */
+	public void closeCachedStatements() {
+		this.statementCacheClosed = true;
+		if (this.statementCache != null) {
+			for (PreparedStatement ps : this.statementCache.values()) {
+				closeStatement(ps);
+			}
+			this.statementCache.clear();
+		}
+	}
+
+
 	@Override
 	public void clear() {
 		super.clear();
 		this.transactionActive = false;
 		this.savepointsSupported = null;
 		this.savepointCounter = 0;
+		this.statementCache = null;
+		this.statementCacheClosed = false;
+	}
+
+	private static void closeStatement(PreparedStatement ps) {
+		try {
+			ps.close();
+		}
+		catch (Throwable ex) {
+			// Ignore - the statement is of no further use anyway
+		}
+	}
+
+
+	/**
+	 * Callback for closing cached statements at transaction completion, before
+	 * the Connection gets released by {@link DataSourceUtils}.
+	 */
+	private static class StatementCacheSynchronization extends TransactionSynchronizationAdapter {
+
+		private final ConnectionHolder connectionHolder;
+
+		public StatementCacheSynchronization(ConnectionHolder connectionHolder) {
+			this.connectionHolder = connectionHolder;
+		}
+
+		@Override
+		public int getOrder() {
+			return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 1;
+		}
+
+		@Override
+		public void beforeCompletion() {
+			this.connectionHolder.closeCachedStatements();
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			this.connectionHolder.closeCachedStatements();
+		}
 	}
 
 }
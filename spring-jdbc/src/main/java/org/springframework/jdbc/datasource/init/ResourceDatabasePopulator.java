@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -70,6 +70,10 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 
 	private boolean ignoreFailedDrops = false;
 
+	private int batchSize = 1;
+
+	private int concurrency = 1;
+
 
 	/**
 	 * Construct a new {@code ResourceDatabasePopulator} with default settings.
@@ -227,6 +231,35 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 		this.ignoreFailedDrops = ignoreFailedDrops;
 	}
 
+	/**
+	 * Specify the maximum number of statements to group into a single JDBC batch.
+	 * <p>Defaults to {@code 1}, executing each statement individually. Statements
+	 * are only batched if the JDBC driver supports batch updates; batched
+	 * statements must not return a result set.
+	 * @param batchSize the maximum number of statements per JDBC batch
+	 * @since 5.0.16
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Specify the maximum number of connections to execute the statements of
+	 * each script on, signalling that the statements of a script are independent
+	 * of each other and may be executed in any order.
+	 * <p>Defaults to {@code 1}. Only applies to {@link #execute(DataSource)}:
+	 * {@link #populate(Connection)} always executes on the given connection.
+	 * Scripts are still executed one after the other.
+	 * @param concurrency the maximum number of connections per script
+	 * @since 5.0.16
+	 * @see ScriptUtils#executeSqlScript(DataSource, EncodedResource, boolean, boolean, String, String, String, String, int, int)
+	 */
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		this.concurrency = concurrency;
+	}
+
 
 	/**
 	 * {@inheritDoc}
@@ -238,21 +271,33 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 		for (Resource script : this.scripts) {
 			EncodedResource encodedScript = new EncodedResource(script, this.sqlScriptEncoding);
 			ScriptUtils.executeSqlScript(connection, encodedScript, this.continueOnError, this.ignoreFailedDrops,
-					this.commentPrefix, this.separator, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter);
+					this.commentPrefix, this.separator, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter,
+					this.batchSize);
 		}
 	}
 
 	/**
 	 * Execute this {@code ResourceDatabasePopulator} against the given
 	 * {@link DataSource}.
-	 * <p>Delegates to {@link DatabasePopulatorUtils#execute}.
+	 * <p>Delegates to {@link DatabasePopulatorUtils#execute}, unless a
+	 * {@linkplain #setConcurrency concurrency} greater than 1 has been specified.
 	 * @param dataSource the {@code DataSource} to execute against (never {@code null})
 	 * @throws ScriptException if an error occurs
 	 * @since 4.1
 	 * @see #populate(Connection)
 	 */
 	public void execute(DataSource dataSource) throws ScriptException {
-		DatabasePopulatorUtils.execute(this, dataSource);
+		if (this.concurrency == 1) {
+			DatabasePopulatorUtils.execute(this, dataSource);
+			return;
+		}
+		Assert.notNull(dataSource, "DataSource must not be null");
+		for (Resource script : this.scripts) {
+			EncodedResource encodedScript = new EncodedResource(script, this.sqlScriptEncoding);
+			ScriptUtils.executeSqlScript(dataSource, encodedScript, this.continueOnError, this.ignoreFailedDrops,
+					this.commentPrefix, this.separator, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter,
+					this.batchSize, this.concurrency);
+		}
 	}
 
 }
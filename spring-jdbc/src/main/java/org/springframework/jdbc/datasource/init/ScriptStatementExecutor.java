@@ -0,0 +1,194 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Executes the statements of an SQL script on a single JDBC {@link Statement},
+ * either one by one or grouped into JDBC batches.
+ *
+ * <p>A failed statement is handled according to the {@code continueOnError}
+ * and {@code ignoreFailedDrops} flags, in batch mode as well: if a batch fails,
+ * the failed statements are determined from the update counts of the
+ * {@link BatchUpdateException}, and statements that the driver did not get to
+ * are executed one by one.
+ *
+ * @since 5.0.16
+ * @see ScriptUtils#executeSqlScript(Connection, EncodedResource, boolean, boolean, String, String, String, String, int)
+ */
+class ScriptStatementExecutor {
+
+	private static final Log logger = LogFactory.getLog(ScriptUtils.class);
+
+
+	private final EncodedResource resource;
+
+	private final boolean continueOnError;
+
+	private final boolean ignoreFailedDrops;
+
+	private final int batchSize;
+
+	private final Statement stmt;
+
+	private final List<String> batchedStatements;
+
+	private int firstBatchedStmtNumber;
+
+
+	ScriptStatementExecutor(Connection connection, EncodedResource resource,
+			boolean continueOnError, boolean ignoreFailedDrops, int batchSize) throws SQLException {
+
+		this.resource = resource;
+		this.continueOnError = continueOnError;
+		this.ignoreFailedDrops = ignoreFailedDrops;
+		this.batchSize = (batchSize > 1 && JdbcUtils.supportsBatchUpdates(connection) ? batchSize : 1);
+		this.batchedStatements = new ArrayList<>(this.batchSize);
+		this.stmt = connection.createStatement();
+	}
+
+
+	/**
+	 * Execute the given statement, or add it to the current batch.
+	 * @param statement the SQL statement
+	 * @param stmtNumber the statement number in the SQL script
+	 */
+	public void execute(String statement, int stmtNumber) throws SQLException {
+		if (this.batchSize == 1) {
+			executeStatement(statement, stmtNumber);
+			return;
+		}
+		if (this.batchedStatements.isEmpty()) {
+			this.firstBatchedStmtNumber = stmtNumber;
+		}
+		this.stmt.addBatch(statement);
+		this.batchedStatements.add(statement);
+		if (this.batchedStatements.size() >= this.batchSize) {
+			executeBatch();
+		}
+	}
+
+	/**
+	 * Execute the statements of the current batch, if any.
+	 */
+	public void flush() throws SQLException {
+		if (!this.batchedStatements.isEmpty()) {
+			executeBatch();
+		}
+	}
+
+	/**
+	 * Close the underlying JDBC {@code Statement}, without flushing the current batch.
+	 */
+	public void close() {
+		try {
+			this.stmt.close();
+		}
+		catch (Throwable ex) {
+			logger.debug("Could not close JDBC Statement", ex);
+		}
+	}
+
+
+	private void executeStatement(String statement, int stmtNumber) throws SQLException {
+		try {
+			this.stmt.execute(statement);
+			int rowsAffected = this.stmt.getUpdateCount();
+			if (logger.isDebugEnabled()) {
+				logger.debug(rowsAffected + " returned as update count for SQL: " + statement);
+				logWarnings();
+			}
+		}
+		catch (SQLException ex) {
+			handleFailure(statement, stmtNumber, ex);
+		}
+	}
+
+	private void executeBatch() throws SQLException {
+		List<String> statements = new ArrayList<>(this.batchedStatements);
+		int firstStmtNumber = this.firstBatchedStmtNumber;
+		this.batchedStatements.clear();
+		try {
+			int[] rowsAffected = this.stmt.executeBatch();
+			if (logger.isDebugEnabled()) {
+				logger.debug(Arrays.toString(rowsAffected) + " returned as update counts for batch of " +
+						statements.size() + " SQL statements starting with statement #" + firstStmtNumber);
+				logWarnings();
+			}
+		}
+		catch (BatchUpdateException ex) {
+			this.stmt.clearBatch();
+			int[] updateCounts = ex.getUpdateCounts();
+			int processed = (updateCounts != null ? Math.min(updateCounts.length, statements.size()) : 0);
+			boolean failureHandled = false;
+			for (int i = 0; i < processed; i++) {
+				if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+					handleFailure(statements.get(i), firstStmtNumber + i, ex);
+					failureHandled = true;
+				}
+			}
+			if (processed < statements.size()) {
+				// The driver stopped at the first failed statement
+				handleFailure(statements.get(processed), firstStmtNumber + processed, ex);
+				for (int i = processed + 1; i < statements.size(); i++) {
+					executeStatement(statements.get(i), firstStmtNumber + i);
+				}
+			}
+			else if (!failureHandled) {
+				handleFailure(statements.get(0), firstStmtNumber, ex);
+			}
+		}
+	}
+
+	private void handleFailure(String statement, int stmtNumber, SQLException ex) {
+		boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
+		if (this.continueOnError || (dropStatement && this.ignoreFailedDrops)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(ScriptStatementFailedException.buildErrorMessage(statement, stmtNumber, this.resource), ex);
+			}
+		}
+		else {
+			throw new ScriptStatementFailedException(statement, stmtNumber, this.resource, ex);
+		}
+	}
+
+	private void logWarnings() throws SQLException {
+		SQLWarning warningToLog = this.stmt.getWarnings();
+		while (warningToLog != null) {
+			logger.debug("SQLWarning ignored: SQL state '" + warningToLog.getSQLState() +
+					"', error code '" + warningToLog.getErrorCode() +
+					"', message [" + warningToLog.getMessage() + "]");
+			warningToLog = warningToLog.getNextWarning();
+		}
+	}
+
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads the statements of an SQL script one at a time, tokenizing the script
+ * incrementally instead of reading it into a single {@code String} first.
+ *
+ * <p>Statements are split exactly like {@link ScriptUtils#executeSqlScript}
+ * does: lines <em>beginning</em> with the comment prefix are excluded, line and
+ * block comments are omitted, and multiple adjacent whitespace characters are
+ * collapsed into a single space. If the script does not contain the statement
+ * separator at all, {@link ScriptUtils#FALLBACK_STATEMENT_SEPARATOR} is used
+ * instead. Since that can only be determined once the separator has been
+ * encountered, the script is buffered up to its first separator.
+ *
+ * <p>Not thread-safe.
+ *
+ * @since 5.0.16
+ * @see ScriptUtils#executeSqlScript(java.sql.Connection, EncodedResource, boolean, boolean, String, String, String, String, int)
+ */
+public class ScriptStatementReader implements Closeable {
+
+	private static final int COMPACT_THRESHOLD = 8192;
+
+	private static final Log logger = LogFactory.getLog(ScriptStatementReader.class);
+
+
+	private final EncodedResource resource;
+
+	private final String separator;
+
+	private final String commentPrefix;
+
+	private final String blockCommentStartDelimiter;
+
+	private final String blockCommentEndDelimiter;
+
+	private final LineNumberReader lineNumberReader;
+
+	/** The script text not consumed yet, starting at {@link #position} */
+	private final StringBuilder buffer = new StringBuilder();
+
+	private int position;
+
+	private boolean exhausted;
+
+	private boolean contentRead;
+
+	/** The last characters read, for separators ending in whitespace */
+	private final StringBuilder tail = new StringBuilder();
+
+	/** The script read so far, as long as the separator has not been encountered */
+	@Nullable
+	private StringBuilder script;
+
+	private int scriptIndex;
+
+	private boolean inLiteral;
+
+	/** Statements split off but not returned yet */
+	private final Deque<String> statements = new ArrayDeque<>();
+
+
+	/**
+	 * Create a new {@code ScriptStatementReader} for the given script.
+	 * @param resource the resource (potentially associated with a specific encoding)
+	 * to read the SQL script from
+	 * @param separator the script statement separator; defaults to
+	 * {@value ScriptUtils#DEFAULT_STATEMENT_SEPARATOR} if not specified and falls back to
+	 * {@value ScriptUtils#FALLBACK_STATEMENT_SEPARATOR} as a last resort; may be set to
+	 * {@value ScriptUtils#EOF_STATEMENT_SEPARATOR} to signal that the script contains a
+	 * single statement without a separator
+	 * @param commentPrefix the prefix that identifies single-line comments in the
+	 * SQL script &mdash; typically "--"
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter; never
+	 * {@code null} or empty
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter; never
+	 * {@code null} or empty
+	 * @throws CannotReadScriptException if the script cannot be opened
+	 */
+	public ScriptStatementReader(EncodedResource resource, @Nullable String separator, String commentPrefix,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter) throws ScriptException {
+
+		Assert.notNull(resource, "'resource' must not be null");
+		Assert.hasText(commentPrefix, "'commentPrefix' must not be null or empty");
+		Assert.hasText(blockCommentStartDelimiter, "'blockCommentStartDelimiter' must not be null or empty");
+		Assert.hasText(blockCommentEndDelimiter, "'blockCommentEndDelimiter' must not be null or empty");
+
+		this.resource = resource;
+		this.separator = (separator != null ? separator : ScriptUtils.DEFAULT_STATEMENT_SEPARATOR);
+		this.commentPrefix = commentPrefix;
+		this.blockCommentStartDelimiter = blockCommentStartDelimiter;
+		this.blockCommentEndDelimiter = blockCommentEndDelimiter;
+		if (!ScriptUtils.EOF_STATEMENT_SEPARATOR.equals(this.separator)) {
+			this.script = new StringBuilder();
+		}
+		try {
+			this.lineNumberReader = new LineNumberReader(resource.getReader());
+		}
+		catch (IOException ex) {
+			throw new CannotReadScriptException(resource, ex);
+		}
+	}
+
+
+	/**
+	 * Return the next statement of the script.
+	 * @return the next statement, or {@code null} if the end of the script
+	 * has been reached
+	 * @throws CannotReadScriptException if the script cannot be read
+	 * @throws ScriptParseException if a block comment is not terminated
+	 */
+	@Nullable
+	public String nextStatement() throws ScriptException {
+		try {
+			while (this.script != null || this.statements.isEmpty()) {
+				String statement = splitNextStatement();
+				if (statement != null) {
+					this.statements.add(statement);
+				}
+				else {
+					if (this.script != null) {
+						// The separator is not contained in the script at all
+						this.statements.clear();
+						if (StringUtils.hasText(this.script)) {
+							List<String> fallbackStatements = new ArrayList<>();
+							ScriptUtils.splitSqlScript(this.resource, this.script.toString(),
+									ScriptUtils.FALLBACK_STATEMENT_SEPARATOR, this.commentPrefix,
+									this.blockCommentStartDelimiter, this.blockCommentEndDelimiter, fallbackStatements);
+							this.statements.addAll(fallbackStatements);
+						}
+						this.script = null;
+					}
+					break;
+				}
+			}
+			return this.statements.poll();
+		}
+		catch (IOException ex) {
+			throw new CannotReadScriptException(this.resource, ex);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.lineNumberReader.close();
+		}
+		catch (IOException ex) {
+			logger.debug("Could not close SQL script reader", ex);
+		}
+	}
+
+
+	@Nullable
+	private String splitNextStatement() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		boolean inSingleQuote = false;
+		boolean inDoubleQuote = false;
+		boolean inEscape = false;
+
+		while (ensureAvailable(1)) {
+			char c = this.buffer.charAt(this.position);
+			if (inEscape) {
+				inEscape = false;
+				sb.append(c);
+				this.position++;
+				continue;
+			}
+			// MySQL style escapes
+			if (c == '\\') {
+				inEscape = true;
+				sb.append(c);
+				this.position++;
+				continue;
+			}
+			if (!inDoubleQuote && (c == '\'')) {
+				inSingleQuote = !inSingleQuote;
+			}
+			else if (!inSingleQuote && (c == '"')) {
+				inDoubleQuote = !inDoubleQuote;
+			}
+			if (!inSingleQuote && !inDoubleQuote) {
+				if (lookingAt(this.separator)) {
+					// We've reached the end of the current statement
+					this.position += this.separator.length();
+					if (sb.length() > 0) {
+						return sb.toString();
+					}
+					continue;
+				}
+				else if (lookingAt(this.commentPrefix)) {
+					// Skip over any content from the start of the comment to the EOL
+					int offsetOfNextNewline = find("\n");
+					if (offsetOfNextNewline > 0) {
+						this.position += offsetOfNextNewline + 1;
+						continue;
+					}
+					else {
+						// If there's no EOL, we must be at the end of the script, so stop here.
+						this.position = this.buffer.length();
+						break;
+					}
+				}
+				else if (lookingAt(this.blockCommentStartDelimiter)) {
+					// Skip over any block comments
+					int offsetOfCommentEnd = find(this.blockCommentEndDelimiter);
+					if (offsetOfCommentEnd > 0) {
+						this.position += offsetOfCommentEnd + this.blockCommentEndDelimiter.length();
+						continue;
+					}
+					else {
+						throw new ScriptParseException(
+								"Missing block comment end delimiter: " + this.blockCommentEndDelimiter, this.resource);
+					}
+				}
+				else if (c == ' ' || c == '\r' || c == '\n' || c == '\t') {
+					// Avoid multiple adjacent whitespace characters
+					if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+						c = ' ';
+					}
+					else {
+						this.position++;
+						continue;
+					}
+				}
+			}
+			sb.append(c);
+			this.position++;
+		}
+
+		return (StringUtils.hasText(sb) ? sb.toString() : null);
+	}
+
+	/**
+	 * Check whether the unconsumed script text starts with the given string.
+	 */
+	private boolean lookingAt(String str) throws IOException {
+		return (ensureAvailable(str.length()) && regionMatches(this.buffer, this.position, str));
+	}
+
+	/**
+	 * Find the given string in the unconsumed script text, reading ahead as necessary.
+	 * @return the offset of the string relative to the current position,
+	 * or -1 if it does not occur in the remainder of the script
+	 */
+	private int find(String str) throws IOException {
+		int offset = 0;
+		while (true) {
+			int index = this.buffer.indexOf(str, this.position + offset);
+			if (index != -1) {
+				return index - this.position;
+			}
+			offset = Math.max(offset, this.buffer.length() - this.position - str.length() + 1);
+			if (!ensureAvailable(this.buffer.length() - this.position + 1)) {
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * Read ahead until the given number of characters is available beyond the
+	 * current position.
+	 * @return {@code false} if the end of the script was reached before
+	 */
+	private boolean ensureAvailable(int count) throws IOException {
+		while (this.buffer.length() - this.position < count) {
+			if (this.exhausted) {
+				return false;
+			}
+			if (this.position > COMPACT_THRESHOLD) {
+				this.buffer.delete(0, this.position);
+				this.position = 0;
+			}
+			readLine();
+		}
+		return true;
+	}
+
+	private void readLine() throws IOException {
+		String line = this.lineNumberReader.readLine();
+		if (line == null) {
+			this.exhausted = true;
+			appendSeparatorIfNecessary();
+			detectSeparator();
+			return;
+		}
+		if (!line.startsWith(this.commentPrefix)) {
+			if (this.contentRead) {
+				append("\n");
+			}
+			append(line);
+			this.contentRead = true;
+			detectSeparator();
+		}
+	}
+
+	/**
+	 * Terminate the script with a separator ending in whitespace, in line with
+	 * {@link ScriptUtils#readScript(LineNumberReader, String, String)}.
+	 */
+	private void appendSeparatorIfNecessary() {
+		String trimmed = this.separator.trim();
+		if (trimmed.length() != this.separator.length() && this.tail.toString().endsWith(trimmed)) {
+			append(this.separator.substring(trimmed.length()));
+		}
+	}
+
+	private void append(String text) {
+		this.buffer.append(text);
+		if (this.script != null) {
+			this.script.append(text);
+		}
+		this.tail.append(text);
+		if (this.tail.length() > this.separator.length()) {
+			this.tail.delete(0, this.tail.length() - this.separator.length());
+		}
+	}
+
+	/**
+	 * Scan the script read so far for the separator, in line with
+	 * {@link ScriptUtils#containsSqlScriptDelimiters}, and stop buffering
+	 * the script once it has been found.
+	 */
+	private void detectSeparator() {
+		StringBuilder script = this.script;
+		if (script == null) {
+			return;
+		}
+		int end = (this.exhausted ? script.length() : script.length() - this.separator.length() + 1);
+		for (; this.scriptIndex < end; this.scriptIndex++) {
+			if (script.charAt(this.scriptIndex) == '\'') {
+				this.inLiteral = !this.inLiteral;
+			}
+			if (!this.inLiteral && regionMatches(script, this.scriptIndex, this.separator)) {
+				this.script = null;
+				return;
+			}
+		}
+	}
+
+	private static boolean regionMatches(CharSequence text, int index, String str) {
+		if (index + str.length() > text.length()) {
+			return false;
+		}
+		for (int i = 0; i < str.length(); i++) {
+			if (text.charAt(index + i) != str.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
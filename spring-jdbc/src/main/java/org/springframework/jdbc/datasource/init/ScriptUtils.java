@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,19 +19,25 @@ package org.springframework.jdbc.datasource.init;
 import java.io.IOException;
 import java.io.LineNumberReader;
 import java.sql.Connection;
-import java.sql.SQLException;
-import java.sql.SQLWarning;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
 import org.springframework.util.StringUtils;
 
 /**
@@ -439,77 +445,207 @@ public abstract class ScriptUtils {
 			boolean ignoreFailedDrops, String commentPrefix, @Nullable String separator,
 			String blockCommentStartDelimiter, String blockCommentEndDelimiter) throws ScriptException {
 
+		executeSqlScript(connection, resource, continueOnError, ignoreFailedDrops, commentPrefix, separator,
+				blockCommentStartDelimiter, blockCommentEndDelimiter, 1);
+	}
+
+	/**
+	 * Execute the given SQL script, grouping its statements into JDBC batches
+	 * of the given size.
+	 * <p>The script is read incrementally through a {@link ScriptStatementReader}.
+	 * Statements will only be batched if the JDBC driver supports batch updates;
+	 * batched statements must not return a result set.
+	 * <p><strong>Warning</strong>: this method does <em>not</em> release the
+	 * provided {@link Connection}.
+	 * @param connection the JDBC connection to use to execute the script; already
+	 * configured and ready to use
+	 * @param resource the resource (potentially associated with a specific encoding)
+	 * to load the SQL script from
+	 * @param continueOnError whether or not to continue without throwing an exception
+	 * in the event of an error
+	 * @param ignoreFailedDrops whether or not to continue in the event of specifically
+	 * an error on a {@code DROP} statement
+	 * @param commentPrefix the prefix that identifies single-line comments in the
+	 * SQL script &mdash; typically "--"
+	 * @param separator the script statement separator; defaults to
+	 * {@value #DEFAULT_STATEMENT_SEPARATOR} if not specified and falls back to
+	 * {@value #FALLBACK_STATEMENT_SEPARATOR} as a last resort; may be set to
+	 * {@value #EOF_STATEMENT_SEPARATOR} to signal that the script contains a
+	 * single statement without a separator
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter; never
+	 * {@code null} or empty
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter; never
+	 * {@code null} or empty
+	 * @param batchSize the maximum number of statements per JDBC batch;
+	 * {@code 1} to execute each statement individually
+	 * @throws ScriptException if an error occurred while executing the SQL script
+	 * @since 5.0.16
+	 * @see #executeSqlScript(DataSource, EncodedResource, boolean, boolean, String, String, String, String, int, int)
+	 */
+	public static void executeSqlScript(Connection connection, EncodedResource resource, boolean continueOnError,
+			boolean ignoreFailedDrops, String commentPrefix, @Nullable String separator,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter, int batchSize) throws ScriptException {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
 		try {
 			if (logger.isInfoEnabled()) {
 				logger.info("Executing SQL script from " + resource);
 			}
 			long startTime = System.currentTimeMillis();
 
-			String script;
+			ScriptStatementReader reader = new ScriptStatementReader(resource, separator, commentPrefix,
+					blockCommentStartDelimiter, blockCommentEndDelimiter);
 			try {
-				script = readScript(resource, commentPrefix, separator);
+				ScriptStatementExecutor executor = new ScriptStatementExecutor(
+						connection, resource, continueOnError, ignoreFailedDrops, batchSize);
+				try {
+					int stmtNumber = 0;
+					String statement;
+					while ((statement = reader.nextStatement()) != null) {
+						executor.execute(statement, ++stmtNumber);
+					}
+					executor.flush();
+				}
+				finally {
+					executor.close();
+				}
 			}
-			catch (IOException ex) {
-				throw new CannotReadScriptException(resource, ex);
+			finally {
+				reader.close();
 			}
 
-			if (separator == null) {
-				separator = DEFAULT_STATEMENT_SEPARATOR;
+			long elapsedTime = System.currentTimeMillis() - startTime;
+			if (logger.isInfoEnabled()) {
+				logger.info("Executed SQL script from " + resource + " in " + elapsedTime + " ms.");
 			}
-			if (!EOF_STATEMENT_SEPARATOR.equals(separator) && !containsSqlScriptDelimiters(script, separator)) {
-				separator = FALLBACK_STATEMENT_SEPARATOR;
+		}
+		catch (Exception ex) {
+			if (ex instanceof ScriptException) {
+				throw (ScriptException) ex;
 			}
+			throw new UncategorizedScriptException(
+				"Failed to execute database script from resource [" + resource + "]", ex);
+		}
+	}
+
+	/**
+	 * Execute the given SQL script across several connections obtained from the
+	 * given {@link DataSource}, grouping its statements into JDBC batches of the
+	 * given size.
+	 * <p>The statements of the script must be independent of each other: they
+	 * are handed out to the connections as they are read, so their order of
+	 * execution is undefined. After a failed statement, no further statements
+	 * are handed out, but statements already being executed on other connections
+	 * may still complete.
+	 * <p>Connections are obtained and released through {@link DataSourceUtils}
+	 * on worker threads, i.e. they do not participate in a transaction of the
+	 * calling thread.
+	 * @param dataSource the {@code DataSource} to obtain connections from
+	 * @param resource the resource (potentially associated with a specific encoding)
+	 * to load the SQL script from
+	 * @param continueOnError whether or not to continue without throwing an exception
+	 * in the event of an error
+	 * @param ignoreFailedDrops whether or not to continue in the event of specifically
+	 * an error on a {@code DROP} statement
+	 * @param commentPrefix the prefix that identifies single-line comments in the
+	 * SQL script &mdash; typically "--"
+	 * @param separator the script statement separator; see
+	 * {@link #executeSqlScript(Connection, EncodedResource, boolean, boolean, String, String, String, String)}
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter; never
+	 * {@code null} or empty
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter; never
+	 * {@code null} or empty
+	 * @param batchSize the maximum number of statements per JDBC batch;
+	 * {@code 1} to execute each statement individually
+	 * @param concurrency the maximum number of connections to use
+	 * @throws ScriptException if an error occurred while executing the SQL script
+	 * @since 5.0.16
+	 */
+	public static void executeSqlScript(DataSource dataSource, EncodedResource resource, boolean continueOnError,
+			boolean ignoreFailedDrops, String commentPrefix, @Nullable String separator,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter, int batchSize, int concurrency)
+			throws ScriptException {
 
-			List<String> statements = new ArrayList<>();
-			splitSqlScript(resource, script, separator, commentPrefix, blockCommentStartDelimiter,
-					blockCommentEndDelimiter, statements);
+		Assert.notNull(dataSource, "DataSource must not be null");
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		try {
+			if (logger.isInfoEnabled()) {
+				logger.info("Executing SQL script from " + resource + " on " + concurrency + " connections");
+			}
+			long startTime = System.currentTimeMillis();
 
-			int stmtNumber = 0;
-			Statement stmt = connection.createStatement();
+			BlockingQueue<ScriptChunk> queue = new ArrayBlockingQueue<>(concurrency * 2);
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+			CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("sql-script-");
+			ExecutorService executorService = Executors.newFixedThreadPool(concurrency, threadCreator::createThread);
+			boolean completed = false;
 			try {
-				for (String statement : statements) {
-					stmtNumber++;
-					try {
-						stmt.execute(statement);
-						int rowsAffected = stmt.getUpdateCount();
-						if (logger.isDebugEnabled()) {
-							logger.debug(rowsAffected + " returned as update count for SQL: " + statement);
-							SQLWarning warningToLog = stmt.getWarnings();
-							while (warningToLog != null) {
-								logger.debug("SQLWarning ignored: SQL state '" + warningToLog.getSQLState() +
-										"', error code '" + warningToLog.getErrorCode() +
-										"', message [" + warningToLog.getMessage() + "]");
-								warningToLog = warningToLog.getNextWarning();
-							}
+				for (int i = 0; i < concurrency; i++) {
+					executorService.execute(() -> executeScriptChunks(
+							dataSource, resource, continueOnError, ignoreFailedDrops, batchSize, queue, failure));
+				}
+
+				ScriptStatementReader reader = new ScriptStatementReader(resource, separator, commentPrefix,
+						blockCommentStartDelimiter, blockCommentEndDelimiter);
+				try {
+					int stmtNumber = 0;
+					ScriptChunk chunk = new ScriptChunk(1, batchSize);
+					String statement;
+					while (failure.get() == null && (statement = reader.nextStatement()) != null) {
+						chunk.statements.add(statement);
+						stmtNumber++;
+						if (chunk.statements.size() == batchSize) {
+							queue.put(chunk);
+							chunk = new ScriptChunk(stmtNumber + 1, batchSize);
 						}
 					}
-					catch (SQLException ex) {
-						boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
-						if (continueOnError || (dropStatement && ignoreFailedDrops)) {
-							if (logger.isDebugEnabled()) {
-								logger.debug(ScriptStatementFailedException.buildErrorMessage(statement, stmtNumber, resource), ex);
-							}
-						}
-						else {
-							throw new ScriptStatementFailedException(statement, stmtNumber, resource, ex);
-						}
+					if (!chunk.statements.isEmpty()) {
+						queue.put(chunk);
 					}
 				}
+				finally {
+					reader.close();
+				}
+
+				for (int i = 0; i < concurrency; i++) {
+					queue.put(ScriptChunk.END);
+				}
+				executorService.shutdown();
+				executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				completed = true;
 			}
 			finally {
-				try {
-					stmt.close();
-				}
-				catch (Throwable ex) {
-					logger.debug("Could not close JDBC Statement", ex);
+				if (!completed) {
+					// Stop the workers without blocking: interrupt them, drop pending
+					// chunks and leave an end marker for each of them
+					executorService.shutdownNow();
+					queue.clear();
+					for (int i = 0; i < concurrency; i++) {
+						queue.offer(ScriptChunk.END);
+					}
 				}
 			}
 
+			Throwable ex = failure.get();
+			if (ex instanceof ScriptException) {
+				throw (ScriptException) ex;
+			}
+			else if (ex != null) {
+				throw new UncategorizedScriptException(
+						"Failed to execute database script from resource [" + resource + "]", ex);
+			}
+
 			long elapsedTime = System.currentTimeMillis() - startTime;
 			if (logger.isInfoEnabled()) {
 				logger.info("Executed SQL script from " + resource + " in " + elapsedTime + " ms.");
 			}
 		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new UncategorizedScriptException(
+					"Interrupted while executing database script from resource [" + resource + "]", ex);
+		}
 		catch (Exception ex) {
 			if (ex instanceof ScriptException) {
 				throw (ScriptException) ex;
@@ -519,4 +655,69 @@ public abstract class ScriptUtils {
 		}
 	}
 
+	/**
+	 * Execute the chunks taken from the given queue on a connection of its own,
+	 * until the end of the script has been signalled. After a failure, further
+	 * chunks are taken but not executed anymore.
+	 */
+	private static void executeScriptChunks(DataSource dataSource, EncodedResource resource,
+			boolean continueOnError, boolean ignoreFailedDrops, int batchSize,
+			BlockingQueue<ScriptChunk> queue, AtomicReference<Throwable> failure) {
+
+		Connection connection = null;
+		ScriptStatementExecutor executor = null;
+		try {
+			ScriptChunk chunk;
+			while ((chunk = queue.take()) != ScriptChunk.END) {
+				if (failure.get() != null) {
+					continue;
+				}
+				try {
+					if (executor == null) {
+						connection = DataSourceUtils.getConnection(dataSource);
+						executor = new ScriptStatementExecutor(
+								connection, resource, continueOnError, ignoreFailedDrops, batchSize);
+					}
+					for (int i = 0; i < chunk.statements.size(); i++) {
+						executor.execute(chunk.statements.get(i), chunk.firstStmtNumber + i);
+					}
+					executor.flush();
+				}
+				catch (Throwable ex) {
+					failure.compareAndSet(null, ex);
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			failure.compareAndSet(null, ex);
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			if (executor != null) {
+				executor.close();
+			}
+			if (connection != null) {
+				DataSourceUtils.releaseConnection(connection, dataSource);
+			}
+		}
+	}
+
+
+	/**
+	 * Consecutive statements of a script, handed out to a connection together.
+	 */
+	private static class ScriptChunk {
+
+		static final ScriptChunk END = new ScriptChunk(0, 0);
+
+		final int firstStmtNumber;
+
+		final List<String> statements;
+
+		ScriptChunk(int firstStmtNumber, int size) {
+			this.firstStmtNumber = firstStmtNumber;
+			this.statements = new ArrayList<>(size);
+		}
+	}
+
 }
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * DataSource that routes read-only transactions to one of various replica
+ * DataSources, and all other work to a primary DataSource. The replicas need
+ * to be configured as {@link #setTargetDataSources target DataSources}, keyed
+ * by an arbitrary replica name; the primary DataSource needs to be configured
+ * as {@link #setDefaultTargetDataSource default target DataSource}.
+ *
+ * <p>Whether the current transaction is read-only is determined through
+ * {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}, as
+ * exposed for {@code @Transactional(readOnly = true)}. Since transaction managers
+ * such as {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+ * fetch a Connection before exposing the read-only flag, this router needs to be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that the transaction manager and all data access code work with: The routing
+ * decision is then deferred to the first actual statement in a transaction.
+ *
+ * <pre class="code">
+ * &lt;bean id="dataSource" class="org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy"&gt;
+ *   &lt;property name="targetDataSource"&gt;
+ *     &lt;bean class="org.springframework.jdbc.datasource.lookup.ReadWriteRoutingDataSource"&gt;
+ *       &lt;property name="targetDataSources"&gt;
+ *         &lt;map&gt;
+ *           &lt;entry key="replica1" value-ref="myReplicaDataSource1"/&gt;
+ *           &lt;entry key="replica2" value-ref="myReplicaDataSource2"/&gt;
+ *         &lt;/map&gt;
+ *       &lt;/property&gt;
+ *       &lt;property name="replicaWeights"&gt;
+ *         &lt;map&gt;
+ *           &lt;entry key="replica1" value="2"/&gt;
+ *         &lt;/map&gt;
+ *       &lt;/property&gt;
+ *       &lt;property name="defaultTargetDataSource" ref="myPrimaryDataSource"/&gt;
+ *     &lt;/bean&gt;
+ *   &lt;/property&gt;
+ * &lt;/bean&gt;
+ *
+ * &lt;bean id="transactionManager" class="org.springframework.jdbc.datasource.DataSourceTransactionManager"&gt;
+ *   &lt;property name="dataSource" ref="dataSource"/&gt;
+ * &lt;/bean&gt;</pre>
+ *
+ * <p>Replicas are selected by weighted least connections: the replica with the
+ * lowest number of open Connections obtained through this router relative to
+ * its {@link #setReplicaWeights weight} is chosen, rotating among replicas with
+ * the same load. A replica that fails to provide a Connection is ejected for the
+ * {@link #setEjectionInterval ejection interval}, with another replica being
+ * tried instead. If no replica is available, read-only transactions are routed
+ * to the primary DataSource.
+ *
+ * @since 5.0.16
+ * @see #setTargetDataSources
+ * @see #setDefaultTargetDataSource
+ * @see org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
+ * @see org.springframework.transaction.annotation.Transactional#readOnly()
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	private Map<Object, Integer> replicaWeights = Collections.emptyMap();
+
+	private long ejectionInterval = 30000;
+
+	private Replica[] replicas = new Replica[0];
+
+	private final AtomicInteger nextReplica = new AtomicInteger();
+
+
+	/**
+	 * Specify the weights of the replica DataSources, with the lookup key as
+	 * specified in the {@link #setTargetDataSources targetDataSources} map as key.
+	 * <p>A replica with twice the weight of another replica will be handed twice
+	 * the number of concurrently open Connections. Default weight is 1.
+	 */
+	public void setReplicaWeights(Map<Object, Integer> replicaWeights) {
+		Assert.notNull(replicaWeights, "Replica weights must not be null");
+		this.replicaWeights = replicaWeights;
+	}
+
+	/**
+	 * Specify the interval (in milliseconds) for which a replica DataSource
+	 * is ejected after failing to provide a Connection. Default is 30000 ms.
+	 * <p>After this interval, the replica will be considered again for
+	 * subsequent read-only transactions. A value of 0 turns off ejection.
+	 */
+	public void setEjectionInterval(long ejectionInterval) {
+		Assert.isTrue(ejectionInterval >= 0, "Ejection interval must not be negative");
+		this.ejectionInterval = ejectionInterval;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		Assert.state(getResolvedDefaultDataSource() != null,
+				"Property 'defaultTargetDataSource' is required as primary DataSource");
+		List<Replica> replicas = new ArrayList<>();
+		this.replicaWeights.forEach((key, weight) -> Assert.isTrue(weight > 0,
+				"Weight for replica DataSource [" + key + "] must be positive"));
+		getResolvedDataSources().forEach((key, dataSource) -> {
+			Integer weight = this.replicaWeights.get(key);
+			replicas.add(new Replica(key, dataSource, (weight != null ? weight : 1)));
+		});
+		this.replicas = replicas.toArray(new Replica[0]);
+	}
+
+	/**
+	 * Return the key of the replica DataSource to use for a read-only transaction,
+	 * or {@code null} for the primary DataSource.
+	 */
+	@Override
+	@Nullable
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return null;
+		}
+		Replica replica = selectReplica();
+		return (replica != null ? replica.key : null);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return doGetConnection(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return doGetConnection(username, password);
+	}
+
+	/**
+	 * Obtain a Connection from a replica DataSource for a read-only transaction,
+	 * ejecting replicas that fail to provide one, or from the primary DataSource.
+	 */
+	private Connection doGetConnection(@Nullable String username, @Nullable String password)
+			throws SQLException {
+
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			for (int i = 0; i < this.replicas.length; i++) {
+				Replica replica = selectReplica();
+				if (replica == null) {
+					break;
+				}
+				try {
+					return replica.getConnection(username, password);
+				}
+				catch (SQLException ex) {
+					replica.eject(this.ejectionInterval);
+					if (logger.isWarnEnabled()) {
+						logger.warn("Could not obtain Connection from replica DataSource [" + replica.key +
+								"] - ejecting it for " + this.ejectionInterval + " ms", ex);
+					}
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("No replica DataSource available - routing read-only transaction to primary DataSource");
+			}
+		}
+		DataSource primary = getResolvedDefaultDataSource();
+		Assert.state(primary != null, "DataSource router not initialized");
+		return (username != null ? primary.getConnection(username, password) : primary.getConnection());
+	}
+
+	/**
+	 * Select the replica with the lowest weighted number of open Connections,
+	 * skipping ejected replicas.
+	 * @return the replica, or {@code null} if none available
+	 */
+	@Nullable
+	private Replica selectReplica() {
+		Replica[] replicas = this.replicas;
+		if (replicas.length == 0) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		int start = Math.floorMod(this.nextReplica.getAndIncrement(), replicas.length);
+		Replica selected = null;
+		double selectedLoad = 0;
+		for (int i = 0; i < replicas.length; i++) {
+			Replica candidate = replicas[(start + i) % replicas.length];
+			if (candidate.isEjected(now)) {
+				continue;
+			}
+			double load = (candidate.openConnections.get() + 1) / (double) candidate.weight;
+			if (selected == null || load < selectedLoad) {
+				selected = candidate;
+				selectedLoad = load;
+			}
+		}
+		return selected;
+	}
+
+
+	/**
+	 * A replica DataSource with its weight and current state.
+	 */
+	private static class Replica {
+
+		final Object key;
+
+		final DataSource dataSource;
+
+		final int weight;
+
+		final AtomicInteger openConnections = new AtomicInteger();
+
+		private volatile long ejectedUntil;
+
+		Replica(Object key, DataSource dataSource, int weight) {
+			this.key = key;
+			this.dataSource = dataSource;
+			this.weight = weight;
+		}
+
+		boolean isEjected(long now) {
+			return (this.ejectedUntil > now);
+		}
+
+		void eject(long interval) {
+			if (interval > 0) {
+				this.ejectedUntil = System.currentTimeMillis() + interval;
+			}
+		}
+
+		Connection getConnection(@Nullable String username, @Nullable String password) throws SQLException {
+			this.openConnections.incrementAndGet();
+			try {
+				Connection target = (username != null ?
+						this.dataSource.getConnection(username, password) : this.dataSource.getConnection());
+				return (Connection) Proxy.newProxyInstance(
+						ConnectionProxy.class.getClassLoader(),
+						new Class<?>[] {ConnectionProxy.class},
+						new ReplicaConnectionInvocationHandler(target, this));
+			}
+			catch (SQLException | RuntimeException | Error ex) {
+				this.openConnections.decrementAndGet();
+				throw ex;
+			}
+		}
+	}
+
+
+	/**
+	 * Invocation handler that keeps track of the open Connections of a replica.
+	 */
+	private static class ReplicaConnectionInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final Replica replica;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		public ReplicaConnectionInvocationHandler(Connection target, Replica replica) {
+			this.target = target;
+			this.replica = replica;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			if (method.getName().equals("equals")) {
+				// Only consider equal when proxies are identical.
+				return (proxy == args[0]);
+			}
+			else if (method.getName().equals("hashCode")) {
+				// Use hashCode of Connection proxy.
+				return System.identityHashCode(proxy);
+			}
+			else if (method.getName().equals("unwrap")) {
+				if (((Class<?>) args[0]).isInstance(proxy)) {
+					return proxy;
+				}
+			}
+			else if (method.getName().equals("isWrapperFor")) {
+				if (((Class<?>) args[0]).isInstance(proxy)) {
+					return true;
+				}
+			}
+			else if (method.getName().equals("getTargetConnection")) {
+				// Handle getTargetConnection method: return underlying Connection.
+				return this.target;
+			}
+			else if (method.getName().equals("close")) {
+				if (this.closed.compareAndSet(false, true)) {
+					this.replica.openConnections.decrementAndGet();
+				}
+			}
+
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
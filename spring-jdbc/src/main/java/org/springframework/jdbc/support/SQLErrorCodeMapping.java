@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Precomputed lookup of the error codes held by a {@link SQLErrorCodes}
+ * instance, allowing {@link SQLErrorCodeSQLExceptionTranslator} to determine
+ * the translation for an error code through a single hash lookup.
+ *
+ * <p>Custom translations are kept in declaration order, and an error code
+ * listed in several categories maps to the first category in the order of
+ * {@link Category}, as with a sequential check of the code arrays.
+ *
+ * @since 5.0.16
+ * @see SQLErrorCodes#getErrorCodeMapping()
+ */
+final class SQLErrorCodeMapping {
+
+	private static final Class<?>[] NO_CUSTOM_EXCEPTION_CLASSES = new Class<?>[0];
+
+
+	private final Map<String, Translation> translations;
+
+
+	SQLErrorCodeMapping(SQLErrorCodes sec) {
+		Map<String, List<Class<?>>> customExceptionClasses = new LinkedHashMap<>();
+		CustomSQLErrorCodesTranslation[] customTranslations = sec.getCustomTranslations();
+		if (customTranslations != null) {
+			for (CustomSQLErrorCodesTranslation customTranslation : customTranslations) {
+				Class<?> exceptionClass = customTranslation.getExceptionClass();
+				if (exceptionClass != null) {
+					for (String errorCode : customTranslation.getErrorCodes()) {
+						customExceptionClasses.computeIfAbsent(errorCode, key -> new ArrayList<>(1)).add(exceptionClass);
+					}
+				}
+			}
+		}
+
+		Map<String, Category> categories = new HashMap<>();
+		for (Category category : Category.values()) {
+			for (String errorCode : category.getErrorCodes(sec)) {
+				categories.putIfAbsent(errorCode, category);
+			}
+		}
+
+		Map<String, Translation> translations = new HashMap<>(categories.size() + customExceptionClasses.size());
+		categories.forEach((errorCode, category) -> translations.put(errorCode,
+				new Translation(NO_CUSTOM_EXCEPTION_CLASSES, category)));
+		customExceptionClasses.forEach((errorCode, exceptionClasses) -> translations.put(errorCode,
+				new Translation(exceptionClasses.toArray(new Class<?>[0]), categories.get(errorCode))));
+		this.translations = translations;
+	}
+
+
+	/**
+	 * Return the translation for the given error code.
+	 * @param errorCode the error code (or SQL state) to translate
+	 * @return the translation, or {@code null} if the error code is not mapped
+	 */
+	@Nullable
+	public Translation getTranslation(String errorCode) {
+		return this.translations.get(errorCode);
+	}
+
+
+	/**
+	 * The translation for a particular error code.
+	 */
+	static final class Translation {
+
+		private final Class<?>[] customExceptionClasses;
+
+		@Nullable
+		private final Category category;
+
+		Translation(Class<?>[] customExceptionClasses, @Nullable Category category) {
+			this.customExceptionClasses = customExceptionClasses;
+			this.category = category;
+		}
+
+		/**
+		 * Return the exception classes of the custom translations for the error code,
+		 * in declaration order.
+		 */
+		public Class<?>[] getCustomExceptionClasses() {
+			return this.customExceptionClasses;
+		}
+
+		/**
+		 * Return the category for the error code, if any.
+		 */
+		@Nullable
+		public Category getCategory() {
+			return this.category;
+		}
+	}
+
+
+	/**
+	 * The error code categories of {@link SQLErrorCodes}, in order of precedence.
+	 */
+	enum Category {
+
+		BAD_SQL_GRAMMAR {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getBadSqlGrammarCodes();
+			}
+		},
+
+		INVALID_RESULT_SET_ACCESS {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getInvalidResultSetAccessCodes();
+			}
+		},
+
+		DUPLICATE_KEY {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getDuplicateKeyCodes();
+			}
+		},
+
+		DATA_INTEGRITY_VIOLATION {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getDataIntegrityViolationCodes();
+			}
+		},
+
+		PERMISSION_DENIED {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getPermissionDeniedCodes();
+			}
+		},
+
+		DATA_ACCESS_RESOURCE_FAILURE {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getDataAccessResourceFailureCodes();
+			}
+		},
+
+		TRANSIENT_DATA_ACCESS_RESOURCE {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getTransientDataAccessResourceCodes();
+			}
+		},
+
+		CANNOT_ACQUIRE_LOCK {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getCannotAcquireLockCodes();
+			}
+		},
+
+		DEADLOCK_LOSER {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getDeadlockLoserCodes();
+			}
+		},
+
+		CANNOT_SERIALIZE_TRANSACTION {
+			@Override
+			String[] getErrorCodes(SQLErrorCodes sec) {
+				return sec.getCannotSerializeTransactionCodes();
+			}
+		};
+
+		abstract String[] getErrorCodes(SQLErrorCodes sec);
+	}
+
+}
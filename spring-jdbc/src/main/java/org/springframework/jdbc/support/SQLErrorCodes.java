@@ -66,6 +66,9 @@ public class SQLErrorCodes {
 	@Nullable
 	private SQLExceptionTranslator customSqlExceptionTranslator;
 
+	@Nullable
+	private volatile SQLErrorCodeMapping errorCodeMapping;
+
 
 	/**
 	 * Set this property if the database name contains spaces,
@@ -108,6 +111,7 @@ public class SQLErrorCodes {
 
 	public void setBadSqlGrammarCodes(String... badSqlGrammarCodes) {
 		this.badSqlGrammarCodes = StringUtils.sortStringArray(badSqlGrammarCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getBadSqlGrammarCodes() {
@@ -116,6 +120,7 @@ public class SQLErrorCodes {
 
 	public void setInvalidResultSetAccessCodes(String... invalidResultSetAccessCodes) {
 		this.invalidResultSetAccessCodes = StringUtils.sortStringArray(invalidResultSetAccessCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getInvalidResultSetAccessCodes() {
@@ -128,10 +133,12 @@ public class SQLErrorCodes {
 
 	public void setDuplicateKeyCodes(String... duplicateKeyCodes) {
 		this.duplicateKeyCodes = duplicateKeyCodes;
+		this.errorCodeMapping = null;
 	}
 
 	public void setDataIntegrityViolationCodes(String... dataIntegrityViolationCodes) {
 		this.dataIntegrityViolationCodes = StringUtils.sortStringArray(dataIntegrityViolationCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getDataIntegrityViolationCodes() {
@@ -140,6 +147,7 @@ public class SQLErrorCodes {
 
 	public void setPermissionDeniedCodes(String... permissionDeniedCodes) {
 		this.permissionDeniedCodes = StringUtils.sortStringArray(permissionDeniedCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getPermissionDeniedCodes() {
@@ -148,6 +156,7 @@ public class SQLErrorCodes {
 
 	public void setDataAccessResourceFailureCodes(String... dataAccessResourceFailureCodes) {
 		this.dataAccessResourceFailureCodes = StringUtils.sortStringArray(dataAccessResourceFailureCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getDataAccessResourceFailureCodes() {
@@ -156,6 +165,7 @@ public class SQLErrorCodes {
 
 	public void setTransientDataAccessResourceCodes(String... transientDataAccessResourceCodes) {
 		this.transientDataAccessResourceCodes = StringUtils.sortStringArray(transientDataAccessResourceCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getTransientDataAccessResourceCodes() {
@@ -164,6 +174,7 @@ public class SQLErrorCodes {
 
 	public void setCannotAcquireLockCodes(String... cannotAcquireLockCodes) {
 		this.cannotAcquireLockCodes = StringUtils.sortStringArray(cannotAcquireLockCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getCannotAcquireLockCodes() {
@@ -172,6 +183,7 @@ public class SQLErrorCodes {
 
 	public void setDeadlockLoserCodes(String... deadlockLoserCodes) {
 		this.deadlockLoserCodes = StringUtils.sortStringArray(deadlockLoserCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getDeadlockLoserCodes() {
@@ -180,6 +192,7 @@ public class SQLErrorCodes {
 
 	public void setCannotSerializeTransactionCodes(String... cannotSerializeTransactionCodes) {
 		this.cannotSerializeTransactionCodes = StringUtils.sortStringArray(cannotSerializeTransactionCodes);
+		this.errorCodeMapping = null;
 	}
 
 	public String[] getCannotSerializeTransactionCodes() {
@@ -188,6 +201,7 @@ public class SQLErrorCodes {
 
 	public void setCustomTranslations(CustomSQLErrorCodesTranslation... customTranslations) {
 		this.customTranslations = customTranslations;
+		this.errorCodeMapping = null;
 	}
 
 	@Nullable
@@ -195,6 +209,23 @@ public class SQLErrorCodes {
 		return this.customTranslations;
 	}
 
+	/**
+	 * Return the precomputed lookup of the error codes and custom translations
+	 * held by this instance, building it on first access.
+	 * <p>Rebuilt after any of the error codes or custom translations have been
+	 * set; modifications of a registered {@link CustomSQLErrorCodesTranslation}
+	 * instance itself are not detected.
+	 * @since 5.0.16
+	 */
+	SQLErrorCodeMapping getErrorCodeMapping() {
+		SQLErrorCodeMapping mapping = this.errorCodeMapping;
+		if (mapping == null) {
+			mapping = new SQLErrorCodeMapping(this);
+			this.errorCodeMapping = mapping;
+		}
+		return mapping;
+	}
+
 	public void setCustomSqlExceptionTranslatorClass(@Nullable Class<? extends SQLExceptionTranslator> customTranslatorClass) {
 		if (customTranslatorClass != null) {
 			try {
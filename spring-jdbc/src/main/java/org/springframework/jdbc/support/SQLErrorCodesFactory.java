@@ -246,6 +246,8 @@ public class SQLErrorCodesFactory {
 			logger.debug("Caching SQL error codes for DataSource [" + identify(dataSource) +
 					"]: database product name is '" + databaseName + "'");
 		}
+		// Precompute the error code lookup ahead of the first translation
+		sec.getErrorCodeMapping();
 		this.dataSourceCache.put(dataSource, sec);
 		return sec;
 	}
@@ -0,0 +1,1090 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * Implementation of Spring's {@link SqlRowSet} interface that holds the data
+ * of a {@link ResultSet} in column-oriented arrays, for large disconnected
+ * result sets.
+ *
+ * <p>In contrast to a {@code javax.sql.rowset.CachedRowSet}, values are not kept
+ * as an {@code Object} per row and column. Integer, floating-point, boolean and
+ * date/time columns are held in primitive arrays, and character columns are
+ * dictionary-encoded: each distinct value is only held once, with an
+ * {@code int} code per row. Other columns are held as extracted through
+ * {@link JdbcUtils#getResultSetValue(ResultSet, int)}, which turns LOBs into
+ * {@code byte[]} and {@code String} values.
+ *
+ * <p>Values are converted on access where the requested type differs from the
+ * column type, as a JDBC driver would do. An access attempt which cannot be
+ * satisfied results in an {@link InvalidResultSetAccessException}.
+ *
+ * <p>Not thread-safe, since the cursor position is held by this instance.
+ *
+ * @since 5.0.16
+ * @see org.springframework.jdbc.core.ColumnarSqlRowSetResultSetExtractor
+ */
+public class ColumnarSqlRowSet implements SqlRowSet {
+
+	private static final long serialVersionUID = 4906377853914437582L;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+
+	private final ColumnarSqlRowSetMetaData metaData;
+
+	private final Column[] columns;
+
+	private final Map<String, Integer> columnLabelMap;
+
+	private final int rowCount;
+
+	/** The current row, from 0 (before the first row) to rowCount + 1 (after the last row) */
+	private int cursor;
+
+	private boolean wasNull;
+
+
+	/**
+	 * Create a new ColumnarSqlRowSet, reading all remaining rows of the given ResultSet.
+	 * <p>The ResultSet is not closed; it may be released right after this call.
+	 * @param resultSet the ResultSet to read
+	 * @throws SQLException if thrown by JDBC methods
+	 */
+	public ColumnarSqlRowSet(ResultSet resultSet) throws SQLException {
+		ResultSetMetaData rsmd = resultSet.getMetaData();
+		this.metaData = new ColumnarSqlRowSetMetaData(rsmd);
+		int columnCount = rsmd.getColumnCount();
+		this.columns = new Column[columnCount];
+		this.columnLabelMap = new HashMap<>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			this.columns[i] = createColumn(rsmd.getColumnType(i + 1), rsmd.isSigned(i + 1));
+			// Make sure to preserve first matching column for any given name,
+			// as defined in ResultSet's type-level javadoc.
+			this.columnLabelMap.putIfAbsent(rsmd.getColumnLabel(i + 1), i + 1);
+		}
+
+		int capacity = INITIAL_CAPACITY;
+		for (Column column : this.columns) {
+			column.resize(capacity);
+		}
+		int rowCount = 0;
+		while (resultSet.next()) {
+			if (rowCount == capacity) {
+				capacity = (capacity <= Integer.MAX_VALUE / 2 ? capacity * 2 : Integer.MAX_VALUE);
+				for (Column column : this.columns) {
+					column.resize(capacity);
+				}
+			}
+			for (int i = 0; i < columnCount; i++) {
+				this.columns[i].read(resultSet, i + 1, rowCount);
+			}
+			rowCount++;
+		}
+		for (Column column : this.columns) {
+			column.resize(rowCount);
+			column.complete();
+		}
+		this.rowCount = rowCount;
+	}
+
+	private static Column createColumn(int columnType, boolean signed) {
+		switch (columnType) {
+			case Types.BIT:
+			case Types.BOOLEAN:
+				return new BooleanColumn();
+			case Types.TINYINT:
+			case Types.SMALLINT:
+				return new IntColumn();
+			case Types.INTEGER:
+				return (signed ? new IntColumn() : new LongColumn());
+			case Types.BIGINT:
+				return (signed ? new LongColumn() : new ObjectColumn());
+			case Types.REAL:
+				return new DoubleColumn(true);
+			case Types.FLOAT:
+			case Types.DOUBLE:
+				return new DoubleColumn(false);
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.LONGVARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.LONGNVARCHAR:
+				return new StringColumn();
+			case Types.DATE:
+			case Types.TIME:
+				return new DateTimeColumn(columnType);
+			case Types.TIMESTAMP:
+				return new TimestampColumn();
+			default:
+				return new ObjectColumn();
+		}
+	}
+
+
+	/**
+	 * Return the number of rows held by this row set.
+	 */
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	@Override
+	public SqlRowSetMetaData getMetaData() {
+		return this.metaData;
+	}
+
+	@Override
+	public int findColumn(String columnLabel) throws InvalidResultSetAccessException {
+		Integer columnIndex = this.columnLabelMap.get(columnLabel);
+		if (columnIndex != null) {
+			return columnIndex;
+		}
+		for (int i = 1; i <= this.columns.length; i++) {
+			if (columnLabel.equalsIgnoreCase(this.metaData.getColumnLabel(i))) {
+				return i;
+			}
+		}
+		throw invalidAccess("Invalid column label: " + columnLabel);
+	}
+
+
+	// RowSet methods for extracting data values
+
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? null : toBigDecimal(column.getObject(this.cursor - 1)));
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(String columnLabel) throws InvalidResultSetAccessException {
+		return getBigDecimal(findColumn(columnLabel));
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (!this.wasNull && column.getBoolean(this.cursor - 1));
+	}
+
+	@Override
+	public boolean getBoolean(String columnLabel) throws InvalidResultSetAccessException {
+		return getBoolean(findColumn(columnLabel));
+	}
+
+	@Override
+	public byte getByte(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? 0 : (byte) column.getLong(this.cursor - 1));
+	}
+
+	@Override
+	public byte getByte(String columnLabel) throws InvalidResultSetAccessException {
+		return getByte(findColumn(columnLabel));
+	}
+
+	@Override
+	public Date getDate(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? null : toDate(column.getObject(this.cursor - 1)));
+	}
+
+	@Override
+	public Date getDate(String columnLabel) throws InvalidResultSetAccessException {
+		return getDate(findColumn(columnLabel));
+	}
+
+	@Override
+	public Date getDate(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		Date date = getDate(columnIndex);
+		return (date != null ? new Date(adjust(date.getTime(), cal)) : null);
+	}
+
+	@Override
+	public Date getDate(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getDate(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public double getDouble(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? 0 : column.getDouble(this.cursor - 1));
+	}
+
+	@Override
+	public double getDouble(String columnLabel) throws InvalidResultSetAccessException {
+		return getDouble(findColumn(columnLabel));
+	}
+
+	@Override
+	public float getFloat(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? 0 : (float) column.getDouble(this.cursor - 1));
+	}
+
+	@Override
+	public float getFloat(String columnLabel) throws InvalidResultSetAccessException {
+		return getFloat(findColumn(columnLabel));
+	}
+
+	@Override
+	public int getInt(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? 0 : (int) column.getLong(this.cursor - 1));
+	}
+
+	@Override
+	public int getInt(String columnLabel) throws InvalidResultSetAccessException {
+		return getInt(findColumn(columnLabel));
+	}
+
+	@Override
+	public long getLong(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? 0 : column.getLong(this.cursor - 1));
+	}
+
+	@Override
+	public long getLong(String columnLabel) throws InvalidResultSetAccessException {
+		return getLong(findColumn(columnLabel));
+	}
+
+	@Override
+	public String getNString(int columnIndex) throws InvalidResultSetAccessException {
+		return getString(columnIndex);
+	}
+
+	@Override
+	public String getNString(String columnLabel) throws InvalidResultSetAccessException {
+		return getNString(findColumn(columnLabel));
+	}
+
+	@Override
+	public Object getObject(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? null : column.getObject(this.cursor - 1));
+	}
+
+	@Override
+	public Object getObject(String columnLabel) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel));
+	}
+
+	/**
+	 * This implementation ignores the given type map: user-defined types are
+	 * held as extracted from the original ResultSet.
+	 */
+	@Override
+	public Object getObject(int columnIndex, Map<String, Class<?>> map) throws InvalidResultSetAccessException {
+		return getObject(columnIndex);
+	}
+
+	@Override
+	public Object getObject(String columnLabel, Map<String, Class<?>> map) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel), map);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getObject(int columnIndex, Class<T> type) throws InvalidResultSetAccessException {
+		Object value = getObject(columnIndex);
+		if (value == null || type.isInstance(value)) {
+			return (T) value;
+		}
+		if (String.class == type) {
+			return (T) getString(columnIndex);
+		}
+		else if (Integer.class == type) {
+			return (T) Integer.valueOf(getInt(columnIndex));
+		}
+		else if (Long.class == type) {
+			return (T) Long.valueOf(getLong(columnIndex));
+		}
+		else if (Short.class == type) {
+			return (T) Short.valueOf(getShort(columnIndex));
+		}
+		else if (Byte.class == type) {
+			return (T) Byte.valueOf(getByte(columnIndex));
+		}
+		else if (Double.class == type) {
+			return (T) Double.valueOf(getDouble(columnIndex));
+		}
+		else if (Float.class == type) {
+			return (T) Float.valueOf(getFloat(columnIndex));
+		}
+		else if (Boolean.class == type) {
+			return (T) Boolean.valueOf(getBoolean(columnIndex));
+		}
+		else if (BigDecimal.class == type) {
+			return (T) getBigDecimal(columnIndex);
+		}
+		else if (Date.class == type) {
+			return (T) getDate(columnIndex);
+		}
+		else if (Time.class == type) {
+			return (T) getTime(columnIndex);
+		}
+		else if (Timestamp.class == type) {
+			return (T) getTimestamp(columnIndex);
+		}
+		throw conversionFailure(value, type);
+	}
+
+	@Override
+	public <T> T getObject(String columnLabel, Class<T> type) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel), type);
+	}
+
+	@Override
+	public short getShort(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? 0 : (short) column.getLong(this.cursor - 1));
+	}
+
+	@Override
+	public short getShort(String columnLabel) throws InvalidResultSetAccessException {
+		return getShort(findColumn(columnLabel));
+	}
+
+	@Override
+	public String getString(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? null : column.getString(this.cursor - 1));
+	}
+
+	@Override
+	public String getString(String columnLabel) throws InvalidResultSetAccessException {
+		return getString(findColumn(columnLabel));
+	}
+
+	@Override
+	public Time getTime(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? null : toTime(column.getObject(this.cursor - 1)));
+	}
+
+	@Override
+	public Time getTime(String columnLabel) throws InvalidResultSetAccessException {
+		return getTime(findColumn(columnLabel));
+	}
+
+	@Override
+	public Time getTime(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		Time time = getTime(columnIndex);
+		return (time != null ? new Time(adjust(time.getTime(), cal)) : null);
+	}
+
+	@Override
+	public Time getTime(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getTime(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = column(columnIndex);
+		return (this.wasNull ? null : toTimestamp(column.getObject(this.cursor - 1)));
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel) throws InvalidResultSetAccessException {
+		return getTimestamp(findColumn(columnLabel));
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		Timestamp timestamp = getTimestamp(columnIndex);
+		if (timestamp == null) {
+			return null;
+		}
+		Timestamp adjusted = new Timestamp(adjust(timestamp.getTime(), cal));
+		adjusted.setNanos(timestamp.getNanos());
+		return adjusted;
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getTimestamp(findColumn(columnLabel), cal);
+	}
+
+
+	// RowSet navigation methods
+
+	@Override
+	public boolean absolute(int row) throws InvalidResultSetAccessException {
+		if (row >= 0) {
+			this.cursor = Math.min(row, this.rowCount + 1);
+		}
+		else {
+			this.cursor = Math.max(this.rowCount + 1 + row, 0);
+		}
+		return isOnRow();
+	}
+
+	@Override
+	public void afterLast() throws InvalidResultSetAccessException {
+		this.cursor = this.rowCount + 1;
+	}
+
+	@Override
+	public void beforeFirst() throws InvalidResultSetAccessException {
+		this.cursor = 0;
+	}
+
+	@Override
+	public boolean first() throws InvalidResultSetAccessException {
+		return absolute(1);
+	}
+
+	@Override
+	public int getRow() throws InvalidResultSetAccessException {
+		return (isOnRow() ? this.cursor : 0);
+	}
+
+	@Override
+	public boolean isAfterLast() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == this.rowCount + 1);
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == 0);
+	}
+
+	@Override
+	public boolean isFirst() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == 1);
+	}
+
+	@Override
+	public boolean isLast() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == this.rowCount);
+	}
+
+	@Override
+	public boolean last() throws InvalidResultSetAccessException {
+		return absolute(-1);
+	}
+
+	@Override
+	public boolean next() throws InvalidResultSetAccessException {
+		if (this.cursor <= this.rowCount) {
+			this.cursor++;
+		}
+		return isOnRow();
+	}
+
+	@Override
+	public boolean previous() throws InvalidResultSetAccessException {
+		if (this.cursor > 0) {
+			this.cursor--;
+		}
+		return isOnRow();
+	}
+
+	@Override
+	public boolean relative(int rows) throws InvalidResultSetAccessException {
+		long target = (long) this.cursor + rows;
+		this.cursor = (int) Math.max(0, Math.min(target, this.rowCount + 1));
+		return isOnRow();
+	}
+
+	@Override
+	public boolean wasNull() throws InvalidResultSetAccessException {
+		return this.wasNull;
+	}
+
+
+	private boolean isOnRow() {
+		return (this.cursor > 0 && this.cursor <= this.rowCount);
+	}
+
+	/**
+	 * Return the given column for access to the current row,
+	 * registering whether its value is {@code null}.
+	 */
+	private Column column(int columnIndex) {
+		if (columnIndex < 1 || columnIndex > this.columns.length) {
+			throw invalidAccess("Invalid column index: " + columnIndex);
+		}
+		if (!isOnRow()) {
+			throw invalidAccess("Invalid cursor position: " + this.cursor);
+		}
+		Column column = this.columns[columnIndex - 1];
+		this.wasNull = column.isNull(this.cursor - 1);
+		return column;
+	}
+
+	/**
+	 * Reinterpret the given point in time, as seen in the default time zone,
+	 * in the time zone of the given Calendar.
+	 */
+	private static long adjust(long millis, Calendar cal) {
+		Calendar defaultCal = Calendar.getInstance();
+		defaultCal.setTimeInMillis(millis);
+		Calendar targetCal = (Calendar) cal.clone();
+		targetCal.clear();
+		targetCal.set(defaultCal.get(Calendar.YEAR), defaultCal.get(Calendar.MONTH),
+				defaultCal.get(Calendar.DAY_OF_MONTH), defaultCal.get(Calendar.HOUR_OF_DAY),
+				defaultCal.get(Calendar.MINUTE), defaultCal.get(Calendar.SECOND));
+		targetCal.set(Calendar.MILLISECOND, defaultCal.get(Calendar.MILLISECOND));
+		return targetCal.getTimeInMillis();
+	}
+
+	private static InvalidResultSetAccessException invalidAccess(String msg) {
+		return new InvalidResultSetAccessException(new SQLException(msg));
+	}
+
+	private static InvalidResultSetAccessException conversionFailure(Object value, Class<?> type) {
+		return invalidAccess("Cannot convert value of type [" + value.getClass().getName() +
+				"] to [" + type.getName() + "]");
+	}
+
+	private static long toLong(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		else if (value instanceof Boolean) {
+			return ((Boolean) value ? 1 : 0);
+		}
+		else if (value instanceof String) {
+			try {
+				return new BigDecimal(((String) value).trim()).longValue();
+			}
+			catch (NumberFormatException ex) {
+				throw conversionFailure(value, long.class);
+			}
+		}
+		throw conversionFailure(value, long.class);
+	}
+
+	private static double toDouble(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		else if (value instanceof Boolean) {
+			return ((Boolean) value ? 1 : 0);
+		}
+		else if (value instanceof String) {
+			try {
+				return Double.parseDouble(((String) value).trim());
+			}
+			catch (NumberFormatException ex) {
+				throw conversionFailure(value, double.class);
+			}
+		}
+		throw conversionFailure(value, double.class);
+	}
+
+	private static boolean toBoolean(Object value) {
+		if (value instanceof Boolean) {
+			return (Boolean) value;
+		}
+		else if (value instanceof BigDecimal) {
+			return (((BigDecimal) value).signum() != 0);
+		}
+		else if (value instanceof Number) {
+			return (((Number) value).doubleValue() != 0);
+		}
+		else if (value instanceof String) {
+			String str = ((String) value).trim();
+			return ("1".equals(str) || "true".equalsIgnoreCase(str));
+		}
+		throw conversionFailure(value, boolean.class);
+	}
+
+	private static BigDecimal toBigDecimal(Object value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		else if (value instanceof Number || value instanceof String) {
+			try {
+				return new BigDecimal(value.toString().trim());
+			}
+			catch (NumberFormatException ex) {
+				throw conversionFailure(value, BigDecimal.class);
+			}
+		}
+		else if (value instanceof Boolean) {
+			return ((Boolean) value ? BigDecimal.ONE : BigDecimal.ZERO);
+		}
+		throw conversionFailure(value, BigDecimal.class);
+	}
+
+	private static Date toDate(Object value) {
+		if (value instanceof Date) {
+			return (Date) value;
+		}
+		else if (value instanceof java.util.Date) {
+			return new Date(((java.util.Date) value).getTime());
+		}
+		else if (value instanceof String) {
+			try {
+				return Date.valueOf(((String) value).trim());
+			}
+			catch (IllegalArgumentException ex) {
+				throw conversionFailure(value, Date.class);
+			}
+		}
+		throw conversionFailure(value, Date.class);
+	}
+
+	private static Time toTime(Object value) {
+		if (value instanceof Time) {
+			return (Time) value;
+		}
+		else if (value instanceof java.util.Date) {
+			return new Time(((java.util.Date) value).getTime());
+		}
+		else if (value instanceof String) {
+			try {
+				return Time.valueOf(((String) value).trim());
+			}
+			catch (IllegalArgumentException ex) {
+				throw conversionFailure(value, Time.class);
+			}
+		}
+		throw conversionFailure(value, Time.class);
+	}
+
+	private static Timestamp toTimestamp(Object value) {
+		if (value instanceof Timestamp) {
+			return (Timestamp) value;
+		}
+		else if (value instanceof java.util.Date) {
+			return new Timestamp(((java.util.Date) value).getTime());
+		}
+		else if (value instanceof String) {
+			try {
+				return Timestamp.valueOf(((String) value).trim());
+			}
+			catch (IllegalArgumentException ex) {
+				throw conversionFailure(value, Timestamp.class);
+			}
+		}
+		throw conversionFailure(value, Timestamp.class);
+	}
+
+
+	/**
+	 * The values of a single column, indexed by 0-based row number.
+	 * Primitive accessors are overridden to avoid boxing where the
+	 * column type allows for it.
+	 */
+	@SuppressWarnings("serial")
+	private abstract static class Column implements Serializable {
+
+		@Nullable
+		private BitSet nulls;
+
+		abstract void resize(int capacity);
+
+		abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+		void complete() {
+		}
+
+		final void setNull(int row) {
+			if (this.nulls == null) {
+				this.nulls = new BitSet();
+			}
+			this.nulls.set(row);
+		}
+
+		final boolean isNull(int row) {
+			return (this.nulls != null && this.nulls.get(row));
+		}
+
+		abstract Object getObject(int row);
+
+		long getLong(int row) {
+			return toLong(getObject(row));
+		}
+
+		double getDouble(int row) {
+			return toDouble(getObject(row));
+		}
+
+		boolean getBoolean(int row) {
+			return toBoolean(getObject(row));
+		}
+
+		String getString(int row) {
+			return getObject(row).toString();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class BooleanColumn extends Column {
+
+		private BitSet values = new BitSet();
+
+		@Override
+		void resize(int capacity) {
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			boolean value = rs.getBoolean(columnIndex);
+			if (rs.wasNull()) {
+				setNull(row);
+			}
+			else if (value) {
+				this.values.set(row);
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			return this.values.get(row);
+		}
+
+		@Override
+		long getLong(int row) {
+			return (this.values.get(row) ? 1 : 0);
+		}
+
+		@Override
+		double getDouble(int row) {
+			return (this.values.get(row) ? 1 : 0);
+		}
+
+		@Override
+		boolean getBoolean(int row) {
+			return this.values.get(row);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class IntColumn extends Column {
+
+		private int[] values = new int[0];
+
+		@Override
+		void resize(int capacity) {
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			this.values[row] = rs.getInt(columnIndex);
+			if (rs.wasNull()) {
+				setNull(row);
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		long getLong(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		double getDouble(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		boolean getBoolean(int row) {
+			return (this.values[row] != 0);
+		}
+
+		@Override
+		String getString(int row) {
+			return Integer.toString(this.values[row]);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class LongColumn extends Column {
+
+		private long[] values = new long[0];
+
+		@Override
+		void resize(int capacity) {
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			this.values[row] = rs.getLong(columnIndex);
+			if (rs.wasNull()) {
+				setNull(row);
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		long getLong(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		double getDouble(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		boolean getBoolean(int row) {
+			return (this.values[row] != 0);
+		}
+
+		@Override
+		String getString(int row) {
+			return Long.toString(this.values[row]);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class DoubleColumn extends Column {
+
+		private final boolean singlePrecision;
+
+		private double[] values = new double[0];
+
+		DoubleColumn(boolean singlePrecision) {
+			this.singlePrecision = singlePrecision;
+		}
+
+		@Override
+		void resize(int capacity) {
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			this.values[row] = (this.singlePrecision ? rs.getFloat(columnIndex) : rs.getDouble(columnIndex));
+			if (rs.wasNull()) {
+				setNull(row);
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			return (this.singlePrecision ? (Object) (float) this.values[row] : (Object) this.values[row]);
+		}
+
+		@Override
+		long getLong(int row) {
+			return (long) this.values[row];
+		}
+
+		@Override
+		double getDouble(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		boolean getBoolean(int row) {
+			return (this.values[row] != 0);
+		}
+	}
+
+
+	/**
+	 * Dictionary-encoded character column: each distinct value is held once.
+	 */
+	@SuppressWarnings("serial")
+	private static class StringColumn extends Column {
+
+		private int[] codes = new int[0];
+
+		private List<String> dictionary = new ArrayList<>();
+
+		@Nullable
+		private transient Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+		@Override
+		void resize(int capacity) {
+			this.codes = Arrays.copyOf(this.codes, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			String value = rs.getString(columnIndex);
+			if (value == null) {
+				setNull(row);
+				return;
+			}
+			Map<String, Integer> dictionaryIndex = this.dictionaryIndex;
+			Integer code = dictionaryIndex.get(value);
+			if (code == null) {
+				code = this.dictionary.size();
+				this.dictionary.add(value);
+				dictionaryIndex.put(value, code);
+			}
+			this.codes[row] = code;
+		}
+
+		@Override
+		void complete() {
+			this.dictionary = new ArrayList<>(this.dictionary);
+			this.dictionaryIndex = null;
+		}
+
+		@Override
+		Object getObject(int row) {
+			return this.dictionary.get(this.codes[row]);
+		}
+
+		@Override
+		String getString(int row) {
+			return this.dictionary.get(this.codes[row]);
+		}
+	}
+
+
+	/**
+	 * Date or time column, holding the milliseconds of each value.
+	 */
+	@SuppressWarnings("serial")
+	private static class DateTimeColumn extends Column {
+
+		private final int columnType;
+
+		private long[] values = new long[0];
+
+		DateTimeColumn(int columnType) {
+			this.columnType = columnType;
+		}
+
+		@Override
+		void resize(int capacity) {
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			java.util.Date value = (this.columnType == Types.DATE ?
+					rs.getDate(columnIndex) : rs.getTime(columnIndex));
+			if (value == null) {
+				setNull(row);
+			}
+			else {
+				this.values[row] = value.getTime();
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			return (this.columnType == Types.DATE ? new Date(this.values[row]) : new Time(this.values[row]));
+		}
+	}
+
+
+	/**
+	 * Timestamp column, holding the milliseconds and nanoseconds of each value.
+	 */
+	@SuppressWarnings("serial")
+	private static class TimestampColumn extends Column {
+
+		private long[] millis = new long[0];
+
+		private int[] nanos = new int[0];
+
+		@Override
+		void resize(int capacity) {
+			this.millis = Arrays.copyOf(this.millis, capacity);
+			this.nanos = Arrays.copyOf(this.nanos, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			Timestamp value = rs.getTimestamp(columnIndex);
+			if (value == null) {
+				setNull(row);
+			}
+			else {
+				this.millis[row] = value.getTime();
+				this.nanos[row] = value.getNanos();
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			Timestamp value = new Timestamp(this.millis[row]);
+			value.setNanos(this.nanos[row]);
+			return value;
+		}
+	}
+
+
+	/**
+	 * Column of any other type, holding the values as extracted from the ResultSet.
+	 */
+	@SuppressWarnings("serial")
+	private static class ObjectColumn extends Column {
+
+		private Object[] values = new Object[0];
+
+		@Override
+		void resize(int capacity) {
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		@Override
+		void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			Object value = JdbcUtils.getResultSetValue(rs, columnIndex);
+			if (value == null) {
+				setNull(row);
+			}
+			else {
+				this.values[row] = value;
+			}
+		}
+
+		@Override
+		Object getObject(int row) {
+			return this.values[row];
+		}
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.Serializable;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.InvalidResultSetAccessException;
+
+/**
+ * Implementation of Spring's {@link SqlRowSetMetaData} interface holding a
+ * disconnected copy of the column information of a {@link ResultSetMetaData}.
+ *
+ * <p>Used by {@link ColumnarSqlRowSet}.
+ *
+ * @since 5.0.16
+ * @see ColumnarSqlRowSet#getMetaData()
+ */
+@SuppressWarnings("serial")
+final class ColumnarSqlRowSetMetaData implements SqlRowSetMetaData, Serializable {
+
+	private final String[] catalogNames;
+
+	private final String[] columnClassNames;
+
+	private final String[] columnNames;
+
+	private final String[] columnLabels;
+
+	private final int[] columnDisplaySizes;
+
+	private final int[] columnTypes;
+
+	private final String[] columnTypeNames;
+
+	private final int[] precisions;
+
+	private final int[] scales;
+
+	private final String[] schemaNames;
+
+	private final String[] tableNames;
+
+	private final boolean[] caseSensitive;
+
+	private final boolean[] currency;
+
+	private final boolean[] signed;
+
+
+	/**
+	 * Create a new ColumnarSqlRowSetMetaData object, copying the column
+	 * information of the given ResultSetMetaData instance.
+	 * @param rsmd the ResultSetMetaData to copy
+	 * @throws SQLException if thrown by JDBC methods
+	 */
+	ColumnarSqlRowSetMetaData(ResultSetMetaData rsmd) throws SQLException {
+		int columnCount = rsmd.getColumnCount();
+		this.catalogNames = new String[columnCount];
+		this.columnClassNames = new String[columnCount];
+		this.columnNames = new String[columnCount];
+		this.columnLabels = new String[columnCount];
+		this.columnDisplaySizes = new int[columnCount];
+		this.columnTypes = new int[columnCount];
+		this.columnTypeNames = new String[columnCount];
+		this.precisions = new int[columnCount];
+		this.scales = new int[columnCount];
+		this.schemaNames = new String[columnCount];
+		this.tableNames = new String[columnCount];
+		this.caseSensitive = new boolean[columnCount];
+		this.currency = new boolean[columnCount];
+		this.signed = new boolean[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			int column = i + 1;
+			this.catalogNames[i] = rsmd.getCatalogName(column);
+			this.columnClassNames[i] = rsmd.getColumnClassName(column);
+			this.columnNames[i] = rsmd.getColumnName(column);
+			this.columnLabels[i] = rsmd.getColumnLabel(column);
+			this.columnDisplaySizes[i] = rsmd.getColumnDisplaySize(column);
+			this.columnTypes[i] = rsmd.getColumnType(column);
+			this.columnTypeNames[i] = rsmd.getColumnTypeName(column);
+			this.precisions[i] = rsmd.getPrecision(column);
+			this.scales[i] = rsmd.getScale(column);
+			this.schemaNames[i] = rsmd.getSchemaName(column);
+			this.tableNames[i] = rsmd.getTableName(column);
+			this.caseSensitive[i] = rsmd.isCaseSensitive(column);
+			this.currency[i] = rsmd.isCurrency(column);
+			this.signed[i] = rsmd.isSigned(column);
+		}
+	}
+
+
+	@Override
+	public String getCatalogName(int column) throws InvalidResultSetAccessException {
+		return this.catalogNames[index(column)];
+	}
+
+	@Override
+	public String getColumnClassName(int column) throws InvalidResultSetAccessException {
+		return this.columnClassNames[index(column)];
+	}
+
+	@Override
+	public int getColumnCount() throws InvalidResultSetAccessException {
+		return this.columnTypes.length;
+	}
+
+	@Override
+	public String[] getColumnNames() throws InvalidResultSetAccessException {
+		return this.columnNames.clone();
+	}
+
+	@Override
+	public int getColumnDisplaySize(int column) throws InvalidResultSetAccessException {
+		return this.columnDisplaySizes[index(column)];
+	}
+
+	@Override
+	public String getColumnLabel(int column) throws InvalidResultSetAccessException {
+		return this.columnLabels[index(column)];
+	}
+
+	@Override
+	public String getColumnName(int column) throws InvalidResultSetAccessException {
+		return this.columnNames[index(column)];
+	}
+
+	@Override
+	public int getColumnType(int column) throws InvalidResultSetAccessException {
+		return this.columnTypes[index(column)];
+	}
+
+	@Override
+	public String getColumnTypeName(int column) throws InvalidResultSetAccessException {
+		return this.columnTypeNames[index(column)];
+	}
+
+	@Override
+	public int getPrecision(int column) throws InvalidResultSetAccessException {
+		return this.precisions[index(column)];
+	}
+
+	@Override
+	public int getScale(int column) throws InvalidResultSetAccessException {
+		return this.scales[index(column)];
+	}
+
+	@Override
+	public String getSchemaName(int column) throws InvalidResultSetAccessException {
+		return this.schemaNames[index(column)];
+	}
+
+	@Override
+	public String getTableName(int column) throws InvalidResultSetAccessException {
+		return this.tableNames[index(column)];
+	}
+
+	@Override
+	public boolean isCaseSensitive(int column) throws InvalidResultSetAccessException {
+		return this.caseSensitive[index(column)];
+	}
+
+	@Override
+	public boolean isCurrency(int column) throws InvalidResultSetAccessException {
+		return this.currency[index(column)];
+	}
+
+	@Override
+	public boolean isSigned(int column) throws InvalidResultSetAccessException {
+		return this.signed[index(column)];
+	}
+
+
+	private int index(int column) {
+		if (column < 1 || column > this.columnTypes.length) {
+			throw new InvalidResultSetAccessException(new SQLException("Invalid column index: " + column));
+		}
+		return column - 1;
+	}
+
+}
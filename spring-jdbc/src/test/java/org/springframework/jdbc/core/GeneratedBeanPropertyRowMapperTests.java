@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.test.ConcretePerson;
+import org.springframework.jdbc.core.test.DatePerson;
+import org.springframework.jdbc.core.test.ExtendedPerson;
+import org.springframework.jdbc.core.test.Person;
+import org.springframework.jdbc.core.test.SpacePerson;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedBeanPropertyRowMapper}.
+ */
+public class GeneratedBeanPropertyRowMapperTests extends AbstractRowMapperTests {
+
+	@Test
+	public void staticQueryWithRowMapper() throws Exception {
+		Mock mock = new Mock();
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				GeneratedBeanPropertyRowMapper.newInstance(Person.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingReusedAcrossQueries() throws Exception {
+		GeneratedBeanPropertyRowMapper<Person> mapper = new GeneratedBeanPropertyRowMapper<>(Person.class);
+		for (int i = 0; i < 2; i++) {
+			Mock mock = new Mock();
+			List<Person> result = mock.getJdbcTemplate().query(
+					"select name, age, birth_date, balance from people", mapper);
+			assertEquals(1, result.size());
+			verifyPerson(result.get(0));
+		}
+	}
+
+	@Test
+	public void mappingWithInheritance() throws Exception {
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new GeneratedBeanPropertyRowMapper<>(ConcretePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingWithNoUnpopulatedFieldsFound() throws Exception {
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new GeneratedBeanPropertyRowMapper<>(ConcretePerson.class, true));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void mappingWithUnpopulatedFieldsNotAccepted() throws Exception {
+		Mock mock = new Mock();
+		mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new GeneratedBeanPropertyRowMapper<>(ExtendedPerson.class, true));
+	}
+
+	@Test(expected = TypeMismatchException.class)
+	public void mappingNullValue() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people",
+				new GeneratedBeanPropertyRowMapper<>(Person.class));
+	}
+
+	@Test
+	public void mappingNullValueWithPrimitivesDefaulted() throws Exception {
+		GeneratedBeanPropertyRowMapper<Person> mapper = new GeneratedBeanPropertyRowMapper<>(Person.class);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		Mock mock = new Mock(MockType.TWO);
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+		assertEquals(1, result.size());
+		assertEquals(0L, result.get(0).getAge());
+		assertEquals("Bubba", result.get(0).getName());
+	}
+
+	@Test
+	public void queryWithSpaceInColumnNameAndLocalDateTime() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<SpacePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				new GeneratedBeanPropertyRowMapper<>(SpacePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void queryWithSpaceInColumnNameAndLocalDate() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<DatePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				new GeneratedBeanPropertyRowMapper<>(DatePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+}
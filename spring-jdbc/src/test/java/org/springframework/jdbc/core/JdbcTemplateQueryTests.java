@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,8 +24,11 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -33,6 +36,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 
 import static org.junit.Assert.*;
@@ -392,4 +396,55 @@ public class JdbcTemplateQueryTests {
 		verify(this.preparedStatement).close();
 	}
 
+	@Test
+	public void testQueryForStream() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID < 3";
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12);
+		given(this.statement.getConnection()).willReturn(this.connection);
+		Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1));
+		verify(this.resultSet, never()).next();
+		verify(this.statement, never()).close();
+		List<Integer> li = stream.collect(Collectors.toList());
+		assertEquals("All rows returned", Arrays.asList(11, 12), li);
+		verify(this.resultSet, never()).close();
+		stream.close();
+		verify(this.resultSet).close();
+		verify(this.statement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithArgs() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		given(this.resultSet.next()).willReturn(true, false);
+		given(this.resultSet.getInt(1)).willReturn(22);
+		given(this.preparedStatement.getConnection()).willReturn(this.connection);
+		this.template.setFetchSize(100);
+		try (Stream<Integer> stream = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3)) {
+			assertEquals(Integer.valueOf(22), stream.findFirst().get());
+			verify(this.preparedStatement, never()).close();
+		}
+		verify(this.preparedStatement).setObject(1, 3);
+		verify(this.preparedStatement).setFetchSize(100);
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithFailingQuery() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		given(this.preparedStatement.executeQuery()).willThrow(new SQLException("bad query"));
+		try {
+			this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3);
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			// expected
+		}
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
 }
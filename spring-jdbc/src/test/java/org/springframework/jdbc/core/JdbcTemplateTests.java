@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -47,9 +48,12 @@ import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.support.AbstractInterruptibleBatchPreparedStatementSetter;
 import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
 
@@ -1115,6 +1119,71 @@ public class JdbcTemplateTests {
 		verify(this.connection).close();
 	}
 
+	@Test
+	public void testPreparedStatementCacheWithinTransaction() throws Exception {
+		String sql = "UPDATE CUSTMR SET NAME = ? WHERE ID = 1";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		this.template.setPreparedStatementCacheSize(10);
+
+		PreparedStatementCreatorFactory pscf = new PreparedStatementCreatorFactory(sql, Types.VARCHAR);
+		DataSourceTransactionManager tm = new DataSourceTransactionManager(this.dataSource);
+		TransactionStatus status = tm.getTransaction(new DefaultTransactionDefinition());
+		this.template.update(sql, "Rod");
+		this.template.update(pscf.newPreparedStatementCreator(Collections.singletonList("Juergen")));
+		this.template.update(sql, "Thomas");
+		verify(this.preparedStatement, never()).close();
+		tm.commit(status);
+
+		InOrder ordered = inOrder(this.connection, this.preparedStatement);
+		ordered.verify(this.connection).prepareStatement(sql);
+		ordered.verify(this.preparedStatement).setString(1, "Rod");
+		ordered.verify(this.preparedStatement).setString(1, "Juergen");
+		ordered.verify(this.preparedStatement).setString(1, "Thomas");
+		ordered.verify(this.preparedStatement).close();
+		ordered.verify(this.connection).commit();
+		ordered.verify(this.connection).close();
+		verify(this.connection).prepareStatement(anyString());
+		verify(this.preparedStatement, times(3)).executeUpdate();
+	}
+
+	@Test
+	public void testPreparedStatementCacheNotUsedWithoutTransaction() throws Exception {
+		String sql = "UPDATE CUSTMR SET NAME = ? WHERE ID = 1";
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		this.template.setPreparedStatementCacheSize(10);
+
+		this.template.update(sql, "Rod");
+		this.template.update(sql, "Juergen");
+
+		verify(this.connection, times(2)).prepareStatement(sql);
+		verify(this.preparedStatement, times(2)).close();
+		verify(this.connection, times(2)).close();
+	}
+
+	@Test
+	public void testPreparedStatementCacheEviction() throws Exception {
+		String sql1 = "UPDATE CUSTMR SET NAME = ? WHERE ID = 1";
+		String sql2 = "UPDATE CUSTMR SET NAME = ? WHERE ID = 2";
+		PreparedStatement preparedStatement2 = mock(PreparedStatement.class);
+		given(this.connection.prepareStatement(sql2)).willReturn(preparedStatement2);
+		this.template.setPreparedStatementCacheSize(1);
+
+		DataSourceTransactionManager tm = new DataSourceTransactionManager(this.dataSource);
+		TransactionStatus status = tm.getTransaction(new DefaultTransactionDefinition());
+		this.template.update(sql1, "Rod");
+		this.template.update(sql1, "Juergen");
+		this.template.update(sql2, "Thomas");
+		verify(this.preparedStatement).close();
+		this.template.update(sql1, "Phillip");
+		verify(preparedStatement2).close();
+		tm.commit(status);
+
+		verify(this.connection, times(2)).prepareStatement(sql1);
+		verify(this.connection).prepareStatement(sql2);
+		verify(this.preparedStatement, times(2)).close();
+		verify(preparedStatement2).close();
+	}
+
 
 	private void mockDatabaseMetaData(boolean supportsBatchUpdates) throws SQLException {
 		DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
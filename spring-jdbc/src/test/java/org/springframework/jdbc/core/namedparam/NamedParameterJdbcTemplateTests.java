@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -65,6 +67,8 @@ public class NamedParameterJdbcTemplateTests {
 	private static final String UPDATE_NAMED_PARAMETERS_PARSED =
 			"update seat_status set booking_id = null where performance_id = ? and price_band_id = ?";
 
+	private static final String DELETE_IN_PARAMETERS =
+			"delete from custmr where id in (:ids) and country = :country";
 	private static final String UPDATE_ARRAY_PARAMETERS =
 			"update customer set type = array[:typeIds] where id = :id";
 	private static final String UPDATE_ARRAY_PARAMETERS_PARSED =
@@ -172,6 +176,42 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testSqlCachePerCollectionSize() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(1);
+
+		params.put("ids", Arrays.asList(1, 2, 3));
+		params.put("country", "UK");
+		namedParameterTemplate.update(DELETE_IN_PARAMETERS, params);
+		namedParameterTemplate.update(DELETE_IN_PARAMETERS, params);
+		params.put("ids", Arrays.asList(4, 5));
+		namedParameterTemplate.update(DELETE_IN_PARAMETERS, params);
+
+		verify(connection, times(2)).prepareStatement("delete from custmr where id in (?, ?, ?) and country = ?");
+		verify(connection).prepareStatement("delete from custmr where id in (?, ?) and country = ?");
+		assertEquals(3, namedParameterTemplate.getCacheMissCount());
+		assertEquals(3, namedParameterTemplate.getCacheHitCount());
+		assertEquals(0, namedParameterTemplate.getCacheEvictionCount());
+	}
+
+	@Test
+	public void testSqlCacheEviction() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(1);
+		namedParameterTemplate.setCacheLimit(1);
+
+		params.put("ids", 1);
+		params.put("id", 1);
+		params.put("country", "UK");
+		namedParameterTemplate.update(DELETE_IN_PARAMETERS, params);
+		namedParameterTemplate.update(SELECT_NAMED_PARAMETERS, params);
+		namedParameterTemplate.update(DELETE_IN_PARAMETERS, params);
+
+		verify(connection, times(2)).prepareStatement("delete from custmr where id in (?) and country = ?");
+		assertEquals(0, namedParameterTemplate.getCacheHitCount());
+		assertEquals(6, namedParameterTemplate.getCacheMissCount());
+		assertEquals(4, namedParameterTemplate.getCacheEvictionCount());
+	}
+
 	@Test
 	public void testExecuteWithTypedParameters() throws SQLException {
 		given(preparedStatement.executeUpdate()).willReturn(1);
@@ -331,6 +371,37 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithRowMapper() throws SQLException {
+		given(resultSet.next()).willReturn(true, false);
+		given(resultSet.getInt("id")).willReturn(1);
+		given(resultSet.getString("forename")).willReturn("rod");
+		given(preparedStatement.getConnection()).willReturn(connection);
+
+		params.put("id", new SqlParameterValue(Types.DECIMAL, 1));
+		params.put("country", "UK");
+		List<Customer> customers;
+		try (Stream<Customer> stream = namedParameterTemplate.queryForStream(SELECT_NAMED_PARAMETERS, params,
+				(rs, rownum) -> {
+					Customer cust = new Customer();
+					cust.setId(rs.getInt(COLUMN_NAMES[0]));
+					cust.setForename(rs.getString(COLUMN_NAMES[1]));
+					return cust;
+				})) {
+			customers = stream.collect(Collectors.toList());
+			verify(connection, never()).close();
+		}
+		assertEquals(1, customers.size());
+		assertTrue("Customer id was assigned correctly", customers.get(0).getId() == 1);
+		assertTrue("Customer forename was assigned correctly", customers.get(0).getForename().equals("rod"));
+		verify(connection).prepareStatement(SELECT_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement).setObject(1, 1, Types.DECIMAL);
+		verify(preparedStatement).setString(2, "UK");
+		verify(resultSet).close();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
 	@Test
 	public void testQueryWithRowMapperNoParameters() throws SQLException {
 		given(resultSet.next()).willReturn(true, false);
@@ -468,6 +539,39 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testBatchUpdateWithIterableInChunks() throws Exception {
+		List<SqlParameterSource> ids = Arrays.asList(new MapSqlParameterSource("id", 100),
+				new MapSqlParameterSource("id", 200), new MapSqlParameterSource("id", 300));
+
+		given(preparedStatement.executeBatch()).willReturn(new int[] {1, 1}, new int[] {1});
+		given(connection.getMetaData()).willReturn(databaseMetaData);
+		namedParameterTemplate = new NamedParameterJdbcTemplate(new JdbcTemplate(dataSource, false));
+
+		int[][] actualRowsAffected = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id", ids, 2);
+		assertEquals("executed 2 chunks", 2, actualRowsAffected.length);
+		assertArrayEquals(new int[] {1, 1}, actualRowsAffected[0]);
+		assertArrayEquals(new int[] {1}, actualRowsAffected[1]);
+		verify(connection).prepareStatement("UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?");
+		verify(preparedStatement).setObject(1, 100);
+		verify(preparedStatement).setObject(1, 200);
+		verify(preparedStatement).setObject(1, 300);
+		verify(preparedStatement, times(3)).addBatch();
+		verify(preparedStatement, times(2)).executeBatch();
+		verify(preparedStatement, atLeastOnce()).close();
+		verify(connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testBatchUpdateWithEmptyIterable() throws Exception {
+		int[][] actualRowsAffected = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id",
+				Collections.<SqlParameterSource>emptyList(), 2);
+		assertEquals(0, actualRowsAffected.length);
+		verify(connection, never()).prepareStatement(anyString());
+	}
+
 	@Test
 	public void testBatchUpdateWithSqlParameterSourcePlusTypeInfo() throws Exception {
 		SqlParameterSource[] ids = new SqlParameterSource[2];
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.reactive;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ReactiveJdbcTemplate}.
+ */
+public class ReactiveJdbcTemplateTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private ReactiveJdbcTemplate reactiveTemplate;
+
+
+	@Before
+	public void setUp() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+				.addScript("org/springframework/jdbc/datasource/init/users-schema.sql").build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.reactiveTemplate = new ReactiveJdbcTemplate(this.jdbcTemplate, 2);
+		for (String lastName : Arrays.asList("Brannen", "Hoeller", "Nicoll")) {
+			this.jdbcTemplate.update("insert into users (first_name, last_name) values (?, ?)", "x", lastName);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		this.reactiveTemplate.destroy();
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void query() {
+		List<String> lastNames = this.reactiveTemplate.query(
+				"select last_name from users order by last_name", (rs, rowNum) -> rs.getString(1))
+				.collectList().block();
+		assertEquals(Arrays.asList("Brannen", "Hoeller", "Nicoll"), lastNames);
+	}
+
+	@Test
+	public void queryWithCancellation() {
+		for (int i = 0; i < 10; i++) {
+			String lastName = this.reactiveTemplate.query(
+					"select last_name from users where last_name > ? order by last_name",
+					(rs, rowNum) -> rs.getString(1), "C").blockFirst();
+			assertEquals("Hoeller", lastName);
+		}
+	}
+
+	@Test
+	public void queryBeyondMaxConnectionsWaitsForConnection() throws Exception {
+		Flux<String> query = this.reactiveTemplate.query(
+				"select last_name from users order by last_name", (rs, rowNum) -> rs.getString(1));
+		BlockingQueue<String> rows = new LinkedBlockingQueue<>();
+		List<FirstRowSubscriber> cursors = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			cursors.add(query.subscribeWith(new FirstRowSubscriber(rows)));
+		}
+		assertEquals("Brannen", rows.poll(5, TimeUnit.SECONDS));
+		assertEquals("Brannen", rows.poll(5, TimeUnit.SECONDS));
+		assertNull(rows.poll(200, TimeUnit.MILLISECONDS));
+
+		cursors.get(0).dispose();
+		assertEquals("Brannen", rows.poll(5, TimeUnit.SECONDS));
+		cursors.forEach(FirstRowSubscriber::dispose);
+	}
+
+	@Test
+	public void queryRunsOnScheduler() {
+		String threadName = this.reactiveTemplate.execute(jdbcOperations -> Thread.currentThread().getName()).block();
+		assertTrue(threadName.startsWith("jdbc-"));
+	}
+
+	@Test
+	public void queryForObject() {
+		assertEquals(Integer.valueOf(3), this.reactiveTemplate.queryForObject(
+				"select count(*) from users", Integer.class).block());
+		assertNull(this.reactiveTemplate.queryForObject(
+				"select max(last_name) from users where id < 0", String.class).block());
+	}
+
+	@Test
+	public void update() {
+		assertEquals(Integer.valueOf(1), this.reactiveTemplate.update(
+				"delete from users where last_name = ?", "Nicoll").block());
+		assertEquals(2, this.jdbcTemplate.queryForObject("select count(*) from users", Integer.class).intValue());
+	}
+
+	@Test
+	public void inTransactionWithCommit() {
+		List<String> lastNames = this.reactiveTemplate.inTransaction(template ->
+				template.update("delete from users where last_name = ?", "Nicoll")
+						.thenMany(template.query("select last_name from users order by last_name",
+								(rs, rowNum) -> rs.getString(1))))
+				.collectList().block();
+		assertEquals(Arrays.asList("Brannen", "Hoeller"), lastNames);
+		assertEquals(2, this.jdbcTemplate.queryForObject("select count(*) from users", Integer.class).intValue());
+		assertFalse(TransactionSynchronizationManager.hasResource(this.database));
+	}
+
+	@Test
+	public void inTransactionWithRollback() {
+		try {
+			this.reactiveTemplate.inTransaction(template ->
+					template.update("delete from users where last_name = ?", "Nicoll")
+							.then(template.update("delete from users where last_name = ?", "Hoeller"))
+							.then(Mono.error(new IllegalStateException("test")))).blockLast();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("test", ex.getMessage());
+		}
+		assertEquals(3, this.jdbcTemplate.queryForObject("select count(*) from users", Integer.class).intValue());
+	}
+
+	@Test
+	public void inTransactionWithNestedTransaction() {
+		Integer count = this.reactiveTemplate.inTransaction(template ->
+				template.inTransaction(nested -> nested.update("delete from users where last_name = ?", "Nicoll"))
+						.then(template.queryForObject("select count(*) from users", Integer.class)))
+				.blockLast();
+		assertEquals(Integer.valueOf(2), count);
+	}
+
+	@Test
+	public void inTransactionWithCancellationDuringQuery() throws Exception {
+		TrackingDataSource dataSource = new TrackingDataSource(this.database);
+		ReactiveJdbcTemplate template = new ReactiveJdbcTemplate(new JdbcTemplate(dataSource), 2);
+		try {
+			BlockingQueue<String> rows = new LinkedBlockingQueue<>();
+			FirstRowSubscriber subscriber = template.inTransaction(tx ->
+					tx.update("delete from users where last_name = ?", "Nicoll")
+							.thenMany(tx.query("select last_name from users order by last_name",
+									(rs, rowNum) -> rs.getString(1))))
+					.subscribeWith(new FirstRowSubscriber(rows));
+			assertEquals("Brannen", rows.poll(5, TimeUnit.SECONDS));
+			subscriber.dispose();
+
+			// Statements of the update and of the cancelled query
+			for (int i = 0; i < 2; i++) {
+				String threadName = dataSource.closedStatements.poll(5, TimeUnit.SECONDS);
+				assertNotNull(threadName);
+				assertTrue(threadName, threadName.startsWith("jdbc-"));
+			}
+			assertNotNull(dataSource.closedConnections.poll(5, TimeUnit.SECONDS));
+			assertNull(dataSource.closedConnections.poll(200, TimeUnit.MILLISECONDS));
+			assertEquals(3, this.jdbcTemplate.queryForObject("select count(*) from users", Integer.class).intValue());
+		}
+		finally {
+			template.destroy();
+		}
+	}
+
+
+	private static class FirstRowSubscriber extends BaseSubscriber<String> {
+
+		private final BlockingQueue<String> rows;
+
+		FirstRowSubscriber(BlockingQueue<String> rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			subscription.request(1);
+		}
+
+		@Override
+		protected void hookOnNext(String value) {
+			this.rows.add(value);
+		}
+	}
+
+
+	/**
+	 * DataSource recording the threads that statements are closed on,
+	 * as well as each close of a connection.
+	 */
+	private static class TrackingDataSource extends DelegatingDataSource {
+
+		final BlockingQueue<String> closedStatements = new LinkedBlockingQueue<>();
+
+		final BlockingQueue<Connection> closedConnections = new LinkedBlockingQueue<>();
+
+		TrackingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection target = super.getConnection();
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+						if (method.getName().equals("close")) {
+							this.closedConnections.add(target);
+						}
+						Object result = invoke(target, method, args);
+						if (result instanceof PreparedStatement) {
+							PreparedStatement statement = (PreparedStatement) result;
+							return Proxy.newProxyInstance(getClass().getClassLoader(),
+									new Class<?>[] {PreparedStatement.class}, (ps, psMethod, psArgs) -> {
+										if (psMethod.getName().equals("close")) {
+											this.closedStatements.add(Thread.currentThread().getName());
+										}
+										return invoke(statement, psMethod, psArgs);
+									});
+						}
+						return result;
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
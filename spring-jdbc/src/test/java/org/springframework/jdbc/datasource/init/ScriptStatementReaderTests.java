@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+
+import static org.junit.Assert.*;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.*;
+
+/**
+ * Unit tests for {@link ScriptStatementReader}.
+ *
+ * @see ScriptUtilsUnitTests
+ */
+public class ScriptStatementReaderTests {
+
+	@Test
+	public void readStatementsDelimitedWithSemicolon() {
+		assertEquals(Arrays.asList("insert into customer (id, name) values (1, 'Rod ; Johnson')",
+				"insert into orders(id) values (1)"),
+				readStatements("insert into customer (id, name)\nvalues (1, 'Rod ; Johnson');\n" +
+						"-- comment\ninsert into orders(id) /* block ; comment */ values (1);", null));
+	}
+
+	@Test
+	public void readStatementsWithoutSeparator() {
+		assertEquals(Arrays.asList("insert into customer (id) values (1)", "insert into orders (id) values (2)"),
+				readStatements("insert into customer (id) values (1)\ninsert into orders (id) values (2)", ";"));
+	}
+
+	@Test
+	public void readStatementsWithEofSeparator() {
+		assertEquals(Arrays.asList("insert into customer (id) values (1); insert into orders (id) values (2)"),
+				readStatements("insert into customer (id) values (1);\ninsert into orders (id) values (2)",
+						EOF_STATEMENT_SEPARATOR));
+	}
+
+	@Test(expected = ScriptParseException.class)
+	public void readStatementsWithUnterminatedBlockComment() {
+		readStatements("insert into customer (id) values (1); /* comment", null);
+	}
+
+	@Test
+	public void readStatementsSpanningSeveralBuffers() {
+		StringBuilder script = new StringBuilder("/* ");
+		for (int i = 0; i < 10000; i++) {
+			script.append("comment ");
+		}
+		script.append("*/");
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			String statement = "insert into customer (id, name) values (" + i + ", 'name ;\n " + i + "')";
+			script.append(statement).append(";\n");
+			expected.add(statement);
+		}
+		assertEquals(expected, readStatements(script.toString(), null));
+	}
+
+	@Test
+	public void readStatementsLikeScriptUtils() throws Exception {
+		assertSameStatements("db-test-data.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("db-test-data-endings.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("db-test-data-escaped-literal.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("db-test-data-mysql-escaped-literal.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("db-test-data-multi-newline.sql", "\n\n");
+		assertSameStatements("db-test-data-newline.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("db-test-data-whitespace.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("test-data-with-comments.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("test-data-with-comments-and-leading-tabs.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("test-data-with-multi-line-comments.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("users-data-with-comments.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("users-data-with-single-quotes-nested-in-double-quotes.sql", DEFAULT_STATEMENT_SEPARATOR);
+		assertSameStatements("users-schema-without-separator.sql", EOF_STATEMENT_SEPARATOR);
+	}
+
+
+	private void assertSameStatements(String path, String separator) throws Exception {
+		EncodedResource resource = new EncodedResource(new ClassPathResource(path, getClass()));
+		String script;
+		try (LineNumberReader reader = new LineNumberReader(resource.getReader())) {
+			script = readScript(reader, DEFAULT_COMMENT_PREFIX, separator);
+		}
+		String actualSeparator = separator;
+		if (!EOF_STATEMENT_SEPARATOR.equals(separator) && !containsSqlScriptDelimiters(script, separator)) {
+			actualSeparator = FALLBACK_STATEMENT_SEPARATOR;
+		}
+		List<String> expected = new ArrayList<>();
+		splitSqlScript(resource, script, actualSeparator, DEFAULT_COMMENT_PREFIX,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, expected);
+
+		assertEquals(path, expected, readStatements(resource, separator));
+	}
+
+	private List<String> readStatements(String script, String separator) {
+		Resource resource = new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8));
+		return readStatements(new EncodedResource(resource, StandardCharsets.UTF_8), separator);
+	}
+
+	private List<String> readStatements(EncodedResource resource, String separator) {
+		List<String> statements = new ArrayList<>();
+		try (ScriptStatementReader reader = new ScriptStatementReader(resource, separator, DEFAULT_COMMENT_PREFIX,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER)) {
+			String statement;
+			while ((statement = reader.nextStatement()) != null) {
+				statements.add(statement);
+			}
+		}
+		return statements;
+	}
+
+}
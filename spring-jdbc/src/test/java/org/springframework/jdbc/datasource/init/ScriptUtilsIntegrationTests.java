@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,10 @@ import java.sql.SQLException;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.core.io.support.EncodedResource;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
+import static org.junit.Assert.*;
 import static org.springframework.jdbc.datasource.init.ScriptUtils.*;
 
 /**
@@ -58,4 +60,58 @@ public class ScriptUtilsIntegrationTests extends AbstractDatabaseInitializationT
 		assertUsersDatabaseCreated("Hoeller", "Brannen");
 	}
 
+	@Test
+	public void executeSqlScriptInBatches() throws SQLException {
+		executeSqlScript(db.getConnection(), new EncodedResource(resource("users-data-with-comments.sql")),
+				false, false, DEFAULT_COMMENT_PREFIX, DEFAULT_STATEMENT_SEPARATOR,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 5);
+		assertUsersDatabaseCreated("Hoeller", "Brannen");
+	}
+
+	@Test
+	public void executeSqlScriptInBatchesWithFailedStatement() throws SQLException {
+		executeSqlScript(db.getConnection(), new EncodedResource(resource("users-data-with-comments.sql")),
+				false, false, DEFAULT_COMMENT_PREFIX, DEFAULT_STATEMENT_SEPARATOR,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 5);
+		try {
+			executeSqlScript(db.getConnection(), new EncodedResource(resource("db-test-data.sql")),
+					true, false, DEFAULT_COMMENT_PREFIX, DEFAULT_STATEMENT_SEPARATOR,
+					DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 5);
+		}
+		catch (ScriptException ex) {
+			fail("Failed statements should have been ignored: " + ex);
+		}
+		assertUsersDatabaseCreated("Hoeller", "Brannen");
+	}
+
+	@Test
+	public void executeSqlScriptConcurrently() throws SQLException {
+		executeSqlScript(db, new EncodedResource(resource("users-data-with-comments.sql")),
+				false, false, DEFAULT_COMMENT_PREFIX, DEFAULT_STATEMENT_SEPARATOR,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 1, 2);
+		assertUsersDatabaseCreated("Hoeller", "Brannen");
+	}
+
+	@Test(expected = ScriptStatementFailedException.class)
+	public void executeSqlScriptConcurrentlyWithFailedStatement() throws SQLException {
+		executeSqlScript(db, new EncodedResource(resource("db-test-data.sql")),
+				false, false, DEFAULT_COMMENT_PREFIX, DEFAULT_STATEMENT_SEPARATOR,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 1, 2);
+	}
+
+	@Test(timeout = 10000)
+	public void executeSqlScriptConcurrentlyWhenInterrupted() throws SQLException {
+		Thread.currentThread().interrupt();
+		try {
+			executeSqlScript(db, new EncodedResource(resource("users-data-with-comments.sql")),
+					false, false, DEFAULT_COMMENT_PREFIX, DEFAULT_STATEMENT_SEPARATOR,
+					DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 1, 2);
+			fail("Should have thrown UncategorizedScriptException");
+		}
+		catch (UncategorizedScriptException ex) {
+			assertTrue(ex.getCause() instanceof InterruptedException);
+			assertTrue(Thread.interrupted());
+		}
+	}
+
 }
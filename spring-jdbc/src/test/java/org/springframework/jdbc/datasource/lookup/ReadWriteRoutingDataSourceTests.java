@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for {@link ReadWriteRoutingDataSource}.
+ */
+public class ReadWriteRoutingDataSourceTests {
+
+	private final DataSource primary = mock(DataSource.class);
+
+	private final Connection primaryConnection = mock(Connection.class);
+
+	private final DataSource replica1 = mock(DataSource.class);
+
+	private final Connection replica1Connection = mock(Connection.class);
+
+	private final DataSource replica2 = mock(DataSource.class);
+
+	private final Connection replica2Connection = mock(Connection.class);
+
+	private final ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+
+
+	@Before
+	public void setup() throws SQLException {
+		given(this.primary.getConnection()).willReturn(this.primaryConnection);
+		given(this.replica1.getConnection()).willReturn(this.replica1Connection);
+		given(this.replica2.getConnection()).willReturn(this.replica2Connection);
+		Map<Object, Object> replicas = new HashMap<>();
+		replicas.put("replica1", this.replica1);
+		replicas.put("replica2", this.replica2);
+		this.router.setTargetDataSources(replicas);
+		this.router.setDefaultTargetDataSource(this.primary);
+	}
+
+	@After
+	public void verifyTransactionSynchronizationManagerState() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+	}
+
+
+	@Test
+	public void routesToPrimaryOutsideOfReadOnlyTransaction() throws SQLException {
+		this.router.afterPropertiesSet();
+		assertSame(this.primaryConnection, this.router.getConnection());
+		verify(this.replica1, never()).getConnection();
+		verify(this.replica2, never()).getConnection();
+	}
+
+	@Test
+	public void routesToReplicasForReadOnlyTransaction() throws SQLException {
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection con1 = this.router.getConnection();
+		Connection con2 = this.router.getConnection();
+		assertNotSame(targetOf(con1), targetOf(con2));
+		con1.close();
+		con2.close();
+		verify(this.replica1).getConnection();
+		verify(this.replica2).getConnection();
+		verify(this.replica1Connection).close();
+		verify(this.replica2Connection).close();
+		verify(this.primary, never()).getConnection();
+	}
+
+	@Test
+	public void balancesByWeightedOpenConnections() throws SQLException {
+		this.router.setReplicaWeights(Collections.singletonMap("replica1", 2));
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		for (int i = 0; i < 6; i++) {
+			this.router.getConnection();
+		}
+		verify(this.replica1, times(4)).getConnection();
+		verify(this.replica2, times(2)).getConnection();
+	}
+
+	@Test
+	public void prefersReplicaWithFewerOpenConnections() throws SQLException {
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection open = this.router.getConnection();
+		for (int i = 0; i < 3; i++) {
+			this.router.getConnection().close();
+		}
+		Connection other = targetOf(open) == this.replica1Connection ? this.replica2Connection : this.replica1Connection;
+		verify(other, times(3)).close();
+		verify(targetOf(open), never()).close();
+	}
+
+	@Test
+	public void ejectsFailingReplica() throws SQLException {
+		given(this.replica1.getConnection()).willThrow(new SQLException("replica down"));
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		for (int i = 0; i < 4; i++) {
+			assertSame(this.replica2Connection, targetOf(this.router.getConnection()));
+		}
+		verify(this.replica1).getConnection();
+		verify(this.primary, never()).getConnection();
+	}
+
+	@Test
+	public void retriesFailingReplicaWithEjectionTurnedOff() throws SQLException {
+		given(this.replica1.getConnection()).willThrow(new SQLException("replica down"));
+		given(this.replica2.getConnection()).willThrow(new SQLException("replica down"));
+		this.router.setEjectionInterval(0);
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(this.primaryConnection, this.router.getConnection());
+		assertSame(this.primaryConnection, this.router.getConnection());
+		verify(this.replica1, times(2)).getConnection();
+		verify(this.replica2, times(2)).getConnection();
+	}
+
+	@Test
+	public void fallsBackToPrimaryWithAllReplicasEjected() throws SQLException {
+		given(this.replica1.getConnection()).willThrow(new SQLException("replica down"));
+		given(this.replica2.getConnection()).willThrow(new SQLException("replica down"));
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(this.primaryConnection, this.router.getConnection());
+		assertSame(this.primaryConnection, this.router.getConnection());
+		verify(this.replica1).getConnection();
+		verify(this.replica2).getConnection();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void primaryDataSourceRequired() {
+		ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+		router.setTargetDataSources(Collections.singletonMap("replica1", this.replica1));
+		router.afterPropertiesSet();
+	}
+
+	@Test
+	public void routesReadOnlyTransactionThroughLazyConnectionDataSourceProxy() throws SQLException {
+		given(this.primaryConnection.getAutoCommit()).willReturn(true);
+		given(this.replica1Connection.getAutoCommit()).willReturn(true);
+		given(this.replica2Connection.getAutoCommit()).willReturn(true);
+		this.router.afterPropertiesSet();
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(this.router);
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+		tt.setReadOnly(true);
+		Connection readOnlyTarget = tt.execute(status ->
+				((ConnectionProxy) DataSourceUtils.getConnection(dataSource)).getTargetConnection());
+		tt.setReadOnly(false);
+		Connection readWriteTarget = tt.execute(status ->
+				((ConnectionProxy) DataSourceUtils.getConnection(dataSource)).getTargetConnection());
+
+		assertTrue(targetOf(readOnlyTarget) == this.replica1Connection ||
+				targetOf(readOnlyTarget) == this.replica2Connection);
+		assertSame(this.primaryConnection, readWriteTarget);
+		verify(this.primaryConnection, never()).setReadOnly(true);
+	}
+
+
+	private static Connection targetOf(Connection con) {
+		return ((ConnectionProxy) con).getTargetConnection();
+	}
+
+}
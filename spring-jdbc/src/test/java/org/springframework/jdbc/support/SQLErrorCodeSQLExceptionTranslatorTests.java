@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -123,6 +123,30 @@ public class SQLErrorCodeSQLExceptionTranslatorTests {
 		assertEquals(dataTruncation, daex.getCause());
 	}
 
+	@Test
+	public void errorCodeInSeveralCategoriesTranslation() {
+		SQLErrorCodes sec = new SQLErrorCodes();
+		sec.setDataIntegrityViolationCodes("1", "2");
+		sec.setDuplicateKeyCodes("2");
+		SQLExceptionTranslator sext = new SQLErrorCodeSQLExceptionTranslator(sec);
+
+		checkTranslation(sext, 1, DataIntegrityViolationException.class);
+		assertEquals(DuplicateKeyException.class, sext.translate("", "", new SQLException("", "", 2)).getClass());
+	}
+
+	@Test
+	public void errorCodesChangedAfterTranslation() {
+		SQLErrorCodes sec = new SQLErrorCodes();
+		sec.setBadSqlGrammarCodes("1");
+		SQLExceptionTranslator sext = new SQLErrorCodeSQLExceptionTranslator(sec);
+		checkTranslation(sext, 1, BadSqlGrammarException.class);
+
+		sec.setCannotAcquireLockCodes("1");
+		sec.setBadSqlGrammarCodes("2");
+		checkTranslation(sext, 1, CannotAcquireLockException.class);
+		checkTranslation(sext, 2, BadSqlGrammarException.class);
+	}
+
 	@SuppressWarnings("serial")
 	@Test
 	public void customTranslateMethodTranslation() {
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.core.ColumnarSqlRowSetResultSetExtractor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ColumnarSqlRowSet}.
+ */
+public class ColumnarSqlRowSetTests {
+
+	private EmbeddedDatabase db;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@Before
+	public void setUp() {
+		this.db = new EmbeddedDatabaseBuilder().generateUniqueName(true).build();
+		this.jdbcTemplate = new JdbcTemplate(this.db);
+		this.jdbcTemplate.execute("create table item (id integer, code bigint, price double, " +
+				"amount decimal(10,2), name varchar(50), active boolean, created timestamp)");
+		this.jdbcTemplate.update("insert into item values (1, 10, 1.5, 2.25, 'a', true, ?)", new Timestamp(1000));
+		this.jdbcTemplate.update("insert into item values (2, null, null, null, null, null, null)");
+		this.jdbcTemplate.update("insert into item values (3, 30, 3.5, 6.75, 'a', false, ?)", new Timestamp(3000));
+	}
+
+	@After
+	public void tearDown() {
+		this.db.shutdown();
+	}
+
+
+	@Test
+	public void valuesAndNulls() {
+		SqlRowSet rowSet = queryForRowSet();
+
+		assertTrue(rowSet.next());
+		assertEquals(1, rowSet.getInt("id"));
+		assertEquals(10L, rowSet.getLong("code"));
+		assertEquals(1.5, rowSet.getDouble("price"), 0);
+		assertEquals(new BigDecimal("2.25"), rowSet.getBigDecimal("amount"));
+		assertEquals("a", rowSet.getString("name"));
+		assertTrue(rowSet.getBoolean("active"));
+		assertEquals(new Timestamp(1000), rowSet.getTimestamp("created"));
+		assertFalse(rowSet.wasNull());
+
+		assertTrue(rowSet.next());
+		assertEquals(0L, rowSet.getLong("code"));
+		assertTrue(rowSet.wasNull());
+		assertEquals(0, rowSet.getDouble("price"), 0);
+		assertTrue(rowSet.wasNull());
+		assertNull(rowSet.getBigDecimal("amount"));
+		assertNull(rowSet.getString("name"));
+		assertFalse(rowSet.getBoolean("active"));
+		assertTrue(rowSet.wasNull());
+		assertNull(rowSet.getTimestamp("created"));
+		assertNull(rowSet.getObject("created"));
+
+		assertTrue(rowSet.next());
+		assertEquals("a", rowSet.getString("name"));
+		assertFalse(rowSet.getBoolean("active"));
+		assertFalse(rowSet.next());
+	}
+
+	@Test
+	public void conversions() {
+		SqlRowSet rowSet = queryForRowSet();
+		assertTrue(rowSet.first());
+		assertEquals("1", rowSet.getString("id"));
+		assertEquals(Integer.valueOf(1), rowSet.getObject("id"));
+		assertEquals(Long.valueOf(1), rowSet.getObject("id", Long.class));
+		assertEquals(new BigDecimal("10"), rowSet.getBigDecimal("code"));
+		assertEquals(2, rowSet.getInt("amount"));
+		assertEquals(1, rowSet.getInt("active"));
+		assertEquals(Double.valueOf(1.5), rowSet.getObject("price"));
+	}
+
+	@Test(expected = InvalidResultSetAccessException.class)
+	public void invalidConversion() {
+		SqlRowSet rowSet = queryForRowSet();
+		assertTrue(rowSet.first());
+		rowSet.getInt("name");
+	}
+
+	@Test
+	public void navigation() {
+		SqlRowSet rowSet = queryForRowSet();
+		assertTrue(rowSet.isBeforeFirst());
+		assertEquals(0, rowSet.getRow());
+		assertTrue(rowSet.last());
+		assertTrue(rowSet.isLast());
+		assertEquals(3, rowSet.getRow());
+		assertTrue(rowSet.previous());
+		assertEquals(2, rowSet.getRow());
+		assertTrue(rowSet.relative(-1));
+		assertTrue(rowSet.isFirst());
+		assertFalse(rowSet.relative(5));
+		assertTrue(rowSet.isAfterLast());
+		assertTrue(rowSet.absolute(-2));
+		assertEquals(2, rowSet.getInt(1));
+		assertFalse(rowSet.absolute(0));
+		assertTrue(rowSet.isBeforeFirst());
+		rowSet.afterLast();
+		assertFalse(rowSet.next());
+		rowSet.beforeFirst();
+		assertTrue(rowSet.next());
+		assertEquals(1, rowSet.getInt(1));
+	}
+
+	@Test(expected = InvalidResultSetAccessException.class)
+	public void accessBeforeFirstRow() {
+		queryForRowSet().getInt(1);
+	}
+
+	@Test(expected = InvalidResultSetAccessException.class)
+	public void invalidColumnLabel() {
+		queryForRowSet().findColumn("missing");
+	}
+
+	@Test
+	public void metaData() {
+		SqlRowSet rowSet = queryForRowSet();
+		SqlRowSetMetaData metaData = rowSet.getMetaData();
+		assertEquals(7, metaData.getColumnCount());
+		assertEquals("NAME", metaData.getColumnName(5));
+		assertEquals(Types.VARCHAR, metaData.getColumnType(5));
+		assertEquals(5, rowSet.findColumn("name"));
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		SqlRowSet rowSet = queryForRowSet();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(rowSet);
+		}
+		SqlRowSet copy;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+			copy = (SqlRowSet) ois.readObject();
+		}
+		assertTrue(copy.last());
+		assertEquals("a", copy.getString("name"));
+		assertEquals(new BigDecimal("6.75"), copy.getBigDecimal("amount"));
+	}
+
+	@Test
+	public void growsBeyondInitialCapacity() {
+		for (int i = 4; i <= 200; i++) {
+			this.jdbcTemplate.update("insert into item (id, name) values (?, ?)", i, "name" + (i % 10));
+		}
+		ColumnarSqlRowSet rowSet = (ColumnarSqlRowSet) queryForRowSet();
+		assertEquals(200, rowSet.getRowCount());
+		assertTrue(rowSet.absolute(150));
+		assertEquals(150, rowSet.getInt("id"));
+		assertEquals("name0", rowSet.getString("name"));
+	}
+
+
+	private SqlRowSet queryForRowSet() {
+		return this.jdbcTemplate.query("select * from item order by id", new ColumnarSqlRowSetResultSetExtractor());
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.Pojo;
+
+/**
+ * Benchmarks for {@link Jackson2JsonEncoder} and {@link Jackson2JsonDecoder}
+ * throughput on JSON arrays of simple POJOs, with the input split across
+ * several data buffers for decoding.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonCodecBenchmark {
+
+	private static final ResolvableType POJO_TYPE = ResolvableType.forClass(Pojo.class);
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "1000"})
+		public int elementCount;
+
+		@Param({"1024"})
+		public int chunkSize;
+
+		public DataBufferFactory bufferFactory;
+
+		public Jackson2JsonEncoder encoder;
+
+		public Jackson2JsonDecoder decoder;
+
+		public List<Pojo> pojos;
+
+		public byte[] json;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.encoder = new Jackson2JsonEncoder();
+			this.decoder = new Jackson2JsonDecoder();
+			this.pojos = new ArrayList<>(this.elementCount);
+			StringBuilder builder = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				this.pojos.add(new Pojo("foo" + i, "bar" + i));
+				if (i > 0) {
+					builder.append(',');
+				}
+				builder.append("{\"foo\":\"foo").append(i).append("\",\"bar\":\"bar").append(i).append("\"}");
+			}
+			this.json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+		}
+
+		public Flux<DataBuffer> chunks() {
+			return Flux.range(0, (this.json.length + this.chunkSize - 1) / this.chunkSize).map(i -> {
+				int offset = i * this.chunkSize;
+				int length = Math.min(this.chunkSize, this.json.length - offset);
+				DataBuffer buffer = this.bufferFactory.allocateBuffer(length);
+				buffer.write(this.json, offset, length);
+				return buffer;
+			});
+		}
+	}
+
+
+	@Benchmark
+	public long encode(BenchmarkState state) {
+		return state.encoder.encode(Flux.fromIterable(state.pojos), state.bufferFactory, POJO_TYPE,
+				MediaType.APPLICATION_JSON, Collections.emptyMap())
+				.doOnNext(DataBufferUtils::release)
+				.count()
+				.block();
+	}
+
+	@Benchmark
+	public List<Object> decode(BenchmarkState state) {
+		return state.decoder.decode(state.chunks(), POJO_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+				.collectList()
+				.block();
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+
+/**
+ * Benchmarks for {@link PathPattern} matching against the same pattern
+ * set as the {@code AntPathMatcherBenchmark} in spring-core, so that both
+ * matching strategies can be compared side by side.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"20", "2000"})
+		public int distinctPaths;
+
+		public List<PathPattern> patterns;
+
+		public List<String> paths;
+
+		private int index;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			PathPatternParser parser = new PathPatternParser();
+			this.patterns = new ArrayList<>();
+			this.patterns.add(parser.parse("/api/users"));
+			this.patterns.add(parser.parse("/api/users/{id}"));
+			this.patterns.add(parser.parse("/api/users/{id}/orders/{orderId}"));
+			this.patterns.add(parser.parse("/static/**"));
+			this.patterns.add(parser.parse("/api/products/*/reviews"));
+			this.paths = new ArrayList<>(this.distinctPaths);
+			for (int i = 0; i < this.distinctPaths; i++) {
+				switch (i % 4) {
+					case 0: this.paths.add("/api/users/" + i); break;
+					case 1: this.paths.add("/api/users/" + i + "/orders/" + (i * 7)); break;
+					case 2: this.paths.add("/static/js/lib" + i + "/app.js"); break;
+					default: this.paths.add("/api/products/p" + i + "/reviews"); break;
+				}
+			}
+		}
+
+		public String nextPath() {
+			String path = this.paths.get(this.index);
+			this.index = (this.index + 1) % this.paths.size();
+			return path;
+		}
+	}
+
+
+	@Benchmark
+	public void match(BenchmarkState state, Blackhole bh) {
+		PathContainer path = PathContainer.parsePath(state.nextPath());
+		for (PathPattern pattern : state.patterns) {
+			bh.consume(pattern.matches(path));
+		}
+	}
+
+	@Benchmark
+	public PathPattern.PathMatchInfo matchAndExtract(BenchmarkState state) {
+		PathContainer path = PathContainer.parsePath("/api/users/42/orders/4711");
+		return state.patterns.get(2).matchAndExtract(path);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 
 import org.springframework.core.io.Resource;
@@ -154,18 +157,7 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
 
-		InputStream in = region.getResource().getInputStream();
-		try {
-			StreamUtils.copyRange(in, outputMessage.getBody(), start, end);
-		}
-		finally {
-			try {
-				in.close();
-			}
-			catch (IOException ex) {
-				// ignore
-			}
-		}
+		copyRange(region.getResource(), outputMessage.getBody(), start, end);
 	}
 
 	private void writeResourceRegionCollection(Collection<ResourceRegion> resourceRegions,
@@ -182,38 +174,64 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		for (ResourceRegion region : resourceRegions) {
 			long start = region.getPosition();
 			long end = start + region.getCount() - 1;
-			InputStream in = region.getResource().getInputStream();
-			try {
-				// Writing MIME header.
-				println(out);
-				print(out, "--" + boundaryString);
-				println(out);
-				if (contentType != null) {
-					print(out, "Content-Type: " + contentType.toString());
-					println(out);
-				}
-				Long resourceLength = region.getResource().contentLength();
-				end = Math.min(end, resourceLength - 1);
-				print(out, "Content-Range: bytes " + start + '-' + end + '/' + resourceLength);
-				println(out);
+			// Writing MIME header.
+			println(out);
+			print(out, "--" + boundaryString);
+			println(out);
+			if (contentType != null) {
+				print(out, "Content-Type: " + contentType.toString());
 				println(out);
-				// Printing content
-				StreamUtils.copyRange(in, out, start, end);
-			}
-			finally {
-				try {
-					in.close();
-				}
-				catch (IOException ex) {
-					// ignore
-				}
 			}
+			Long resourceLength = region.getResource().contentLength();
+			end = Math.min(end, resourceLength - 1);
+			print(out, "Content-Range: bytes " + start + '-' + end + '/' + resourceLength);
+			println(out);
+			println(out);
+			// Printing content
+			copyRange(region.getResource(), out, start, end);
 		}
 
 		println(out);
 		print(out, "--" + boundaryString + "--");
 	}
 
+	/**
+	 * Copy the given range of the resource. Files are read through a channel
+	 * positioned at the start of the range, rather than skipping the preceding
+	 * content, which an {@code InputStream} for a file is not guaranteed to do
+	 * without reading it.
+	 */
+	private static void copyRange(Resource resource, OutputStream out, long start, long end) throws IOException {
+		InputStream in;
+		long offset = 0;
+		if (resource.isFile()) {
+			FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+			in = Channels.newInputStream(channel);
+			try {
+				channel.position(start);
+			}
+			catch (IOException ex) {
+				in.close();
+				throw ex;
+			}
+		}
+		else {
+			in = resource.getInputStream();
+			offset = start;
+		}
+		try {
+			StreamUtils.copyRange(in, out, offset, offset + end - start);
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
 	private static void println(OutputStream os) throws IOException {
 		os.write('\r');
 		os.write('\n');
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,12 +17,18 @@
 package org.springframework.http.converter.json;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -32,7 +38,9 @@ import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -57,6 +65,15 @@ import org.springframework.util.TypeUtils;
  * Abstract base class for Jackson based and content type independent
  * {@link HttpMessageConverter} implementations.
  *
+ * <p>Besides regular target types, {@link Stream} and {@link Iterator} are
+ * supported for reading a top-level JSON array (or a sequence of root-level
+ * values) element by element, parsing each element only once it is requested,
+ * e.g. for a {@code @RequestBody Stream<Foo>} controller method argument. The
+ * returned stream or iterator reads from the body of the input message and has
+ * to be consumed while the body is still available, i.e. during the handling
+ * of the request. Parse errors encountered while consuming it are thrown as
+ * {@link HttpMessageNotReadableException}.
+ *
  * <p>Compatible with Jackson 2.9 and higher, as of Spring 5.0.
  *
  * @author Arjen Poutsma
@@ -156,6 +173,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 			return false;
 		}
 		JavaType javaType = getJavaType(type, contextClass);
+		if (isStreamingType(javaType)) {
+			javaType = javaType.containedTypeOrUnknown(0);
+		}
 		AtomicReference<Throwable> causeRef = new AtomicReference<>();
 		if (this.objectMapper.canDeserialize(javaType, causeRef)) {
 			return true;
@@ -227,6 +247,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
 	private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
 		try {
+			if (isStreamingType(javaType)) {
+				return readValues(javaType, inputMessage);
+			}
 			if (inputMessage instanceof MappingJacksonInputMessage) {
 				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
 				if (deserializationView != null) {
@@ -244,6 +267,30 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		}
 	}
 
+	private boolean isStreamingType(JavaType javaType) {
+		return (javaType.getRawClass() == Stream.class || javaType.getRawClass() == Iterator.class);
+	}
+
+	/**
+	 * Read the elements of a top-level JSON array, or a sequence of root-level
+	 * values, lazily into the given {@code Stream} or {@code Iterator} type.
+	 */
+	private Object readValues(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
+		ObjectReader objectReader = this.objectMapper.readerFor(javaType.containedTypeOrUnknown(0));
+		if (inputMessage instanceof MappingJacksonInputMessage) {
+			Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
+			if (deserializationView != null) {
+				objectReader = objectReader.withView(deserializationView);
+			}
+		}
+		JsonValueIterator iterator = new JsonValueIterator(objectReader.readValues(inputMessage.getBody()));
+		if (javaType.getRawClass() == Iterator.class) {
+			return iterator;
+		}
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+				.onClose(iterator::close);
+	}
+
 	@Override
 	protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
 			throws IOException, HttpMessageNotWritableException {
@@ -357,4 +404,69 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		return super.getContentLength(object, contentType);
 	}
 
+
+	/**
+	 * Iterator over the values parsed by a {@link MappingIterator}, translating
+	 * parse errors the same way as for regular reads. The underlying parser is
+	 * closed once all values have been read or a parse error has occurred.
+	 */
+	private static class JsonValueIterator implements Iterator<Object> {
+
+		private final MappingIterator<Object> mappingIterator;
+
+		JsonValueIterator(MappingIterator<Object> mappingIterator) {
+			this.mappingIterator = mappingIterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				boolean hasNext = this.mappingIterator.hasNextValue();
+				if (!hasNext) {
+					close();
+				}
+				return hasNext;
+			}
+			catch (IOException ex) {
+				close();
+				throw translateException(ex);
+			}
+		}
+
+		@Override
+		public Object next() {
+			try {
+				return this.mappingIterator.nextValue();
+			}
+			catch (IOException ex) {
+				close();
+				throw translateException(ex);
+			}
+		}
+
+		/**
+		 * Close the underlying parser, ignoring any exception.
+		 */
+		public void close() {
+			try {
+				this.mappingIterator.close();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+
+		private static RuntimeException translateException(IOException ex) {
+			if (ex instanceof InvalidDefinitionException) {
+				return new HttpMessageConversionException(
+						"Type definition error: " + ((InvalidDefinitionException) ex).getType(), ex);
+			}
+			if (ex instanceof JsonProcessingException) {
+				return new HttpMessageNotReadableException(
+						"JSON parse error: " + ((JsonProcessingException) ex).getOriginalMessage(), ex);
+			}
+			return new UncheckedIOException(ex);
+		}
+	}
+
 }
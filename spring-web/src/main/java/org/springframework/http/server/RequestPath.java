@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,7 +57,18 @@ public interface RequestPath extends PathContainer {
 	 * Create a new {@code RequestPath} with the given parameters.
 	 */
 	static RequestPath parse(URI uri, @Nullable String contextPath) {
-		return new DefaultRequestPath(uri, contextPath);
+		return new DefaultRequestPath(uri.getRawPath(), contextPath);
+	}
+
+	/**
+	 * Create a new {@code RequestPath} for the given raw, encoded path, e.g.
+	 * as returned from {@code HttpServletRequest#getRequestURI()}.
+	 * @param rawPath the encoded path of the request, without query
+	 * @param contextPath the encoded context path, or {@code null}
+	 * @since 5.0.16
+	 */
+	static RequestPath parse(String rawPath, @Nullable String contextPath) {
+		return new DefaultRequestPath(rawPath, contextPath);
 	}
 
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.nio.charset.StandardCharsets;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility methods to parse the path of a Servlet request into a
+ * {@link RequestPath} once and cache it in a request attribute, so that
+ * {@link org.springframework.web.util.pattern.PathPattern PathPattern}
+ * based handler mappings can match against it without parsing it again.
+ *
+ * <p>The {@link RequestPath#pathWithinApplication() path within the application}
+ * of the parsed path is the path within the Servlet mapping, consistent with
+ * the lookup path from {@link UrlPathHelper} in its default configuration.
+ *
+ * @since 5.0.16
+ * @see org.springframework.web.util.pattern.PathPattern
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the path of the given request into a {@link RequestPath} and cache
+	 * it in the request attribute {@link #PATH_ATTRIBUTE}, replacing any
+	 * previously cached path. For an include request, the path of the
+	 * included resource is parsed.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Parse the path of the given request into a {@link RequestPath}, without
+	 * caching it. For an include request, the path of the included resource
+	 * is parsed.
+	 * @param request the current request
+	 * @return the parsed path
+	 * @see #parseAndCache
+	 */
+	public static RequestPath parse(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		String contextPath;
+		String servletPath;
+		String pathInfo;
+		if (requestUri != null) {
+			contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+			servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+			pathInfo = (String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE);
+		}
+		else {
+			requestUri = request.getRequestURI();
+			contextPath = request.getContextPath();
+			servletPath = request.getServletPath();
+			pathInfo = request.getPathInfo();
+		}
+		contextPath = (contextPath != null && !"/".equals(contextPath) ? contextPath : "");
+		if (pathInfo != null && StringUtils.hasLength(servletPath) && !"/".equals(servletPath)) {
+			// Prefix Servlet mapping: match within the Servlet path, like UrlPathHelper does
+			String servletPathPrefix = contextPath + UriUtils.encodePath(servletPath, StandardCharsets.UTF_8);
+			if (servletPathPrefix.endsWith("/")) {
+				servletPathPrefix = servletPathPrefix.substring(0, servletPathPrefix.length() - 1);
+			}
+			if (requestUri.startsWith(servletPathPrefix) && (requestUri.length() == servletPathPrefix.length() ||
+					requestUri.charAt(servletPathPrefix.length()) == '/')) {
+				contextPath = servletPathPrefix;
+			}
+		}
+		return RequestPath.parse(requestUri, contextPath);
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously} parsed and cached path.
+	 * @param request the current request
+	 * @return the parsed path
+	 * @throws IllegalArgumentException if the path has not been parsed and cached
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath path = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		if (path == null) {
+			throw new IllegalArgumentException("Expected parsed RequestPath in request attribute \"" +
+					PATH_ATTRIBUTE + "\".");
+		}
+		return path;
+	}
+
+	/**
+	 * Set the cached, parsed path to the given value, or remove it if the given
+	 * value is {@code null}, e.g. to restore a previous value after a forward.
+	 * @param requestPath the value to set to, or {@code null} to remove it
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Check for a {@link #parseAndCache previously} parsed and cached path.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Remove the request attribute {@link #PATH_ATTRIBUTE} that holds a
+	 * {@link #parseAndCache previously} parsed and cached path.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+}
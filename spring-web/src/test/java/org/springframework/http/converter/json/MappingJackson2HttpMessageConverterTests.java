@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,18 @@
 
 package org.springframework.http.converter.json;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -183,6 +188,109 @@ public class MappingJackson2HttpMessageConverterTests {
 		converter.read(MyBean.class, inputMessage);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readStream() throws IOException {
+		ParameterizedTypeReference<Stream<MyBean>> beansStream = new ParameterizedTypeReference<Stream<MyBean>>() {};
+		assertTrue(converter.canRead(beansStream.getType(), null, MediaType.APPLICATION_JSON));
+
+		String body = "[{\"string\":\"Foo\"},{\"string\":\"Bar\"}]";
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body.getBytes("UTF-8"));
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Stream<MyBean> results = (Stream<MyBean>) converter.read(beansStream.getType(), null, inputMessage);
+
+		assertEquals(Arrays.asList("Foo", "Bar"), results.map(MyBean::getString).collect(Collectors.toList()));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readIterator() throws IOException {
+		ParameterizedTypeReference<Iterator<MyBean>> beansIterator =
+				new ParameterizedTypeReference<Iterator<MyBean>>() {};
+
+		String body = "[{\"string\":\"Foo\"},{\"string\":\"Bar\"}]";
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body.getBytes("UTF-8"));
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Iterator<MyBean> results = (Iterator<MyBean>) converter.read(beansIterator.getType(), null, inputMessage);
+
+		assertTrue(results.hasNext());
+		assertEquals("Foo", results.next().getString());
+		assertEquals("Bar", results.next().getString());
+		assertFalse(results.hasNext());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readIteratorClosesBodyWhenExhausted() throws IOException {
+		ParameterizedTypeReference<Iterator<MyBean>> beansIterator =
+				new ParameterizedTypeReference<Iterator<MyBean>>() {};
+
+		CloseTrackingInputStream body = new CloseTrackingInputStream("[{\"string\":\"Foo\"}]", false);
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Iterator<MyBean> results = (Iterator<MyBean>) converter.read(beansIterator.getType(), null, inputMessage);
+
+		assertEquals("Foo", results.next().getString());
+		assertFalse(body.closed);
+		assertFalse(results.hasNext());
+		assertTrue(body.closed);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readStreamClosesBodyQuietly() throws IOException {
+		ParameterizedTypeReference<Stream<MyBean>> beansStream = new ParameterizedTypeReference<Stream<MyBean>>() {};
+
+		CloseTrackingInputStream body = new CloseTrackingInputStream("[{\"string\":\"Foo\"}]", true);
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Stream<MyBean> results = (Stream<MyBean>) converter.read(beansStream.getType(), null, inputMessage);
+
+		results.close();
+		assertTrue(body.closed);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readStreamWithInvalidElement() throws IOException {
+		ParameterizedTypeReference<Stream<MyBean>> beansStream = new ParameterizedTypeReference<Stream<MyBean>>() {};
+
+		String body = "[{\"string\":\"Foo\"},{\"number\":\"Bar\"}]";
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body.getBytes("UTF-8"));
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Iterator<MyBean> results = ((Stream<MyBean>) converter.read(beansStream.getType(), null, inputMessage)).iterator();
+
+		assertEquals("Foo", results.next().getString());
+		try {
+			results.next();
+			fail("Expected HttpMessageNotReadableException");
+		}
+		catch (HttpMessageNotReadableException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readIteratorWithInvalidElementClosesBody() throws IOException {
+		ParameterizedTypeReference<Iterator<MyBean>> beansIterator =
+				new ParameterizedTypeReference<Iterator<MyBean>>() {};
+
+		CloseTrackingInputStream body = new CloseTrackingInputStream("[{\"string\":\"Foo\"},{\"number\":\"Bar\"}]", false);
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Iterator<MyBean> results = (Iterator<MyBean>) converter.read(beansIterator.getType(), null, inputMessage);
+
+		assertEquals("Foo", results.next().getString());
+		try {
+			results.next();
+			fail("Expected HttpMessageNotReadableException");
+		}
+		catch (HttpMessageNotReadableException ex) {
+			assertTrue(body.closed);
+		}
+	}
+
 	@Test
 	public void readValidJsonWithUnknownProperty() throws IOException {
 		String body = "{\"string\":\"string\",\"unknownProperty\":\"value\"}";
@@ -662,4 +770,25 @@ public class MappingJackson2HttpMessageConverterTests {
 		}
 	}
 
+
+	private static class CloseTrackingInputStream extends ByteArrayInputStream {
+
+		private final boolean failOnClose;
+
+		boolean closed;
+
+		CloseTrackingInputStream(String content, boolean failOnClose) {
+			super(content.getBytes(StandardCharsets.UTF_8));
+			this.failOnClose = failOnClose;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.closed = true;
+			if (this.failOnClose) {
+				throw new IOException("Close failed");
+			}
+		}
+	}
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ */
+public class ServletRequestPathUtilsTests {
+
+	@Test
+	public void parseAndCache() {
+		testParseAndCache("/app/main/foo/bar", "/app", "/main", "/foo/bar", "/app/main", "/foo/bar");
+		testParseAndCache("/app/foo/bar", "/app", "/foo/bar", null, "/app", "/foo/bar");
+		testParseAndCache("/foo/bar", "", "/foo/bar", null, "", "/foo/bar");
+		testParseAndCache("/app/main", "/app", "/main", "", "/app/main", "");
+		testParseAndCache("/app/a%20b/foo", "/app", "/a b", "/foo", "/app/a%20b", "/foo");
+		testParseAndCache("/app/foo;a=b", "/app", "/", "/foo", "/app", "/foo;a=b");
+	}
+
+	private void testParseAndCache(String requestUri, String contextPath, String servletPath,
+			String pathInfo, String expectedContextPath, String expectedPathWithinApplication) {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		request.setContextPath(contextPath);
+		request.setServletPath(servletPath);
+		request.setPathInfo(pathInfo);
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+
+		assertEquals(expectedContextPath, requestPath.contextPath().value());
+		assertEquals(expectedPathWithinApplication, requestPath.pathWithinApplication().value());
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+	}
+
+	@Test
+	public void parseAndCacheIncludeRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/main/outer");
+		request.setContextPath("/app");
+		request.setServletPath("/main");
+		request.setPathInfo("/outer");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/inner");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+		request.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/inner");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+
+		assertEquals("/app", requestPath.contextPath().value());
+		assertEquals("/inner", requestPath.pathWithinApplication().value());
+	}
+
+	@Test
+	public void setAndClearParsedRequestPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertTrue(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(null, request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(requestPath, request);
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+
+		ServletRequestPathUtils.clearParsedRequestPath(request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getParsedRequestPathWhenNotParsed() {
+		ServletRequestPathUtils.getParsedRequestPath(new MockHttpServletRequest("GET", "/foo"));
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Benchmarks for {@link AbstractHandlerMethodMapping#lookupHandlerMethod},
+ * for direct (literal path) hits as well as for pattern matches that require
+ * evaluating the registered {@link RequestMappingInfo} conditions.
+ *
+ * @since 5.0.16
+ */
+@BenchmarkMode(Mode.Throughput)
+public class HandlerMethodMappingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"100", "2500"})
+		public int mappingCount;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		public String directPath;
+
+		public String patternPath;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			Object handler = new BenchmarkController();
+			Method method = ClassUtils.getMethod(BenchmarkController.class, "handle");
+			for (int i = 0; i < this.mappingCount; i++) {
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/resource" + i)
+						.methods(RequestMethod.GET).build(), handler, method);
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/resource" + i + "/{id}")
+						.methods(RequestMethod.GET).build(), handler, method);
+			}
+			int middle = this.mappingCount / 2;
+			this.directPath = "/api/resource" + middle;
+			this.patternPath = "/api/resource" + middle + "/42";
+		}
+	}
+
+
+	@Benchmark
+	public HandlerMethod directMatch(BenchmarkState state) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", state.directPath);
+		return state.handlerMapping.lookupHandlerMethod(state.directPath, request);
+	}
+
+	@Benchmark
+	public HandlerMethod patternMatch(BenchmarkState state) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", state.patternPath);
+		return state.handlerMapping.lookupHandlerMethod(state.patternPath, request);
+	}
+
+	@Benchmark
+	public HandlerMethod noMatch(BenchmarkState state) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/unknown/path");
+		return state.handlerMapping.lookupHandlerMethod("/unknown/path", request);
+	}
+
+
+	public static class BenchmarkController {
+
+		public void handle() {
+		}
+	}
+
+}
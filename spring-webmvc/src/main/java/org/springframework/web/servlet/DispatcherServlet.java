@@ -29,6 +29,7 @@ import org.springframework.context.i18n.LocaleContext;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.server.RequestPath;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.ui.context.ThemeSource;
@@ -42,6 +43,7 @@ import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.util.NestedServletException;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
 
 /**
@@ -217,6 +219,9 @@ public class DispatcherServlet extends FrameworkServlet {
 	@Nullable
 	private List<HandlerMapping> handlerMappings;
 
+	//是否有HandlerMapping使用PathPattern，需要预先解析请求路径
+	private boolean parseRequestPath;
+
 	//此servlet使用的HandlerAdapter列表---处理器适配器
 	@Nullable
 	private List<HandlerAdapter> handlerAdapters;
@@ -401,6 +406,14 @@ public class DispatcherServlet extends FrameworkServlet {
 				logger.debug("No HandlerMappings found in servlet '" + getServletName() + "': using default");
 			}
 		}
+
+		this.parseRequestPath = false;
+		for (HandlerMapping mapping : this.handlerMappings) {
+			if (mapping.usesPathPatterns()) {
+				this.parseRequestPath = true;
+				break;
+			}
+		}
 	}
 
 	//初始化处理器适配器
@@ -659,6 +672,14 @@ public class DispatcherServlet extends FrameworkServlet {
 			request.setAttribute(FLASH_MAP_MANAGER_ATTRIBUTE, this.flashMapManager);
 		}
 
+		// Parse the request path once for all PathPattern based HandlerMappings,
+		// keeping the path of the outer request to restore after a forward or include.
+		RequestPath previousRequestPath = null;
+		if (this.parseRequestPath) {
+			previousRequestPath = (RequestPath) request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE);
+			ServletRequestPathUtils.parseAndCache(request);
+		}
+
 		try {
 			//委托给doDispatch()方法去执行具体的处理流程
 			doDispatch(request, response);
@@ -670,6 +691,9 @@ public class DispatcherServlet extends FrameworkServlet {
 					restoreAttributesAfterInclude(request, attributesSnapshot);
 				}
 			}
+			if (this.parseRequestPath) {
+				ServletRequestPathUtils.setParsedRequestPath(previousRequestPath, request);
+			}
 		}
 	}
 
@@ -51,6 +51,19 @@ public interface HandlerMapping {
 	String PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE = HandlerMapping.class.getName() + ".producibleMediaTypes";
 
 
+	/**
+	 * Whether this {@code HandlerMapping} matches requests with parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns},
+	 * in which case the {@code DispatcherServlet} parses the request path once
+	 * via {@link org.springframework.web.util.ServletRequestPathUtils#parseAndCache}
+	 * and shares it across all handler mappings.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.0.16
+	 */
+	default boolean usesPathPatterns() {
+		return false;
+	}
+
 	@Nullable
 	HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception;
 
@@ -12,6 +12,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
@@ -28,7 +29,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -62,6 +66,10 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	//路径匹配者
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	//预解析的路径模式解析器
+	@Nullable
+	private PathPatternParser patternParser;
+
 	//拦截器集合
 	private final List<Object> interceptors = new ArrayList<>();
 
@@ -128,6 +136,40 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Enable the use of pre-parsed {@link PathPattern}s as an alternative to
+	 * String pattern matching with {@link PathMatcher}. The request path is
+	 * then parsed once per request via {@link ServletRequestPathUtils} and
+	 * matched against the pre-parsed patterns, instead of being matched with
+	 * {@link #getPathMatcher()} against each String pattern. Outside of a
+	 * {@code DispatcherServlet}, the path is parsed for each handler lookup
+	 * and removed from the request once the lookup has completed.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use for mapping patterns
+	 * @since 5.0.16
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser configured} {@code PathPatternParser}, if any.
+	 * @since 5.0.16
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Whether a {@link #setPatternParser PathPatternParser} is configured.
+	 * @since 5.0.16
+	 */
+	@Override
+	public boolean usesPathPatterns() {
+		return (getPatternParser() != null);
+	}
+
 
 	public void setInterceptors(Object... interceptors) {
 		this.interceptors.addAll(Arrays.asList(interceptors));
@@ -258,38 +300,67 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		//获取一个URL相应的Controller和相应的拦截器。
 		//getHandlerInternal(request):这个方法做了很多工作，去获取了当前请求的URL，解析URL的请求参数，并找到当前Http请求的URL的相应Controller对象
 		//HandlerExecutionChain with [com.lice.controller.FirstController@1191a5fe] and 1 interceptors
-		Object handler = getHandlerInternal(request);
-		//如果Handler为null，则获取默认的Handler对象，
-		if (handler == null) {
-			handler = getDefaultHandler();
+		boolean parsedRequestPath = false;
+		if (usesPathPatterns() && !ServletRequestPathUtils.hasParsedRequestPath(request)) {
+			// Not dispatched through a DispatcherServlet that parsed the path already
+			ServletRequestPathUtils.parseAndCache(request);
+			parsedRequestPath = true;
 		}
-		//如果默认的Handler还是null，直接返回null对象
-		if (handler == null) {
-			return null;
-		}
-		// Bean name or resolved handler?
-		//判断Handler是否为String实例，实际是判断是否是处理过的Handler对象
-		if (handler instanceof String) {
-			//如果没处理，做以下处理
-			String handlerName = (String) handler;
-			handler = obtainApplicationContext().getBean(handlerName);
+		try {
+			Object handler = getHandlerInternal(request);
+			//如果Handler为null，则获取默认的Handler对象，
+			if (handler == null) {
+				handler = getDefaultHandler();
+			}
+			//如果默认的Handler还是null，直接返回null对象
+			if (handler == null) {
+				return null;
+			}
+			// Bean name or resolved handler?
+			//判断Handler是否为String实例，实际是判断是否是处理过的Handler对象
+			if (handler instanceof String) {
+				//如果没处理，做以下处理
+				String handlerName = (String) handler;
+				handler = obtainApplicationContext().getBean(handlerName);
+			}
+			//返回一个HandlerExecutionChain，里面包含了Http当前请求信息和URL相应Controller和适用的拦截器,
+			HandlerExecutionChain executionChain = getHandlerExecutionChain(handler, request);
+			if (CorsUtils.isCorsRequest(request)) {
+				CorsConfiguration globalConfig = this.globalCorsConfigSource.getCorsConfiguration(request);
+				CorsConfiguration handlerConfig = getCorsConfiguration(handler, request);
+				CorsConfiguration config = (globalConfig != null ? globalConfig.combine(handlerConfig) : handlerConfig);
+				executionChain = getCorsHandlerExecutionChain(request, executionChain, config);
+			}
+			//返回一个HandlerExecutionChain，里面包含了Http当前请求信息和URL相应Controller和适用的拦截器,
+			return executionChain;
 		}
-		//返回一个HandlerExecutionChain，里面包含了Http当前请求信息和URL相应Controller和适用的拦截器,
-		HandlerExecutionChain executionChain = getHandlerExecutionChain(handler, request);
-		if (CorsUtils.isCorsRequest(request)) {
-			CorsConfiguration globalConfig = this.globalCorsConfigSource.getCorsConfiguration(request);
-			CorsConfiguration handlerConfig = getCorsConfiguration(handler, request);
-			CorsConfiguration config = (globalConfig != null ? globalConfig.combine(handlerConfig) : handlerConfig);
-			executionChain = getCorsHandlerExecutionChain(request, executionChain, config);
+		finally {
+			if (parsedRequestPath) {
+				// Parsed for this lookup only: do not leave it to later use of the request
+				ServletRequestPathUtils.clearParsedRequestPath(request);
+			}
 		}
-		//返回一个HandlerExecutionChain，里面包含了Http当前请求信息和URL相应Controller和适用的拦截器,
-		return executionChain;
 	}
 
 
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Return the lookup path for the given request: the path within the application
+	 * of the parsed request path, still encoded and without semicolon content,
+	 * if {@link #usesPathPatterns()}, or else the lookup path as determined by the
+	 * {@link #getUrlPathHelper() UrlPathHelper}.
+	 * @since 5.0.16
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			RequestPath path = ServletRequestPathUtils.getParsedRequestPath(request);
+			return getUrlPathHelper().removeSemicolonContent(path.pathWithinApplication().value());
+		}
+		return getUrlPathHelper().getLookupPathForRequest(request);
+	}
+
 
 	//获取HandlerExecutionChain，里面包含了Http当前请求信息和URL相应Controller，
 	//为给定的处理程序构建{@link HandlerExecutionChain}，包括适用的拦截器。
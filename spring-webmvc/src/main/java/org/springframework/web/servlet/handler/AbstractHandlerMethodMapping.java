@@ -19,6 +19,7 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -28,6 +29,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 //AbstractHandlerMethodMapping：处理HandlerMethod与HandlerMapping的映射关系
 public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMapping implements InitializingBean {
@@ -286,7 +288,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
 		//获取URL
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		if (logger.isDebugEnabled()) {
 			logger.debug("Looking up handler method for path " + lookupPath);
 		}
@@ -324,8 +326,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			List<T> candidates = (usesPathPatterns() ?
+					this.mappingRegistry.getMappingsByPattern(
+							ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication()) :
+					this.mappingRegistry.getMappingsByPattern(lookupPath));
+			if (candidates != null) {
+				addMatchingMappings(candidates, matches, request);
+			} else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		if (!matches.isEmpty()) {
@@ -433,6 +443,23 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
+	/**
+	 * Whether the URL paths returned from {@link #getMappingPathPatterns} fully
+	 * describe the lookup paths a mapping can match, in the syntax of the
+	 * configured {@link #getPathMatcher() PathMatcher}, or of
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPattern} if
+	 * {@link #usesPathPatterns()}. If so, lookups without a
+	 * direct URL match only check mappings whose patterns share the literal
+	 * leading segments of the lookup path, rather than all registered mappings.
+	 * <p>The default implementation returns {@code false}.
+	 *
+	 * @see #getMappingPathPatterns(Object)
+	 * @since 5.0.16
+	 */
+	protected boolean isPathPatternIndexSupported() {
+		return false;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -467,6 +494,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final MappingPatternIndex<T> patternIndex = new MappingPatternIndex<>();
+
+		private boolean patternIndexEnabled = true;
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -492,6 +523,31 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings whose path patterns may match the given URL path,
+		 * in registration order, or {@code null} if the patterns could not be
+		 * indexed and all mappings need to be checked. Not thread-safe.
+		 *
+		 * @see #acquireReadLock()
+		 */
+		@Nullable
+		public List<T> getMappingsByPattern(String urlPath) {
+			return (this.patternIndexEnabled ? this.patternIndex.getCandidates(urlPath) : null);
+		}
+
+		/**
+		 * Variant of {@link #getMappingsByPattern(String)} for a parsed path,
+		 * for use when mappings are matched with pre-parsed path patterns.
+		 * Not thread-safe.
+		 *
+		 * @see #acquireReadLock()
+		 * @since 5.0.16
+		 */
+		@Nullable
+		public List<T> getMappingsByPattern(PathContainer path) {
+			return (this.patternIndexEnabled ? this.patternIndex.getCandidates(path) : null);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -537,6 +593,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.urlLookup.add(url, mapping);
 				}
 
+				addToPatternIndex(mapping);
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -574,6 +632,19 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return urls;
 		}
 
+		private void addToPatternIndex(T mapping) {
+			if (!this.patternIndexEnabled) {
+				return;
+			}
+			if (isPathPatternIndexSupported() &&
+					(usesPathPatterns() || MappingPatternIndex.supports(getPathMatcher()))) {
+				this.patternIndex.add(mapping, getMappingPathPatterns(mapping));
+			} else {
+				this.patternIndexEnabled = false;
+				this.patternIndex.clear();
+			}
+		}
+
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -623,6 +694,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				if (this.patternIndexEnabled) {
+					this.patternIndex.remove(definition.getMapping(), getMappingPathPatterns(definition.getMapping()));
+				}
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
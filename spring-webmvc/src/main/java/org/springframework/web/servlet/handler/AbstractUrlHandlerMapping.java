@@ -11,10 +11,15 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  *AbstractUrlHandlerMapping：根据请求的过来的URL找到程序中相应的Controller
@@ -38,6 +43,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	//存储了URL---Controller
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	//预解析的路径模式---Controller，仅在设置了PathPatternParser时使用
+	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
+
 
 
 	public void setRootHandler(@Nullable Object rootHandler) {
@@ -65,6 +73,21 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		this.lazyInitHandlers = lazyInitHandlers;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>Handlers are then looked up by matching the parsed request path
+	 * against pre-parsed patterns, and the most specific pattern according to
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR} wins. Trailing slashes are
+	 * matched as configured on the parser, so {@link #setUseTrailingSlashMatch}
+	 * does not apply. The parser must be set before handlers are registered.
+	 */
+	@Override
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		Assert.state(this.handlerMap.isEmpty(),
+				"PathPatternParser must be set before the registration of any handlers");
+		super.setPatternParser(patternParser);
+	}
+
 	/**
 	 * 查找给定请求的URL路径的处理程序。---也就是根据请求过来的URL找到相应需要被执行的Controller
 	 * 返回处理程序实例，如果没有找到，则返回{@code null}。
@@ -74,10 +97,17 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Nullable
 	protected Object getHandlerInternal(HttpServletRequest request) throws Exception {
 		//URL
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		//与URL的Controller实例对象：com.lice.controller.FirstController
 		//实际上是将Controller和Interceptor拦截器组合成一个Object对象
-		Object handler = lookupHandler(lookupPath, request);
+		Object handler;
+		if (usesPathPatterns()) {
+			RequestPath path = ServletRequestPathUtils.getParsedRequestPath(request);
+			handler = lookupHandler(path, lookupPath, request);
+		}
+		else {
+			handler = lookupHandler(lookupPath, request);
+		}
 		//如果Handler为null，做以下处理。不为null，直接放回Handler
 		if (handler == null) {
 			// We need to care for the default handler directly, since we need to
@@ -111,6 +141,66 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	}
 
 
+	/**
+	 * Look up a handler instance for the given parsed request path, matching
+	 * it against the pre-parsed {@link PathPattern}s.
+	 * @param path the parsed request path
+	 * @param lookupPath the path within the application, for direct matches
+	 * @param request the current HTTP request
+	 * @return a corresponding handler instance, or {@code null} if not found
+	 * @since 5.0.16
+	 * @see #setPatternParser
+	 */
+	@Nullable
+	protected Object lookupHandler(RequestPath path, String lookupPath, HttpServletRequest request)
+			throws Exception {
+
+		// Direct match?
+		Object handler = this.handlerMap.get(lookupPath);
+		if (handler != null) {
+			if (handler instanceof String) {
+				String handlerName = (String) handler;
+				handler = obtainApplicationContext().getBean(handlerName);
+			}
+			validateHandler(handler, request);
+			return buildPathExposingHandler(handler, lookupPath, lookupPath, null);
+		}
+
+		// Pattern match?
+		PathContainer pathWithinApplication = path.pathWithinApplication();
+		List<PathPattern> matchingPatterns = null;
+		for (PathPattern pattern : this.pathPatternHandlerMap.keySet()) {
+			if (pattern.matches(pathWithinApplication)) {
+				matchingPatterns = (matchingPatterns != null ? matchingPatterns : new ArrayList<>());
+				matchingPatterns.add(pattern);
+			}
+		}
+		if (matchingPatterns == null) {
+			return null;
+		}
+		if (matchingPatterns.size() > 1) {
+			matchingPatterns.sort(PathPattern.SPECIFICITY_COMPARATOR);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Matching patterns for request [" + lookupPath + "] are " + matchingPatterns);
+			}
+		}
+		PathPattern bestMatch = matchingPatterns.get(0);
+		handler = this.pathPatternHandlerMap.get(bestMatch);
+		if (handler instanceof String) {
+			String handlerName = (String) handler;
+			handler = obtainApplicationContext().getBean(handlerName);
+		}
+		validateHandler(handler, request);
+		String pathWithinMapping = getUrlPathHelper().decodeRequestString(request,
+				bestMatch.extractPathWithinPattern(pathWithinApplication).value());
+		PathPattern.PathMatchInfo matchInfo = bestMatch.matchAndExtract(pathWithinApplication);
+		Map<String, String> uriTemplateVariables = (matchInfo != null ? matchInfo.getUriVariables() : null);
+		if (logger.isDebugEnabled()) {
+			logger.debug("URI Template variables for request [" + lookupPath + "] are " + uriTemplateVariables);
+		}
+		return buildPathExposingHandler(handler, bestMatch.getPatternString(), pathWithinMapping, uriTemplateVariables);
+	}
+
 	//查找给定URL路径的处理程序实例(即url对应的Controller)。支持ant风格的url(@see org.springframework.util.AntPathMatcher)，
 	@Nullable
 	protected Object lookupHandler(String urlPath, HttpServletRequest request) throws Exception {
@@ -239,6 +329,15 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	public RequestMatchResult match(HttpServletRequest request, String pattern) {
+		PathPatternParser patternParser = getPatternParser();
+		if (patternParser != null) {
+			RequestPath requestPath = (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+					ServletRequestPathUtils.getParsedRequestPath(request) :
+					ServletRequestPathUtils.parse(request));
+			PathPattern pathPattern = patternParser.parse(pattern);
+			PathContainer path = requestPath.pathWithinApplication();
+			return (pathPattern.matches(path) ? new RequestMatchResult(pathPattern, path) : null);
+		}
 		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
 		if (getPathMatcher().match(pattern, lookupPath)) {
 			return new RequestMatchResult(pattern, lookupPath, getPathMatcher());
@@ -302,6 +401,10 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 			}
 			else {
 				this.handlerMap.put(urlPath, resolvedHandler);
+				PathPatternParser patternParser = getPatternParser();
+				if (patternParser != null) {
+					this.pathPatternHandlerMap.put(patternParser.parse(urlPath), resolvedHandler);
+				}
 				if (logger.isInfoEnabled()) {
 					logger.info("Mapped URL path [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
@@ -319,6 +422,15 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return Collections.unmodifiableMap(this.handlerMap);
 	}
 
+	/**
+	 * Return the registered handlers keyed by their pre-parsed patterns, if a
+	 * {@link #setPatternParser PathPatternParser} is configured, or an empty map.
+	 * @since 5.0.16
+	 */
+	public final Map<PathPattern, Object> getPathPatternHandlerMap() {
+		return Collections.unmodifiableMap(this.pathPatternHandlerMap);
+	}
+
 
 	protected boolean supportsTypeLevelMappings() {
 		return false;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,7 @@ import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 /**
  * Helper class to get information from the {@code HandlerMapping} that would
@@ -207,17 +208,45 @@ public class HandlerMappingIntrospector
 
 
 	/**
-	 * Request wrapper that ignores request attribute changes.
+	 * Request wrapper that ignores request attribute changes, except for the
+	 * {@link ServletRequestPathUtils#PATH_ATTRIBUTE parsed request path} that
+	 * PathPattern based mappings rely on, which is kept in the wrapper rather
+	 * than in the underlying request.
 	 */
 	private static class RequestAttributeChangeIgnoringWrapper extends HttpServletRequestWrapper {
 
+		@Nullable
+		private Object parsedRequestPath;
+
 		public RequestAttributeChangeIgnoringWrapper(HttpServletRequest request) {
 			super(request);
 		}
 
+		@Override
+		@Nullable
+		public Object getAttribute(String name) {
+			if (ServletRequestPathUtils.PATH_ATTRIBUTE.equals(name) && this.parsedRequestPath != null) {
+				return this.parsedRequestPath;
+			}
+			return super.getAttribute(name);
+		}
+
 		@Override
 		public void setAttribute(String name, Object value) {
-			// Ignore attribute change...
+			if (ServletRequestPathUtils.PATH_ATTRIBUTE.equals(name)) {
+				this.parsedRequestPath = value;
+			}
+			// Ignore any other attribute change...
+		}
+
+		@Override
+		public void removeAttribute(String name) {
+			if (ServletRequestPathUtils.PATH_ATTRIBUTE.equals(name)) {
+				this.parsedRequestPath = null;
+			}
+			else {
+				super.removeAttribute(name);
+			}
 		}
 	}
 
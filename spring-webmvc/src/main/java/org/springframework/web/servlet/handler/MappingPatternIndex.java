@@ -0,0 +1,245 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Trie over the leading literal segments of mapping path patterns, used to
+ * narrow down the mappings to check for a lookup path that has no direct match.
+ *
+ * <p>A pattern is indexed under its literal segments up to the first segment
+ * containing a wildcard or URI variable, never including its last segment since
+ * that may still match with a suffix or a trailing slash. Segments are trimmed
+ * and lower-cased on both sides, so the candidates returned for a path are
+ * always a superset of the mappings whose patterns can match it, regardless of
+ * the {@link AntPathMatcher} case sensitivity and trimming settings, or of
+ * the {@link org.springframework.web.util.pattern.PathPatternParser} settings.
+ *
+ * <p>Not thread-safe: access is guarded by the read-write lock of the mapping
+ * registry.
+ *
+ * @since 5.0.16
+ * @param <T> the mapping type
+ */
+class MappingPatternIndex<T> {
+
+	private static final char SEPARATOR = '/';
+
+
+	private final Node<T> root = new Node<>();
+
+	private final Map<T, Long> registrationOrder = new HashMap<>();
+
+	private long counter;
+
+
+	/**
+	 * Whether patterns interpreted by the given {@code PathMatcher} can be
+	 * indexed, i.e. whether it is a plain {@link AntPathMatcher} using "/" as
+	 * separator. Subclasses of {@code AntPathMatcher} may match arbitrarily.
+	 */
+	public static boolean supports(PathMatcher pathMatcher) {
+		return (pathMatcher.getClass() == AntPathMatcher.class &&
+				pathMatcher.match("/a/*", "/a/b") && !pathMatcher.match("/a/*", "/a/b/c"));
+	}
+
+
+	/**
+	 * Add a mapping under the literal prefixes of its path patterns.
+	 * A mapping without patterns is a candidate for any path.
+	 */
+	public void add(T mapping, Collection<String> patterns) {
+		if (this.registrationOrder.containsKey(mapping)) {
+			return;
+		}
+		this.registrationOrder.put(mapping, this.counter++);
+		if (patterns.isEmpty()) {
+			this.root.mappings.add(mapping);
+			return;
+		}
+		for (String pattern : patterns) {
+			Node<T> node = this.root;
+			for (String segment : getLiteralPrefix(pattern)) {
+				node = node.children.computeIfAbsent(segment, key -> new Node<>());
+			}
+			node.mappings.add(mapping);
+		}
+	}
+
+	/**
+	 * Remove a mapping previously added with the same path patterns.
+	 */
+	public void remove(T mapping, Collection<String> patterns) {
+		if (this.registrationOrder.remove(mapping) == null) {
+			return;
+		}
+		if (patterns.isEmpty()) {
+			this.root.mappings.remove(mapping);
+			return;
+		}
+		for (String pattern : patterns) {
+			remove(this.root, getLiteralPrefix(pattern), 0, mapping);
+		}
+	}
+
+	private void remove(Node<T> node, List<String> prefix, int index, T mapping) {
+		if (index == prefix.size()) {
+			node.mappings.remove(mapping);
+			return;
+		}
+		Node<T> child = node.children.get(prefix.get(index));
+		if (child != null) {
+			remove(child, prefix, index + 1, mapping);
+			if (child.isEmpty()) {
+				node.children.remove(prefix.get(index));
+			}
+		}
+	}
+
+	/**
+	 * Return the mappings that may match the given lookup path, in registration order.
+	 */
+	public List<T> getCandidates(String lookupPath) {
+		Set<T> candidates = new LinkedHashSet<>(this.root.mappings);
+		Node<T> node = this.root;
+		int start = 0;
+		int length = lookupPath.length();
+		while (start < length) {
+			int end = lookupPath.indexOf(SEPARATOR, start);
+			if (end == -1) {
+				end = length;
+			}
+			String segment = normalize(lookupPath.substring(start, end));
+			start = end + 1;
+			if (segment.isEmpty()) {
+				continue;
+			}
+			node = node.children.get(segment);
+			if (node == null) {
+				break;
+			}
+			candidates.addAll(node.mappings);
+		}
+		return sort(candidates);
+	}
+
+	/**
+	 * Return the mappings that may match the given parsed path, in registration
+	 * order, comparing the decoded path segments without path parameters as
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns} do.
+	 */
+	public List<T> getCandidates(PathContainer path) {
+		Set<T> candidates = new LinkedHashSet<>(this.root.mappings);
+		Node<T> node = this.root;
+		for (PathContainer.Element element : path.elements()) {
+			if (!(element instanceof PathContainer.PathSegment)) {
+				continue;
+			}
+			String segment = normalize(((PathContainer.PathSegment) element).valueToMatch());
+			if (segment.isEmpty()) {
+				continue;
+			}
+			node = node.children.get(segment);
+			if (node == null) {
+				break;
+			}
+			candidates.addAll(node.mappings);
+		}
+		return sort(candidates);
+	}
+
+	private List<T> sort(Set<T> candidates) {
+		if (candidates.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<T> result = new ArrayList<>(candidates);
+		if (result.size() > 1) {
+			result.sort((m1, m2) -> Long.compare(this.registrationOrder.get(m1), this.registrationOrder.get(m2)));
+		}
+		return result;
+	}
+
+	public int size() {
+		return this.registrationOrder.size();
+	}
+
+	public void clear() {
+		this.root.mappings.clear();
+		this.root.children.clear();
+		this.registrationOrder.clear();
+	}
+
+
+	private static List<String> getLiteralPrefix(String pattern) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : pattern.split(String.valueOf(SEPARATOR))) {
+			segment = normalize(segment);
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		// The last segment may still match with a suffix pattern or a trailing slash
+		int count = segments.size() - 1;
+		for (int i = 0; i < count; i++) {
+			if (!isLiteral(segments.get(i))) {
+				count = i;
+				break;
+			}
+		}
+		return segments.subList(0, Math.max(count, 0));
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String normalize(String segment) {
+		return segment.trim().toLowerCase(Locale.ROOT);
+	}
+
+
+	private static class Node<T> {
+
+		private final Map<String, Node<T>> children = new HashMap<>();
+
+		private final Set<T> mappings = new LinkedHashSet<>();
+
+		public boolean isEmpty() {
+			return (this.children.isEmpty() && this.mappings.isEmpty());
+		}
+	}
+
+}
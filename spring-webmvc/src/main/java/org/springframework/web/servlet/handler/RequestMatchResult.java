@@ -3,8 +3,11 @@ package org.springframework.web.servlet.handler;
 
 import java.util.Map;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * 通过{@link MatchableHandlerMapping}获取请求模式匹配结果的容器，并提供一个方法来进一步从模式中提取URI模板变量。
@@ -15,14 +18,25 @@ import org.springframework.util.PathMatcher;
 public class RequestMatchResult {
 
 	//匹配规则
+	@Nullable
 	private final String matchingPattern;
 
 	//需要查找的URL路径
+	@Nullable
 	private final String lookupPath;
 
 	//路径匹配器
+	@Nullable
 	private final PathMatcher pathMatcher;
 
+	//预解析的匹配规则
+	@Nullable
+	private final PathPattern pathPattern;
+
+	//预解析的请求路径
+	@Nullable
+	private final PathContainer path;
+
 
 	/**
 	 * Create an instance with a matching pattern.
@@ -38,15 +52,41 @@ public class RequestMatchResult {
 		this.matchingPattern = matchingPattern;
 		this.lookupPath = lookupPath;
 		this.pathMatcher = pathMatcher;
+		this.pathPattern = null;
+		this.path = null;
+	}
+
+	/**
+	 * Create an instance with a matching, pre-parsed {@link PathPattern}.
+	 * @param pathPattern the pattern that matched
+	 * @param path the parsed path within the application that it matched
+	 * @since 5.0.16
+	 */
+	public RequestMatchResult(PathPattern pathPattern, PathContainer path) {
+		Assert.notNull(pathPattern, "'pathPattern' is required");
+		Assert.notNull(path, "'path' is required");
+		this.matchingPattern = null;
+		this.lookupPath = null;
+		this.pathMatcher = null;
+		this.pathPattern = pathPattern;
+		this.path = path;
 	}
 
 
 	/**
 	 * Extract URI template variables from the matching pattern as defined in
-	 * {@link PathMatcher#extractUriTemplateVariables}.
+	 * {@link PathMatcher#extractUriTemplateVariables}, or from the matching
+	 * {@link PathPattern} if created with one.
 	 * @return a map with URI template variables
 	 */
 	public Map<String, String> extractUriTemplateVariables() {
+		if (this.pathPattern != null && this.path != null) {
+			PathPattern.PathMatchInfo info = this.pathPattern.matchAndExtract(this.path);
+			Assert.state(info != null, "Pattern does not match the path");
+			return info.getUriVariables();
+		}
+		Assert.state(this.pathMatcher != null && this.matchingPattern != null && this.lookupPath != null,
+				"Neither PathPattern nor PathMatcher available");
 		return this.pathMatcher.extractUriTemplateVariables(this.matchingPattern, this.lookupPath);
 	}
 
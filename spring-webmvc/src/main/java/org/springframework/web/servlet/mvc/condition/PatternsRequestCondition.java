@@ -22,21 +22,33 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>If created with a {@link PathPatternParser}, the patterns are parsed once
+ * into {@link PathPattern}s that are matched against the parsed request path
+ * from {@link ServletRequestPathUtils}, rather than matching String patterns
+ * with a {@link PathMatcher} against the lookup path of each request.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -54,6 +66,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	private final Map<String, PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -97,6 +114,21 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Creates a new instance with the given URL patterns, parsed with the given
+	 * {@link PathPatternParser}. Each pattern that is not empty and does not
+	 * start with "/" is pre-pended with "/".
+	 * <p>Requests are matched against the parsed {@link PathPattern}s, with
+	 * trailing slash matching and case sensitivity as configured on the parser.
+	 * Suffix pattern matching is not supported.
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.0.16
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this(Arrays.asList(patterns), null, null, false, false, null, patternParser);
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -104,11 +136,25 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch,
 			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
 
+		this(patterns, urlPathHelper, pathMatcher, useSuffixPatternMatch, useTrailingSlashMatch,
+				fileExtensions, null);
+	}
+
+	/**
+	 * Private constructor accepting a collection of patterns and an optional parser.
+	 */
+	private PatternsRequestCondition(Collection<String> patterns, @Nullable UrlPathHelper urlPathHelper,
+			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch,
+			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions,
+			@Nullable PathPatternParser patternParser) {
+
 		this.patterns = Collections.unmodifiableSet(prependLeadingSlash(patterns));
 		this.pathHelper = (urlPathHelper != null ? urlPathHelper : new UrlPathHelper());
 		this.pathMatcher = (pathMatcher != null ? pathMatcher : new AntPathMatcher());
 		this.useSuffixPatternMatch = useSuffixPatternMatch;
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
+		this.patternParser = patternParser;
+		this.pathPatterns = Collections.unmodifiableMap(parsePatterns(this.patterns, patternParser));
 
 		if (fileExtensions != null) {
 			for (String fileExtension : fileExtensions) {
@@ -121,6 +167,40 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	}
 
 
+	/**
+	 * Private constructor for a matching condition with already parsed patterns.
+	 */
+	private PatternsRequestCondition(PatternsRequestCondition original, List<PathPattern> matches) {
+		Set<String> patterns = new LinkedHashSet<>(matches.size());
+		Map<String, PathPattern> pathPatterns = new LinkedHashMap<>(matches.size());
+		for (PathPattern match : matches) {
+			patterns.add(match.getPatternString());
+			pathPatterns.put(match.getPatternString(), match);
+		}
+		this.patterns = Collections.unmodifiableSet(patterns);
+		this.pathHelper = original.pathHelper;
+		this.pathMatcher = original.pathMatcher;
+		this.useSuffixPatternMatch = original.useSuffixPatternMatch;
+		this.useTrailingSlashMatch = original.useTrailingSlashMatch;
+		this.fileExtensions.addAll(original.fileExtensions);
+		this.patternParser = original.patternParser;
+		this.pathPatterns = Collections.unmodifiableMap(pathPatterns);
+	}
+
+
+	private static Map<String, PathPattern> parsePatterns(Set<String> patterns,
+			@Nullable PathPatternParser patternParser) {
+
+		if (patternParser == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, PathPattern> result = new LinkedHashMap<>(patterns.size());
+		for (String pattern : patterns) {
+			result.put(pattern, patternParser.parse(pattern));
+		}
+		return result;
+	}
+
 	private static Set<String> prependLeadingSlash(Collection<String> patterns) {
 		Set<String> result = new LinkedHashSet<>(patterns.size());
 		for (String pattern : patterns) {
@@ -136,6 +216,16 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return this.patterns;
 	}
 
+	/**
+	 * Return the {@link #getPatterns() patterns} parsed into {@link PathPattern}s,
+	 * in the same order, if created with a {@link PathPatternParser}, or else
+	 * an empty collection.
+	 * @since 5.0.16
+	 */
+	public Collection<PathPattern> getPathPatterns() {
+		return this.pathPatterns.values();
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -151,7 +241,8 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * the "other" instance as follows:
 	 * <ul>
 	 * <li>If there are patterns in both instances, combine the patterns in "this" with
-	 * the patterns in "other" using {@link PathMatcher#combine(String, String)}.
+	 * the patterns in "other" using {@link PathMatcher#combine(String, String)},
+	 * or {@link PathPattern#combine(PathPattern)} if created with a parser.
 	 * <li>If only one instance has patterns, use them.
 	 * <li>If neither instance has patterns, use an empty String (i.e. "").
 	 * </ul>
@@ -162,7 +253,17 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
 				for (String pattern2 : other.patterns) {
-					result.add(this.pathMatcher.combine(pattern1, pattern2));
+					if (this.patternParser != null) {
+						PathPattern pathPattern1 = this.pathPatterns.get(pattern1);
+						PathPattern pathPattern2 = other.pathPatterns.get(pattern2);
+						if (pathPattern2 == null) {
+							pathPattern2 = this.patternParser.parse(pattern2);
+						}
+						result.add(pathPattern1.combine(pathPattern2).getPatternString());
+					}
+					else {
+						result.add(this.pathMatcher.combine(pattern1, pattern2));
+					}
 				}
 			}
 		}
@@ -176,7 +277,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			result.add("");
 		}
 		return new PatternsRequestCondition(result, this.pathHelper, this.pathMatcher,
-				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
+				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions, this.patternParser);
 	}
 
 	/**
@@ -190,6 +291,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * <li>Pattern match
 	 * <li>Pattern match with "/" appended if the pattern doesn't already end in "/"
 	 * </ul>
+	 * <p>If created with a parser, the parsed patterns are matched against the
+	 * parsed request path instead, and sorted via
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR}.
 	 * @param request the current request
 	 * @return the same instance if the condition contains no patterns;
 	 * or a new condition with sorted matching patterns;
@@ -201,6 +305,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			List<PathPattern> matches = getMatchingPathPatterns(getRequestPath(request).pathWithinApplication());
+			return (!matches.isEmpty() ? new PatternsRequestCondition(this, matches) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
@@ -218,6 +326,14 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.patternParser != null) {
+			List<PathPattern> pathPatterns = getMatchingPathPatterns(PathContainer.parsePath(lookupPath));
+			List<String> matches = new ArrayList<>(pathPatterns.size());
+			for (PathPattern pathPattern : pathPatterns) {
+				matches.add(pathPattern.getPatternString());
+			}
+			return matches;
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -231,6 +347,29 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	private List<PathPattern> getMatchingPathPatterns(PathContainer path) {
+		List<PathPattern> matches = null;
+		for (PathPattern pathPattern : this.pathPatterns.values()) {
+			if (pathPattern.matches(path)) {
+				matches = (matches != null ? matches : new ArrayList<>(this.pathPatterns.size()));
+				matches.add(pathPattern);
+			}
+		}
+		if (matches == null) {
+			return Collections.emptyList();
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		return matches;
+	}
+
+	private static RequestPath getRequestPath(HttpServletRequest request) {
+		return (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+				ServletRequestPathUtils.getParsedRequestPath(request) :
+				ServletRequestPathUtils.parse(request));
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -265,7 +404,8 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	/**
 	 * Compare the two conditions based on the URL patterns they contain.
 	 * Patterns are compared one at a time, from top to bottom via
-	 * {@link PathMatcher#getPatternComparator(String)}. If all compared
+	 * {@link PathMatcher#getPatternComparator(String)}, or via
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR} if created with a parser. If all compared
 	 * patterns match equally, but one instance has more patterns, it is
 	 * considered a closer match.
 	 * <p>It is assumed that both instances have been obtained via
@@ -275,6 +415,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.patternParser != null) {
+			return compareParsedPatterns(other);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
 		Iterator<String> iterator = this.patterns.iterator();
@@ -296,4 +439,24 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		}
 	}
 
+	private int compareParsedPatterns(PatternsRequestCondition other) {
+		Iterator<PathPattern> iterator = this.pathPatterns.values().iterator();
+		Iterator<PathPattern> iteratorOther = other.pathPatterns.values().iterator();
+		while (iterator.hasNext() && iteratorOther.hasNext()) {
+			int result = PathPattern.SPECIFICITY_COMPARATOR.compare(iterator.next(), iteratorOther.next());
+			if (result != 0) {
+				return result;
+			}
+		}
+		if (iterator.hasNext()) {
+			return -1;
+		}
+		else if (iteratorOther.hasNext()) {
+			return 1;
+		}
+		else {
+			return 0;
+		}
+	}
+
 }
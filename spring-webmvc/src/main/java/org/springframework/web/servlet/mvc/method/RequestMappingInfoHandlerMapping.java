@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.servlet.mvc.method;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -32,6 +33,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -44,7 +46,9 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -82,6 +86,15 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getPatternsCondition().getPatterns();
 	}
 
+	/**
+	 * {@link RequestMappingInfo} only matches lookup paths matched by one of
+	 * its URL path patterns, or any path if it has none.
+	 */
+	@Override
+	protected boolean isPathPatternIndexSupported() {
+		return true;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
@@ -111,10 +124,24 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request);
 
+		Collection<PathPattern> pathPatterns = info.getPatternsCondition().getPathPatterns();
+		if (!pathPatterns.isEmpty()) {
+			extractMatchDetails(pathPatterns.iterator().next(), request);
+		}
+		else {
+			extractMatchDetails(info.getPatternsCondition().getPatterns(), lookupPath, request);
+		}
+
+		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
+			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
+			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+		}
+	}
+
+	private void extractMatchDetails(Set<String> patterns, String lookupPath, HttpServletRequest request) {
 		String bestPattern;
 		Map<String, String> uriVariables;
 
-		Set<String> patterns = info.getPatternsCondition().getPatterns();
 		if (patterns.isEmpty()) {
 			bestPattern = lookupPath;
 			uriVariables = Collections.emptyMap();
@@ -133,10 +160,22 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 		Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
 		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
+	}
 
-		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
-			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
-			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+	/**
+	 * Expose URI variables and matrix variables as extracted by the best matching,
+	 * pre-parsed pattern from the parsed request path. Both are already decoded.
+	 */
+	private void extractMatchDetails(PathPattern bestPattern, HttpServletRequest request) {
+		PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+		PathPattern.PathMatchInfo matchInfo = bestPattern.matchAndExtract(path);
+		request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern.getPatternString());
+		if (matchInfo != null) {
+			request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, matchInfo.getMatrixVariables());
+			request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, matchInfo.getUriVariables());
+		}
+		else {
+			request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.emptyMap());
 		}
 	}
 
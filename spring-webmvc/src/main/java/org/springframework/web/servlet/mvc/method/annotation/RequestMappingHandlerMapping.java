@@ -9,6 +9,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.Assert;
@@ -27,6 +28,8 @@ import org.springframework.web.servlet.mvc.condition.CompositeRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * 在{@link Controller @Controller}类中，从类型和方法级别{@link RequestMapping @RequestMapping}注释中创建{@link RequestMappingInfo}实例。
@@ -111,6 +114,7 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 		this.config = new RequestMappingInfo.BuilderConfiguration();
 		this.config.setUrlPathHelper(getUrlPathHelper());
 		this.config.setPathMatcher(getPathMatcher());
+		this.config.setPatternParser(getPatternParser());
 		this.config.setSuffixPatternMatch(this.useSuffixPatternMatch);
 		this.config.setTrailingSlashMatch(this.useTrailingSlashMatch);
 		this.config.setRegisteredSuffixPatternMatch(this.useRegisteredSuffixPatternMatch);
@@ -271,14 +275,32 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 
 	@Override
 	public RequestMatchResult match(HttpServletRequest request, String pattern) {
-		RequestMappingInfo info = RequestMappingInfo.paths(pattern).options(this.config).build();
-		RequestMappingInfo matchingInfo = info.getMatchingCondition(request);
-		if (matchingInfo == null) {
-			return null;
+		PathPatternParser patternParser = getPatternParser();
+		boolean parsedRequestPath = false;
+		if (patternParser != null && !ServletRequestPathUtils.hasParsedRequestPath(request)) {
+			// Parse once for the conditions and the result, but do not leave it behind
+			ServletRequestPathUtils.parseAndCache(request);
+			parsedRequestPath = true;
+		}
+		try {
+			RequestMappingInfo info = RequestMappingInfo.paths(pattern).options(this.config).build();
+			RequestMappingInfo matchingInfo = info.getMatchingCondition(request);
+			if (matchingInfo == null) {
+				return null;
+			}
+			Set<String> patterns = matchingInfo.getPatternsCondition().getPatterns();
+			if (patternParser != null) {
+				PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+				return new RequestMatchResult(patternParser.parse(patterns.iterator().next()), path);
+			}
+			String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+			return new RequestMatchResult(patterns.iterator().next(), lookupPath, getPathMatcher());
+		}
+		finally {
+			if (parsedRequestPath) {
+				ServletRequestPathUtils.clearParsedRequestPath(request);
+			}
 		}
-		Set<String> patterns = matchingInfo.getPatternsCondition().getPatterns();
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		return new RequestMatchResult(patterns.iterator().next(), lookupPath, getPathMatcher());
 	}
 
 	@Override
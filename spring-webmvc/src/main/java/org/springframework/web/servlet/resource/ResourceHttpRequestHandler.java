@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.servlet.ServletException;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -36,6 +37,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRange;
@@ -85,6 +87,10 @@ import org.springframework.web.util.UrlPathHelper;
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
  *
+ * <p>Resources in the file system may be handed off to the Servlet container's
+ * {@linkplain #setSendfileThreshold sendfile} support, if available, letting it
+ * transfer their content without copying it through the JVM heap.
+ *
  * @author Keith Donald
  * @author Jeremy Grelle
  * @author Juergen Hoeller
@@ -100,6 +106,21 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	/**
+	 * The default minimum content length for using sendfile.
+	 * @since 5.0.16
+	 * @see #setSendfileThreshold
+	 */
+	public static final long DEFAULT_SENDFILE_THRESHOLD = 48 * 1024;
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -132,6 +153,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
+	private long sendfileThreshold = DEFAULT_SENDFILE_THRESHOLD;
+
 
 	public ResourceHttpRequestHandler() {
 		super(HttpMethod.GET.name(), HttpMethod.HEAD.name());
@@ -303,6 +326,32 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return this.urlPathHelper;
 	}
 
+	/**
+	 * Set the minimum content length of resources to be written through the
+	 * Servlet container's sendfile support, i.e. by the container transferring
+	 * the file content directly to the socket once this handler returns.
+	 * <p>Sendfile is used for resources in the file system, including single
+	 * byte ranges of them, if the container indicates its support through the
+	 * {@code "org.apache.tomcat.sendfile.support"} request attribute (e.g.
+	 * Tomcat's NIO and APR connectors) and the response is not wrapped, since
+	 * a wrapper would not see the content.
+	 * <p>Default is {@link #DEFAULT_SENDFILE_THRESHOLD 48 KB}, the same as
+	 * Tomcat's {@code DefaultServlet}. Set this to -1 to never use sendfile.
+	 * @since 5.0.16
+	 */
+	public void setSendfileThreshold(long sendfileThreshold) {
+		this.sendfileThreshold = sendfileThreshold;
+	}
+
+	/**
+	 * Return the minimum content length of resources to be written through
+	 * the Servlet container's sendfile support.
+	 * @since 5.0.16
+	 */
+	public long getSendfileThreshold() {
+		return this.sendfileThreshold;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -484,7 +533,9 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
 			setHeaders(response, resource, mediaType);
-			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			if (!useSendfile(request, response, resource, 0, resource.contentLength())) {
+				this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			}
 		}
 		else {
 			Assert.state(this.resourceRegionHttpMessageConverter != null, "Not initialized");
@@ -492,9 +543,11 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
 			try {
 				List<HttpRange> httpRanges = inputMessage.getHeaders().getRange();
+				List<ResourceRegion> regions = HttpRange.toResourceRegions(httpRanges, resource);
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-				this.resourceRegionHttpMessageConverter.write(
-						HttpRange.toResourceRegions(httpRanges, resource), mediaType, outputMessage);
+				if (regions.size() != 1 || !writeRegionWithSendfile(request, response, regions.get(0), mediaType)) {
+					this.resourceRegionHttpMessageConverter.write(regions, mediaType, outputMessage);
+				}
 			}
 			catch (IllegalArgumentException ex) {
 				response.setHeader("Content-Range", "bytes */" + resource.contentLength());
@@ -503,6 +556,46 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	private boolean writeRegionWithSendfile(HttpServletRequest request, HttpServletResponse response,
+			ResourceRegion region, @Nullable MediaType mediaType) throws IOException {
+
+		Resource resource = region.getResource();
+		long resourceLength = resource.contentLength();
+		long start = region.getPosition();
+		long end = Math.min(start + region.getCount(), resourceLength);
+		if (!useSendfile(request, response, resource, start, end)) {
+			return false;
+		}
+		response.setHeader("Content-Range", "bytes " + start + '-' + (end - 1) + '/' + resourceLength);
+		response.setContentLengthLong(end - start);
+		if (mediaType != null) {
+			response.setContentType(mediaType.toString());
+		}
+		return true;
+	}
+
+	/**
+	 * Hand the given range of the resource off to the Servlet container's
+	 * sendfile support, if possible.
+	 * @return whether the container is going to write the content
+	 */
+	private boolean useSendfile(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, long start, long end) throws IOException {
+
+		if (this.sendfileThreshold < 0 || end - start < this.sendfileThreshold ||
+				!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)) ||
+				response instanceof ServletResponseWrapper || !resource.isFile()) {
+			return false;
+		}
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, resource.getFile().getAbsolutePath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Writing " + resource + " through container sendfile support");
+		}
+		return true;
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
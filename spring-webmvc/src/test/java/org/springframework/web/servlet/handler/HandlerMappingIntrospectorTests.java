@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -110,6 +112,28 @@ public class HandlerMappingIntrospectorTests {
 		assertNull("Attributes changes not ignored", request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE));
 	}
 
+	@Test
+	public void getMatchableWithPathPatterns() throws Exception {
+		MutablePropertyValues pvs = new MutablePropertyValues(
+				Collections.singletonMap("urlMap", Collections.singletonMap("/path/{id}", new Object())));
+		pvs.add("patternParser", new PathPatternParser());
+
+		StaticWebApplicationContext cxt = new StaticWebApplicationContext();
+		cxt.registerSingleton("hm", SimpleUrlHandlerMapping.class, pvs);
+		cxt.refresh();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/path/1");
+		MatchableHandlerMapping hm = getIntrospector(cxt).getMatchableHandlerMapping(request);
+
+		assertEquals(cxt.getBean("hm"), hm);
+		assertNull(request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+
+		RequestMatchResult result = hm.match(request, "/path/{id}");
+		assertNotNull(result);
+		assertEquals(Collections.singletonMap("id", "1"), result.extractUriTemplateVariables());
+		assertNull(request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void getMatchableWhereHandlerMappingDoesNotImplementMatchableInterface() throws Exception {
 		StaticWebApplicationContext cxt = new StaticWebApplicationContext();
@@ -153,6 +177,22 @@ public class HandlerMappingIntrospectorTests {
 		assertEquals(Collections.singletonList("POST"), corsConfig.getAllowedMethods());
 	}
 
+	@Test
+	public void getCorsConfigurationWithPathPatterns() throws Exception {
+		AnnotationConfigWebApplicationContext cxt = new AnnotationConfigWebApplicationContext();
+		cxt.register(PathPatternTestConfig.class);
+		cxt.refresh();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/path");
+		request.addHeader("Origin", "http://localhost:9000");
+		CorsConfiguration corsConfig = getIntrospector(cxt).getCorsConfiguration(request);
+
+		assertNotNull(corsConfig);
+		assertEquals(Collections.singletonList("http://localhost:9000"), corsConfig.getAllowedOrigins());
+		assertEquals(Collections.singletonList("POST"), corsConfig.getAllowedMethods());
+		assertNull(request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+	}
+
 	private HandlerMappingIntrospector getIntrospector(WebApplicationContext cxt) {
 		HandlerMappingIntrospector introspector = new HandlerMappingIntrospector();
 		introspector.setApplicationContext(cxt);
@@ -185,6 +225,23 @@ public class HandlerMappingIntrospectorTests {
 	}
 
 
+	@Configuration @SuppressWarnings({"WeakerAccess", "unused"})
+	static class PathPatternTestConfig {
+
+		@Bean
+		public RequestMappingHandlerMapping handlerMapping() {
+			RequestMappingHandlerMapping handlerMapping = new RequestMappingHandlerMapping();
+			handlerMapping.setPatternParser(new PathPatternParser());
+			return handlerMapping;
+		}
+
+		@Bean
+		public TestController testController() {
+			return new TestController();
+		}
+	}
+
+
 	@CrossOrigin("http://localhost:9000")
 	@Controller
 	private static class TestController {
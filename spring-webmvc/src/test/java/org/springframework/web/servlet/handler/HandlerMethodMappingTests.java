@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.web.servlet.handler;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -99,6 +100,36 @@ public class HandlerMethodMappingTests {
 		assertEquals(result, request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE));
 	}
 
+	@Test
+	public void patternMatchWithPatternIndex() throws Exception {
+		AbstractHandlerMethodMapping<String> mapping = new PatternIndexHandlerMethodMapping();
+		mapping.registerMapping("/foo/{id}", this.handler, this.method1);
+		mapping.registerMapping("/{name}/bar", this.handler, this.method2);
+
+		List<String> candidates = mapping.getMappingRegistry().getMappingsByPattern("/foo/1");
+		assertEquals(Arrays.asList("/foo/{id}", "/{name}/bar"), candidates);
+		candidates = mapping.getMappingRegistry().getMappingsByPattern("/baz/bar");
+		assertEquals(Collections.singletonList("/{name}/bar"), candidates);
+
+		HandlerMethod result = mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/1"));
+		assertEquals(method1, result.getMethod());
+		result = mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/baz/bar"));
+		assertEquals(method2, result.getMethod());
+		assertNull(mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/baz/1")));
+
+		mapping.unregisterMapping("/foo/{id}");
+		assertEquals(Collections.singletonList("/{name}/bar"),
+				mapping.getMappingRegistry().getMappingsByPattern("/foo/1"));
+		result = mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/bar"));
+		assertEquals(method2, result.getMethod());
+	}
+
+	@Test
+	public void patternIndexNotUsedByDefault() throws Exception {
+		this.mapping.registerMapping("/foo/*", this.handler, this.method1);
+		assertNull(this.mapping.getMappingRegistry().getMappingsByPattern("/foo/1"));
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void ambiguousMatch() throws Exception {
 		this.mapping.registerMapping("/f?o", this.handler, this.method1);
@@ -295,6 +326,19 @@ public class HandlerMethodMappingTests {
 
 	}
 
+	private static class PatternIndexHandlerMethodMapping extends MyHandlerMethodMapping {
+
+		@Override
+		protected Set<String> getMappingPathPatterns(String key) {
+			return Collections.singleton(key);
+		}
+
+		@Override
+		protected boolean isPathPatternIndexSupported() {
+			return true;
+		}
+	}
+
 	private static class SimpleMappingNamingStrategy implements HandlerMethodMappingNamingStrategy<String> {
 
 		@Override
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MappingPatternIndex}.
+ */
+public class MappingPatternIndexTests {
+
+	private final MappingPatternIndex<String> index = new MappingPatternIndex<>();
+
+
+	@Test
+	public void candidatesByLiteralPrefix() {
+		add("/api/users/{id}");
+		add("/api/orders/{id}");
+		add("/api/users/{id}/orders/{orderId}");
+		add("/static/**");
+
+		assertEquals(Arrays.asList("/api/users/{id}", "/api/users/{id}/orders/{orderId}"),
+				this.index.getCandidates("/api/users/1"));
+		assertEquals(Collections.singletonList("/api/orders/{id}"), this.index.getCandidates("/api/orders/1"));
+		assertEquals(Collections.singletonList("/static/**"), this.index.getCandidates("/static/css/app.css"));
+		assertEquals(Collections.emptyList(), this.index.getCandidates("/other/1"));
+	}
+
+	@Test
+	public void lastSegmentNotIndexed() {
+		add("/api/users");
+		add("/api/users/");
+
+		// Suffix pattern and trailing slash matches
+		assertEquals(Arrays.asList("/api/users", "/api/users/"), this.index.getCandidates("/api/users.json"));
+		assertEquals(Arrays.asList("/api/users", "/api/users/"), this.index.getCandidates("/api/users/"));
+	}
+
+	@Test
+	public void patternsWithoutLiteralPrefix() {
+		add("/{version}/users");
+		add("/**/users");
+		add("/a*/users");
+		add("");
+
+		List<String> expected = Arrays.asList("/{version}/users", "/**/users", "/a*/users", "");
+		assertEquals(expected, this.index.getCandidates("/v1/users"));
+		assertEquals(expected, this.index.getCandidates("/"));
+	}
+
+	@Test
+	public void candidatesByParsedPath() {
+		add("/api/users/{id}");
+		add("/caf\u00e9/menu/{item}");
+
+		assertEquals(Collections.singletonList("/api/users/{id}"),
+				this.index.getCandidates(PathContainer.parsePath("/api;v=1/users/1")));
+		assertEquals(Collections.singletonList("/caf\u00e9/menu/{item}"),
+				this.index.getCandidates(PathContainer.parsePath("/caf%C3%A9/menu/1")));
+		assertEquals(Collections.emptyList(), this.index.getCandidates(PathContainer.parsePath("/api%2Fusers/1")));
+	}
+
+	@Test
+	public void mappingWithoutPatterns() {
+		this.index.add("any", Collections.emptySet());
+		add("/api/users/{id}");
+
+		assertEquals(Arrays.asList("any", "/api/users/{id}"), this.index.getCandidates("/api/users/1"));
+		assertEquals(Collections.singletonList("any"), this.index.getCandidates("/other"));
+	}
+
+	@Test
+	public void mappingWithMultiplePatterns() {
+		this.index.add("users", Arrays.asList("/api/users/{id}", "/v1/users/{id}"));
+		add("/api/orders/{id}");
+
+		assertEquals(Collections.singletonList("users"), this.index.getCandidates("/api/users/1"));
+		assertEquals(Collections.singletonList("users"), this.index.getCandidates("/v1/users/1"));
+
+		this.index.remove("users", Arrays.asList("/api/users/{id}", "/v1/users/{id}"));
+		assertEquals(Collections.emptyList(), this.index.getCandidates("/v1/users/1"));
+		assertEquals(Collections.singletonList("/api/orders/{id}"), this.index.getCandidates("/api/orders/1"));
+		assertEquals(1, this.index.size());
+	}
+
+	@Test
+	public void candidatesInRegistrationOrder() {
+		add("/{a}/{b}");
+		add("/api/users/{id}");
+		add("/api/{type}/{id}");
+
+		assertEquals(Arrays.asList("/{a}/{b}", "/api/users/{id}", "/api/{type}/{id}"),
+				this.index.getCandidates("/api/users/1"));
+	}
+
+	@Test
+	public void caseAndWhitespaceInsensitive() {
+		add("/API/Users/{id}");
+
+		assertEquals(Collections.singletonList("/API/Users/{id}"), this.index.getCandidates("/api/users/1"));
+		assertEquals(Collections.singletonList("/API/Users/{id}"), this.index.getCandidates("//api/ users /1"));
+	}
+
+	@Test
+	public void supports() {
+		assertTrue(MappingPatternIndex.supports(new AntPathMatcher()));
+		assertFalse(MappingPatternIndex.supports(new AntPathMatcher(".")));
+		assertFalse(MappingPatternIndex.supports(new AntPathMatcher() {}));
+	}
+
+
+	private void add(String pattern) {
+		this.index.add(pattern, Collections.singleton(pattern));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.handler;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -30,7 +31,9 @@ import org.springframework.web.context.support.XmlWebApplicationContext;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +93,50 @@ public class SimpleUrlHandlerMappingTests {
 		assertSame(controller, hec.getHandler());
 	}
 
+	@Test
+	public void urlMappingWithPathPatterns() throws Exception {
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		Object exact = new Object();
+		Object captured = new Object();
+		Object wildcard = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/docs/**", wildcard);
+		urlMap.put("/docs/{name}/edit", captured);
+		urlMap.put("/docs/index", exact);
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+		assertTrue(handlerMapping.usesPathPatterns());
+		assertEquals(3, handlerMapping.getPathPatternHandlerMap().size());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/docs/index");
+		assertSame(exact, getHandler(handlerMapping, request).getHandler());
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		request = new MockHttpServletRequest("GET", "/docs/index");
+		ServletRequestPathUtils.parseAndCache(request);
+		assertSame(exact, getHandler(handlerMapping, request).getHandler());
+		assertTrue(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		request = new MockHttpServletRequest("GET", "/docs/a%20b/edit");
+		assertSame(captured, getHandler(handlerMapping, request).getHandler());
+		assertEquals("/docs/{name}/edit", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals(Collections.singletonMap("name", "a b"),
+				request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/docs/guide/intro.html");
+		assertSame(wildcard, getHandler(handlerMapping, request).getHandler());
+		assertEquals("guide/intro.html", request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/other");
+		assertNull(handlerMapping.getHandler(request));
+
+		request = new MockHttpServletRequest("GET", "/docs/a/edit");
+		RequestMatchResult result = handlerMapping.match(request, "/docs/{name}/edit");
+		assertNotNull(result);
+		assertEquals(Collections.singletonMap("name", "a"), result.extractUriTemplateVariables());
+	}
+
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
 		XmlWebApplicationContext wac = new XmlWebApplicationContext();
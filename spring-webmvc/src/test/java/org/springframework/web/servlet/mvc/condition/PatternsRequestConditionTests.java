@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,9 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -212,4 +215,77 @@ public class PatternsRequestConditionTests {
 		assertEquals(1, match1.compareTo(match2, request));
 	}
 
+	@Test
+	public void matchPathPattern() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo/**", "/foo/{id}", "/foo/bar"}, parser);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals(Arrays.asList("/foo/bar", "/foo/{id}", "/foo/**"), Arrays.asList(match.getPatterns().toArray()));
+		assertEquals(3, match.getPathPatterns().size());
+		assertFalse("Request path should not have been cached", ServletRequestPathUtils.hasParsedRequestPath(request));
+	}
+
+	@Test
+	public void matchPathPatternWithParsedRequestPath() {
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo"}, new PathPatternParser());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/main/foo");
+		request.setContextPath("/app");
+		request.setServletPath("/main");
+		request.setPathInfo("/foo");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		assertNotNull(condition.getMatchingCondition(request));
+		assertNull(new PatternsRequestCondition(new String[] {"/main/foo"}, new PathPatternParser())
+				.getMatchingCondition(request));
+	}
+
+	@Test
+	public void matchPathPatternTrailingSlash() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/");
+		PathPatternParser parser = new PathPatternParser();
+		assertNotNull(new PatternsRequestCondition(new String[] {"/foo"}, parser).getMatchingCondition(request));
+
+		request = new MockHttpServletRequest("GET", "/foo/");
+		parser.setMatchOptionalTrailingSeparator(false);
+		assertNull(new PatternsRequestCondition(new String[] {"/foo"}, parser).getMatchingCondition(request));
+	}
+
+	@Test
+	public void matchPathPatternNoSuffixPattern() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo.html");
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo"}, new PathPatternParser());
+
+		assertNull(condition.getMatchingCondition(request));
+		assertTrue(condition.getMatchingPatterns("/foo.html").isEmpty());
+		assertEquals(Arrays.asList("/foo"), condition.getMatchingPatterns("/foo"));
+	}
+
+	@Test
+	public void combinePathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/t1", "/t2/*"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/m1", "{id}"}, parser);
+		PatternsRequestCondition combined = c1.combine(c2);
+
+		assertEquals(new PatternsRequestCondition("/t1/m1", "/t1/{id}", "/t2/m1", "/t2/{id}"), combined);
+		PathPattern first = combined.getPathPatterns().iterator().next();
+		assertEquals("/t1/m1", first.getPatternString());
+	}
+
+	@Test
+	public void comparePathPatternSpecificity() {
+		PathPatternParser parser = new PathPatternParser();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/fo*"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+		PatternsRequestCondition c3 = new PatternsRequestCondition(new String[] {"/f*o"}, parser);
+
+		assertTrue(c1.compareTo(c2, request) > 0);
+		assertTrue(c2.compareTo(c1, request) < 0);
+		assertEquals(0, c1.compareTo(c3, request));
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,7 +57,9 @@ import org.springframework.web.servlet.mvc.condition.ParamsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -368,6 +370,49 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@Test
+	public void getHandlerWithPathPatterns() throws Exception {
+		this.handlerMapping = new TestRequestMappingInfoHandlerMapping();
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.registerHandler(new TestController());
+		assertTrue(this.handlerMapping.usesPathPatterns());
+
+		assertEquals(this.fooMethod.getMethod(), getHandler(new MockHttpServletRequest("GET", "/foo")).getMethod());
+		assertEquals(this.fooMethod.getMethod(), getHandler(new MockHttpServletRequest("GET", "/foo/")).getMethod());
+		assertEquals(this.barMethod.getMethod(), getHandler(new MockHttpServletRequest("GET", "/bar")).getMethod());
+		assertEquals(this.emptyMethod.getMethod(), getHandler(new MockHttpServletRequest("GET", "")).getMethod());
+		assertEquals(this.emptyMethod.getMethod(), getHandler(new MockHttpServletRequest("GET", "/")).getMethod());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.setParameter("p", "anything");
+		assertEquals(this.fooParamMethod.getMethod(), getHandler(request).getMethod());
+
+		try {
+			this.handlerMapping.getHandler(new MockHttpServletRequest("POST", "/bar"));
+			fail("HttpRequestMethodNotSupportedException expected");
+		}
+		catch (HttpRequestMethodNotSupportedException ex) {
+			assertArrayEquals(new String[] {"GET", "HEAD"}, ex.getSupportedMethods());
+		}
+	}
+
+	@Test
+	public void handleMatchWithPathPatterns() {
+		RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+		config.setPatternParser(new PathPatternParser());
+		RequestMappingInfo info = RequestMappingInfo.paths("/{cars}/{id}").options(config).build();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cars;colors=red,blue/a%2Fb");
+		ServletRequestPathUtils.parseAndCache(request);
+		this.handlerMapping.handleMatch(info, "/cars;colors=red,blue/a%2Fb", request);
+
+		Map<String, String> uriVariables = getUriTemplateVariables(request);
+		assertEquals("cars", uriVariables.get("cars"));
+		assertEquals("a/b", uriVariables.get("id"));
+		assertEquals(Arrays.asList("red", "blue"), getMatrixVariables(request, "cars").get("colors"));
+		assertEquals("/{cars}/{id}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+	}
+
+
 	private HandlerMethod getHandler(MockHttpServletRequest request) throws Exception {
 		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);
 		assertNotNull(chain);
@@ -520,8 +565,10 @@ public class RequestMappingInfoHandlerMappingTests {
 		protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
 			RequestMapping annot = AnnotationUtils.findAnnotation(method, RequestMapping.class);
 			if (annot != null) {
+				PathPatternParser patternParser = getPatternParser();
 				return new RequestMappingInfo(
-					new PatternsRequestCondition(annot.value(), getUrlPathHelper(), getPathMatcher(), true, true),
+					(patternParser != null ? new PatternsRequestCondition(annot.value(), patternParser) :
+							new PatternsRequestCondition(annot.value(), getUrlPathHelper(), getPathMatcher(), true, true)),
 					new RequestMethodsRequestCondition(annot.method()),
 					new ParamsRequestCondition(annot.params()),
 					new HeadersRequestCondition(annot.headers()),
@@ -32,6 +32,7 @@ import org.junit.Test;
 
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
@@ -43,7 +44,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.handler.RequestMatchResult;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -140,6 +143,17 @@ public class RequestMappingHandlerMappingTests {
 		assertArrayEquals(new String[] { "/foo", "/foo/bar" }, result);
 	}
 
+	@Test
+	public void matchWithPathPatternsWithoutParsedRequestPath() {
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.afterPropertiesSet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+		RequestMatchResult result = this.handlerMapping.match(request, "/foo/{id}");
+		assertNotNull(result);
+		assertEquals(Collections.singletonMap("id", "bar"), result.extractUriTemplateVariables());
+	}
+
 	@Test
 	public void resolveRequestMappingViaComposedAnnotation() throws Exception {
 		RequestMappingInfo info = assertComposedAnnotationMapping("postJson", "/postJson", RequestMethod.POST);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -620,6 +621,61 @@ public class ResourceHttpRequestHandlerTests {
 		assertEquals(1, this.response.getHeaders("Accept-Ranges").size());
 	}
 
+	@Test
+	public void sendfile() throws Exception {
+		this.handler.setSendfileThreshold(0);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(200, this.response.getStatus());
+		assertEquals("text/plain", this.response.getContentType());
+		assertEquals(10, this.response.getContentLength());
+		assertEquals(0, this.response.getContentAsByteArray().length);
+		assertEquals(new ClassPathResource("test/foo.txt", getClass()).getFile().getAbsolutePath(),
+				this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(0L, this.request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(10L, this.request.getAttribute("org.apache.tomcat.sendfile.end"));
+	}
+
+	@Test
+	public void sendfileByteRange() throws Exception {
+		this.handler.setSendfileThreshold(0);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.addHeader("Range", "bytes=2-10000");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+		assertEquals("text/plain", this.response.getContentType());
+		assertEquals(8, this.response.getContentLength());
+		assertEquals("bytes 2-9/10", this.response.getHeader("Content-Range"));
+		assertEquals(0, this.response.getContentAsByteArray().length);
+		assertEquals(2L, this.request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(10L, this.request.getAttribute("org.apache.tomcat.sendfile.end"));
+	}
+
+	@Test
+	public void sendfileBelowThreshold() throws Exception {
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals("Some text.", this.response.getContentAsString());
+		assertNull(this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+	}
+
+	@Test
+	public void sendfileWithWrappedResponse() throws Exception {
+		this.handler.setSendfileThreshold(0);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, new HttpServletResponseWrapper(this.response));
+
+		assertEquals("Some text.", this.response.getContentAsString());
+		assertNull(this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+	}
+
 	@Test
 	public void partialContentMultipleByteRanges() throws Exception {
 		this.request.addHeader("Range", "bytes=0-1, 4-5, 8-9");